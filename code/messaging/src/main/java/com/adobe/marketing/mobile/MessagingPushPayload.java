@@ -96,25 +96,22 @@ public class MessagingPushPayload {
             };
 
     private static final int ACTION_BUTTON_CAPACITY = 3;
-    private String title;
-    private String body;
-    private String sound;
-    private int badgeCount;
-    private int notificationPriority = Notification.PRIORITY_DEFAULT;
-    private int notificationImportance = NotificationManager.IMPORTANCE_DEFAULT;
 
-    @RequiresApi(api = Build.VERSION_CODES.LOLLIPOP)
-    private int notificationVisibility = Notification.VISIBILITY_PRIVATE;
-
-    private String channelId;
-    private String icon;
-    private String imageUrl;
-    private ActionType actionType;
-    private String actionUri;
-    private List<ActionButton> actionButtons = new ArrayList<>(ACTION_BUTTON_CAPACITY);
+    // the data part of the remote message, fields are decoded from it on first access
     private Map<String, String> data;
     private String messageId;
 
+    // decoded fields, a field requested by concurrent callers may be decoded more than once with
+    // the same result
+    private volatile Integer badgeCount;
+    private volatile Integer notificationPriority;
+    private volatile Integer notificationImportance;
+    private volatile Integer notificationVisibility;
+    private volatile ActionType actionType;
+    // written after the action buttons so they are visible once the flag is set
+    private volatile boolean actionButtonsParsed;
+    private volatile List<ActionButton> actionButtons;
+
     /**
      * Constructor
      *
@@ -149,6 +146,7 @@ public class MessagingPushPayload {
         }
 
         this.messageId = messageId;
+        // the data map belongs to the remote message and is read without being copied
         init(message.getData());
     }
 
@@ -157,51 +155,87 @@ public class MessagingPushPayload {
      *
      * <p>Provides the MessagingPushPayload object
      *
+     * <p>The provided data is copied, so later changes to the map are not reflected by the
+     * payload.
+     *
      * @param data {@link Map} map which indicates the data part of {@link RemoteMessage}
      */
     public MessagingPushPayload(final Map<String, String> data) {
-        init(data);
+        init(data != null ? new HashMap<>(data) : null);
     }
 
     public String getTitle() {
-        return title;
+        return getString(MessagingConstants.Push.PayloadKeys.TITLE);
     }
 
     public String getBody() {
-        return body;
+        return getString(MessagingConstants.Push.PayloadKeys.BODY);
     }
 
     public String getSound() {
-        return sound;
+        return getString(MessagingConstants.Push.PayloadKeys.SOUND);
     }
 
     public int getBadgeCount() {
+        if (badgeCount == null) {
+            badgeCount =
+                    getBadgeCountFromString(
+                            getString(MessagingConstants.Push.PayloadKeys.BADGE_NUMBER));
+        }
         return badgeCount;
     }
 
     public int getNotificationPriority() {
+        if (notificationPriority == null) {
+            // the priority is only read on versions which do not use the channel importance
+            notificationPriority =
+                    data != null && Build.VERSION.SDK_INT < Build.VERSION_CODES.N
+                            ? getNotificationPriorityFromString(
+                                    getString(
+                                            MessagingConstants.Push.PayloadKeys
+                                                    .NOTIFICATION_PRIORITY))
+                            : Notification.PRIORITY_DEFAULT;
+        }
         return notificationPriority;
     }
 
     @RequiresApi(api = Build.VERSION_CODES.LOLLIPOP)
     public int getNotificationVisibility() {
+        if (notificationVisibility == null) {
+            notificationVisibility =
+                    data != null
+                            ? getNotificationVisibilityFromString(
+                                    getString(
+                                            MessagingConstants.Push.PayloadKeys
+                                                    .NOTIFICATION_VISIBILITY))
+                            : Notification.VISIBILITY_PRIVATE;
+        }
         return notificationVisibility;
     }
 
     public int getNotificationImportance() {
+        if (notificationImportance == null) {
+            notificationImportance =
+                    data != null && Build.VERSION.SDK_INT >= Build.VERSION_CODES.N
+                            ? getNotificationImportanceFromString(
+                                    getString(
+                                            MessagingConstants.Push.PayloadKeys
+                                                    .NOTIFICATION_PRIORITY))
+                            : NotificationManager.IMPORTANCE_DEFAULT;
+        }
         return notificationImportance;
     }
 
     public String getChannelId() {
-        return channelId;
+        return getString(MessagingConstants.Push.PayloadKeys.CHANNEL_ID);
     }
 
     public String getIcon() {
-        return icon;
+        return getString(MessagingConstants.Push.PayloadKeys.ICON);
     }
 
     public String getImageUrl() {
-        return imageUrl;
+        return getString(MessagingConstants.Push.PayloadKeys.IMAGE_URL);
     }
 
     public String getMessageId() {
@@ -212,20 +246,37 @@ public class MessagingPushPayload {
      * @return an {@link ActionType}
      */
     public ActionType getActionType() {
+        if (actionType == null && data != null) {
+            actionType =
+                    getActionTypeFromString(
+                            getString(MessagingConstants.Push.PayloadKeys.ACTION_TYPE));
+        }
         return actionType;
     }
 
     public String getActionUri() {
-        return actionUri;
+        return getString(MessagingConstants.Push.PayloadKeys.ACTION_URI);
     }
 
     /**
      * Returns list of action buttons which provides label, action type and action link
      *
+     * <p>The action buttons are parsed the first time they are requested.
+     *
      * @return List of {@link ActionButton}
      */
     public List<ActionButton> getActionButtons() {
-        return actionButtons;
+        if (actionButtonsParsed) {
+            return actionButtons;
+        }
+        final List<ActionButton> parsedActionButtons =
+                data != null
+                        ? getActionButtonsFromString(
+                                getString(MessagingConstants.Push.PayloadKeys.ACTION_BUTTONS))
+                        : new ArrayList<>(ACTION_BUTTON_CAPACITY);
+        actionButtons = parsedActionButtons;
+        actionButtonsParsed = true;
+        return parsedActionButtons;
     }
 
     public Map<String, String> getData() {
@@ -239,50 +290,25 @@ public class MessagingPushPayload {
                     MessagingConstants.LOG_TAG,
                     SELF_TAG,
                     "Payload extraction failed because data provided is null");
-            return;
         }
-        this.title = data.get(MessagingConstants.Push.PayloadKeys.TITLE);
-        this.body = data.get(MessagingConstants.Push.PayloadKeys.BODY);
-        this.sound = data.get(MessagingConstants.Push.PayloadKeys.SOUND);
-        this.channelId = data.get(MessagingConstants.Push.PayloadKeys.CHANNEL_ID);
-        this.icon = data.get(MessagingConstants.Push.PayloadKeys.ICON);
-        this.actionUri = data.get(MessagingConstants.Push.PayloadKeys.ACTION_URI);
-        this.imageUrl = data.get(MessagingConstants.Push.PayloadKeys.IMAGE_URL);
+    }
 
+    private String getString(final String key) {
+        return data != null ? data.get(key) : null;
+    }
+
+    private int getBadgeCountFromString(final String count) {
+        if (count == null) return 0;
         try {
-            String count = data.get(MessagingConstants.Push.PayloadKeys.BADGE_NUMBER);
-            if (count != null) {
-                this.badgeCount = Integer.parseInt(count);
-            }
+            return Integer.parseInt(count);
         } catch (NumberFormatException e) {
             Log.debug(
                     MessagingConstants.LOG_TAG,
                     SELF_TAG,
                     "Exception in converting notification badge count to int - %s",
                     e.getLocalizedMessage());
+            return 0;
         }
-
-        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.N) {
-            this.notificationImportance =
-                    getNotificationImportanceFromString(
-                            data.get(MessagingConstants.Push.PayloadKeys.NOTIFICATION_PRIORITY));
-        } else {
-            this.notificationPriority =
-                    getNotificationPriorityFromString(
-                            data.get(MessagingConstants.Push.PayloadKeys.NOTIFICATION_PRIORITY));
-        }
-
-        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.LOLLIPOP) {
-            this.notificationVisibility =
-                    getNotificationVisibilityFromString(
-                            data.get(MessagingConstants.Push.PayloadKeys.NOTIFICATION_VISIBILITY));
-        }
-
-        this.actionType =
-                getActionTypeFromString(data.get(MessagingConstants.Push.PayloadKeys.ACTION_TYPE));
-        this.actionButtons =
-                getActionButtonsFromString(
-                        data.get(MessagingConstants.Push.PayloadKeys.ACTION_BUTTONS));
     }
 
     private int getNotificationPriorityFromString(final String priority) {
@@ -432,6 +458,6 @@ public class MessagingPushPayload {
     // TODO: Find a better way to distinguish between silent and non-silent push notifications. (to
     // talk with herald team)
     boolean isSilentPushMessage() {
-        return data != null && title == null && body == null;
+        return data != null && getTitle() == null && getBody() == null;
     }
 }
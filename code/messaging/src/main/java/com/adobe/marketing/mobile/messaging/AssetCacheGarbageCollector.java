@@ -0,0 +1,103 @@
+/*
+  Copyright 2024 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+package com.adobe.marketing.mobile.messaging;
+
+import com.adobe.marketing.mobile.internal.util.StringEncoder;
+import com.adobe.marketing.mobile.services.Log;
+import java.io.File;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Deletes cached asset files which do not belong to any of the assets being retained.
+ *
+ * <p>Cached asset files are named with the SHA-256 hash of the asset url. Each retained url is
+ * hashed once when the collector is created, so checking a file is a single set lookup.
+ */
+final class AssetCacheGarbageCollector {
+    private static final String SELF_TAG = "AssetCacheGarbageCollector";
+    private final Set<String> retainedFileNames;
+    private int deletedFileCount;
+    private long reclaimedBytes;
+
+    /**
+     * Constructor.
+     *
+     * @param assetsToRetain {@code Collection<String>} containing the urls of assets which should
+     *     be retained
+     */
+    AssetCacheGarbageCollector(final Collection<String> assetsToRetain) {
+        retainedFileNames = new HashSet<>();
+        if (assetsToRetain != null) {
+            for (final String asset : assetsToRetain) {
+                final String fileName = StringEncoder.sha2hash(asset);
+                if (fileName != null) {
+                    retainedFileNames.add(fileName);
+                }
+            }
+        }
+    }
+
+    /**
+     * Recursively deletes the files within the provided directory which do not belong to a
+     * retained asset.
+     *
+     * @param assetDir {@link File} containing the cached assets directory
+     * @return {@code long} containing the number of bytes reclaimed
+     */
+    long sweep(final File assetDir) {
+        deletedFileCount = 0;
+        reclaimedBytes = 0;
+        sweepFile(assetDir);
+        if (deletedFileCount > 0) {
+            Log.debug(
+                    MessagingConstants.LOG_TAG,
+                    SELF_TAG,
+                    "sweep - Deleted %d cached asset(s) no longer in use, reclaiming %d bytes.",
+                    deletedFileCount,
+                    reclaimedBytes);
+        }
+        return reclaimedBytes;
+    }
+
+    int getDeletedFileCount() {
+        return deletedFileCount;
+    }
+
+    private void sweepFile(final File file) {
+        if (file == null) {
+            return;
+        }
+        if (file.isDirectory()) {
+            final File[] children = file.listFiles();
+            if (children == null) {
+                return;
+            }
+            for (final File child : children) {
+                sweepFile(child);
+            }
+        } else if (!retainedFileNames.contains(file.getName())) {
+            final long fileSize = file.length();
+            if (file.delete()) {
+                deletedFileCount++;
+                reclaimedBytes += fileSize;
+            } else {
+                Log.trace(
+                        MessagingConstants.LOG_TAG,
+                        SELF_TAG,
+                        "sweep - Failed to delete cached asset %s.",
+                        file.getPath());
+            }
+        }
+    }
+}
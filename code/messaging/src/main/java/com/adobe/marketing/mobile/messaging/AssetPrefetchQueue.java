@@ -0,0 +1,200 @@
+/*
+  Copyright 2024 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+package com.adobe.marketing.mobile.messaging;
+
+import com.adobe.marketing.mobile.services.Log;
+import java.net.URI;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Limits the number of concurrent asset downloads, in total and per host.
+ *
+ * <p>Assets are downloaded in the order they are submitted, so callers should submit the assets
+ * needed soonest first. Each submission lists the assets which are still needed, and any queued
+ * download for an asset which is no longer needed is cancelled before it starts. Downloads already
+ * in progress cannot be cancelled, but their result is discarded if the asset is no longer needed.
+ */
+final class AssetPrefetchQueue {
+    private static final String SELF_TAG = "AssetPrefetchQueue";
+    static final int MAX_CONCURRENT_DOWNLOADS = 4;
+    static final int MAX_DOWNLOADS_PER_HOST = 2;
+
+    /** Downloads a single asset. */
+    interface AssetDownload {
+        /**
+         * Starts downloading the asset.
+         *
+         * @param url {@link String} containing the asset url
+         * @param onComplete {@link Runnable} which must be called once the download finishes,
+         *     whether or not it succeeded
+         */
+        void start(final String url, final Runnable onComplete);
+    }
+
+    private final Object mutex = new Object();
+    private final int maxConcurrentDownloads;
+    private final int maxDownloadsPerHost;
+    // queued downloads by url, in priority order
+    private final Map<String, AssetDownload> queuedDownloads = new LinkedHashMap<>();
+    private final Set<String> activeUrls = new HashSet<>();
+    private final Map<String, Integer> activeDownloadsByHost = new HashMap<>();
+    private Set<String> requestedUrls = new HashSet<>();
+
+    AssetPrefetchQueue() {
+        this(MAX_CONCURRENT_DOWNLOADS, MAX_DOWNLOADS_PER_HOST);
+    }
+
+    AssetPrefetchQueue(final int maxConcurrentDownloads, final int maxDownloadsPerHost) {
+        this.maxConcurrentDownloads = maxConcurrentDownloads;
+        this.maxDownloadsPerHost = maxDownloadsPerHost;
+    }
+
+    /**
+     * Queues the provided assets for download and cancels queued downloads of assets which are no
+     * longer needed.
+     *
+     * @param urls {@code List<String>} containing the asset urls to download, in priority order
+     * @param urlsToRetain {@code Collection<String>} containing the urls of all assets which are
+     *     still needed, including {@code urls}
+     * @param assetDownload {@link AssetDownload} used to download each asset
+     */
+    void submit(
+            final List<String> urls,
+            final Collection<String> urlsToRetain,
+            final AssetDownload assetDownload) {
+        final Map<String, AssetDownload> downloadsToStart;
+        synchronized (mutex) {
+            requestedUrls = new HashSet<>(urlsToRetain);
+            requestedUrls.addAll(urls);
+            int cancelledCount = 0;
+            final Iterator<String> queuedUrls = queuedDownloads.keySet().iterator();
+            while (queuedUrls.hasNext()) {
+                if (!requestedUrls.contains(queuedUrls.next())) {
+                    queuedUrls.remove();
+                    cancelledCount++;
+                }
+            }
+            for (final String url : urls) {
+                // an asset already being downloaded does not need to be queued again
+                if (!activeUrls.contains(url) && !queuedDownloads.containsKey(url)) {
+                    queuedDownloads.put(url, assetDownload);
+                }
+            }
+            if (cancelledCount > 0) {
+                Log.debug(
+                        MessagingConstants.LOG_TAG,
+                        SELF_TAG,
+                        "Cancelled %d queued asset download(s) superseded by a new request.",
+                        cancelledCount);
+            }
+            downloadsToStart = pollStartableDownloads();
+        }
+        start(downloadsToStart);
+    }
+
+    /**
+     * Determines if the provided asset is still needed by the most recent submission.
+     *
+     * @param url {@link String} containing the asset url
+     * @return {@code boolean} true if the asset is still requested
+     */
+    boolean isRequested(final String url) {
+        synchronized (mutex) {
+            return requestedUrls.contains(url);
+        }
+    }
+
+    int getQueuedCount() {
+        synchronized (mutex) {
+            return queuedDownloads.size();
+        }
+    }
+
+    int getActiveCount() {
+        synchronized (mutex) {
+            return activeUrls.size();
+        }
+    }
+
+    private void onDownloadComplete(final String url) {
+        final Map<String, AssetDownload> downloadsToStart;
+        synchronized (mutex) {
+            if (activeUrls.remove(url)) {
+                final String host = getHost(url);
+                final Integer hostCount = activeDownloadsByHost.get(host);
+                if (hostCount == null || hostCount <= 1) {
+                    activeDownloadsByHost.remove(host);
+                } else {
+                    activeDownloadsByHost.put(host, hostCount - 1);
+                }
+            }
+            downloadsToStart = pollStartableDownloads();
+        }
+        start(downloadsToStart);
+    }
+
+    // must be called while holding the mutex, the returned downloads are removed from the queue and
+    // marked active, and must be started once the mutex is released
+    private Map<String, AssetDownload> pollStartableDownloads() {
+        final Map<String, AssetDownload> downloadsToStart = new LinkedHashMap<>();
+        final Iterator<Map.Entry<String, AssetDownload>> iterator =
+                queuedDownloads.entrySet().iterator();
+        while (iterator.hasNext() && activeUrls.size() < maxConcurrentDownloads) {
+            final Map.Entry<String, AssetDownload> queuedDownload = iterator.next();
+            final String url = queuedDownload.getKey();
+            final String host = getHost(url);
+            final Integer hostCount = activeDownloadsByHost.get(host);
+            if (hostCount != null && hostCount >= maxDownloadsPerHost) {
+                continue;
+            }
+            iterator.remove();
+            activeUrls.add(url);
+            activeDownloadsByHost.put(host, hostCount == null ? 1 : hostCount + 1);
+            downloadsToStart.put(url, queuedDownload.getValue());
+        }
+        return downloadsToStart;
+    }
+
+    private void start(final Map<String, AssetDownload> downloadsToStart) {
+        for (final Map.Entry<String, AssetDownload> download : downloadsToStart.entrySet()) {
+            final String url = download.getKey();
+            final AssetDownload assetDownload = download.getValue();
+            try {
+                assetDownload.start(url, () -> onDownloadComplete(url));
+            } catch (final Exception exception) {
+                Log.warning(
+                        MessagingConstants.LOG_TAG,
+                        SELF_TAG,
+                        "Failed to start download for asset %s: %s",
+                        url,
+                        exception.getLocalizedMessage());
+                onDownloadComplete(url);
+            }
+        }
+    }
+
+    private static String getHost(final String url) {
+        try {
+            final String host = URI.create(url).getHost();
+            return host != null ? host : "";
+        } catch (final IllegalArgumentException exception) {
+            return "";
+        }
+    }
+}
@@ -0,0 +1,112 @@
+/*
+  Copyright 2024 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+package com.adobe.marketing.mobile.messaging;
+
+import androidx.annotation.VisibleForTesting;
+import com.adobe.marketing.mobile.services.Log;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs the revalidation of cached image assets in batches on a background thread.
+ *
+ * <p>Requests for revalidation made while a batch is pending are collapsed into that batch. A batch
+ * runs no sooner than {@link #BATCH_DELAY_MS} after it was requested, so it does not compete with
+ * the downloads of new assets, and no sooner than {@link #MIN_REVALIDATION_INTERVAL_MS} after the
+ * previous batch.
+ */
+final class AssetRevalidationScheduler {
+    private static final String SELF_TAG = "AssetRevalidationScheduler";
+    private static final String THREAD_NAME = "MessagingAssetRevalidation";
+    static final long BATCH_DELAY_MS = TimeUnit.SECONDS.toMillis(5);
+    static final long MIN_REVALIDATION_INTERVAL_MS = TimeUnit.MINUTES.toMillis(15);
+
+    private final Runnable revalidation;
+    private final ScheduledExecutorService executorService;
+    private ScheduledFuture<?> scheduledRevalidation;
+    private long lastRevalidationMillis;
+
+    /**
+     * Constructor.
+     *
+     * @param revalidation {@link Runnable} which revalidates the cached assets
+     */
+    AssetRevalidationScheduler(final Runnable revalidation) {
+        this(
+                revalidation,
+                Executors.newSingleThreadScheduledExecutor(
+                        runnable -> {
+                            final Thread thread = new Thread(runnable, THREAD_NAME);
+                            thread.setDaemon(true);
+                            return thread;
+                        }));
+    }
+
+    @VisibleForTesting
+    AssetRevalidationScheduler(
+            final Runnable revalidation, final ScheduledExecutorService executorService) {
+        this.revalidation = revalidation;
+        this.executorService = executorService;
+    }
+
+    /** Schedules a revalidation batch, unless one is already pending. */
+    synchronized void schedule() {
+        if (scheduledRevalidation != null) {
+            return;
+        }
+        final long now = System.currentTimeMillis();
+        final long delayMs =
+                lastRevalidationMillis == 0
+                        ? BATCH_DELAY_MS
+                        : Math.max(
+                                BATCH_DELAY_MS,
+                                lastRevalidationMillis + MIN_REVALIDATION_INTERVAL_MS - now);
+        try {
+            scheduledRevalidation =
+                    executorService.schedule(this::runBatch, delayMs, TimeUnit.MILLISECONDS);
+            Log.trace(
+                    MessagingConstants.LOG_TAG,
+                    SELF_TAG,
+                    "Scheduled cached asset revalidation in %d ms.",
+                    delayMs);
+        } catch (final RejectedExecutionException exception) {
+            Log.warning(
+                    MessagingConstants.LOG_TAG,
+                    SELF_TAG,
+                    "Unable to schedule the cached asset revalidation: %s",
+                    exception.getMessage());
+        }
+    }
+
+    synchronized boolean isScheduled() {
+        return scheduledRevalidation != null;
+    }
+
+    private void runBatch() {
+        synchronized (this) {
+            scheduledRevalidation = null;
+            lastRevalidationMillis = System.currentTimeMillis();
+        }
+        try {
+            revalidation.run();
+        } catch (final Exception exception) {
+            Log.warning(
+                    MessagingConstants.LOG_TAG,
+                    SELF_TAG,
+                    "An error occurred while revalidating cached assets: %s",
+                    exception.getLocalizedMessage());
+        }
+    }
+}
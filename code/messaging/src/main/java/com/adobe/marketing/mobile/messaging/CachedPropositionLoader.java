@@ -0,0 +1,196 @@
+/*
+  Copyright 2024 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+package com.adobe.marketing.mobile.messaging;
+
+import androidx.annotation.VisibleForTesting;
+import com.adobe.marketing.mobile.services.Log;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Decodes the propositions cached in a previous session one {@link Surface} at a time.
+ *
+ * <p>{@link #prefetch(List)} is given the surfaces read from the proposition cache index and
+ * starts decoding their propositions on a background thread. {@link #take(Collection)} hands over
+ * the decoded propositions of a surface when it is first used, waiting only for a surface which is
+ * still being decoded. A surface which could not be decoded in the background is decoded on the
+ * calling thread instead.
+ */
+final class CachedPropositionLoader {
+    private static final String SELF_TAG = "CachedPropositionLoader";
+    private static final String THREAD_NAME = "MessagingCachedPropositionLoader";
+
+    /** Reads the cached propositions of a single {@link Surface}. */
+    interface SurfaceReader {
+        List<Proposition> read(final Surface surface);
+    }
+
+    /** The decoded propositions handed over by {@link #take(Collection)}. */
+    static final class LoadedPropositions {
+        final Map<Surface, List<Proposition>> propositions;
+        // time spent decoding the loaded surfaces on the background thread
+        final long backgroundDecodeMillis;
+
+        LoadedPropositions(
+                final Map<Surface, List<Proposition>> propositions,
+                final long backgroundDecodeMillis) {
+            this.propositions = propositions;
+            this.backgroundDecodeMillis = backgroundDecodeMillis;
+        }
+    }
+
+    private static final class DecodedSurface {
+        final List<Proposition> propositions;
+        final long decodeMillis;
+
+        DecodedSurface(final List<Proposition> propositions, final long decodeMillis) {
+            this.propositions = propositions;
+            this.decodeMillis = decodeMillis;
+        }
+    }
+
+    private final SurfaceReader surfaceReader;
+    private final ExecutorService executorService;
+    // cached surfaces which have not been taken yet, a null future is decoded on the caller
+    private final Map<Surface, Future<DecodedSurface>> pendingSurfaces = new LinkedHashMap<>();
+
+    CachedPropositionLoader(final SurfaceReader surfaceReader) {
+        this(
+                surfaceReader,
+                Executors.newSingleThreadExecutor(
+                        runnable -> {
+                            final Thread thread = new Thread(runnable, THREAD_NAME);
+                            thread.setDaemon(true);
+                            return thread;
+                        }));
+    }
+
+    @VisibleForTesting
+    CachedPropositionLoader(
+            final SurfaceReader surfaceReader, final ExecutorService executorService) {
+        this.surfaceReader = surfaceReader;
+        this.executorService = executorService;
+    }
+
+    /**
+     * Starts decoding the cached propositions of the provided surfaces on a background thread.
+     *
+     * <p>The background thread exits once the provided surfaces are decoded, so this should be
+     * called once with every surface listed in the cache index.
+     *
+     * @param surfaces {@code List<Surface>} which have cached propositions
+     */
+    synchronized void prefetch(final List<Surface> surfaces) {
+        if (MessagingUtils.isNullOrEmpty(surfaces)) {
+            return;
+        }
+
+        for (final Surface surface : surfaces) {
+            Future<DecodedSurface> decodedSurface = null;
+            try {
+                decodedSurface = executorService.submit(() -> decode(surface));
+            } catch (final RejectedExecutionException exception) {
+                Log.debug(
+                        MessagingConstants.LOG_TAG,
+                        SELF_TAG,
+                        "Unable to decode the cached propositions for surface (%s) in the"
+                                + " background, they will be decoded when the surface is first"
+                                + " used.",
+                        surface.getUri());
+            }
+            pendingSurfaces.put(surface, decodedSurface);
+        }
+        executorService.shutdown();
+    }
+
+    /**
+     * Determines if any cached surface has not been taken yet.
+     *
+     * @return {@code boolean} true if {@link #take(Collection)} has cached propositions to return
+     */
+    synchronized boolean hasPendingSurfaces() {
+        return !pendingSurfaces.isEmpty();
+    }
+
+    /**
+     * Takes the decoded propositions of the provided surfaces, waiting for any surface which is
+     * still being decoded. Each cached surface is returned at most once.
+     *
+     * @param surfaces {@code Collection<Surface>} to take, or null to take every pending surface
+     * @return {@link LoadedPropositions} containing the cached propositions of the taken surfaces,
+     *     surfaces without cached propositions are omitted
+     */
+    LoadedPropositions take(final Collection<Surface> surfaces) {
+        final Map<Surface, Future<DecodedSurface>> takenSurfaces = new LinkedHashMap<>();
+        synchronized (this) {
+            final Collection<Surface> surfacesToTake =
+                    surfaces != null ? surfaces : new ArrayList<>(pendingSurfaces.keySet());
+            for (final Surface surface : surfacesToTake) {
+                if (pendingSurfaces.containsKey(surface)) {
+                    takenSurfaces.put(surface, pendingSurfaces.remove(surface));
+                }
+            }
+        }
+
+        final Map<Surface, List<Proposition>> propositions = new HashMap<>();
+        long backgroundDecodeMillis = 0;
+        for (final Map.Entry<Surface, Future<DecodedSurface>> entry : takenSurfaces.entrySet()) {
+            final DecodedSurface decodedSurface = await(entry.getValue());
+            final List<Proposition> surfacePropositions;
+            if (decodedSurface != null) {
+                surfacePropositions = decodedSurface.propositions;
+                backgroundDecodeMillis += decodedSurface.decodeMillis;
+            } else {
+                surfacePropositions = surfaceReader.read(entry.getKey());
+            }
+            if (!MessagingUtils.isNullOrEmpty(surfacePropositions)) {
+                propositions.put(entry.getKey(), surfacePropositions);
+            }
+        }
+        return new LoadedPropositions(propositions, backgroundDecodeMillis);
+    }
+
+    private DecodedSurface decode(final Surface surface) {
+        final long startTime = System.currentTimeMillis();
+        final List<Proposition> propositions = surfaceReader.read(surface);
+        return new DecodedSurface(propositions, System.currentTimeMillis() - startTime);
+    }
+
+    private DecodedSurface await(final Future<DecodedSurface> decodedSurface) {
+        if (decodedSurface == null) {
+            return null;
+        }
+
+        try {
+            return decodedSurface.get();
+        } catch (final ExecutionException exception) {
+            Log.debug(
+                    MessagingConstants.LOG_TAG,
+                    SELF_TAG,
+                    "Failed to decode cached propositions in the background (%s), decoding them on"
+                            + " the calling thread.",
+                    exception.getLocalizedMessage());
+        } catch (final InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        }
+        return null;
+    }
+}
@@ -32,10 +32,14 @@ import com.adobe.marketing.mobile.util.UrlUtils;
 import java.lang.ref.SoftReference;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * This class is used to handle the retrieval and processing of AJO payloads containing in-app or
@@ -54,19 +58,34 @@ class EdgePersonalizationResponseHandler {
             };
     final MessagingExtension parent;
     private final MessagingCacheUtilities messagingCacheUtilities;
+    private final PropositionCacheWriter propositionCacheWriter;
     private final ExtensionApi extensionApi;
     private final LaunchRulesEngine launchRulesEngine;
     private final FeedRulesEngine feedRulesEngine;
 
-    private Map<Surface, List<Proposition>> propositions = new HashMap<>();
+    // code-based propositions by surface and proposition id
+    private final PropositionStore propositionStore = new PropositionStore();
     private Map<String, PropositionInfo> propositionInfo = new HashMap<>();
     // keeps a list of all surfaces requested per personalization request event by event id
     private final Map<String, List<Surface>> requestedSurfacesForEventId = new HashMap<>();
     // used while processing streaming payloads for a single request
     private Map<Surface, List<Proposition>> inProgressPropositions = new HashMap<>();
-    private final Map<Surface, List<LaunchRule>> inAppRulesBySurface = new HashMap<>();
-    private final Map<Surface, List<LaunchRule>> feedRulesBySurface = new HashMap<>();
+    private final MessagingRuleRegistry inAppRuleRegistry;
+    private final MessagingRuleRegistry feedRuleRegistry;
+    // event filters of the loaded in-app rules, indexed to skip events which cannot match a rule
+    private final Map<LaunchRule, RuleEventFilter> inAppRuleEventFilters = new IdentityHashMap<>();
+    private final RuleEventFilterIndex inAppEventFilterIndex = new RuleEventFilterIndex();
+    // rules parsed from ruleset propositions, reused when the same ruleset content is returned
+    private final ParsedRuleCache parsedRuleCache = new ParsedRuleCache();
+    private final FeedEvaluationCache feedEvaluationCache = new FeedEvaluationCache();
+    // in-app messages built ahead of their trigger, when enabled in the configuration
+    private final PresentableMessagePool presentableMessagePool = new PresentableMessagePool();
+    private boolean inAppMessagePrebuildEnabled;
+    // true when an asset was cached since the in-app messages were last pre-built
+    private final AtomicBoolean prebuildPending = new AtomicBoolean();
     private SerialWorkDispatcher<Event> serialWorkDispatcher;
+    // true until propositions cached in a previous session have been loaded
+    private final CachedPropositionLoader cachedPropositionLoader;
 
     /**
      * Constructor
@@ -87,7 +106,6 @@ class EdgePersonalizationResponseHandler {
         this(parent, extensionApi, rulesEngine, feedRulesEngine, null);
     }
 
-    @SuppressWarnings("NestedIfDepth")
     @VisibleForTesting
     EdgePersonalizationResponseHandler(
             final MessagingExtension parent,
@@ -95,49 +113,128 @@ class EdgePersonalizationResponseHandler {
             final LaunchRulesEngine rulesEngine,
             final FeedRulesEngine feedRulesEngine,
             final MessagingCacheUtilities messagingCacheUtilities) {
+        this(parent, extensionApi, rulesEngine, feedRulesEngine, messagingCacheUtilities, null);
+    }
+
+    @VisibleForTesting
+    EdgePersonalizationResponseHandler(
+            final MessagingExtension parent,
+            final ExtensionApi extensionApi,
+            final LaunchRulesEngine rulesEngine,
+            final FeedRulesEngine feedRulesEngine,
+            final MessagingCacheUtilities messagingCacheUtilities,
+            final PropositionCacheWriter propositionCacheWriter) {
         this.parent = parent;
         this.extensionApi = extensionApi;
         this.launchRulesEngine = rulesEngine;
         this.feedRulesEngine = feedRulesEngine;
+        this.inAppRuleRegistry = new MessagingRuleRegistry(rulesEngine);
+        this.feedRuleRegistry = new MessagingRuleRegistry(feedRulesEngine);
 
-        // load cached propositions (if any) when EdgePersonalizationResponseHandler is instantiated
         this.messagingCacheUtilities =
                 messagingCacheUtilities != null
                         ? messagingCacheUtilities
                         : new MessagingCacheUtilities();
-        if (this.messagingCacheUtilities.arePropositionsCached()) {
-            final Map<Surface, List<Proposition>> cachedPropositions =
-                    this.messagingCacheUtilities.getCachedPropositions();
-            if (cachedPropositions != null && !cachedPropositions.isEmpty()) {
-                Log.trace(
-                        MessagingConstants.LOG_TAG,
-                        SELF_TAG,
-                        "Retrieved cached propositions, attempting to load the propositions into"
-                                + " the rules engine.");
-                propositions = cachedPropositions;
-                final List<Surface> surfaces = new ArrayList<>();
-                // get surfaces
-                for (final Map.Entry<Surface, List<Proposition>> cacheEntry :
-                        cachedPropositions.entrySet()) {
-                    surfaces.add(cacheEntry.getKey());
-                }
+        this.cachedPropositionLoader =
+                new CachedPropositionLoader(
+                        surface -> this.messagingCacheUtilities.getCachedPropositions(surface));
+        // assets are cached on download threads, the messages waiting for them are pre-built
+        // from the extension thread
+        this.messagingCacheUtilities.setAssetCacheListener(url -> prebuildPending.set(true));
+        this.propositionCacheWriter =
+                propositionCacheWriter != null
+                        ? propositionCacheWriter
+                        : new PropositionCacheWriter(this.messagingCacheUtilities);
+    }
 
-                final ParsedPropositions parsedPropositions =
-                        new ParsedPropositions(cachedPropositions, surfaces, extensionApi);
-                final Map<Surface, List<LaunchRule>> inAppRules =
-                        parsedPropositions.surfaceRulesBySchemaType.get(SchemaType.INAPP);
-                // register any in-app propositions which were previously cached
-                if (inAppRules != null) {
-                    final List<LaunchRule> rulesToReplace = new ArrayList<>();
-                    for (final Map.Entry<Surface, List<LaunchRule>> entry : inAppRules.entrySet()) {
-                        rulesToReplace.addAll(entry.getValue());
-                    }
-                    if (!MessagingUtils.isNullOrEmpty(rulesToReplace)) {
-                        launchRulesEngine.replaceRules(rulesToReplace);
-                    }
-                }
-            }
+    /**
+     * Reads the surfaces which have propositions cached in a previous session from the proposition
+     * cache index and starts decoding their propositions in the background.
+     *
+     * <p>The cached propositions are not loaded until {@link #loadCachedPropositions(Collection)}
+     * is called for their surface.
+     */
+    void loadCachedPropositionIndex() {
+        final long startTime = System.currentTimeMillis();
+        final List<Surface> cachedSurfaces = messagingCacheUtilities.getCachedSurfaces();
+        cachedPropositionLoader.prefetch(cachedSurfaces);
+        Log.trace(
+                MessagingConstants.LOG_TAG,
+                SELF_TAG,
+                "Read the proposition cache index with %d surface(s) in %d ms.",
+                cachedSurfaces.size(),
+                System.currentTimeMillis() - startTime);
+    }
+
+    /**
+     * Loads the propositions cached in a previous session (if any) for the provided surfaces and
+     * registers their in-app rules with the {@link LaunchRulesEngine}.
+     *
+     * <p>The cached propositions of each surface are loaded at most once. Subsequent calls for the
+     * same surface return immediately.
+     *
+     * @param surfaces {@code Collection<Surface>} to load, or null to load every cached surface
+     */
+    synchronized void loadCachedPropositions(final Collection<Surface> surfaces) {
+        if (!cachedPropositionLoader.hasPendingSurfaces()) {
+            return;
+        }
+
+        final long startTime = System.currentTimeMillis();
+        final CachedPropositionLoader.LoadedPropositions loadedPropositions =
+                cachedPropositionLoader.take(surfaces);
+        final Map<Surface, List<Proposition>> cachedPropositions = loadedPropositions.propositions;
+        if (cachedPropositions.isEmpty()) {
+            return;
+        }
+
+        Log.trace(
+                MessagingConstants.LOG_TAG,
+                SELF_TAG,
+                "Retrieved cached propositions, attempting to load the propositions into the rules"
+                        + " engine.");
+        propositionStore.update(cachedPropositions, null);
+        final List<Surface> loadedSurfaces = new ArrayList<>(cachedPropositions.keySet());
+
+        final ParsedPropositions parsedPropositions =
+                new ParsedPropositions(
+                        cachedPropositions, loadedSurfaces, extensionApi, parsedRuleCache);
+        final Map<Surface, List<LaunchRule>> inAppRules =
+                parsedPropositions.surfaceRulesBySchemaType.get(SchemaType.INAPP);
+        // register any in-app propositions which were previously cached
+        if (inAppRules != null) {
+            inAppRuleRegistry.update(inAppRules, null);
+            updateInAppEventFilterIndex(parsedPropositions.inAppRuleEventFilters);
+            // map the assets cached in a previous session and download any which are missing, a
+            // later response with the same rules is recognized as unchanged
+            cacheImageAssetsFromPayload(
+                    getConsequences(inAppRuleRegistry.getRules()), Collections.emptyList());
+            prebuildInAppMessages();
         }
+
+        // an eager load at registration decodes and registers every surface on the extension
+        // thread, which is what this call plus the background decoding would have cost
+        final long extensionThreadMillis = System.currentTimeMillis() - startTime;
+        Log.trace(
+                MessagingConstants.LOG_TAG,
+                SELF_TAG,
+                "Loaded cached propositions for %d surface(s) in %d ms on the calling thread and %d"
+                        + " ms decoding in the background, an eager load would have taken about"
+                        + " %d ms on the extension thread.",
+                loadedSurfaces.size(),
+                extensionThreadMillis,
+                loadedPropositions.backgroundDecodeMillis,
+                extensionThreadMillis + loadedPropositions.backgroundDecodeMillis);
+    }
+
+    /**
+     * Writes any proposition changes which are waiting to be persisted to the cache, and the last
+     * used time of the cached image assets. Called when the application is moving to the
+     * background.
+     */
+    void flushCachedPropositions() {
+        propositionCacheWriter.flush();
+        messagingCacheUtilities.persistAssetUsage();
     }
 
     /**
@@ -392,8 +489,15 @@ class EdgePersonalizationResponseHandler {
             return;
         }
 
+        // cached propositions for the requested surfaces are loaded on first use
+        loadCachedPropositions(requestedSurfaces);
+
+        // repeated requests for the same surfaces reuse the feed rules evaluation
         final Map<Surface, List<Proposition>> ruleConsequencePropositions =
-                getPropositionsFromFeedRulesEngine(event);
+                feedEvaluationCache.getOrEvaluate(
+                        requestedSurfaces,
+                        feedRuleRegistry.getVersion(),
+                        () -> getPropositionsFromFeedRulesEngine(event, requestedSurfaces));
         Map<Surface, List<Proposition>> requestedPropositions =
                 retrieveCachedPropositions(requestedSurfaces);
 
@@ -484,9 +588,12 @@ class EdgePersonalizationResponseHandler {
         // surface
         for (final Proposition proposition : propositions) {
             final Surface surface = Surface.fromUriString(proposition.getScope());
-            inProgressPropositions =
-                    MessagingUtils.updatePropositionMapForSurface(
-                            surface, proposition, inProgressPropositions);
+            List<Proposition> surfacePropositions = inProgressPropositions.get(surface);
+            if (surfacePropositions == null) {
+                surfacePropositions = new ArrayList<>();
+                inProgressPropositions.put(surface, surfacePropositions);
+            }
+            surfacePropositions.add(proposition);
         }
     }
 
@@ -515,8 +622,15 @@ class EdgePersonalizationResponseHandler {
             return;
         }
 
+        // cached propositions must be loaded before they are merged with the new propositions
+        loadCachedPropositions(requestedSurfaces);
+
         final ParsedPropositions parsedPropositions =
-                new ParsedPropositions(inProgressPropositions, requestedSurfaces, extensionApi);
+                new ParsedPropositions(
+                        inProgressPropositions,
+                        requestedSurfaces,
+                        extensionApi,
+                        parsedRuleCache);
 
         // we need to preserve cache for any surfaces that were not a part of this request
         // any requested surface that is absent from the response needs to be removed from cache and
@@ -531,18 +645,18 @@ class EdgePersonalizationResponseHandler {
         // continue to have their rules active
         updatePropositions(parsedPropositions.propositionsToCache, surfacesToRemove);
         updatePropositionInfo(parsedPropositions.propositionInfoToCache, surfacesToRemove);
-        messagingCacheUtilities.cachePropositions(
-                parsedPropositions.propositionsToPersist, surfacesToRemove);
+        // persisting the propositions is deferred to the cache writer so it does not delay
+        // processing of the response
+        propositionCacheWriter.enqueue(parsedPropositions.propositionsToPersist, surfacesToRemove);
 
         // apply rules
-        updateRulesEngines(parsedPropositions.surfaceRulesBySchemaType, requestedSurfaces);
+        updateRulesEngines(parsedPropositions, requestedSurfaces);
     }
 
     private void updateRulesEngines(
-            final Map<SchemaType, Map<Surface, List<LaunchRule>>> surfaceRulesBySchemaType,
-            final List<Surface> requestedSurfaces) {
+            final ParsedPropositions parsedPropositions, final List<Surface> requestedSurfaces) {
         for (final Map.Entry<SchemaType, Map<Surface, List<LaunchRule>>> newRules :
-                surfaceRulesBySchemaType.entrySet()) {
+                parsedPropositions.surfaceRulesBySchemaType.entrySet()) {
             final Set<Surface> newSurfaces = newRules.getValue().keySet();
             final List<Surface> surfacesToRemove = new ArrayList<>(requestedSurfaces);
             surfacesToRemove.removeAll(newSurfaces);
@@ -551,61 +665,68 @@ class EdgePersonalizationResponseHandler {
             final Map<Surface, List<LaunchRule>> rulesMaps = newRules.getValue();
             switch (schemaType) {
                 case INAPP:
+                    // replace rules for each in-app surface we got back and remove any surfaces
+                    // that were requested but had no in-app content returned
+                    final MessagingRuleRegistry.RuleChanges inAppRuleChanges =
+                            inAppRuleRegistry.update(rulesMaps, surfacesToRemove);
+                    if (inAppRuleChanges.isEmpty()) {
+                        Log.trace(
+                                MessagingConstants.LOG_TAG,
+                                SELF_TAG,
+                                "In-app message definitions for surfaces %s are unchanged.",
+                                newSurfaces);
+                        // the assets of unchanged messages may still be missing from the cache, if
+                        // their download failed or they were evicted
+                        cacheImageAssetsFromPayload(
+                                getConsequences(inAppRuleRegistry.getRules()),
+                                Collections.emptyList());
+                        prebuildInAppMessages();
+                        break;
+                    }
                     Log.trace(
                             MessagingConstants.LOG_TAG,
                             SELF_TAG,
-                            "Updating in-app message definitions for surfaces %s.",
-                            newSurfaces);
-
-                    // replace rules for each in-app surface we got back
-                    inAppRulesBySurface.putAll(rulesMaps);
-
-                    // remove any surfaces that were requested but had no in-app content returned
-                    for (final Surface surface : surfacesToRemove) {
-                        inAppRulesBySurface.remove(surface);
-                    }
-
-                    // combine all our rules
-                    final Collection<List<LaunchRule>> allInAppRules = inAppRulesBySurface.values();
-                    final List<LaunchRule> collectedInAppRules = new ArrayList<>();
-                    for (final List<LaunchRule> inAppRules : allInAppRules) {
-                        collectedInAppRules.addAll(inAppRules);
-                    }
-
-                    // pre-fetch the assets for this message if there are any defined
-                    final List<RuleConsequence> collectedConsequences = new ArrayList<>();
-                    for (final LaunchRule rule : collectedInAppRules) {
-                        collectedConsequences.addAll(rule.getConsequenceList());
-                    }
-                    cacheImageAssetsFromPayload(collectedConsequences);
-
-                    // update rules in in-app engine
-                    launchRulesEngine.replaceRules(collectedInAppRules);
+                            "Updated in-app message definitions for surfaces %s, %d rule(s) added"
+                                    + " and %d removed.",
+                            newSurfaces,
+                            inAppRuleChanges.addedRules.size(),
+                            inAppRuleChanges.removedRuleCount);
+                    updateInAppEventFilterIndex(parsedPropositions.inAppRuleEventFilters);
+
+                    // pre-fetch the assets for any new messages, retaining the assets of all
+                    // loaded messages
+                    cacheImageAssetsFromPayload(
+                            getConsequences(inAppRuleRegistry.getRules()),
+                            getConsequences(
+                                    prioritizeLaunchRules(
+                                            inAppRuleChanges.addedRules,
+                                            parsedPropositions.inAppRuleEventFilters)));
+                    // release the messages of replaced rules before pre-building new ones
+                    PresentableMessageMapper.getInstance()
+                            .retainMessages(getItemIds(inAppRuleRegistry.getRules()));
+                    prebuildInAppMessages();
                     break;
                 case FEED:
+                    // replace rules for each feed surface we got back and remove any surfaces that
+                    // were requested but had no feed content returned
+                    final MessagingRuleRegistry.RuleChanges feedRuleChanges =
+                            feedRuleRegistry.update(rulesMaps, surfacesToRemove);
+                    if (feedRuleChanges.isEmpty()) {
+                        Log.trace(
+                                MessagingConstants.LOG_TAG,
+                                SELF_TAG,
+                                "Feed definitions for surfaces %s are unchanged.",
+                                newSurfaces);
+                        break;
+                    }
                     Log.trace(
                             MessagingConstants.LOG_TAG,
                             SELF_TAG,
-                            "Updating feed definitions for surfaces %s",
-                            newSurfaces);
-
-                    // replace rules for each feed surface we got back
-                    feedRulesBySurface.putAll(rulesMaps);
-
-                    // remove any surfaces that were requested but had no feed content returned
-                    for (final Surface surface : surfacesToRemove) {
-                        feedRulesBySurface.remove(surface);
-                    }
-
-                    // combine all our rules
-                    final Collection<List<LaunchRule>> allFeedRules = feedRulesBySurface.values();
-                    final List<LaunchRule> collectedFeedRules = new ArrayList<>();
-                    for (final List<LaunchRule> feedRules : allFeedRules) {
-                        collectedFeedRules.addAll(feedRules);
-                    }
-
-                    // update rules in feed rules engine
-                    feedRulesEngine.replaceRules(collectedFeedRules);
+                            "Updated feed definitions for surfaces %s, %d rule(s) added and %d"
+                                    + " removed.",
+                            newSurfaces,
+                            feedRuleChanges.addedRules.size(),
+                            feedRuleChanges.removedRuleCount);
                     break;
                 default:
                     // no-op
@@ -619,6 +740,50 @@ class EdgePersonalizationResponseHandler {
         }
     }
 
+    /**
+     * Rebuilds the {@link RuleEventFilterIndex} from the event filters of the in-app rules
+     * currently loaded in the rules engine.
+     *
+     * @param newEventFilters {@code Map<LaunchRule, RuleEventFilter>} containing the event filters
+     *     of newly parsed in-app rules
+     */
+    private void updateInAppEventFilterIndex(
+            final Map<LaunchRule, RuleEventFilter> newEventFilters) {
+        final Map<LaunchRule, RuleEventFilter> loadedEventFilters = new IdentityHashMap<>();
+        // rules parsed from the same ruleset share a filter, index each filter once
+        final Set<RuleEventFilter> filters =
+                Collections.newSetFromMap(new IdentityHashMap<RuleEventFilter, Boolean>());
+        for (final LaunchRule rule : inAppRuleRegistry.getRules()) {
+            RuleEventFilter filter = newEventFilters.get(rule);
+            if (filter == null) {
+                filter = inAppRuleEventFilters.get(rule);
+            }
+            if (filter == null) {
+                filter = RuleEventFilter.MATCH_ALL;
+            }
+            loadedEventFilters.put(rule, filter);
+            filters.add(filter);
+        }
+        inAppRuleEventFilters.clear();
+        inAppRuleEventFilters.putAll(loadedEventFilters);
+        inAppEventFilterIndex.update(filters);
+    }
+
+    /**
+     * Determines if the provided {@link Event} can match any of the loaded in-app rules.
+     *
+     * @param event {@link Event} to be checked
+     * @return {@code boolean} false if the event cannot match any loaded in-app rule
+     */
+    boolean mayMatchInAppRules(final Event event) {
+        return inAppEventFilterIndex.mayMatch(event);
+    }
+
+    @VisibleForTesting
+    RuleEventFilterIndex getInAppEventFilterIndex() {
+        return inAppEventFilterIndex;
+    }
+
     private void updatePropositionInfo(
             final Map<String, PropositionInfo> newPropositionInfo,
             final List<Surface> surfacesToRemove) {
@@ -641,10 +806,12 @@ class EdgePersonalizationResponseHandler {
     }
 
     @SuppressWarnings("NestedForDepth")
-    private Map<Surface, List<Proposition>> getPropositionsFromFeedRulesEngine(final Event event) {
+    private Map<Surface, List<Proposition>> getPropositionsFromFeedRulesEngine(
+            final Event event, final List<Surface> surfaces) {
         Map<Surface, List<Proposition>> surfacePropositions = new HashMap<>();
+        // only the rules of the requested surfaces are evaluated
         final Map<Surface, List<PropositionItem>> propositionItemsBySurface =
-                feedRulesEngine.evaluate(event);
+                feedRulesEngine.evaluate(event, surfaces);
         if (!MapUtils.isNullOrEmpty(propositionItemsBySurface)) {
             for (final Map.Entry<Surface, List<PropositionItem>> entry :
                     propositionItemsBySurface.entrySet()) {
@@ -704,20 +871,8 @@ class EdgePersonalizationResponseHandler {
     private void updatePropositions(
             final Map<Surface, List<Proposition>> newPropositions,
             final List<Surface> surfacesToRemove) {
-        // add new surfaces or update replace existing surfaces
-        Map<Surface, List<Proposition>> tempPropositionsMap = new HashMap<>(propositions);
-        for (final Map.Entry<Surface, List<Proposition>> entry : newPropositions.entrySet()) {
-            tempPropositionsMap =
-                    MessagingUtils.updatePropositionMapForSurface(
-                            entry.getKey(), entry.getValue(), tempPropositionsMap);
-        }
-
-        // remove any surfaces if necessary
-        for (final Surface surface : surfacesToRemove) {
-            tempPropositionsMap.remove(surface);
-        }
-
-        propositions = tempPropositionsMap;
+        // add new surfaces or update existing surfaces, then remove any surfaces if necessary
+        propositionStore.update(newPropositions, surfacesToRemove);
     }
 
     /**
@@ -730,9 +885,10 @@ class EdgePersonalizationResponseHandler {
             final List<Surface> surfaces) {
         Map<Surface, List<Proposition>> propositionMap = new HashMap<>();
         for (final Surface surface : surfaces) {
-            final List<Proposition> propositionsList = propositions.get(surface);
+            final List<Proposition> propositionsList = propositionStore.get(surface);
             if (!MessagingUtils.isNullOrEmpty(propositionsList)) {
-                propositionMap.put(surface, propositionsList);
+                // copy the stored list, propositions from the feed rules engine are added to it
+                propositionMap.put(surface, new ArrayList<>(propositionsList));
             }
         }
         return propositionMap;
@@ -747,15 +903,30 @@ class EdgePersonalizationResponseHandler {
         if (propositionItem == null) {
             return;
         }
+        final InAppSchemaData inAppSchemaData = propositionItem.getInAppSchemaData();
+        if (inAppSchemaData != null) {
+            messagingCacheUtilities.recordAssetRequests(inAppSchemaData.getRemoteAssets());
+        }
         try {
-            final PresentableMessageMapper.InternalMessage message =
-                    (PresentableMessageMapper.InternalMessage)
-                            PresentableMessageMapper.getInstance()
-                                    .createMessage(
-                                            parent,
-                                            propositionItem,
-                                            messagingCacheUtilities.getAssetsMap(),
-                                            propositionInfo.get(propositionItem.getItemId()));
+            final PresentableMessageMapper.InternalMessage message;
+            final PresentableMessageMapper.InternalMessage prebuiltMessage =
+                    presentableMessagePool.take(propositionItem.getItemId());
+            if (prebuiltMessage != null) {
+                prebuiltMessage.propositionInfo = propositionInfo.get(propositionItem.getItemId());
+                message =
+                        (PresentableMessageMapper.InternalMessage)
+                                PresentableMessageMapper.getInstance()
+                                        .registerMessage(prebuiltMessage);
+            } else {
+                message =
+                        (PresentableMessageMapper.InternalMessage)
+                                PresentableMessageMapper.getInstance()
+                                        .createMessage(
+                                                parent,
+                                                propositionItem,
+                                                messagingCacheUtilities.getAssetsMap(),
+                                                propositionInfo.get(propositionItem.getItemId()));
+            }
             message.trigger();
             message.show();
         } catch (final MessageRequiredFieldMissingException | IllegalStateException exception) {
@@ -767,6 +938,96 @@ class EdgePersonalizationResponseHandler {
         }
     }
 
+    /**
+     * Enables or disables building in-app messages ahead of the rules which trigger them.
+     *
+     * <p>When enabled, the messages of the loaded in-app rules most likely to be triggered are
+     * built and held in a {@link PresentableMessagePool}. When disabled, the pool is emptied.
+     *
+     * @param enabled {@code boolean} indicating if in-app messages should be built ahead of time
+     */
+    void setInAppMessagePrebuildEnabled(final boolean enabled) {
+        if (inAppMessagePrebuildEnabled == enabled) {
+            return;
+        }
+        inAppMessagePrebuildEnabled = enabled;
+        if (enabled) {
+            prebuildInAppMessages();
+        } else {
+            presentableMessagePool.clear();
+        }
+    }
+
+    /**
+     * Builds the in-app messages which were waiting for their assets, if any asset was cached since
+     * the messages were last pre-built. Called from the extension thread.
+     */
+    void prebuildInAppMessagesIfAssetsCached() {
+        if (prebuildPending.getAndSet(false)) {
+            prebuildInAppMessages();
+        }
+    }
+
+    /**
+     * Builds the messages of the loaded in-app rules most likely to be triggered, rules triggered
+     * by an application launch first, and evicts pre-built messages whose rules were removed.
+     *
+     * <p>Only messages whose remote assets are all cached are built, so a pre-built message never
+     * displays an asset from the network which could have been loaded from the cache. Messages
+     * skipped for a missing asset are built by {@link #prebuildInAppMessagesIfAssetsCached()} once
+     * the asset is cached.
+     */
+    private void prebuildInAppMessages() {
+        prebuildPending.set(false);
+        if (!inAppMessagePrebuildEnabled) {
+            return;
+        }
+        final Map<String, String> assetMap = messagingCacheUtilities.getAssetsMap();
+        presentableMessagePool.prepare(
+                getConsequences(
+                        prioritizeLaunchRules(inAppRuleRegistry.getRules(), inAppRuleEventFilters)),
+                propositionItem -> {
+                    final InAppSchemaData inAppSchemaData = propositionItem.getInAppSchemaData();
+                    if (inAppSchemaData != null
+                            && !areAssetsCached(inAppSchemaData.getRemoteAssets())) {
+                        return null;
+                    }
+                    return PresentableMessageMapper.getInstance()
+                            .prebuildMessage(
+                                    parent,
+                                    propositionItem,
+                                    assetMap,
+                                    propositionInfo.get(propositionItem.getItemId()));
+                });
+    }
+
+    // the asset map lists every retained asset as soon as its download is queued, so the cache
+    // files are checked instead
+    private boolean areAssetsCached(final List<String> remoteAssets) {
+        if (MessagingUtils.isNullOrEmpty(remoteAssets)) {
+            return true;
+        }
+        for (final String remoteAsset : remoteAssets) {
+            if (!messagingCacheUtilities.isAssetCached(remoteAsset)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @VisibleForTesting
+    PresentableMessagePool getPresentableMessagePool() {
+        return presentableMessagePool;
+    }
+
+    /**
+     * Invalidates the cached feed rules evaluations after a change to the shared states or event
+     * history which the feed rule conditions may depend on.
+     */
+    void invalidateFeedEvaluations() {
+        feedEvaluationCache.invalidate();
+    }
+
     void setSerialWorkDispatcher(final SerialWorkDispatcher<Event> serialWorkDispatcher) {
         this.serialWorkDispatcher = serialWorkDispatcher;
     }
@@ -775,14 +1036,85 @@ class EdgePersonalizationResponseHandler {
         return requestedSurfacesForEventId;
     }
 
+    private static List<String> getRemoteAssets(final Map<String, Object> details)
+            throws DataReaderException {
+        final Map<String, Object> data =
+                DataReader.getTypedMap(
+                        Object.class,
+                        details,
+                        MessagingConstants.EventDataKeys.Messaging.Data.Key.DATA);
+        return DataReader.getStringList(
+                data,
+                MessagingConstants.EventDataKeys.RulesEngine
+                        .MESSAGE_CONSEQUENCE_DETAIL_KEY_REMOTE_ASSETS);
+    }
+
+    /**
+     * Orders the provided in-app rules so rules triggered by an application launch come first,
+     * letting the assets of messages which may be shown at launch be downloaded before others.
+     *
+     * @param rules {@code List<LaunchRule>} containing the rules to order
+     * @param eventFilters {@code Map<LaunchRule, RuleEventFilter>} containing the event filter of
+     *     each rule
+     * @return {@code List<LaunchRule>} containing the ordered rules
+     */
+    private static List<LaunchRule> prioritizeLaunchRules(
+            final List<LaunchRule> rules, final Map<LaunchRule, RuleEventFilter> eventFilters) {
+        final List<LaunchRule> launchRules = new ArrayList<>();
+        final List<LaunchRule> otherRules = new ArrayList<>();
+        for (final LaunchRule rule : rules) {
+            final RuleEventFilter filter = eventFilters.get(rule);
+            if (filter != null && filter.targetsEventType(EventType.LIFECYCLE)) {
+                launchRules.add(rule);
+            } else {
+                otherRules.add(rule);
+            }
+        }
+        launchRules.addAll(otherRules);
+        return launchRules;
+    }
+
+    private static Set<String> getItemIds(final List<LaunchRule> rules) {
+        final Set<String> itemIds = new HashSet<>();
+        for (final LaunchRule rule : rules) {
+            for (final RuleConsequence consequence : rule.getConsequenceList()) {
+                final String itemId =
+                        DataReader.optString(
+                                consequence.getDetail(),
+                                MessagingConstants.ConsequenceDetailKeys.ID,
+                                null);
+                if (itemId != null) {
+                    itemIds.add(itemId);
+                }
+            }
+        }
+        return itemIds;
+    }
+
+    private static List<RuleConsequence> getConsequences(final List<LaunchRule> rules) {
+        final List<RuleConsequence> consequences = new ArrayList<>();
+        for (final LaunchRule rule : rules) {
+            consequences.addAll(rule.getConsequenceList());
+        }
+        return consequences;
+    }
+
     /**
      * Cache any asset URL's present in each {@code RuleConsequence} {@link
      * com.adobe.marketing.mobile.launch.rulesengine.RuleConsequence} detail.
      *
-     * @param ruleConsequences A {@link List<RuleConsequence>} containing an in-app message rule
-     *     consequences.
+     * <p>The assets of {@code newRuleConsequences} are downloaded first, followed by the assets of
+     * the other {@code ruleConsequences} which are missing from the cache. Cached assets not used
+     * by any of the {@code ruleConsequences} are purged.
+     *
+     * @param ruleConsequences A {@link List<RuleConsequence>} containing all loaded in-app message
+     *     rule consequences.
+     * @param newRuleConsequences A {@link List<RuleConsequence>} containing the newly added in-app
+     *     message rule consequences.
      */
-    private void cacheImageAssetsFromPayload(final List<RuleConsequence> ruleConsequences) {
+    private void cacheImageAssetsFromPayload(
+            final List<RuleConsequence> ruleConsequences,
+            final List<RuleConsequence> newRuleConsequences) {
         final List<String> remoteAssetsList = new ArrayList<>();
         try {
             for (final RuleConsequence consequence : ruleConsequences) {
@@ -790,16 +1122,7 @@ class EdgePersonalizationResponseHandler {
                 if (MapUtils.isNullOrEmpty(details)) {
                     return;
                 }
-                final Map<String, Object> data =
-                        DataReader.getTypedMap(
-                                Object.class,
-                                details,
-                                MessagingConstants.EventDataKeys.Messaging.Data.Key.DATA);
-                final List<String> remoteAssets =
-                        DataReader.getStringList(
-                                data,
-                                MessagingConstants.EventDataKeys.RulesEngine
-                                        .MESSAGE_CONSEQUENCE_DETAIL_KEY_REMOTE_ASSETS);
+                final List<String> remoteAssets = getRemoteAssets(details);
                 if (!MessagingUtils.isNullOrEmpty(remoteAssets)) {
                     for (final String remoteAsset : remoteAssets) {
                         if (UrlUtils.isValidUrl(remoteAsset)
@@ -814,7 +1137,14 @@ class EdgePersonalizationResponseHandler {
                     }
                 }
             }
-            messagingCacheUtilities.cacheImageAssets(remoteAssetsList);
+            final List<String> newRemoteAssetsList = new ArrayList<>();
+            for (final RuleConsequence consequence : newRuleConsequences) {
+                final List<String> remoteAssets = getRemoteAssets(consequence.getDetail());
+                if (!MessagingUtils.isNullOrEmpty(remoteAssets)) {
+                    newRemoteAssetsList.addAll(remoteAssets);
+                }
+            }
+            messagingCacheUtilities.cacheImageAssets(remoteAssetsList, newRemoteAssetsList);
         } catch (final DataReaderException exception) {
             Log.warning(
                     MessagingConstants.LOG_TAG,
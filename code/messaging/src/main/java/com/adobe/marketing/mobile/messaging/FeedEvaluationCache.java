@@ -0,0 +1,159 @@
+/*
+  Copyright 2024 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+package com.adobe.marketing.mobile.messaging;
+
+import com.adobe.marketing.mobile.services.Log;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Caches the propositions produced by evaluating the feed rules, keyed on the requested surfaces
+ * and the version of the loaded feed rules.
+ *
+ * <p>An evaluation is reused until the feed rules change, a shared state changes, an event is
+ * recorded in event history, or it is older than {@link #MAX_ENTRY_AGE_MS}, which bounds how stale
+ * the result of a time based condition can be. Concurrent requests for the same surfaces share a
+ * single evaluation.
+ */
+final class FeedEvaluationCache {
+    private static final String SELF_TAG = "FeedEvaluationCache";
+    static final long MAX_ENTRY_AGE_MS = TimeUnit.SECONDS.toMillis(5);
+    static final int MAX_ENTRIES = 16;
+
+    /** Evaluates the feed rules. */
+    interface Evaluation {
+        Map<Surface, List<Proposition>> evaluate();
+    }
+
+    // held while evaluating, so concurrent requests wait for and reuse the same evaluation
+    private final Object evaluationMutex = new Object();
+    private final long maxEntryAgeMillis;
+    private final Map<Set<Surface>, CachedEvaluation> evaluations =
+            new LinkedHashMap<Set<Surface>, CachedEvaluation>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(
+                        final Map.Entry<Set<Surface>, CachedEvaluation> eldest) {
+                    return size() > MAX_ENTRIES;
+                }
+            };
+    // incremented whenever the state the feed rule conditions depend on changes
+    private long stateVersion;
+    private long hitCount;
+    private long missCount;
+
+    FeedEvaluationCache() {
+        this(MAX_ENTRY_AGE_MS);
+    }
+
+    FeedEvaluationCache(final long maxEntryAgeMillis) {
+        this.maxEntryAgeMillis = maxEntryAgeMillis;
+    }
+
+    /**
+     * Returns the cached evaluation for the provided surfaces, or runs and caches a new evaluation
+     * if there is no valid cached evaluation.
+     *
+     * @param surfaces {@code Collection<Surface>} containing the requested surfaces
+     * @param ruleSetVersion {@code long} containing the version of the loaded feed rules
+     * @param evaluation {@link Evaluation} used to evaluate the feed rules
+     * @return {@code Map<Surface, List<Proposition>>} containing the evaluated propositions
+     */
+    Map<Surface, List<Proposition>> getOrEvaluate(
+            final Collection<Surface> surfaces,
+            final long ruleSetVersion,
+            final Evaluation evaluation) {
+        final Set<Surface> key = new HashSet<>(surfaces);
+        synchronized (evaluationMutex) {
+            final long evaluationStateVersion;
+            synchronized (this) {
+                final CachedEvaluation cachedEvaluation = evaluations.get(key);
+                if (cachedEvaluation != null
+                        && cachedEvaluation.ruleSetVersion == ruleSetVersion
+                        && cachedEvaluation.stateVersion == stateVersion
+                        && System.currentTimeMillis() - cachedEvaluation.timestamp
+                                <= maxEntryAgeMillis) {
+                    hitCount++;
+                    return cachedEvaluation.propositions;
+                }
+                missCount++;
+                evaluationStateVersion = stateVersion;
+            }
+
+            final Map<Surface, List<Proposition>> propositions = evaluation.evaluate();
+            synchronized (this) {
+                // a result evaluated against state which changed in the meantime is not reused
+                if (evaluationStateVersion == stateVersion) {
+                    evaluations.put(
+                            key,
+                            new CachedEvaluation(
+                                    propositions,
+                                    ruleSetVersion,
+                                    evaluationStateVersion,
+                                    System.currentTimeMillis()));
+                }
+            }
+            return propositions;
+        }
+    }
+
+    /**
+     * Invalidates the cached evaluations after a change to the shared states or event history
+     * that the feed rule conditions may depend on.
+     */
+    synchronized void invalidate() {
+        stateVersion++;
+        if (!evaluations.isEmpty()) {
+            evaluations.clear();
+            Log.trace(
+                    MessagingConstants.LOG_TAG,
+                    SELF_TAG,
+                    "Invalidated cached feed evaluations (hits %d, misses %d).",
+                    hitCount,
+                    missCount);
+        }
+    }
+
+    synchronized int size() {
+        return evaluations.size();
+    }
+
+    synchronized long getHitCount() {
+        return hitCount;
+    }
+
+    synchronized long getMissCount() {
+        return missCount;
+    }
+
+    private static final class CachedEvaluation {
+        private final Map<Surface, List<Proposition>> propositions;
+        private final long ruleSetVersion;
+        private final long stateVersion;
+        private final long timestamp;
+
+        private CachedEvaluation(
+                final Map<Surface, List<Proposition>> propositions,
+                final long ruleSetVersion,
+                final long stateVersion,
+                final long timestamp) {
+            this.propositions = propositions;
+            this.ruleSetVersion = ruleSetVersion;
+            this.stateVersion = stateVersion;
+            this.timestamp = timestamp;
+        }
+    }
+}
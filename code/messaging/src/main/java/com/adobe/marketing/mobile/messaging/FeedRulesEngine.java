@@ -12,83 +12,247 @@
 package com.adobe.marketing.mobile.messaging;
 
 import androidx.annotation.NonNull;
+import androidx.annotation.VisibleForTesting;
 import com.adobe.marketing.mobile.Event;
 import com.adobe.marketing.mobile.ExtensionApi;
+import com.adobe.marketing.mobile.launch.rulesengine.LaunchRule;
 import com.adobe.marketing.mobile.launch.rulesengine.LaunchRulesEngine;
 import com.adobe.marketing.mobile.launch.rulesengine.RuleConsequence;
 import com.adobe.marketing.mobile.util.DataReader;
-import com.adobe.marketing.mobile.util.MapUtils;
 import java.util.ArrayList;
-import java.util.Collections;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 class FeedRulesEngine extends LaunchRulesEngine {
     final ExtensionApi extensionApi;
+    private final String name;
+    // loaded rules partitioned by the surfaces of their consequences
+    private final Map<Surface, SurfaceRules> surfaceRules = new HashMap<>();
 
     FeedRulesEngine(@NonNull final String name, @NonNull final ExtensionApi extensionApi) {
         super(name, extensionApi);
+        this.name = name;
         this.extensionApi = extensionApi;
     }
 
+    // the rules are only loaded into the rules engines of their surfaces, the parent rules engine
+    // stays empty so each rule is stored and reset once
+    @Override
+    public void replaceRules(final List<LaunchRule> rules) {
+        synchronized (surfaceRules) {
+            final Map<Surface, List<LaunchRule>> rulesBySurface = partitionBySurface(rules);
+            surfaceRules.keySet().retainAll(rulesBySurface.keySet());
+            for (final Map.Entry<Surface, List<LaunchRule>> entry : rulesBySurface.entrySet()) {
+                SurfaceRules rulesForSurface = surfaceRules.get(entry.getKey());
+                if (rulesForSurface == null) {
+                    rulesForSurface = new SurfaceRules(createSurfaceRulesEngine(entry.getKey()));
+                    surfaceRules.put(entry.getKey(), rulesForSurface);
+                }
+                rulesForSurface.replaceRules(entry.getValue());
+            }
+        }
+    }
+
+    @Override
+    public void addRules(final List<LaunchRule> rules) {
+        synchronized (surfaceRules) {
+            for (final Map.Entry<Surface, List<LaunchRule>> entry :
+                    partitionBySurface(rules).entrySet()) {
+                SurfaceRules rulesForSurface = surfaceRules.get(entry.getKey());
+                if (rulesForSurface == null) {
+                    rulesForSurface = new SurfaceRules(createSurfaceRulesEngine(entry.getKey()));
+                    surfaceRules.put(entry.getKey(), rulesForSurface);
+                }
+                rulesForSurface.addRules(entry.getValue());
+            }
+        }
+    }
+
     /**
-     * Evaluates the supplied event against the all current rules and returns a {@link Map<Surface,
-     * List< PropositionItem >>} created from the rules that matched the supplied event.
+     * Evaluates the supplied event against the rules of the requested surfaces only and returns a
+     * {@link Map<Surface, List< PropositionItem >>} created from the rules that matched the
+     * supplied event.
      *
      * @param event the event to be evaluated
-     * @return a {@code Map<String ,List<Inbound>>} containing inbound content for the given event
+     * @param surfaces {@code Collection<Surface>} containing the requested surfaces
+     * @return a {@code Map<Surface, List<PropositionItem>>} containing the feed items for the
+     *     requested surfaces which matched the event
      */
-    Map<Surface, List<PropositionItem>> evaluate(@NonNull final Event event) {
+    Map<Surface, List<PropositionItem>> evaluate(
+            @NonNull final Event event, @NonNull final Collection<Surface> surfaces) {
         if (event == null) {
             throw new IllegalArgumentException("Cannot evaluate null event.");
         }
 
-        final List<RuleConsequence> consequences = evaluateEvent(event);
-        if (MessagingUtils.isNullOrEmpty(consequences)) {
-            return null;
-        }
-
         final Map<Surface, List<PropositionItem>> propositionItemsBySurface = new HashMap<>();
-        for (final RuleConsequence consequence : consequences) {
-            if (consequence == null) {
-                continue;
+        for (final Surface surface : new LinkedHashSet<>(surfaces)) {
+            final SurfaceRules rulesForSurface;
+            synchronized (surfaceRules) {
+                rulesForSurface = surfaceRules.get(surface);
             }
-
-            final PropositionItem propositionItem =
-                    PropositionItem.fromRuleConsequence(consequence);
-            if (propositionItem == null) {
+            if (rulesForSurface == null) {
                 continue;
             }
-            final FeedItemSchemaData propositionAsFeedItem =
-                    propositionItem.getFeedItemSchemaData();
-
-            if (propositionAsFeedItem == null) {
+            final List<RuleConsequence> consequences =
+                    rulesForSurface.rulesEngine.evaluateEvent(event);
+            if (MessagingUtils.isNullOrEmpty(consequences)) {
                 continue;
             }
+            for (final RuleConsequence consequence : consequences) {
+                // only rules which also target other surfaces need their consequences filtered
+                if (rulesForSurface.hasMultiSurfaceRules
+                        && !surface.getUri().equals(getConsequenceSurface(consequence))) {
+                    continue;
+                }
+                addFeedItem(consequence, surface, propositionItemsBySurface);
+            }
+        }
+        return propositionItemsBySurface;
+    }
 
-            final Map metadata = propositionAsFeedItem.getMeta();
-            if (MapUtils.isNullOrEmpty(metadata)) {
-                continue;
+    @VisibleForTesting
+    int getSurfaceRuleCount(final Surface surface) {
+        synchronized (surfaceRules) {
+            final SurfaceRules rulesForSurface = surfaceRules.get(surface);
+            return rulesForSurface != null ? rulesForSurface.ruleCount : 0;
+        }
+    }
+
+    @VisibleForTesting
+    LaunchRulesEngine createSurfaceRulesEngine(final Surface surface) {
+        return new LaunchRulesEngine(name + "-" + surface.getUri(), extensionApi);
+    }
+
+    private static void addFeedItem(
+            final RuleConsequence consequence,
+            final Surface surface,
+            final Map<Surface, List<PropositionItem>> propositionItemsBySurface) {
+        final PropositionItem propositionItem = PropositionItem.fromRuleConsequence(consequence);
+        if (propositionItem == null || propositionItem.getSchema() != SchemaType.FEED) {
+            return;
+        }
+        List<PropositionItem> propositionItems = propositionItemsBySurface.get(surface);
+        if (propositionItems == null) {
+            propositionItems = new ArrayList<>();
+            propositionItemsBySurface.put(surface, propositionItems);
+        }
+        propositionItems.add(propositionItem);
+    }
+
+    /**
+     * Groups the provided rules by the surfaces found in the metadata of their consequences. A
+     * rule with consequences for several surfaces is added to each of them.
+     *
+     * @param rules {@code List<LaunchRule>} containing the rules to partition
+     * @return {@code Map<Surface, List<LaunchRule>>} containing the rules for each surface
+     */
+    private static Map<Surface, List<LaunchRule>> partitionBySurface(final List<LaunchRule> rules) {
+        final Map<Surface, List<LaunchRule>> rulesBySurface = new HashMap<>();
+        if (rules == null) {
+            return rulesBySurface;
+        }
+        for (final LaunchRule rule : rules) {
+            final Set<String> surfaceUris = new HashSet<>();
+            for (final RuleConsequence consequence : rule.getConsequenceList()) {
+                final String surfaceUri = getConsequenceSurface(consequence);
+                if (surfaceUri != null) {
+                    surfaceUris.add(surfaceUri);
+                }
+            }
+            for (final String surfaceUri : surfaceUris) {
+                final Surface surface = Surface.fromUriString(surfaceUri);
+                if (surface == null) {
+                    continue;
+                }
+                List<LaunchRule> surfaceRuleList = rulesBySurface.get(surface);
+                if (surfaceRuleList == null) {
+                    surfaceRuleList = new ArrayList<>();
+                    rulesBySurface.put(surface, surfaceRuleList);
+                }
+                surfaceRuleList.add(rule);
             }
+        }
+        return rulesBySurface;
+    }
 
-            final Surface surface =
-                    Surface.fromUriString(
-                            DataReader.optString(
-                                    metadata, MessagingConstants.MessageFeedKeys.SURFACE, ""));
-            if (surface == null) {
-                continue;
+    /**
+     * Reads the surface from the metadata of a feed item consequence without decoding the feed
+     * item.
+     *
+     * @param consequence {@link RuleConsequence} containing a feed item
+     * @return {@link String} containing the surface uri, or null if the metadata has no surface
+     */
+    private static String getConsequenceSurface(final RuleConsequence consequence) {
+        if (consequence == null) {
+            return null;
+        }
+        final Map<String, Object> data =
+                DataReader.optTypedMap(
+                        Object.class,
+                        consequence.getDetail(),
+                        MessagingConstants.ConsequenceDetailKeys.DATA,
+                        null);
+        final Map<String, Object> metadata =
+                DataReader.optTypedMap(
+                        Object.class,
+                        data,
+                        MessagingConstants.ConsequenceDetailDataKeys.METADATA,
+                        null);
+        return DataReader.optString(metadata, MessagingConstants.MessageFeedKeys.SURFACE, null);
+    }
+
+    /** The loaded rules of a single surface and the rules engine evaluating them. */
+    private static final class SurfaceRules {
+        private final LaunchRulesEngine rulesEngine;
+        private final Set<LaunchRule> multiSurfaceRules = new HashSet<>();
+        private boolean hasMultiSurfaceRules;
+        private int ruleCount;
+
+        private SurfaceRules(final LaunchRulesEngine rulesEngine) {
+            this.rulesEngine = rulesEngine;
+        }
+
+        private void replaceRules(final List<LaunchRule> rules) {
+            rulesEngine.replaceRules(rules);
+            multiSurfaceRules.clear();
+            ruleCount = 0;
+            recordRules(rules);
+        }
+
+        private void addRules(final List<LaunchRule> rules) {
+            rulesEngine.addRules(rules);
+            recordRules(rules);
+        }
+
+        private void recordRules(final List<LaunchRule> rules) {
+            ruleCount += rules.size();
+            for (final LaunchRule rule : rules) {
+                if (targetsMultipleSurfaces(rule)) {
+                    multiSurfaceRules.add(rule);
+                }
             }
+            hasMultiSurfaceRules = !multiSurfaceRules.isEmpty();
+        }
 
-            if (propositionItemsBySurface.get(surface) != null) {
-                final List<PropositionItem> propositionItemList =
-                        new ArrayList<>(propositionItemsBySurface.get(surface));
-                propositionItemList.add(propositionItem);
-                propositionItemsBySurface.put(surface, propositionItemList);
-            } else {
-                propositionItemsBySurface.put(surface, Collections.singletonList(propositionItem));
+        private static boolean targetsMultipleSurfaces(final LaunchRule rule) {
+            String firstSurfaceUri = null;
+            for (final RuleConsequence consequence : rule.getConsequenceList()) {
+                final String surfaceUri = getConsequenceSurface(consequence);
+                if (surfaceUri == null) {
+                    continue;
+                }
+                if (firstSurfaceUri == null) {
+                    firstSurfaceUri = surfaceUri;
+                } else if (!firstSurfaceUri.equals(surfaceUri)) {
+                    return true;
+                }
             }
+            return false;
         }
-        return propositionItemsBySurface;
     }
 }
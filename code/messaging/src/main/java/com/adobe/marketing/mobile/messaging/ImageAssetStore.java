@@ -0,0 +1,461 @@
+/*
+  Copyright 2024 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+package com.adobe.marketing.mobile.messaging;
+
+import com.adobe.marketing.mobile.services.Log;
+import com.adobe.marketing.mobile.services.caching.CacheEntry;
+import com.adobe.marketing.mobile.services.caching.CacheExpiry;
+import com.adobe.marketing.mobile.services.caching.CacheResult;
+import com.adobe.marketing.mobile.services.caching.CacheService;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bounds the size and age of the cached in-app message image assets.
+ *
+ * <p>Each cached asset is tracked with its size and the last time it was used, which is the most
+ * recent of the time it was cached, the time a message requested it and the time a message using
+ * it was presented, as reported by {@link PresentableMessageMapper}. Assets which have not been
+ * used within the maximum age are evicted, then the least recently used assets are evicted until
+ * the stored bytes fit within the byte budget.
+ *
+ * <p>The last used times are persisted by {@link #persistUsage()}, so an asset found in the cache
+ * in a later session keeps the time it was last used rather than the time it was cached. The
+ * freshness window extended by a revalidation is persisted with it, so the cached asset itself is
+ * not rewritten when the server reports it has not been modified.
+ */
+final class ImageAssetStore {
+    private static final String SELF_TAG = "ImageAssetStore";
+    static final long DEFAULT_MAX_BYTES = 20L * 1024 * 1024;
+    static final long DEFAULT_MAX_AGE_MILLIS = TimeUnit.DAYS.toMillis(30);
+    private static final int USAGE_FORMAT_VERSION = 2;
+
+    /** Receives the urls of assets evicted from the store. */
+    interface EvictionListener {
+        void onAssetsEvicted(final List<String> urls);
+    }
+
+    /** Receives the urls of assets written to the cache. */
+    interface CacheListener {
+        void onAssetCached(final String url);
+    }
+
+    private final CacheService cacheService;
+    private final String assetCacheLocation;
+    private final PresentableMessageMapper presentableMessageMapper;
+    private final long maxBytes;
+    private final long maxAgeMillis;
+    // cached assets by url
+    private final Map<String, AssetRecord> assetRecords = new LinkedHashMap<>();
+    private EvictionListener evictionListener;
+    private CacheListener cacheListener;
+    // asset usage persisted in a previous session by url, null until it is read
+    private Map<String, AssetRecord> persistedRecords;
+    private long bytesStored;
+    private long hitCount;
+    private long missCount;
+    private long evictedCount;
+
+    ImageAssetStore(
+            final CacheService cacheService,
+            final String assetCacheLocation,
+            final PresentableMessageMapper presentableMessageMapper) {
+        this(
+                cacheService,
+                assetCacheLocation,
+                presentableMessageMapper,
+                DEFAULT_MAX_BYTES,
+                DEFAULT_MAX_AGE_MILLIS);
+    }
+
+    ImageAssetStore(
+            final CacheService cacheService,
+            final String assetCacheLocation,
+            final PresentableMessageMapper presentableMessageMapper,
+            final long maxBytes,
+            final long maxAgeMillis) {
+        this.cacheService = cacheService;
+        this.assetCacheLocation = assetCacheLocation;
+        this.presentableMessageMapper = presentableMessageMapper;
+        this.maxBytes = maxBytes;
+        this.maxAgeMillis = maxAgeMillis;
+    }
+
+    synchronized void setEvictionListener(final EvictionListener evictionListener) {
+        this.evictionListener = evictionListener;
+    }
+
+    synchronized void setCacheListener(final CacheListener cacheListener) {
+        this.cacheListener = cacheListener;
+    }
+
+    /**
+     * Records an asset which has been written to, or revalidated in, the cache, then evicts assets
+     * if the store exceeds its bounds.
+     *
+     * @param url {@link String} containing the asset url
+     * @param sizeBytes {@code long} containing the size of the cached asset in bytes
+     */
+    void onAssetCached(final String url, final long sizeBytes) {
+        final CacheListener listener;
+        synchronized (this) {
+            listener = cacheListener;
+            final AssetRecord previousRecord =
+                    assetRecords.put(url, new AssetRecord(sizeBytes, System.currentTimeMillis()));
+            if (previousRecord != null) {
+                bytesStored -= previousRecord.sizeBytes;
+            }
+            bytesStored += sizeBytes;
+        }
+        trim();
+        if (listener != null) {
+            listener.onAssetCached(url);
+        }
+    }
+
+    /**
+     * Starts tracking an asset cached in a previous session, if it is not already tracked.
+     *
+     * <p>The asset is tracked with the time it was last used in a previous session, if it is later
+     * than the time it was cached.
+     *
+     * @param url {@link String} containing the asset url
+     * @param sizeBytes {@code long} containing the size of the cached asset in bytes
+     * @param cachedMillis {@code long} containing the time the asset was cached in milliseconds
+     */
+    synchronized void onAssetFound(
+            final String url, final long sizeBytes, final long cachedMillis) {
+        if (assetRecords.containsKey(url)) {
+            return;
+        }
+        if (persistedRecords == null) {
+            persistedRecords = readUsage();
+        }
+        final AssetRecord record = new AssetRecord(sizeBytes, cachedMillis);
+        final AssetRecord persistedRecord = persistedRecords.get(url);
+        if (persistedRecord != null) {
+            record.lastUsedMillis = Math.max(persistedRecord.lastUsedMillis, cachedMillis);
+            record.freshUntilMillis = persistedRecord.freshUntilMillis;
+        }
+        assetRecords.put(url, record);
+        bytesStored += sizeBytes;
+    }
+
+    /**
+     * Persists the last used time and freshness window of each tracked asset, including the
+     * presentation times reported by {@link PresentableMessageMapper} which are only held in
+     * memory.
+     */
+    void persistUsage() {
+        if (cacheService == null) {
+            return;
+        }
+        final Map<String, long[]> usage = new HashMap<>();
+        synchronized (this) {
+            refreshPresentationTimestamps();
+            for (final Map.Entry<String, AssetRecord> entry : assetRecords.entrySet()) {
+                usage.put(
+                        entry.getKey(),
+                        new long[] {
+                            entry.getValue().lastUsedMillis, entry.getValue().freshUntilMillis
+                        });
+            }
+        }
+        try {
+            final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            final DataOutputStream output = new DataOutputStream(bytes);
+            output.writeInt(USAGE_FORMAT_VERSION);
+            output.writeInt(usage.size());
+            for (final Map.Entry<String, long[]> entry : usage.entrySet()) {
+                output.writeUTF(entry.getKey());
+                output.writeLong(entry.getValue()[0]);
+                output.writeLong(entry.getValue()[1]);
+            }
+            output.flush();
+            cacheService.set(
+                    MessagingConstants.CACHE_BASE_DIR,
+                    MessagingConstants.IMAGES_USAGE_CACHE_KEY,
+                    new CacheEntry(
+                            new ByteArrayInputStream(bytes.toByteArray()),
+                            CacheExpiry.never(),
+                            null));
+        } catch (final IOException exception) {
+            Log.debug(
+                    MessagingConstants.LOG_TAG,
+                    SELF_TAG,
+                    "persistUsage - Unable to persist the cached asset usage: %s",
+                    exception.getLocalizedMessage());
+        }
+    }
+
+    /**
+     * Records an asset which was revalidated with the server and left unchanged in the cache.
+     *
+     * @param url {@link String} containing the asset url
+     */
+    synchronized void onAssetRevalidated(final String url) {
+        onAssetRevalidated(url, 0);
+    }
+
+    /**
+     * Records an asset which the server reported has not been modified, extending its freshness
+     * window.
+     *
+     * @param url {@link String} containing the asset url
+     * @param freshUntilMillis {@code long} containing the time until which the asset can be used
+     *     without revalidation, in milliseconds
+     */
+    synchronized void onAssetRevalidated(final String url, final long freshUntilMillis) {
+        final AssetRecord record = assetRecords.get(url);
+        if (record != null) {
+            record.lastUsedMillis = System.currentTimeMillis();
+            record.freshUntilMillis = Math.max(record.freshUntilMillis, freshUntilMillis);
+        }
+    }
+
+    /**
+     * Determines if an asset is within the freshness window extended by its last revalidation.
+     *
+     * @param url {@link String} containing the asset url
+     * @param currentTimeMillis {@code long} containing the current time in milliseconds
+     * @return {@code boolean} true if the asset can be used without revalidation
+     */
+    synchronized boolean isFresh(final String url, final long currentTimeMillis) {
+        final AssetRecord record = assetRecords.get(url);
+        return record != null && record.freshUntilMillis > currentTimeMillis;
+    }
+
+    /**
+     * Records a request for the assets of a message about to be displayed, counting an asset
+     * already in the store as a cache hit.
+     *
+     * @param urls {@code List<String>} containing the asset urls used by the message
+     */
+    synchronized void onAssetsRequested(final List<String> urls) {
+        if (MessagingUtils.isNullOrEmpty(urls)) {
+            return;
+        }
+        final long now = System.currentTimeMillis();
+        for (final String url : urls) {
+            final AssetRecord record = assetRecords.get(url);
+            if (record != null) {
+                record.lastUsedMillis = now;
+                hitCount++;
+            } else {
+                missCount++;
+            }
+        }
+    }
+
+    /**
+     * Stops tracking assets which are no longer retained, they are removed from the cache by the
+     * asset sweep.
+     *
+     * @param urlsToRetain {@code Collection<String>} containing the urls of the retained assets
+     */
+    synchronized void retainAll(final Collection<String> urlsToRetain) {
+        final Set<String> retainedUrls =
+                urlsToRetain != null ? new HashSet<>(urlsToRetain) : Collections.emptySet();
+        final Iterator<Map.Entry<String, AssetRecord>> iterator =
+                assetRecords.entrySet().iterator();
+        while (iterator.hasNext()) {
+            final Map.Entry<String, AssetRecord> entry = iterator.next();
+            if (!retainedUrls.contains(entry.getKey())) {
+                bytesStored -= entry.getValue().sizeBytes;
+                iterator.remove();
+            }
+        }
+        if (presentableMessageMapper != null) {
+            presentableMessageMapper.retainAssetPresentations(retainedUrls);
+        }
+    }
+
+    /** Evicts assets which exceed the maximum age or the byte budget. */
+    void trim() {
+        trim(System.currentTimeMillis());
+    }
+
+    void trim(final long currentTimeMillis) {
+        final List<String> evictedUrls = new ArrayList<>();
+        final EvictionListener listener;
+        synchronized (this) {
+            listener = evictionListener;
+            refreshPresentationTimestamps();
+
+            // evict assets which have not been used within the maximum age
+            final Iterator<Map.Entry<String, AssetRecord>> iterator =
+                    assetRecords.entrySet().iterator();
+            while (iterator.hasNext()) {
+                final Map.Entry<String, AssetRecord> entry = iterator.next();
+                if (currentTimeMillis - entry.getValue().lastUsedMillis > maxAgeMillis) {
+                    evict(entry.getKey(), entry.getValue(), evictedUrls);
+                    iterator.remove();
+                }
+            }
+
+            // evict the least recently used assets until the store fits within the budget
+            if (bytesStored > maxBytes) {
+                final List<Map.Entry<String, AssetRecord>> entries =
+                        new ArrayList<>(assetRecords.entrySet());
+                Collections.sort(
+                        entries,
+                        (first, second) ->
+                                Long.compare(
+                                        first.getValue().lastUsedMillis,
+                                        second.getValue().lastUsedMillis));
+                for (final Map.Entry<String, AssetRecord> entry : entries) {
+                    if (bytesStored <= maxBytes) {
+                        break;
+                    }
+                    evict(entry.getKey(), entry.getValue(), evictedUrls);
+                    assetRecords.remove(entry.getKey());
+                }
+            }
+
+            if (!evictedUrls.isEmpty()) {
+                Log.debug(
+                        MessagingConstants.LOG_TAG,
+                        SELF_TAG,
+                        "trim - Evicted %d cached asset(s), %d bytes stored (hit ratio %.2f).",
+                        evictedUrls.size(),
+                        bytesStored,
+                        getHitRatio());
+            }
+        }
+
+        if (listener != null && !evictedUrls.isEmpty()) {
+            listener.onAssetsEvicted(evictedUrls);
+        }
+    }
+
+    synchronized long getBytesStored() {
+        return bytesStored;
+    }
+
+    synchronized int getAssetCount() {
+        return assetRecords.size();
+    }
+
+    synchronized long getHitCount() {
+        return hitCount;
+    }
+
+    synchronized long getMissCount() {
+        return missCount;
+    }
+
+    synchronized long getEvictedCount() {
+        return evictedCount;
+    }
+
+    /**
+     * Returns the ratio of requested assets which were found in the store.
+     *
+     * @return {@code double} between 0 and 1, or 0 if no assets have been requested
+     */
+    synchronized double getHitRatio() {
+        final long requestCount = hitCount + missCount;
+        return requestCount == 0 ? 0 : (double) hitCount / requestCount;
+    }
+
+    synchronized boolean contains(final String url) {
+        return assetRecords.containsKey(url);
+    }
+
+    // must be called while holding the lock, returns an empty map if no usage was persisted or the
+    // persisted usage cannot be read
+    private Map<String, AssetRecord> readUsage() {
+        final Map<String, AssetRecord> records = new HashMap<>();
+        if (cacheService == null) {
+            return records;
+        }
+        final CacheResult cacheResult =
+                cacheService.get(
+                        MessagingConstants.CACHE_BASE_DIR,
+                        MessagingConstants.IMAGES_USAGE_CACHE_KEY);
+        if (cacheResult == null || cacheResult.getData() == null) {
+            return records;
+        }
+        try (InputStream inputStream = cacheResult.getData()) {
+            final DataInputStream input = new DataInputStream(inputStream);
+            if (input.readInt() != USAGE_FORMAT_VERSION) {
+                return records;
+            }
+            final int count = PropositionCacheCodec.readCount(input);
+            for (int i = 0; i < count; i++) {
+                final String url = input.readUTF();
+                final AssetRecord record = new AssetRecord(0, input.readLong());
+                record.freshUntilMillis = input.readLong();
+                records.put(url, record);
+            }
+        } catch (final IOException exception) {
+            Log.debug(
+                    MessagingConstants.LOG_TAG,
+                    SELF_TAG,
+                    "readUsage - Unable to read the cached asset usage: %s",
+                    exception.getLocalizedMessage());
+            records.clear();
+        }
+        return records;
+    }
+
+    // must be called while holding the lock
+    private void refreshPresentationTimestamps() {
+        if (presentableMessageMapper == null) {
+            return;
+        }
+        for (final Map.Entry<String, AssetRecord> entry : assetRecords.entrySet()) {
+            final long lastPresentedMillis =
+                    presentableMessageMapper.getAssetLastPresentedTimestamp(entry.getKey());
+            if (lastPresentedMillis > entry.getValue().lastUsedMillis) {
+                entry.getValue().lastUsedMillis = lastPresentedMillis;
+            }
+        }
+    }
+
+    // must be called while holding the lock, the caller removes the record from the store
+    private void evict(final String url, final AssetRecord record, final List<String> evictedUrls) {
+        if (cacheService != null) {
+            cacheService.remove(assetCacheLocation, url);
+        }
+        bytesStored -= record.sizeBytes;
+        evictedCount++;
+        evictedUrls.add(url);
+    }
+
+    private static final class AssetRecord {
+        private final long sizeBytes;
+        private long lastUsedMillis;
+        // the end of the freshness window extended by a revalidation, 0 if not revalidated
+        private long freshUntilMillis;
+
+        private AssetRecord(final long sizeBytes, final long lastUsedMillis) {
+            this.sizeBytes = sizeBytes;
+            this.lastUsedMillis = lastUsedMillis;
+        }
+    }
+}
@@ -122,21 +122,29 @@ class InternalMessagingUtils {
     // ========================================================================================
 
     static String getAssetCacheLocation() {
+        return getCacheSubdirectoryLocation(MessagingConstants.IMAGES_CACHE_SUBDIRECTORY);
+    }
+
+    static String getAssetStagingLocation() {
+        return getCacheSubdirectoryLocation(MessagingConstants.DOWNLOADS_CACHE_SUBDIRECTORY);
+    }
+
+    private static String getCacheSubdirectoryLocation(final String subdirectory) {
         final DeviceInforming deviceInfoService =
                 ServiceProvider.getInstance().getDeviceInfoService();
-        String assetCacheLocation = null;
+        String location = null;
         if (deviceInfoService != null) {
             final File applicationCacheDir = deviceInfoService.getApplicationCacheDir();
             if (applicationCacheDir != null) {
-                assetCacheLocation =
+                location =
                         applicationCacheDir
                                 + File.separator
                                 + MessagingConstants.CACHE_BASE_DIR
                                 + File.separator
-                                + MessagingConstants.IMAGES_CACHE_SUBDIRECTORY;
+                                + subdirectory;
             }
         }
-        return assetCacheLocation;
+        return location;
     }
 
     // ========================================================================================
@@ -187,6 +195,45 @@ class InternalMessagingUtils {
                         .containsKey(MessagingConstants.EventDataKeys.Messaging.REFRESH_MESSAGES);
     }
 
+    /**
+     * Determines if the passed in {@code Event} is a hub event notifying a change to a standard or
+     * XDM shared state.
+     *
+     * @param event An {@link Event}.
+     * @return {@code boolean} indicating if the passed in event is a shared state change event.
+     */
+    static boolean isSharedStateChangeEvent(final Event event) {
+        if (event == null) {
+            return false;
+        }
+
+        return EventType.HUB.equalsIgnoreCase(event.getType())
+                && (MessagingConstants.EventSource.SHARED_STATE.equalsIgnoreCase(event.getSource())
+                        || MessagingConstants.EventSource.XDM_SHARED_STATE.equalsIgnoreCase(
+                                event.getSource()));
+    }
+
+    /**
+     * Determines if the passed in {@code Event} is a lifecycle pause event, dispatched when the
+     * application is moving to the background.
+     *
+     * @param event A Generic Lifecycle Request Content {@link Event}.
+     * @return {@code boolean} indicating if the passed in event is a lifecycle pause event.
+     */
+    static boolean isLifecyclePauseEvent(final Event event) {
+        if (event == null || event.getEventData() == null) {
+            return false;
+        }
+
+        return EventType.GENERIC_LIFECYCLE.equalsIgnoreCase(event.getType())
+                && EventSource.REQUEST_CONTENT.equalsIgnoreCase(event.getSource())
+                && MessagingConstants.EventDataKeys.Lifecycle.LIFECYCLE_PAUSE.equals(
+                        DataReader.optString(
+                                event.getEventData(),
+                                MessagingConstants.EventDataKeys.Lifecycle.LIFECYCLE_ACTION_KEY,
+                                null));
+    }
+
     /**
      * Determines if the passed in {@code Event} is an edge personalization decision event.
      *
@@ -518,4 +565,36 @@ class InternalMessagingUtils {
         updatedMap.put(surface, list);
         return updatedMap;
     }
+
+    // ========================================================================================
+    // Collection copies
+    // ========================================================================================
+    /**
+     * Creates a deep copy of the provided {@code Map}, copying its nested maps and lists so the
+     * copy can be modified without changing the original.
+     *
+     * @param map the {@link Map<String, Object>} to copy
+     * @return a {@code Map<String, Object>} containing a deep copy of the provided map
+     */
+    static Map<String, Object> copyMap(final Map<String, Object> map) {
+        final Map<String, Object> copy = new HashMap<>();
+        for (final Map.Entry<String, Object> entry : map.entrySet()) {
+            copy.put(entry.getKey(), copyValue(entry.getValue()));
+        }
+        return copy;
+    }
+
+    private static Object copyValue(final Object value) {
+        if (value instanceof Map) {
+            return copyMap((Map<String, Object>) value);
+        }
+        if (value instanceof List) {
+            final List<Object> copy = new ArrayList<>();
+            for (final Object element : (List<Object>) value) {
+                copy.add(copyValue(element));
+            }
+            return copy;
+        }
+        return value;
+    }
 }
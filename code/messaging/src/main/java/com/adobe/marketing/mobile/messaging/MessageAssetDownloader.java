@@ -11,7 +11,6 @@
 
 package com.adobe.marketing.mobile.messaging;
 
-import com.adobe.marketing.mobile.internal.util.StringEncoder;
 import com.adobe.marketing.mobile.services.HttpConnecting;
 import com.adobe.marketing.mobile.services.HttpMethod;
 import com.adobe.marketing.mobile.services.Log;
@@ -24,18 +23,29 @@ import com.adobe.marketing.mobile.services.caching.CacheService;
 import com.adobe.marketing.mobile.util.StringUtils;
 import com.adobe.marketing.mobile.util.TimeUtils;
 import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
 import java.net.HttpURLConnection;
+import java.util.ArrayList;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.TimeZone;
+import java.util.concurrent.TimeUnit;
 
 /** Assists in downloading and caching assets for {@code Message}s. */
 class MessageAssetDownloader {
     private static final String SELF_TAG = "MessageAssetDownloader";
+    private static final String CACHE_CONTROL_MAX_AGE = "max-age";
+    private static final String CACHE_CONTROL_NO_CACHE = "no-cache";
+    private static final String CACHE_CONTROL_NO_STORE = "no-store";
     private final List<String> assetsCollection;
+    private final List<String> assetsToDownload;
+    private final AssetPrefetchQueue assetPrefetchQueue;
+    private final ImageAssetStore imageAssetStore;
+    private final StreamingAssetWriter streamingAssetWriter;
     private final CacheService cacheService;
     private final String assetCacheLocation;
     private File assetDir;
@@ -46,7 +56,79 @@ class MessageAssetDownloader {
      * @param assets {@code ArrayList<String>} of assets to download and cache
      */
     MessageAssetDownloader(final List<String> assets) {
+        this(assets, assets);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param assets {@code List<String>} of assets to retain in the cache
+     * @param assetsToDownload {@code List<String>} of assets to download and cache, a subset of
+     *     {@code assets}
+     */
+    MessageAssetDownloader(final List<String> assets, final List<String> assetsToDownload) {
+        this(assets, assetsToDownload, new AssetPrefetchQueue());
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param assets {@code List<String>} of assets to retain in the cache
+     * @param assetsToDownload {@code List<String>} of assets to download and cache in priority
+     *     order, a subset of {@code assets}
+     * @param assetPrefetchQueue {@link AssetPrefetchQueue} used to schedule the downloads
+     */
+    MessageAssetDownloader(
+            final List<String> assets,
+            final List<String> assetsToDownload,
+            final AssetPrefetchQueue assetPrefetchQueue) {
+        this(assets, assetsToDownload, assetPrefetchQueue, null);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param assets {@code List<String>} of assets to retain in the cache
+     * @param assetsToDownload {@code List<String>} of assets to download and cache in priority
+     *     order, a subset of {@code assets}
+     * @param assetPrefetchQueue {@link AssetPrefetchQueue} used to schedule the downloads
+     * @param imageAssetStore {@link ImageAssetStore} notified of each cached asset, may be null
+     */
+    MessageAssetDownloader(
+            final List<String> assets,
+            final List<String> assetsToDownload,
+            final AssetPrefetchQueue assetPrefetchQueue,
+            final ImageAssetStore imageAssetStore) {
+        this(
+                assets,
+                assetsToDownload,
+                assetPrefetchQueue,
+                imageAssetStore,
+                new StreamingAssetWriter(InternalMessagingUtils.getAssetStagingLocation()));
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param assets {@code List<String>} of assets to retain in the cache
+     * @param assetsToDownload {@code List<String>} of assets to download and cache in priority
+     *     order, a subset of {@code assets}
+     * @param assetPrefetchQueue {@link AssetPrefetchQueue} used to schedule the downloads
+     * @param imageAssetStore {@link ImageAssetStore} notified of each cached asset, may be null
+     * @param streamingAssetWriter {@link StreamingAssetWriter} used to stage and validate each
+     *     download
+     */
+    MessageAssetDownloader(
+            final List<String> assets,
+            final List<String> assetsToDownload,
+            final AssetPrefetchQueue assetPrefetchQueue,
+            final ImageAssetStore imageAssetStore,
+            final StreamingAssetWriter streamingAssetWriter) {
         this.assetsCollection = assets;
+        this.assetsToDownload = assetsToDownload;
+        this.assetPrefetchQueue = assetPrefetchQueue;
+        this.imageAssetStore = imageAssetStore;
+        this.streamingAssetWriter = streamingAssetWriter;
         this.cacheService = ServiceProvider.getInstance().getCacheService();
         this.assetCacheLocation = InternalMessagingUtils.getAssetCacheLocation();
         createAssetCacheDirectory();
@@ -54,7 +136,7 @@ class MessageAssetDownloader {
 
     /**
      * Downloads and caches all assets present in the {@link
-     * MessageAssetDownloader#assetsCollection} list.
+     * MessageAssetDownloader#assetsToDownload} list.
      *
      * <p>Attempts to purge assets that have previously been cached but are for messages that are no
      * longer active.
@@ -80,85 +162,116 @@ class MessageAssetDownloader {
 
         // clear old assets
         if (assetDir != null) {
-            clearCachedAssetsNotInList(assetDir, assetsCollection);
+            new AssetCacheGarbageCollector(assetsCollection).sweep(assetDir);
         }
 
-        // download assets within the assets collection list
-        for (final String url : assetsCollection) {
-            // 304 - Not Modified support
-            final CacheResult cachedAsset = cacheService.get(assetCacheLocation, url);
-            final Map<String, String> requestProperties = extractHeadersFromCache(cachedAsset);
-            final NetworkRequest networkRequest =
-                    new NetworkRequest(
-                            url,
-                            HttpMethod.GET,
-                            null,
-                            requestProperties,
-                            MessagingConstants.DEFAULT_TIMEOUT,
-                            MessagingConstants.DEFAULT_TIMEOUT);
-            ServiceProvider.getInstance()
-                    .getNetworkService()
-                    .connectAsync(
-                            networkRequest,
-                            connection -> {
-                                if (connection == null) {
-                                    Log.warning(
-                                            MessagingConstants.LOG_TAG,
-                                            SELF_TAG,
-                                            "downloadAssetCollection - connection returned from"
-                                                    + " NetworkService was null. Aborting asset"
-                                                    + " download for: %s",
-                                            url);
-                                    return;
-                                }
-                                if (connection.getResponseCode()
-                                        == HttpURLConnection.HTTP_NOT_MODIFIED) {
-                                    Log.debug(
-                                            MessagingConstants.LOG_TAG,
-                                            SELF_TAG,
-                                            "downloadAssetCollection - Asset was cached previously:"
-                                                    + " %s",
-                                            url);
-                                    connection.close();
-                                    return;
-                                } else if (connection.getResponseCode()
-                                        != HttpURLConnection.HTTP_OK) {
-                                    Log.debug(
-                                            MessagingConstants.LOG_TAG,
-                                            SELF_TAG,
-                                            "downloadAssetCollection - Failed to download asset"
-                                                    + " from URL: %s",
-                                            url);
-                                    connection.close();
-                                    return;
-                                }
-                                cacheAssetData(connection, url);
-                                connection.close();
-                            });
+        final List<String> urlsToDownload =
+                assetsToDownload != null ? assetsToDownload : new ArrayList<String>();
+        // queue the downloads, cancelling any queued download of an asset no longer retained
+        assetPrefetchQueue.submit(urlsToDownload, assetsCollection, this::downloadAsset);
+        if (urlsToDownload.isEmpty()) {
+            Log.trace(
+                    MessagingConstants.LOG_TAG,
+                    SELF_TAG,
+                    "downloadAssetCollection - No new assets to download.");
         }
     }
 
     /**
-     * Recursively checks and deletes files within the cached assets directory which aren't within
-     * the {@code assetsToRetain} list.
+     * Downloads and caches the asset at the provided url.
      *
-     * @param cacheAsset {@link File} containing the cached assets directory
-     * @param assetsToRetain {@code List<String>} containing assets which should be retained
+     * @param url {@link String} containing the asset url
+     * @param onComplete {@link Runnable} called once the download has finished
      */
-    private void clearCachedAssetsNotInList(
-            final File cacheAsset, final List<String> assetsToRetain) {
-        if (cacheAsset.isDirectory()) {
-            for (final File child : cacheAsset.listFiles()) {
-                clearCachedAssetsNotInList(child, assetsToRetain);
+    private void downloadAsset(final String url, final Runnable onComplete) {
+        // 304 - Not Modified support
+        final CacheResult cachedAsset = cacheService.get(assetCacheLocation, url);
+        final long now = System.currentTimeMillis();
+        if (isFresh(cachedAsset, now)
+                || (cachedAsset != null
+                        && imageAssetStore != null
+                        && imageAssetStore.isFresh(url, now))) {
+            Log.trace(
+                    MessagingConstants.LOG_TAG,
+                    SELF_TAG,
+                    "downloadAssetCollection - Cached asset is still fresh, skipping revalidation:"
+                            + " %s",
+                    url);
+            closeQuietly(cachedAsset.getData());
+            if (imageAssetStore != null) {
+                imageAssetStore.onAssetRevalidated(url);
             }
-        } else {
-            for (final String asset : assetsToRetain) {
-                if (!cacheAsset.getName().equals(StringEncoder.sha2hash(asset))
-                        && cacheAsset.exists()) {
-                    cacheAsset.delete();
-                }
+            onComplete.run();
+            return;
+        }
+        final Map<String, String> requestProperties = extractHeadersFromCache(cachedAsset);
+        final NetworkRequest networkRequest =
+                new NetworkRequest(
+                        url,
+                        HttpMethod.GET,
+                        null,
+                        requestProperties,
+                        MessagingConstants.DEFAULT_TIMEOUT,
+                        MessagingConstants.DEFAULT_TIMEOUT);
+        ServiceProvider.getInstance()
+                .getNetworkService()
+                .connectAsync(
+                        networkRequest,
+                        connection -> {
+                            try {
+                                handleDownloadResponse(connection, url, cachedAsset);
+                            } finally {
+                                onComplete.run();
+                            }
+                        });
+    }
+
+    private void handleDownloadResponse(
+            final HttpConnecting connection, final String url, final CacheResult cachedAsset) {
+        if (connection == null) {
+            Log.warning(
+                    MessagingConstants.LOG_TAG,
+                    SELF_TAG,
+                    "downloadAssetCollection - connection returned from NetworkService was null."
+                            + " Aborting asset download for: %s",
+                    url);
+            return;
+        }
+        if (connection.getResponseCode() == HttpURLConnection.HTTP_NOT_MODIFIED) {
+            Log.debug(
+                    MessagingConstants.LOG_TAG,
+                    SELF_TAG,
+                    "downloadAssetCollection - Asset was cached previously: %s",
+                    url);
+            // the extended freshness is recorded by the asset store, rewriting the cache entry to
+            // update its metadata would copy the whole asset
+            closeQuietly(cachedAsset != null ? cachedAsset.getData() : null);
+            if (imageAssetStore != null) {
+                imageAssetStore.onAssetRevalidated(
+                        url, getFreshUntil(connection, System.currentTimeMillis()));
             }
+            connection.close();
+            return;
+        } else if (connection.getResponseCode() != HttpURLConnection.HTTP_OK) {
+            Log.debug(
+                    MessagingConstants.LOG_TAG,
+                    SELF_TAG,
+                    "downloadAssetCollection - Failed to download asset from URL: %s",
+                    url);
+            connection.close();
+            return;
+        }
+        if (!assetPrefetchQueue.isRequested(url)) {
+            Log.debug(
+                    MessagingConstants.LOG_TAG,
+                    SELF_TAG,
+                    "downloadAssetCollection - Discarding asset which is no longer needed: %s",
+                    url);
+            connection.close();
+            return;
         }
+        cacheAssetData(connection, url);
+        connection.close();
     }
 
     /**
@@ -187,9 +300,93 @@ class MessageAssetDownloader {
                 response.getResponsePropertyValue(MessagingConstants.HTTP_HEADER_ETAG);
         metadata.put(MessagingConstants.HTTP_HEADER_ETAG, eTagProp == null ? "" : eTagProp);
 
+        metadata.put(
+                MessagingConstants.METADATA_FRESH_UNTIL,
+                String.valueOf(getFreshUntil(response, System.currentTimeMillis())));
+
         return metadata;
     }
 
+    /**
+     * Returns the time until which a response may be used without revalidation, based on the
+     * {@code max-age} directive of its {@code Cache-Control} header.
+     *
+     * @param response the {@code HttpConnecting} containing the response
+     * @param now {@code long} containing the current time in milliseconds
+     * @return {@code long} containing the end of the freshness window in milliseconds, which is
+     *     {@code now} if the response must be revalidated on each use
+     */
+    private static long getFreshUntil(final HttpConnecting response, final long now) {
+        final long maxAgeSeconds =
+                parseMaxAge(
+                        response.getResponsePropertyValue(
+                                MessagingConstants.HTTP_HEADER_CACHE_CONTROL));
+        return maxAgeSeconds > 0 ? now + TimeUnit.SECONDS.toMillis(maxAgeSeconds) : now;
+    }
+
+    /**
+     * Parses the {@code max-age} directive of a {@code Cache-Control} header value.
+     *
+     * @param cacheControl {@link String} containing the {@code Cache-Control} header value
+     * @return {@code long} containing the max age in seconds, or 0 if the response must be
+     *     revalidated on each use
+     */
+    static long parseMaxAge(final String cacheControl) {
+        if (StringUtils.isNullOrEmpty(cacheControl)) {
+            return 0;
+        }
+        long maxAgeSeconds = 0;
+        for (final String directive : cacheControl.split(",")) {
+            final String[] parts = directive.trim().split("=", 2);
+            final String name = parts[0].trim().toLowerCase(Locale.ROOT);
+            if (CACHE_CONTROL_NO_CACHE.equals(name) || CACHE_CONTROL_NO_STORE.equals(name)) {
+                return 0;
+            }
+            if (CACHE_CONTROL_MAX_AGE.equals(name) && parts.length == 2) {
+                try {
+                    maxAgeSeconds = Long.parseLong(parts[1].trim().replace("\"", ""));
+                } catch (final NumberFormatException exception) {
+                    return 0;
+                }
+            }
+        }
+        return Math.max(0, maxAgeSeconds);
+    }
+
+    /**
+     * Determines if a cached asset is within its freshness window.
+     *
+     * @param cachedAsset {@link CacheResult} containing the cached asset
+     * @param now {@code long} containing the current time in milliseconds
+     * @return {@code boolean} true if the asset can be used without revalidation
+     */
+    static boolean isFresh(final CacheResult cachedAsset, final long now) {
+        if (cachedAsset == null || cachedAsset.getMetadata() == null) {
+            return false;
+        }
+        final String freshUntil =
+                cachedAsset.getMetadata().get(MessagingConstants.METADATA_FRESH_UNTIL);
+        if (StringUtils.isNullOrEmpty(freshUntil)) {
+            return false;
+        }
+        try {
+            return Long.parseLong(freshUntil) > now;
+        } catch (final NumberFormatException exception) {
+            return false;
+        }
+    }
+
+    private static void closeQuietly(final InputStream inputStream) {
+        if (inputStream == null) {
+            return;
+        }
+        try {
+            inputStream.close();
+        } catch (final IOException exception) {
+            // nothing to do, the stream was only read for its metadata
+        }
+    }
+
     /**
      * Creates http headers for conditional fetching, based on the metadata of the {@code
      * CacheResult} provided.
@@ -257,9 +454,46 @@ class MessageAssetDownloader {
 
         Log.debug(MessagingConstants.LOG_TAG, SELF_TAG, "cacheAssetData - Caching asset %s.", key);
         final Map<String, String> metadata = extractMetadataFromResponse(connection);
-        final CacheEntry cacheEntry =
-                new CacheEntry(connection.getInputStream(), CacheExpiry.never(), metadata);
-        cacheService.set(assetCacheLocation, key, cacheEntry);
+        // stage and validate the download before writing it to the cache
+        final StreamingAssetWriter.StagedAsset stagedAsset =
+                streamingAssetWriter.stage(
+                        key,
+                        connection.getInputStream(),
+                        getContentLength(connection),
+                        connection.getResponsePropertyValue(
+                                MessagingConstants.HTTP_HEADER_DIGEST));
+        if (stagedAsset == null) {
+            return;
+        }
+        try (InputStream assetStream = stagedAsset.openStream()) {
+            final CacheEntry cacheEntry =
+                    new CacheEntry(assetStream, CacheExpiry.never(), metadata);
+            if (cacheService.set(assetCacheLocation, key, cacheEntry) && imageAssetStore != null) {
+                imageAssetStore.onAssetCached(key, stagedAsset.getLength());
+            }
+        } catch (final IOException exception) {
+            Log.debug(
+                    MessagingConstants.LOG_TAG,
+                    SELF_TAG,
+                    "cacheAssetData - Failed to cache asset %s: %s",
+                    key,
+                    exception.getLocalizedMessage());
+        } finally {
+            stagedAsset.discard();
+        }
+    }
+
+    private static long getContentLength(final HttpConnecting connection) {
+        final String contentLength =
+                connection.getResponsePropertyValue(MessagingConstants.HTTP_HEADER_CONTENT_LENGTH);
+        if (StringUtils.isNullOrEmpty(contentLength)) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(contentLength.trim());
+        } catch (final NumberFormatException exception) {
+            return -1;
+        }
     }
 
     /**
@@ -12,6 +12,7 @@
 package com.adobe.marketing.mobile.messaging;
 
 import androidx.annotation.VisibleForTesting;
+import com.adobe.marketing.mobile.internal.util.StringEncoder;
 import com.adobe.marketing.mobile.services.Log;
 import com.adobe.marketing.mobile.services.ServiceProvider;
 import com.adobe.marketing.mobile.services.caching.CacheEntry;
@@ -21,17 +22,18 @@ import com.adobe.marketing.mobile.services.caching.CacheService;
 import com.adobe.marketing.mobile.util.MapUtils;
 import com.adobe.marketing.mobile.util.StringUtils;
 import com.adobe.marketing.mobile.util.UrlUtils;
+import java.io.BufferedInputStream;
 import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
+import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.ObjectInputStream;
-import java.io.ObjectOutputStream;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.NoSuchElementException;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * This class contains functionality to cache the json message payload and any image asset URL's
@@ -42,11 +44,32 @@ final class MessagingCacheUtilities {
     private final CacheService cacheService;
     private final String assetCacheLocation;
     private final String METADATA_KEY_PATH_TO_FILE = "pathToFile";
-    private final Map<String, String> assetMap = new HashMap<>();
+    private final Map<String, String> assetMap = new ConcurrentHashMap<>();
+    // shared by all asset downloads so superseded downloads can be cancelled
+    private final AssetPrefetchQueue assetPrefetchQueue = new AssetPrefetchQueue();
+    private final ImageAssetStore imageAssetStore;
+    private final StreamingAssetWriter streamingAssetWriter;
+    private final AssetRevalidationScheduler assetRevalidationScheduler =
+            new AssetRevalidationScheduler(this::revalidateImageAssets);
+    // guards the retained assets and the downloads started for them
+    private final Object assetMutex = new Object();
+    private List<String> retainedAssets = new ArrayList<>();
 
     public MessagingCacheUtilities() {
         this.cacheService = ServiceProvider.getInstance().getCacheService();
         this.assetCacheLocation = InternalMessagingUtils.getAssetCacheLocation();
+        this.streamingAssetWriter =
+                new StreamingAssetWriter(InternalMessagingUtils.getAssetStagingLocation());
+        this.imageAssetStore =
+                new ImageAssetStore(
+                        cacheService, assetCacheLocation, PresentableMessageMapper.getInstance());
+        // evicted assets are loaded from their remote url until they are cached again
+        this.imageAssetStore.setEvictionListener(
+                evictedUrls -> {
+                    for (final String url : evictedUrls) {
+                        assetMap.remove(url);
+                    }
+                });
     }
     // ========================================================================================================
     // Message payload caching
@@ -59,19 +82,32 @@ final class MessagingCacheUtilities {
      */
     boolean arePropositionsCached() {
         return cacheService.get(
-                        MessagingConstants.CACHE_BASE_DIR,
-                        MessagingConstants.PROPOSITIONS_CACHE_SUBDIRECTORY)
-                != null;
+                                MessagingConstants.CACHE_BASE_DIR,
+                                MessagingConstants.PROPOSITIONS_INDEX_CACHE_KEY)
+                        != null
+                || cacheService.get(
+                                MessagingConstants.CACHE_BASE_DIR,
+                                MessagingConstants.PROPOSITIONS_CACHE_SUBDIRECTORY)
+                        != null;
     }
 
     /** Delete all contents in the Messaging extension cache subdirectory. */
     @VisibleForTesting
     void clearCachedData() {
+        final List<String> cachedSurfaceUris = readPropositionIndex();
+        if (cachedSurfaceUris != null) {
+            for (final String uri : cachedSurfaceUris) {
+                cacheService.remove(MessagingConstants.CACHE_BASE_DIR, getSurfaceCacheKey(uri));
+            }
+        }
+        removePropositionIndex();
         cacheService.remove(
                 MessagingConstants.CACHE_BASE_DIR,
                 MessagingConstants.PROPOSITIONS_CACHE_SUBDIRECTORY);
         cacheService.remove(
                 MessagingConstants.CACHE_BASE_DIR, MessagingConstants.IMAGES_CACHE_SUBDIRECTORY);
+        cacheService.remove(
+                MessagingConstants.CACHE_BASE_DIR, MessagingConstants.IMAGES_USAGE_CACHE_KEY);
         Log.trace(
                 MessagingConstants.LOG_TAG,
                 SELF_TAG,
@@ -84,9 +120,351 @@ final class MessagingCacheUtilities {
      * Retrieves cached {@code String} proposition payloads and returns them in a {@link List<
      * Proposition >}.
      *
+     * <p>Propositions are cached in one entry per {@link Surface}, tracked by a proposition index
+     * entry. Propositions cached in a single entry by previous versions of the extension are
+     * migrated to per-surface entries once they have been loaded.
+     *
      * @return a {@code Map<Surface, List<Proposition>>} containing the cached proposition payloads.
      */
     Map<Surface, List<Proposition>> getCachedPropositions() {
+        final List<String> cachedSurfaceUris = readPropositionIndex();
+        if (cachedSurfaceUris == null) {
+            return migrateLegacyCachedPropositions();
+        }
+
+        final Map<Surface, List<Proposition>> cachedPropositions = new HashMap<>();
+        for (final String uri : cachedSurfaceUris) {
+            final Surface surface = Surface.fromUriString(uri);
+            if (surface == null) {
+                continue;
+            }
+            final List<Proposition> surfacePropositions = readSurfacePropositions(surface);
+            if (!MessagingUtils.isNullOrEmpty(surfacePropositions)) {
+                cachedPropositions.put(surface, surfacePropositions);
+            }
+        }
+        return cachedPropositions.isEmpty() ? null : cachedPropositions;
+    }
+
+    /**
+     * Retrieves the surfaces which have cached propositions from the proposition index, without
+     * decoding their propositions.
+     *
+     * <p>Propositions cached in a single entry by previous versions of the extension are migrated
+     * to per-surface entries first, which decodes them once.
+     *
+     * @return {@code List<Surface>} containing the cached surfaces, empty if none are cached
+     */
+    List<Surface> getCachedSurfaces() {
+        final List<Surface> cachedSurfaces = new ArrayList<>();
+        List<String> cachedSurfaceUris = readPropositionIndex();
+        if (cachedSurfaceUris == null) {
+            final Map<Surface, List<Proposition>> legacyPropositions =
+                    migrateLegacyCachedPropositions();
+            if (legacyPropositions != null) {
+                cachedSurfaces.addAll(legacyPropositions.keySet());
+            }
+            return cachedSurfaces;
+        }
+
+        for (final String uri : cachedSurfaceUris) {
+            final Surface surface = Surface.fromUriString(uri);
+            if (surface != null) {
+                cachedSurfaces.add(surface);
+            }
+        }
+        return cachedSurfaces;
+    }
+
+    /**
+     * Retrieves the cached propositions for the provided {@code Surface}.
+     *
+     * @param surface the {@link Surface} to retrieve cached propositions for
+     * @return {@code List<Proposition>} containing the cached propositions or null if none exist
+     */
+    List<Proposition> getCachedPropositions(final Surface surface) {
+        return surface != null ? readSurfacePropositions(surface) : null;
+    }
+
+    /**
+     * Caches the provided {@code Map<Surface, List<Proposition>>}.
+     *
+     * <p>Only the cache entries for the surfaces present in {@code newPropositions} or {@code
+     * surfacesToRemove} are written or removed. Cached propositions for any other surface are left
+     * untouched.
+     *
+     * @param newPropositions the {@link Map<Surface, List< Proposition >>} containing the
+     *     propositions to be cached.
+     * @param surfacesToRemove {@link List<Surface>} containing surfaces to be removed from the
+     *     cache
+     */
+    void cachePropositions(
+            final Map<Surface, List<Proposition>> newPropositions,
+            final List<Surface> surfacesToRemove) {
+        List<String> cachedSurfaceUris = readPropositionIndex();
+        if (cachedSurfaceUris == null) {
+            final Map<Surface, List<Proposition>> legacyPropositions =
+                    migrateLegacyCachedPropositions();
+            cachedSurfaceUris = new ArrayList<>();
+            if (legacyPropositions != null) {
+                for (final Surface surface : legacyPropositions.keySet()) {
+                    cachedSurfaceUris.add(surface.getUri());
+                }
+            }
+        }
+
+        final List<String> updatedSurfaceUris = new ArrayList<>(cachedSurfaceUris);
+        final List<String> surfaceUrisToRemove = new ArrayList<>();
+        for (final Surface surface : surfacesToRemove) {
+            surfaceUrisToRemove.add(surface.getUri());
+        }
+
+        if (newPropositions != null) {
+            for (final Map.Entry<Surface, List<Proposition>> entry : newPropositions.entrySet()) {
+                final String uri = entry.getKey().getUri();
+                if (surfaceUrisToRemove.contains(uri)) {
+                    continue;
+                }
+                if (MessagingUtils.isNullOrEmpty(entry.getValue())) {
+                    surfaceUrisToRemove.add(uri);
+                    continue;
+                }
+                if (!writeSurfacePropositions(entry.getKey(), entry.getValue())) {
+                    continue;
+                }
+                if (!updatedSurfaceUris.contains(uri)) {
+                    updatedSurfaceUris.add(uri);
+                }
+            }
+        }
+        updatedSurfaceUris.removeAll(surfaceUrisToRemove);
+
+        // the index is updated before removing any surface entries so it never references an
+        // entry which no longer exists
+        if (updatedSurfaceUris.isEmpty()) {
+            removePropositionIndex();
+            Log.trace(
+                    MessagingConstants.LOG_TAG,
+                    SELF_TAG,
+                    "In-app messaging cache has been deleted.");
+        } else if (!updatedSurfaceUris.equals(cachedSurfaceUris)) {
+            writePropositionIndex(updatedSurfaceUris);
+        }
+
+        for (final String uri : surfaceUrisToRemove) {
+            if (cachedSurfaceUris.contains(uri)) {
+                cacheService.remove(MessagingConstants.CACHE_BASE_DIR, getSurfaceCacheKey(uri));
+            }
+        }
+    }
+
+    // ========================================================================================================
+    // Per-surface proposition cache entries
+    // ========================================================================================================
+
+    private String getSurfaceCacheKey(final String surfaceUri) {
+        return MessagingConstants.PROPOSITIONS_SURFACE_CACHE_KEY_PREFIX + surfaceUri;
+    }
+
+    /**
+     * Reads the list of surface URIs which have cached propositions.
+     *
+     * <p>If the index cannot be decoded, the per-surface entries it tracked are removed so they
+     * are not left behind in the cache.
+     *
+     * @return {@code List<String>} containing the cached surface URIs or null if no valid index
+     *     exists
+     */
+    private List<String> readPropositionIndex() {
+        try {
+            return decodeIndexEntry(MessagingConstants.PROPOSITIONS_INDEX_CACHE_KEY);
+        } catch (final IOException ioException) {
+            Log.warning(
+                    MessagingConstants.LOG_TAG,
+                    SELF_TAG,
+                    "Exception occurred when reading the cached proposition index: %s",
+                    ioException.getMessage());
+            sweepSurfaceEntries();
+            return null;
+        }
+    }
+
+    /**
+     * Removes the per-surface entries tracked by the backup of the proposition index, along with
+     * both index entries.
+     *
+     * <p>The {@link CacheService} cannot list its keys, so the backup index, which is written
+     * before each update of the index, is the record of the per-surface keys which may exist.
+     */
+    private void sweepSurfaceEntries() {
+        List<String> surfaceUris = null;
+        try {
+            surfaceUris = decodeIndexEntry(MessagingConstants.PROPOSITIONS_INDEX_BACKUP_CACHE_KEY);
+        } catch (final IOException ioException) {
+            Log.warning(
+                    MessagingConstants.LOG_TAG,
+                    SELF_TAG,
+                    "Exception occurred when reading the backup proposition index: %s",
+                    ioException.getMessage());
+        }
+        if (surfaceUris != null) {
+            for (final String uri : surfaceUris) {
+                cacheService.remove(MessagingConstants.CACHE_BASE_DIR, getSurfaceCacheKey(uri));
+            }
+            Log.debug(
+                    MessagingConstants.LOG_TAG,
+                    SELF_TAG,
+                    "Removed %d cached surface entries tracked by the corrupt proposition index.",
+                    surfaceUris.size());
+        }
+        removePropositionIndex();
+    }
+
+    // returns null if the entry does not exist, throws if it cannot be decoded
+    private List<String> decodeIndexEntry(final String key) throws IOException {
+        final CacheResult cacheResult = cacheService.get(MessagingConstants.CACHE_BASE_DIR, key);
+        final InputStream inputStream = cacheResult != null ? cacheResult.getData() : null;
+        if (inputStream == null) {
+            return null;
+        }
+
+        try {
+            return PropositionCacheCodec.decodeIndex(inputStream);
+        } finally {
+            closeStream(inputStream);
+        }
+    }
+
+    // the backup is written first, so it lists every surface entry the index may reference even
+    // if writing the index is interrupted
+    private void writePropositionIndex(final List<String> surfaceUris) {
+        try {
+            final byte[] index = PropositionCacheCodec.encodeIndex(surfaceUris);
+            writeCacheEntry(MessagingConstants.PROPOSITIONS_INDEX_BACKUP_CACHE_KEY, index);
+            writeCacheEntry(MessagingConstants.PROPOSITIONS_INDEX_CACHE_KEY, index);
+        } catch (final IOException e) {
+            Log.warning(
+                    MessagingConstants.LOG_TAG,
+                    SELF_TAG,
+                    "IOException while attempting to write the proposition index (%s)",
+                    e);
+        }
+    }
+
+    private void removePropositionIndex() {
+        cacheService.remove(
+                MessagingConstants.CACHE_BASE_DIR, MessagingConstants.PROPOSITIONS_INDEX_CACHE_KEY);
+        cacheService.remove(
+                MessagingConstants.CACHE_BASE_DIR,
+                MessagingConstants.PROPOSITIONS_INDEX_BACKUP_CACHE_KEY);
+    }
+
+    /**
+     * Reads the cached propositions for the provided {@code Surface}.
+     *
+     * @param surface the {@link Surface} to read cached propositions for
+     * @return {@code List<Proposition>} containing the cached propositions or null if none exist
+     */
+    private List<Proposition> readSurfacePropositions(final Surface surface) {
+        final CacheResult cacheResult =
+                cacheService.get(
+                        MessagingConstants.CACHE_BASE_DIR, getSurfaceCacheKey(surface.getUri()));
+        final InputStream cachedData = cacheResult != null ? cacheResult.getData() : null;
+        if (cachedData == null) {
+            Log.trace(
+                    MessagingConstants.LOG_TAG,
+                    SELF_TAG,
+                    "Unable to find cached propositions for surface (%s).",
+                    surface.getUri());
+            return null;
+        }
+
+        final InputStream inputStream = new BufferedInputStream(cachedData);
+        try {
+            return PropositionCacheCodec.decodeSurface(inputStream, surface);
+        } catch (final IOException ioException) {
+            Log.warning(
+                    MessagingConstants.LOG_TAG,
+                    SELF_TAG,
+                    "Exception occurred when reading cached propositions for surface (%s): %s",
+                    surface.getUri(),
+                    ioException.getMessage());
+            return null;
+        } finally {
+            closeStream(inputStream);
+        }
+    }
+
+    private boolean writeSurfacePropositions(
+            final Surface surface, final List<Proposition> propositions) {
+        try {
+            return writeCacheEntry(
+                    getSurfaceCacheKey(surface.getUri()),
+                    PropositionCacheCodec.encodeSurface(surface, propositions));
+        } catch (final IOException e) {
+            Log.warning(
+                    MessagingConstants.LOG_TAG,
+                    SELF_TAG,
+                    "IOException while attempting to cache propositions for surface (%s): %s",
+                    surface.getUri(),
+                    e);
+            return false;
+        }
+    }
+
+    private boolean writeCacheEntry(final String key, final byte[] data) {
+        final InputStream inputStream = new ByteArrayInputStream(data);
+        try {
+            final CacheEntry cacheEntry = new CacheEntry(inputStream, CacheExpiry.never(), null);
+            return cacheService.set(MessagingConstants.CACHE_BASE_DIR, key, cacheEntry);
+        } finally {
+            closeStream(inputStream);
+        }
+    }
+
+    // ========================================================================================================
+    // Legacy proposition cache entry
+    // ========================================================================================================
+
+    /**
+     * Loads propositions cached in a single entry by previous versions of the extension, writes
+     * them to per-surface cache entries and removes the legacy entry.
+     *
+     * @return a {@code Map<Surface, List<Proposition>>} containing the migrated propositions.
+     */
+    private Map<Surface, List<Proposition>> migrateLegacyCachedPropositions() {
+        final Map<Surface, List<Proposition>> legacyPropositions = loadLegacyCachedPropositions();
+        if (MapUtils.isNullOrEmpty(legacyPropositions)) {
+            return legacyPropositions;
+        }
+
+        Log.debug(
+                MessagingConstants.LOG_TAG,
+                SELF_TAG,
+                "Migrating cached propositions to per-surface cache entries.");
+        final List<String> surfaceUris = new ArrayList<>();
+        for (final Map.Entry<Surface, List<Proposition>> entry : legacyPropositions.entrySet()) {
+            if (writeSurfacePropositions(entry.getKey(), entry.getValue())) {
+                surfaceUris.add(entry.getKey().getUri());
+            }
+        }
+        if (surfaceUris.size() == legacyPropositions.size()) {
+            writePropositionIndex(surfaceUris);
+            cacheService.remove(
+                    MessagingConstants.CACHE_BASE_DIR,
+                    MessagingConstants.PROPOSITIONS_CACHE_SUBDIRECTORY);
+        }
+        return legacyPropositions;
+    }
+
+    /**
+     * Retrieves propositions cached in a single entry, decoding them with the {@link
+     * PropositionCacheCodec} or with Java serialization if they were cached by an older version of
+     * the extension.
+     *
+     * @return a {@code Map<Surface, List<Proposition>>} containing the cached proposition payloads.
+     */
+    private Map<Surface, List<Proposition>> loadLegacyCachedPropositions() {
         final CacheResult cacheResult =
                 cacheService.get(
                         MessagingConstants.CACHE_BASE_DIR,
@@ -105,10 +483,52 @@ final class MessagingCacheUtilities {
                     fileMetadata.get(METADATA_KEY_PATH_TO_FILE));
         }
 
+        final InputStream cachedData = cacheResult.getData();
+        if (cachedData == null) {
+            Log.warning(
+                    MessagingConstants.LOG_TAG,
+                    SELF_TAG,
+                    "Unable to read cached data, the cached proposition file is empty.");
+            return null;
+        }
+
+        final BufferedInputStream inputStream = new BufferedInputStream(cachedData);
+        try {
+            if (PropositionCacheCodec.hasHeader(inputStream)) {
+                final Map<Surface, List<Proposition>> cachedPropositions =
+                        PropositionCacheCodec.decode(inputStream);
+                closeStream(inputStream);
+                return cachedPropositions.isEmpty() ? null : cachedPropositions;
+            }
+        } catch (final IOException ioException) {
+            Log.warning(
+                    MessagingConstants.LOG_TAG,
+                    SELF_TAG,
+                    "Exception occurred when decoding the cached file: %s",
+                    ioException.getMessage());
+            closeStream(inputStream);
+            return null;
+        }
+
+        final Map<Surface, List<Proposition>> legacyPropositions =
+                readLegacyCachedPropositions(inputStream);
+        closeStream(inputStream);
+        return legacyPropositions;
+    }
+
+    /**
+     * Reads propositions cached with Java serialization by previous versions of the extension.
+     * These may contain either {@link Proposition} or {@link PropositionPayload} objects.
+     *
+     * @param inputStream {@link InputStream} containing the serialized propositions
+     * @return a {@code Map<Surface, List<Proposition>>} containing the cached proposition payloads.
+     */
+    private Map<Surface, List<Proposition>> readLegacyCachedPropositions(
+            final InputStream inputStream) {
         ObjectInputStream objectInputStream = null;
         Map<Surface, List<Proposition>> cachedPropositions = new HashMap<>();
         try {
-            objectInputStream = new ObjectInputStream(cacheResult.getData());
+            objectInputStream = new ObjectInputStream(inputStream);
 
             final Object cachedData = objectInputStream.readObject();
             if (cachedData == null) {
@@ -185,84 +605,14 @@ final class MessagingCacheUtilities {
         return cachedPropositions;
     }
 
-    /**
-     * Caches the provided {@code Map<Surface, List<Proposition>>}.
-     *
-     * @param newPropositions the {@link Map<Surface, List< Proposition >>} containing the
-     *     propositions to be cached.
-     * @param surfacesToRemove {@link List<Surface>} containing surfaces to be removed from the
-     *     cache
-     */
-    void cachePropositions(
-            final Map<Surface, List<Proposition>> newPropositions,
-            final List<Surface> surfacesToRemove) {
-        final Map<Surface, List<Proposition>> cachedPropositions = getCachedPropositions();
-        final Map<Surface, List<Proposition>> updatedPropositions =
-                cachedPropositions != null ? cachedPropositions : new HashMap<>();
-        updatedPropositions.putAll(newPropositions);
-        final List<Surface> propositionsToRemove = new ArrayList<>();
-        for (final Map.Entry<Surface, List<Proposition>> entry : updatedPropositions.entrySet()) {
-            if (surfacesToRemove.contains(entry.getKey())) {
-                propositionsToRemove.add(entry.getKey());
-            }
-        }
-        for (final Surface surface : propositionsToRemove) {
-            updatedPropositions.remove(surface);
-        }
-
-        // clean any existing cached propositions first if the provided propositions are null or
-        // empty
-        final Map<Surface, List<Proposition>> propositions = new HashMap<>(updatedPropositions);
-        if (MapUtils.isNullOrEmpty(propositions)) {
-            cacheService.remove(
-                    MessagingConstants.CACHE_BASE_DIR,
-                    MessagingConstants.PROPOSITIONS_CACHE_SUBDIRECTORY);
-            Log.trace(
-                    MessagingConstants.LOG_TAG,
-                    SELF_TAG,
-                    "In-app messaging cache has been deleted.");
-            return;
-        }
-
-        Log.debug(MessagingConstants.LOG_TAG, SELF_TAG, "Creating new cached propositions");
-        ByteArrayOutputStream byteArrayOutputStream = null;
-        InputStream inputStream = null;
-        ObjectOutputStream objectOutputStream = null;
+    private void closeStream(final InputStream inputStream) {
         try {
-            byteArrayOutputStream = new ByteArrayOutputStream();
-            objectOutputStream = new ObjectOutputStream(byteArrayOutputStream);
-            objectOutputStream.writeObject(propositions);
-            objectOutputStream.flush();
-            inputStream = new ByteArrayInputStream(byteArrayOutputStream.toByteArray());
-            final CacheEntry cacheEntry = new CacheEntry(inputStream, CacheExpiry.never(), null);
-            cacheService.set(
-                    MessagingConstants.CACHE_BASE_DIR,
-                    MessagingConstants.PROPOSITIONS_CACHE_SUBDIRECTORY,
-                    cacheEntry);
+            if (inputStream != null) {
+                inputStream.close();
+            }
         } catch (final IOException e) {
             Log.warning(
-                    MessagingConstants.LOG_TAG,
-                    SELF_TAG,
-                    "IOException while attempting to write remote file (%s)",
-                    e);
-        } finally {
-            try {
-                if (objectOutputStream != null) {
-                    objectOutputStream.close();
-                }
-                if (byteArrayOutputStream != null) {
-                    byteArrayOutputStream.close();
-                }
-                if (inputStream != null) {
-                    inputStream.close();
-                }
-            } catch (final IOException e) {
-                Log.warning(
-                        MessagingConstants.LOG_TAG,
-                        SELF_TAG,
-                        "Unable to close the ObjectOutputStream (%s) ",
-                        e);
-            }
+                    MessagingConstants.LOG_TAG, SELF_TAG, "Unable to close the InputStream (%s) ", e);
         }
     }
 
@@ -313,6 +663,20 @@ final class MessagingCacheUtilities {
      * @param assetsUrls a {@link List<String>} containing asset URL's to be cached.
      */
     void cacheImageAssets(final List<String> assetsUrls) {
+        cacheImageAssets(assetsUrls, assetsUrls);
+    }
+
+    /**
+     * Caches the new assets provided in the {@code assetsToDownload} list and purges any cached
+     * assets not present in the {@code assetsUrls} list.
+     *
+     * <p>Retained assets which are not in the cache are downloaded after the new assets.
+     *
+     * @param assetsUrls a {@link List<String>} containing all asset URL's to be retained.
+     * @param assetsToDownload a {@link List<String>} containing the asset URL's to be downloaded,
+     *     in priority order.
+     */
+    void cacheImageAssets(final List<String> assetsUrls, final List<String> assetsToDownload) {
         if (StringUtils.isNullOrEmpty(assetCacheLocation)) {
             Log.debug(
                     MessagingConstants.LOG_TAG,
@@ -342,9 +706,133 @@ final class MessagingCacheUtilities {
             }
         }
 
-        // download the assets
-        MessageAssetDownloader messageAssetDownloader = new MessageAssetDownloader(assetsToRetain);
-        messageAssetDownloader.downloadAssetCollection();
+        final List<String> assetsToCache = new ArrayList<>();
+        if (!MessagingUtils.isNullOrEmpty(assetsToDownload)) {
+            for (final String imageAssetUrl : assetsToDownload) {
+                if (assetsToRetain.contains(imageAssetUrl)
+                        && !assetsToCache.contains(imageAssetUrl)) {
+                    assetsToCache.add(imageAssetUrl);
+                }
+            }
+        }
+        // retained assets missing from the cache, because their download failed or they were
+        // evicted, are downloaded again after the new assets
+        for (final String imageAssetUrl : assetsToRetain) {
+            if (!assetsToCache.contains(imageAssetUrl) && !isAssetCached(imageAssetUrl)) {
+                assetsToCache.add(imageAssetUrl);
+            }
+        }
+
+        synchronized (assetMutex) {
+            retainedAssets = assetsToRetain;
+
+            // track the retained assets cached in a previous session
+            imageAssetStore.retainAll(assetsToRetain);
+            for (final String imageAssetUrl : assetsToRetain) {
+                final File cachedAsset = getCachedAssetFile(imageAssetUrl);
+                if (cachedAsset != null && cachedAsset.isFile()) {
+                    imageAssetStore.onAssetFound(
+                            imageAssetUrl, cachedAsset.length(), cachedAsset.lastModified());
+                }
+            }
+
+            // download the assets
+            MessageAssetDownloader messageAssetDownloader =
+                    new MessageAssetDownloader(
+                            assetsToRetain,
+                            assetsToCache,
+                            assetPrefetchQueue,
+                            imageAssetStore,
+                            streamingAssetWriter);
+            messageAssetDownloader.downloadAssetCollection();
+            imageAssetStore.trim();
+            imageAssetStore.persistUsage();
+        }
+
+        // previously cached assets are revalidated in a batch once their freshness expires
+        if (assetsToCache.size() < assetsToRetain.size()) {
+            assetRevalidationScheduler.schedule();
+        }
+    }
+
+    /**
+     * Revalidates the retained image assets with the server.
+     *
+     * <p>Assets still within the freshness window given by their {@code Cache-Control} header are
+     * not requested.
+     */
+    @VisibleForTesting
+    void revalidateImageAssets() {
+        synchronized (assetMutex) {
+            if (retainedAssets.isEmpty()) {
+                return;
+            }
+            Log.trace(
+                    MessagingConstants.LOG_TAG,
+                    SELF_TAG,
+                    "Revalidating %d cached image asset(s).",
+                    retainedAssets.size());
+            final MessageAssetDownloader messageAssetDownloader =
+                    new MessageAssetDownloader(
+                            retainedAssets,
+                            retainedAssets,
+                            assetPrefetchQueue,
+                            imageAssetStore,
+                            streamingAssetWriter);
+            messageAssetDownloader.downloadAssetCollection();
+        }
+    }
+
+    /** Persists the last used time of the cached image assets. */
+    void persistAssetUsage() {
+        imageAssetStore.persistUsage();
+    }
+
+    /**
+     * Sets the listener notified each time a downloaded asset is written to the cache, from the
+     * thread which downloaded it.
+     *
+     * @param cacheListener {@link ImageAssetStore.CacheListener} to notify, may be null
+     */
+    void setAssetCacheListener(final ImageAssetStore.CacheListener cacheListener) {
+        imageAssetStore.setCacheListener(cacheListener);
+    }
+
+    /**
+     * Records a request for the image assets of an in-app message about to be displayed.
+     *
+     * @param assetUrls {@code List<String>} containing the asset URL's used by the message
+     */
+    void recordAssetRequests(final List<String> assetUrls) {
+        imageAssetStore.onAssetsRequested(assetUrls);
+    }
+
+    @VisibleForTesting
+    ImageAssetStore getImageAssetStore() {
+        return imageAssetStore;
+    }
+
+    /**
+     * Returns the file an asset is cached in, which is named with the SHA-256 hash of the asset
+     * URL.
+     *
+     * @param assetUrl {@link String} containing the asset URL
+     * @return {@link File} for the cached asset, or null if it cannot be determined
+     */
+    private File getCachedAssetFile(final String assetUrl) {
+        final String fileName = StringEncoder.sha2hash(assetUrl);
+        return StringUtils.isNullOrEmpty(fileName) ? null : new File(assetCacheLocation, fileName);
+    }
+
+    /**
+     * Determines if an asset is present in the cache.
+     *
+     * @param assetUrl {@link String} containing the asset URL
+     * @return {@code boolean} true if the asset's cache file exists
+     */
+    boolean isAssetCached(final String assetUrl) {
+        final File cachedAsset = getCachedAssetFile(assetUrl);
+        return cachedAsset != null && cachedAsset.isFile();
     }
 
     /**
@@ -21,12 +21,21 @@ public final class MessagingConstants {
     static final String FEED_RULES_ENGINE_NAME = EXTENSION_NAME + "Feed.rulesengine";
     static final String CACHE_BASE_DIR = "messaging";
     static final String PROPOSITIONS_CACHE_SUBDIRECTORY = "propositions";
+    static final String PROPOSITIONS_INDEX_CACHE_KEY = "propositions.index";
+    static final String PROPOSITIONS_INDEX_BACKUP_CACHE_KEY = "propositions.index.backup";
+    static final String PROPOSITIONS_SURFACE_CACHE_KEY_PREFIX = "propositions.surface.";
     static final String IMAGES_CACHE_SUBDIRECTORY = "images";
+    static final String IMAGES_USAGE_CACHE_KEY = "images.usage";
+    static final String DOWNLOADS_CACHE_SUBDIRECTORY = "downloads";
     static final String HTTP_HEADER_IF_MODIFIED_SINCE = "If-Modified-Since";
     static final String HTTP_HEADER_LAST_MODIFIED = "Last-Modified";
     static final String HTTP_HEADER_IF_NONE_MATCH = "If-None-Match";
     static final String HTTP_HEADER_ETAG = "Etag";
+    static final String HTTP_HEADER_CACHE_CONTROL = "Cache-Control";
+    static final String HTTP_HEADER_CONTENT_LENGTH = "Content-Length";
+    static final String HTTP_HEADER_DIGEST = "Digest";
     static final String METADATA_PATH = "pathToFile";
+    static final String METADATA_FRESH_UNTIL = "freshUntil";
     static final int DEFAULT_TIMEOUT = 5;
     static final long RESPONSE_CALLBACK_TIMEOUT = 10000; // 10 seconds
 
@@ -170,6 +179,13 @@ public final class MessagingConstants {
             private Identity() {}
         }
 
+        final class Lifecycle {
+            static final String LIFECYCLE_ACTION_KEY = "action";
+            static final String LIFECYCLE_PAUSE = "pause";
+
+            private Lifecycle() {}
+        }
+
         final class Messaging {
             static final String TRACK_INFO_KEY_EVENT_TYPE = "eventType";
             static final String TRACK_INFO_KEY_MESSAGE_ID = "messageId";
@@ -292,6 +308,22 @@ public final class MessagingConstants {
             static final String JSON_RULES_KEY = "rules";
             static final String JSON_CONSEQUENCES_KEY = "consequences";
             static final String JSON_VERSION_KEY = "version";
+            static final String JSON_CONDITION_KEY = "condition";
+            static final String JSON_CONDITION_TYPE_KEY = "type";
+            static final String JSON_CONDITION_DEFINITION_KEY = "definition";
+            static final String JSON_CONDITION_TYPE_GROUP = "group";
+            static final String JSON_CONDITION_TYPE_MATCHER = "matcher";
+            static final String JSON_GROUP_LOGIC_KEY = "logic";
+            static final String JSON_GROUP_CONDITIONS_KEY = "conditions";
+            static final String JSON_GROUP_LOGIC_AND = "and";
+            static final String JSON_GROUP_LOGIC_OR = "or";
+            static final String JSON_MATCHER_KEY_KEY = "key";
+            static final String JSON_MATCHER_TYPE_KEY = "matcher";
+            static final String JSON_MATCHER_VALUES_KEY = "values";
+            static final String JSON_MATCHER_EQUALS = "eq";
+            static final String EVENT_TYPE_TOKEN = "~type";
+            static final String EVENT_SOURCE_TOKEN = "~source";
+            static final String TOKEN_PREFIX = "~";
             static final String MESSAGE_CONSEQUENCE_ID = "id";
             static final String MESSAGE_CONSEQUENCE_TYPE = "type";
             static final String MESSAGE_CONSEQUENCE_CJM_VALUE = "cjmiam";
@@ -355,6 +387,8 @@ public final class MessagingConstants {
         static final String REQUEST_CONTENT = "com.adobe.eventSource.requestContent";
         static final String NOTIFICATION = "com.adobe.eventSource.notification";
         static final String EVENT_HISTORY_WRITE = "com.adobe.eventSource.eventHistoryWrite";
+        static final String SHARED_STATE = "com.adobe.eventSource.sharedState";
+        static final String XDM_SHARED_STATE = "com.adobe.eventSource.xdmSharedState";
 
         private EventSource() {}
     }
@@ -386,6 +420,7 @@ public final class MessagingConstants {
 
             // Messaging
             static final String EXPERIENCE_EVENT_DATASET_ID = "messaging.eventDataset";
+            static final String PREBUILD_IN_APP_MESSAGES = "messaging.prebuildInAppMessages";
 
             private Configuration() {}
         }
@@ -26,15 +26,12 @@ import com.adobe.marketing.mobile.messaging.MessagingConstants.EventDataKeys.Mes
 import com.adobe.marketing.mobile.services.Log;
 import com.adobe.marketing.mobile.services.ServiceProvider;
 import com.adobe.marketing.mobile.util.DataReader;
-import com.adobe.marketing.mobile.util.JSONUtils;
 import com.adobe.marketing.mobile.util.MapUtils;
 import com.adobe.marketing.mobile.util.SerialWorkDispatcher;
 import com.adobe.marketing.mobile.util.StringUtils;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Map;
-import org.json.JSONException;
-import org.json.JSONObject;
 
 public final class MessagingExtension extends Extension {
     private static final String SELF_TAG = "MessagingExtension";
@@ -43,6 +40,8 @@ public final class MessagingExtension extends Extension {
     private boolean initialMessageFetchComplete = false;
     final LaunchRulesEngine messagingRulesEngine;
     final FeedRulesEngine feedRulesEngine;
+    final PropositionInteractionBatcher propositionInteractionBatcher;
+    final PushTrackingCache pushTrackingCache = new PushTrackingCache();
     private SerialWorkDispatcher<Event> serialWorkDispatcher;
 
     /**
@@ -92,6 +91,8 @@ public final class MessagingExtension extends Extension {
                                 extensionApi,
                                 this.messagingRulesEngine,
                                 this.feedRulesEngine);
+        this.propositionInteractionBatcher =
+                new PropositionInteractionBatcher(this::dispatchPropositionInteraction);
     }
 
     // region Extension interface methods
@@ -130,6 +131,9 @@ public final class MessagingExtension extends Extension {
     @Override
     protected void onRegistered() {
         super.onRegistered();
+        // only the proposition cache index is read here, the cached propositions are decoded in
+        // the background and loaded when their surface is first used
+        edgePersonalizationResponseHandler.loadCachedPropositionIndex();
         getApi().registerEventListener(
                         EventType.GENERIC_IDENTITY,
                         EventSource.REQUEST_CONTENT,
@@ -253,6 +257,29 @@ public final class MessagingExtension extends Extension {
             }
             return;
         }
+
+        // feed rule conditions may depend on shared states and event history, events dispatched
+        // with a mask are recorded in event history
+        if (InternalMessagingUtils.isSharedStateChangeEvent(event) || event.getMask() != null) {
+            edgePersonalizationResponseHandler.invalidateFeedEvaluations();
+        }
+
+        // persist any queued proposition changes and send any batched proposition interactions
+        // before the application is backgrounded
+        if (InternalMessagingUtils.isLifecyclePauseEvent(event)) {
+            edgePersonalizationResponseHandler.flushCachedPropositions();
+            propositionInteractionBatcher.flush();
+        }
+
+        // in-app rules cached in a previous session must be loaded before an event is evaluated
+        edgePersonalizationResponseHandler.loadCachedPropositions(null);
+        // pre-build the in-app messages whose assets finished downloading
+        edgePersonalizationResponseHandler.prebuildInAppMessagesIfAssetsCached();
+
+        // skip events which cannot match any loaded in-app rule
+        if (!edgePersonalizationResponseHandler.mayMatchInAppRules(event)) {
+            return;
+        }
         messagingRulesEngine.processEvent(event);
     }
 
@@ -418,6 +445,7 @@ public final class MessagingExtension extends Extension {
             // handle the push tracking information from messaging request content event
             handleTrackingInfo(eventToProcess, experienceEventDatasetId);
         } else if (InternalMessagingUtils.isEdgePersonalizationDecisionEvent(eventToProcess)) {
+            updateInAppMessagePrebuild(eventToProcess);
             // validate the edge response event then load any iam rules present
             edgePersonalizationResponseHandler.handleEdgePersonalizationNotification(
                     eventToProcess);
@@ -428,6 +456,21 @@ public final class MessagingExtension extends Extension {
         }
     }
 
+    /**
+     * Enables building in-app messages ahead of their trigger if the configuration opts in to it.
+     *
+     * @param event the {@link Event} used to retrieve the configuration shared state
+     */
+    private void updateInAppMessagePrebuild(final Event event) {
+        final Map<String, Object> configSharedState =
+                getSharedState(MessagingConstants.SharedState.Configuration.EXTENSION_NAME, event);
+        edgePersonalizationResponseHandler.setInAppMessagePrebuildEnabled(
+                DataReader.optBoolean(
+                        configSharedState,
+                        MessagingConstants.SharedState.Configuration.PREBUILD_IN_APP_MESSAGES,
+                        false));
+    }
+
     /**
      * Generates and dispatches an event prompting the Edge extension to send a proposition
      * interactions tracking event.
@@ -574,7 +617,7 @@ public final class MessagingExtension extends Extension {
         addApplicationData(isApplicationOpened, xdmMap);
 
         // Adding xdm data to xdmMap
-        addXDMData(eventData, xdmMap);
+        addXDMData(eventData, messageId, xdmMap);
 
         final Map<String, Object> xdmData = new HashMap<>();
         xdmData.put(MessagingConstants.TrackingKeys.XDM, xdmMap);
@@ -595,9 +638,27 @@ public final class MessagingExtension extends Extension {
     /**
      * Sends a proposition interaction to the customer's experience event dataset.
      *
+     * <p>Display and trigger interactions are batched by the {@link PropositionInteractionBatcher}
+     * and sent together with the interactions of the same type tracked right after them. A batched
+     * interaction is held for up to {@link PropositionInteractionBatcher#BATCH_WINDOW_MS} before it
+     * is sent, or until the application is backgrounded. Pending batches are only kept in memory,
+     * so interactions still held when the application process is terminated are not sent.
+     *
      * @param xdmMap {@code Map<String, Object>} containing the proposition interaction XDM.
      */
     public void sendPropositionInteraction(final Map<String, Object> xdmMap) {
+        propositionInteractionBatcher.add(xdmMap);
+    }
+    // endregion
+
+    // region private methods
+
+    /**
+     * Dispatches an event prompting the Edge extension to send a proposition interaction.
+     *
+     * @param xdmMap {@code Map<String, Object>} containing the proposition interaction XDM.
+     */
+    private void dispatchPropositionInteraction(final Map<String, Object> xdmMap) {
         final Map<String, Object> xdmEventData = new HashMap<>();
         xdmEventData.put(MessagingConstants.TrackingKeys.XDM, xdmMap);
 
@@ -609,9 +670,6 @@ public final class MessagingExtension extends Extension {
                 xdmEventData,
                 getApi());
     }
-    // endregion
-
-    // region private methods
 
     /**
      * Get profile data with token
@@ -719,9 +777,13 @@ public final class MessagingExtension extends Extension {
      * Adding XDM specific data to tracking information.
      *
      * @param eventData eventData map which contains the xdm data forwarded by the customer.
+     * @param messageId {@link String} containing the message id of the push notification
      * @param xdmMap xdmMap map which is updated.
      */
-    private void addXDMData(final Map<String, Object> eventData, final Map<String, Object> xdmMap) {
+    private void addXDMData(
+            final Map<String, Object> eventData,
+            final String messageId,
+            final Map<String, Object> xdmMap) {
         // Extract the xdm adobe data string from the event data.
         final String adobe =
                 DataReader.optString(
@@ -736,88 +798,10 @@ public final class MessagingExtension extends Extension {
             return;
         }
 
-        try {
-            // Convert the adobe string to json object
-            final JSONObject xdmJson = new JSONObject(adobe);
-            final Map<String, Object> xdmMapObject = JSONUtils.toMap(xdmJson);
-
-            if (xdmMapObject == null) {
-                Log.warning(
-                        MessagingConstants.LOG_TAG,
-                        SELF_TAG,
-                        "Failed to send Adobe data with the tracking data, Adobe XDM data"
-                                + " conversion to map failed.");
-                return;
-            }
-
-            Map<String, Object> mixins = null;
-
-            // Check for if the json has the required keys
-            if (xdmMapObject.containsKey(MessagingConstants.TrackingKeys.CJM)
-                    && xdmMapObject.get(MessagingConstants.TrackingKeys.CJM) instanceof Map) {
-                mixins =
-                        (Map<String, Object>) xdmMapObject.get(MessagingConstants.TrackingKeys.CJM);
-            }
-
-            if (xdmMapObject.containsKey(MessagingConstants.TrackingKeys.MIXINS)
-                    && xdmMapObject.get(MessagingConstants.TrackingKeys.MIXINS) instanceof Map) {
-                mixins =
-                        (Map<String, Object>)
-                                xdmMapObject.get(MessagingConstants.TrackingKeys.MIXINS);
-            }
-
-            if (mixins == null) {
-                Log.debug(
-                        MessagingConstants.LOG_TAG,
-                        SELF_TAG,
-                        "Failed to send cjm xdm data with the tracking, Missing XDM data.");
-                return;
-            }
-
-            xdmMap.putAll(mixins);
-
-            // Check if the xdm data provided by the customer is using cjm for tracking
-            // Check if both {@link MessagingConstants#EXPERIENCE} and {@link
-            // MessagingConstants#CUSTOMER_JOURNEY_MANAGEMENT} exists
-            if (mixins.containsKey(MessagingConstants.TrackingKeys.EXPERIENCE)
-                    && mixins.get(MessagingConstants.TrackingKeys.EXPERIENCE) instanceof Map) {
-                Map<String, Object> experience =
-                        (Map<String, Object>)
-                                mixins.get(MessagingConstants.TrackingKeys.EXPERIENCE);
-                if (experience.containsKey(
-                                MessagingConstants.TrackingKeys.CUSTOMER_JOURNEY_MANAGEMENT)
-                        && experience.get(
-                                        MessagingConstants.TrackingKeys.CUSTOMER_JOURNEY_MANAGEMENT)
-                                instanceof Map) {
-                    Map<String, Object> cjm =
-                            (Map<String, Object>)
-                                    experience.get(
-                                            MessagingConstants.TrackingKeys
-                                                    .CUSTOMER_JOURNEY_MANAGEMENT);
-                    // Adding Message profile and push channel context to
-                    // CUSTOMER_JOURNEY_MANAGEMENT
-                    final JSONObject jObject =
-                            new JSONObject(MessagingConstants.TrackingKeys.MESSAGE_PROFILE_JSON);
-                    cjm.putAll(JSONUtils.toMap(jObject));
-
-                    experience.put(
-                            MessagingConstants.TrackingKeys.CUSTOMER_JOURNEY_MANAGEMENT, cjm);
-                    xdmMap.put(MessagingConstants.TrackingKeys.EXPERIENCE, experience);
-                }
-            } else {
-                Log.warning(
-                        MessagingConstants.LOG_TAG,
-                        SELF_TAG,
-                        "Failed to send CJM XDM data with the tracking, required keys are"
-                                + " missing.");
-            }
-        } catch (final JSONException | ClassCastException e) {
-            Log.warning(
-                    MessagingConstants.LOG_TAG,
-                    SELF_TAG,
-                    "Failed to send Adobe data with the tracking data, Adobe data is malformed :"
-                            + " %s",
-                    e.getMessage());
+        // the xdm data is parsed once per push notification and shared by its interactions
+        final Map<String, Object> xdmTemplate = pushTrackingCache.getXdmTemplate(messageId, adobe);
+        if (xdmTemplate != null) {
+            xdmMap.putAll(xdmTemplate);
         }
     }
 
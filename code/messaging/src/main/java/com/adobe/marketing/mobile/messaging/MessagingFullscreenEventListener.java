@@ -49,6 +49,7 @@ class MessagingFullscreenEventListener implements InAppMessageEventListener {
                                 .getMessageFromPresentableId(
                                         fullscreenMessage.getPresentation().getId());
         if (message != null) {
+            PresentableMessageMapper.getInstance().recordPresentation(message);
             if (message.getAutoTrack()) {
                 message.track(null, MessagingEdgeEventType.DISPLAY);
             }
@@ -74,6 +75,7 @@ class MessagingFullscreenEventListener implements InAppMessageEventListener {
                 message.track(null, MessagingEdgeEventType.DISMISS);
             }
             message.recordEventHistory(null, MessagingEdgeEventType.DISMISS);
+            PresentableMessageMapper.getInstance().onMessageDismissed(message);
         }
         Log.debug(MessagingConstants.LOG_TAG, SELF_TAG, "Fullscreen message dismissed.");
     }
@@ -56,6 +56,21 @@ class MessagingPushBuilder {
      * @return the notification
      */
     @NonNull static Notification build(final MessagingPushPayload payload, final Context context) {
+        final NotificationCompat.Builder builder = createNotificationBuilder(payload, context);
+        setLargeIcon(builder, payload, context);
+        return builder.build();
+    }
+
+    /**
+     * Creates a notification builder for the received payload, with everything but the image of
+     * the notification, which can be added later with {@link #setImage}.
+     *
+     * @param payload {@link MessagingPushPayload} the payload received from the push notification
+     * @param context the application {@link Context}
+     * @return the notification builder
+     */
+    @NonNull static NotificationCompat.Builder createNotificationBuilder(
+            final MessagingPushPayload payload, final Context context) {
         final String channelId = createChannelAndGetChannelID(payload, context);
 
         // Create the notification
@@ -67,7 +82,6 @@ class MessagingPushBuilder {
         builder.setPriority(payload.getNotificationPriority());
         builder.setAutoCancel(true);
 
-        setLargeIcon(builder, payload);
         setSmallIcon(
                 builder, payload,
                 context); // Small Icon must be present, otherwise the notification will not be
@@ -79,7 +93,29 @@ class MessagingPushBuilder {
         setSound(builder, payload, context);
         setNotificationClickAction(builder, payload, context);
         setNotificationDeleteAction(builder, payload, context);
-        return builder.build();
+        return builder;
+    }
+
+    /**
+     * Sets the large icon of the notification to the provided image and the notification style to
+     * BigPictureStyle.
+     *
+     * @param notificationBuilder the notification builder
+     * @param payload {@link MessagingPushPayload} the payload received from the push notification
+     * @param bitmap the image {@link Bitmap}
+     */
+    static void setImage(
+            final NotificationCompat.Builder notificationBuilder,
+            final MessagingPushPayload payload,
+            final Bitmap bitmap) {
+        notificationBuilder.setLargeIcon(bitmap);
+        NotificationCompat.BigPictureStyle bigPictureStyle =
+                new NotificationCompat.BigPictureStyle();
+        bigPictureStyle.bigPicture(bitmap);
+        bigPictureStyle.bigLargeIcon(null);
+        bigPictureStyle.setBigContentTitle(payload.getTitle());
+        bigPictureStyle.setSummaryText(payload.getBody());
+        notificationBuilder.setStyle(bigPictureStyle);
     }
 
     /**
@@ -105,18 +141,29 @@ class MessagingPushBuilder {
             // the channel ID.
             final NotificationManager notificationManager =
                     (NotificationManager) context.getSystemService(Context.NOTIFICATION_SERVICE);
+            final NotificationResourceRegistry registry =
+                    NotificationResourceRegistry.getInstance();
             final String channelIdFromPayload = payload.getChannelId();
 
             // if a channel from the payload is not null and if a channel exists for the channel ID
             // from the payload, use the same channel ID.
             if (channelIdFromPayload != null
-                    && notificationManager.getNotificationChannel(channelIdFromPayload) != null) {
+                    && registry.channelExists(notificationManager, channelIdFromPayload)) {
                 Log.debug(
                         MessagingPushConstants.LOG_TAG,
                         SELF_TAG,
                         "Channel exists for channel ID: "
                                 + channelIdFromPayload
                                 + ". Using the same for push notification.");
+                final Integer importance = registry.getChannelImportance(channelIdFromPayload);
+                if (importance != null && importance == NotificationManager.IMPORTANCE_NONE) {
+                    Log.debug(
+                            MessagingPushConstants.LOG_TAG,
+                            SELF_TAG,
+                            "Notifications are blocked for channel ID: "
+                                    + channelIdFromPayload
+                                    + ".");
+                }
                 return channelIdFromPayload;
             } else {
                 Log.debug(
@@ -130,7 +177,7 @@ class MessagingPushBuilder {
             // Use the default channel ID if the channel ID from the payload is null or if a channel
             // does not exist for the channel ID from the payload.
             final String channelId = DEFAULT_CHANNEL_ID;
-            if (notificationManager.getNotificationChannel(DEFAULT_CHANNEL_ID) != null) {
+            if (registry.channelExists(notificationManager, DEFAULT_CHANNEL_ID)) {
                 Log.debug(
                         MessagingPushConstants.LOG_TAG,
                         SELF_TAG,
@@ -147,6 +194,7 @@ class MessagingPushBuilder {
                                 DEFAULT_CHANNEL_NAME,
                                 NotificationManager.IMPORTANCE_DEFAULT);
                 notificationManager.createNotificationChannel(channel);
+                registry.onChannelCreated(channel);
             }
             return channelId;
         }
@@ -166,8 +214,8 @@ class MessagingPushBuilder {
             final NotificationCompat.Builder builder,
             final MessagingPushPayload payload,
             final Context context) {
-        final int iconFromPayload =
-                MessagingPushUtils.getSmallIconWithResourceName(payload.getIcon(), context);
+        final NotificationResourceRegistry registry = NotificationResourceRegistry.getInstance();
+        final int iconFromPayload = registry.getSmallIcon(payload.getIcon(), context);
         final int iconFromMobileCore = MobileCore.getSmallIconResourceID();
 
         if (isValidIcon(iconFromPayload)) {
@@ -175,7 +223,7 @@ class MessagingPushBuilder {
         } else if (isValidIcon(iconFromMobileCore)) {
             builder.setSmallIcon(iconFromMobileCore);
         } else {
-            final int iconFromApp = MessagingPushUtils.getDefaultAppIcon(context);
+            final int iconFromApp = registry.getDefaultAppIcon(context);
             if (isValidIcon(iconFromApp)) {
                 builder.setSmallIcon(iconFromApp);
             } else {
@@ -211,29 +259,24 @@ class MessagingPushBuilder {
 
     /**
      * Sets the large icon for the notification. If a large icon url is received from the payload,
-     * the image is downloaded and the notification style is set to BigPictureStyle. If large icon
-     * url is not received from the payload, default style is used for the notification.
+     * the image is loaded and the notification style is set to BigPictureStyle. If large icon url
+     * is not received from the payload, default style is used for the notification.
      *
      * @param notificationBuilder the notification builder
      * @param payload {@link MessagingPushPayload} the payload received from the push notification
+     * @param context the application {@link Context}
      */
     private static void setLargeIcon(
             final NotificationCompat.Builder notificationBuilder,
-            final MessagingPushPayload payload) {
+            final MessagingPushPayload payload,
+            final Context context) {
         // Quick bail out if there is no image url
         if (StringUtils.isNullOrEmpty(payload.getImageUrl())) return;
-        Bitmap bitmap = MessagingPushUtils.download(payload.getImageUrl());
+        Bitmap bitmap = MessagingPushUtils.loadImage(context, payload.getImageUrl());
 
         // Bail out if the download fails
         if (bitmap == null) return;
-        notificationBuilder.setLargeIcon(bitmap);
-        NotificationCompat.BigPictureStyle bigPictureStyle =
-                new NotificationCompat.BigPictureStyle();
-        bigPictureStyle.bigPicture(bitmap);
-        bigPictureStyle.bigLargeIcon(null);
-        bigPictureStyle.setBigContentTitle(payload.getTitle());
-        bigPictureStyle.setSummaryText(payload.getBody());
-        notificationBuilder.setStyle(bigPictureStyle);
+        setImage(notificationBuilder, payload, bitmap);
     }
 
     /**
@@ -34,6 +34,25 @@ import java.net.URL;
 class MessagingPushUtils {
     private static final String SELF_TAG = "MessagingPushUtils";
 
+    /**
+     * Loads a push notification image through the {@link PushImageLoader}, which caches it on disk
+     * and downsamples it to the notification dimensions.
+     *
+     * @param context the application {@link Context}
+     * @param url the image url
+     * @return the image {@link Bitmap}, or null if it could not be loaded
+     */
+    static Bitmap loadImage(final Context context, final String url) {
+        return PushImageLoader.getInstance(context).load(url);
+    }
+
+    /**
+     * Downloads a push notification image without caching or downsampling it. Used when the
+     * {@link PushImageLoader} cache is not available.
+     *
+     * @param url the image url
+     * @return the image {@link Bitmap}, or null if it could not be downloaded
+     */
     static Bitmap download(final String url) {
         Bitmap bitmap = null;
         HttpURLConnection connection = null;
@@ -42,6 +61,8 @@ class MessagingPushUtils {
         try {
             final URL imageUrl = new URL(url);
             connection = (HttpURLConnection) imageUrl.openConnection();
+            connection.setConnectTimeout(PushImageLoader.CONNECT_TIMEOUT_MS);
+            connection.setReadTimeout(PushImageLoader.READ_TIMEOUT_MS);
             inputStream = connection.getInputStream();
             bitmap = BitmapFactory.decodeStream(inputStream);
         } catch (IOException e) {
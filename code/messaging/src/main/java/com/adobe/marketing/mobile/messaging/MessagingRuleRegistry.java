@@ -0,0 +1,216 @@
+/*
+  Copyright 2024 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+package com.adobe.marketing.mobile.messaging;
+
+import com.adobe.marketing.mobile.launch.rulesengine.LaunchRule;
+import com.adobe.marketing.mobile.launch.rulesengine.LaunchRulesEngine;
+import com.adobe.marketing.mobile.services.Log;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Tracks the rules loaded into a {@link LaunchRulesEngine} by {@link Surface} and applies only the
+ * changes between the loaded rules and a new set of rules.
+ *
+ * <p>Rules are compared by identity. Rules reused from the {@link ParsedRuleCache} are the same
+ * instances, so an unchanged ruleset is recognized without comparing rule contents. The rules
+ * engine evaluates rules in the order of {@link #getRules()}, so the rules are only appended with
+ * {@link LaunchRulesEngine#addRules(List)} when the new rules follow all loaded rules in that
+ * order. The rules engine does not support removing or reordering individual rules, so any other
+ * change replaces the full set of rules.
+ */
+final class MessagingRuleRegistry {
+    private static final String SELF_TAG = "MessagingRuleRegistry";
+
+    private final LaunchRulesEngine rulesEngine;
+    private final Map<Surface, List<LaunchRule>> rulesBySurface = new LinkedHashMap<>();
+    // incremented each time the loaded rules change
+    private long version;
+
+    MessagingRuleRegistry(final LaunchRulesEngine rulesEngine) {
+        this.rulesEngine = rulesEngine;
+    }
+
+    /**
+     * Updates the rules for the provided surfaces and applies the resulting changes to the rules
+     * engine.
+     *
+     * @param newRules {@code Map<Surface, List<LaunchRule>>} containing the new rules for each
+     *     updated surface
+     * @param surfacesToRemove {@code Collection<Surface>} containing the surfaces whose rules
+     *     should be removed
+     * @return {@link RuleChanges} describing the rules which were added and removed
+     */
+    synchronized RuleChanges update(
+            final Map<Surface, List<LaunchRule>> newRules,
+            final Collection<Surface> surfacesToRemove) {
+        final List<LaunchRule> loadedRules = getRules();
+        final List<LaunchRule> addedRules = new ArrayList<>();
+        int removedRuleCount = 0;
+
+        if (surfacesToRemove != null) {
+            for (final Surface surface : surfacesToRemove) {
+                final List<LaunchRule> removedRules = rulesBySurface.remove(surface);
+                if (removedRules != null) {
+                    removedRuleCount += removedRules.size();
+                }
+            }
+        }
+
+        if (newRules != null) {
+            for (final Map.Entry<Surface, List<LaunchRule>> entry : newRules.entrySet()) {
+                final List<LaunchRule> rules =
+                        entry.getValue() != null ? entry.getValue() : new ArrayList<>();
+                final List<LaunchRule> loadedSurfaceRules = rulesBySurface.get(entry.getKey());
+                final Set<LaunchRule> loadedRuleSet = identitySetOf(loadedSurfaceRules);
+                final Set<LaunchRule> ruleSet = identitySetOf(rules);
+                for (final LaunchRule rule : rules) {
+                    if (!loadedRuleSet.contains(rule)) {
+                        addedRules.add(rule);
+                    }
+                }
+                if (loadedSurfaceRules != null) {
+                    for (final LaunchRule rule : loadedSurfaceRules) {
+                        if (!ruleSet.contains(rule)) {
+                            removedRuleCount++;
+                        }
+                    }
+                }
+
+                if (rules.isEmpty()) {
+                    rulesBySurface.remove(entry.getKey());
+                } else {
+                    rulesBySurface.put(entry.getKey(), new ArrayList<>(rules));
+                }
+            }
+        }
+
+        final List<LaunchRule> rules = getRules();
+        if (isSameOrder(loadedRules, rules, loadedRules.size())
+                && loadedRules.size() == rules.size()) {
+            Log.trace(
+                    MessagingConstants.LOG_TAG,
+                    SELF_TAG,
+                    "Rules are unchanged, the rules engine will not be updated.");
+            return new RuleChanges(addedRules, removedRuleCount, false);
+        }
+
+        version++;
+        if (!loadedRules.isEmpty() && isSameOrder(loadedRules, rules, loadedRules.size())) {
+            // the new rules follow all loaded rules, so appending them keeps the rules engine in
+            // the same order as the registry
+            final List<LaunchRule> appendedRules =
+                    new ArrayList<>(rules.subList(loadedRules.size(), rules.size()));
+            Log.trace(
+                    MessagingConstants.LOG_TAG,
+                    SELF_TAG,
+                    "Adding %d rule(s) to the rules engine.",
+                    appendedRules.size());
+            rulesEngine.addRules(appendedRules);
+            return new RuleChanges(addedRules, removedRuleCount, false);
+        }
+
+        final boolean reordered = addedRules.isEmpty() && removedRuleCount == 0;
+        Log.trace(
+                MessagingConstants.LOG_TAG,
+                SELF_TAG,
+                reordered
+                        ? "Replacing rules in the rules engine, the rule order changed."
+                        : "Replacing rules in the rules engine, %d added and %d removed.",
+                addedRules.size(),
+                removedRuleCount);
+        rulesEngine.replaceRules(rules);
+        return new RuleChanges(addedRules, removedRuleCount, reordered);
+    }
+
+    /**
+     * Returns all rules currently loaded in the rules engine.
+     *
+     * @return {@code List<LaunchRule>} containing the loaded rules
+     */
+    synchronized List<LaunchRule> getRules() {
+        final List<LaunchRule> rules = new ArrayList<>();
+        for (final List<LaunchRule> surfaceRules : rulesBySurface.values()) {
+            rules.addAll(surfaceRules);
+        }
+        return rules;
+    }
+
+    /**
+     * Returns the version of the loaded rules, which changes each time rules are added or removed.
+     *
+     * @return {@code long} containing the rules version
+     */
+    synchronized long getVersion() {
+        return version;
+    }
+
+    synchronized int getRuleCount() {
+        int count = 0;
+        for (final List<LaunchRule> surfaceRules : rulesBySurface.values()) {
+            count += surfaceRules.size();
+        }
+        return count;
+    }
+
+    /**
+     * The rules added, removed and reordered by a {@link MessagingRuleRegistry#update(Map,
+     * Collection)}.
+     */
+    static final class RuleChanges {
+        final List<LaunchRule> addedRules;
+        final int removedRuleCount;
+        // true if the same rules were loaded in a different order
+        final boolean reordered;
+
+        RuleChanges(
+                final List<LaunchRule> addedRules,
+                final int removedRuleCount,
+                final boolean reordered) {
+            this.addedRules = addedRules;
+            this.removedRuleCount = removedRuleCount;
+            this.reordered = reordered;
+        }
+
+        boolean isEmpty() {
+            return addedRules.isEmpty() && removedRuleCount == 0 && !reordered;
+        }
+    }
+
+    // determines if the first count rules of both lists are the same instances in the same order
+    private static boolean isSameOrder(
+            final List<LaunchRule> first, final List<LaunchRule> second, final int count) {
+        if (first.size() < count || second.size() < count) {
+            return false;
+        }
+        for (int i = 0; i < count; i++) {
+            if (first.get(i) != second.get(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static Set<LaunchRule> identitySetOf(final List<LaunchRule> rules) {
+        final Set<LaunchRule> set = Collections.newSetFromMap(new IdentityHashMap<>());
+        if (rules != null) {
+            set.addAll(rules);
+        }
+        return set;
+    }
+}
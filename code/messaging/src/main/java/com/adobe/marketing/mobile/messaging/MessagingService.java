@@ -21,9 +21,11 @@ import com.adobe.marketing.mobile.EventType;
 import com.adobe.marketing.mobile.MessagingPushPayload;
 import com.adobe.marketing.mobile.MobileCore;
 import com.adobe.marketing.mobile.services.Log;
+import com.adobe.marketing.mobile.util.StringUtils;
 import com.google.firebase.messaging.FirebaseMessagingService;
 import com.google.firebase.messaging.RemoteMessage;
-import java.util.HashMap;
+import java.util.Collections;
+import java.util.Map;
 
 /**
  * This class is the entry point for all push notifications received from Firebase.
@@ -59,15 +61,22 @@ public class MessagingService extends FirebaseMessagingService {
         }
 
         final MessagingPushPayload payload = new MessagingPushPayload(remoteMessage);
-        final Notification notification = MessagingPushBuilder.build(payload, context);
+        final int notificationId = remoteMessage.getMessageId().hashCode();
+        if (StringUtils.isNullOrEmpty(payload.getImageUrl())) {
+            final Notification notification = MessagingPushBuilder.build(payload, context);
 
-        // display notification
-        final NotificationManagerCompat notificationManager =
-                NotificationManagerCompat.from(context);
-        notificationManager.notify(remoteMessage.getMessageId().hashCode(), notification);
+            // display notification
+            final NotificationManagerCompat notificationManager =
+                    NotificationManagerCompat.from(context);
+            notificationManager.notify(notificationId, notification);
+        } else {
+            // display the notification without waiting for its image
+            ProgressivePushRenderer.getInstance().render(context, payload, notificationId);
+        }
 
-        // dispatch Push notification displayed event
-        final HashMap<String, Object> notificationData = new HashMap<>(remoteMessage.getData());
+        // dispatch Push notification displayed event, the event builder copies the data
+        final Map<String, Object> notificationData =
+                Collections.unmodifiableMap(remoteMessage.getData());
         final Event pushNotificationReceivedEvent =
                 new Event.Builder(
                                 "Push Notification Displayed",
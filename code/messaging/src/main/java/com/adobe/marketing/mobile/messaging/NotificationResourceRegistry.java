@@ -0,0 +1,189 @@
+/*
+  Copyright 2024 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+package com.adobe.marketing.mobile.messaging;
+
+import android.app.NotificationChannel;
+import android.app.NotificationManager;
+import android.content.Context;
+import android.os.Build;
+import androidx.annotation.RequiresApi;
+import androidx.annotation.VisibleForTesting;
+import com.adobe.marketing.mobile.services.Log;
+import com.adobe.marketing.mobile.util.StringUtils;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Remembers the notification channels and icons used to build push notifications, so building a
+ * notification does not query the {@link NotificationManager} or resolve resources by name each
+ * time.
+ *
+ * <p>A channel which was found is remembered along with its importance, and is trusted without a
+ * new lookup for {@link #CHANNEL_CONFIRMATION_TTL_MS}. The application can delete a channel at any
+ * time, and a notification posted to a deleted channel is silently dropped, so a remembered
+ * channel is looked up again once it is older than that. A channel which was not found is not
+ * remembered, it is looked up each time it is requested in case the application created it since.
+ * Icon resources do not change while the application is running and are resolved once.
+ */
+final class NotificationResourceRegistry {
+    private static final String SELF_TAG = "NotificationResourceRegistry";
+    static final long CHANNEL_CONFIRMATION_TTL_MS = TimeUnit.MINUTES.toMillis(1);
+
+    private static final NotificationResourceRegistry INSTANCE =
+            new NotificationResourceRegistry();
+
+    // channels which were found, by channel id
+    private final Map<String, KnownChannel> knownChannels = new HashMap<>();
+    // small icon resource ids by resource name, 0 if the resource does not exist
+    private final Map<String, Integer> smallIconIds = new HashMap<>();
+    private int defaultAppIcon;
+    private int channelQueryCount;
+
+    static NotificationResourceRegistry getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Returns whether a notification channel exists. A channel found within {@link
+     * #CHANNEL_CONFIRMATION_TTL_MS} is reported without a lookup, any other channel is looked up.
+     *
+     * @param notificationManager {@link NotificationManager} used to look up the channel
+     * @param channelId {@link String} containing the channel id
+     * @return {@code boolean} true if the channel exists
+     */
+    @RequiresApi(api = Build.VERSION_CODES.O)
+    boolean channelExists(final NotificationManager notificationManager, final String channelId) {
+        if (StringUtils.isNullOrEmpty(channelId)) {
+            return false;
+        }
+        final long now = System.currentTimeMillis();
+        synchronized (this) {
+            final KnownChannel knownChannel = knownChannels.get(channelId);
+            if (knownChannel != null
+                    && now - knownChannel.confirmedMillis < CHANNEL_CONFIRMATION_TTL_MS) {
+                return true;
+            }
+            channelQueryCount++;
+        }
+
+        // the lookup is made without holding the lock, so concurrent pushes do not wait for it
+        final NotificationChannel channel;
+        try {
+            channel = notificationManager.getNotificationChannel(channelId);
+        } catch (final RuntimeException exception) {
+            final boolean known;
+            synchronized (this) {
+                known = knownChannels.containsKey(channelId);
+            }
+            Log.debug(
+                    MessagingPushConstants.LOG_TAG,
+                    SELF_TAG,
+                    "Unable to look up notification channel (%s), using its last known state"
+                            + " (exists: %b): %s",
+                    channelId,
+                    known,
+                    exception.getMessage());
+            return known;
+        }
+
+        synchronized (this) {
+            if (channel == null) {
+                knownChannels.remove(channelId);
+                return false;
+            }
+            knownChannels.put(channelId, new KnownChannel(channel.getImportance(), now));
+            return true;
+        }
+    }
+
+    /**
+     * Records a notification channel created by the Messaging extension.
+     *
+     * @param channel the created {@link NotificationChannel}
+     */
+    @RequiresApi(api = Build.VERSION_CODES.O)
+    synchronized void onChannelCreated(final NotificationChannel channel) {
+        knownChannels.put(
+                channel.getId(),
+                new KnownChannel(channel.getImportance(), System.currentTimeMillis()));
+    }
+
+    /**
+     * Returns the importance of a notification channel as of the last time the channel was looked
+     * up.
+     *
+     * @param channelId {@link String} containing the channel id
+     * @return {@code Integer} containing the channel importance, or null if it is not known
+     */
+    synchronized Integer getChannelImportance(final String channelId) {
+        final KnownChannel knownChannel = knownChannels.get(channelId);
+        return knownChannel != null ? knownChannel.importance : null;
+    }
+
+    /**
+     * Returns the resource id of a small icon drawable.
+     *
+     * @param iconName {@link String} containing the drawable resource name
+     * @param context the application {@link Context}
+     * @return {@code int} containing the resource id, or 0 if the drawable does not exist
+     */
+    synchronized int getSmallIcon(final String iconName, final Context context) {
+        if (StringUtils.isNullOrEmpty(iconName)) {
+            return 0;
+        }
+        final Integer cachedIconId = smallIconIds.get(iconName);
+        if (cachedIconId != null) {
+            return cachedIconId;
+        }
+        final int iconId = MessagingPushUtils.getSmallIconWithResourceName(iconName, context);
+        smallIconIds.put(iconName, iconId);
+        return iconId;
+    }
+
+    /**
+     * Returns the icon of the application.
+     *
+     * @param context the application {@link Context}
+     * @return {@code int} containing the icon resource id, or -1 if it could not be read
+     */
+    synchronized int getDefaultAppIcon(final Context context) {
+        if (defaultAppIcon <= 0) {
+            // a failed lookup is retried the next time the icon is needed
+            defaultAppIcon = MessagingPushUtils.getDefaultAppIcon(context);
+        }
+        return defaultAppIcon;
+    }
+
+    synchronized int getChannelQueryCount() {
+        return channelQueryCount;
+    }
+
+    @VisibleForTesting
+    synchronized void reset() {
+        knownChannels.clear();
+        smallIconIds.clear();
+        defaultAppIcon = 0;
+        channelQueryCount = 0;
+    }
+
+    /** A notification channel which was found, and when it was last confirmed to exist. */
+    private static final class KnownChannel {
+        private final int importance;
+        private final long confirmedMillis;
+
+        private KnownChannel(final int importance, final long confirmedMillis) {
+            this.importance = importance;
+            this.confirmedMillis = confirmedMillis;
+        }
+    }
+}
@@ -16,10 +16,11 @@ import com.adobe.marketing.mobile.launch.rulesengine.LaunchRule;
 import com.adobe.marketing.mobile.launch.rulesengine.RuleConsequence;
 import com.adobe.marketing.mobile.launch.rulesengine.json.JSONRulesParser;
 import com.adobe.marketing.mobile.services.Log;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
-import org.json.JSONObject;
 
 @SuppressWarnings("NestedForDepth")
 public class ParsedPropositions {
@@ -28,20 +29,41 @@ public class ParsedPropositions {
     final Map<String, PropositionInfo> propositionInfoToCache = new HashMap<>();
 
     // non-in-app propositions should be cached and not persisted
-    Map<Surface, List<Proposition>> propositionsToCache = new HashMap<>();
+    final Map<Surface, List<Proposition>> propositionsToCache = new HashMap<>();
 
     // in-app propositions don't need to stay in cache, but must be persisted
     // also need to store tracking info for in-app propositions as `PropositionInfo`
-    Map<Surface, List<Proposition>> propositionsToPersist = new HashMap<>();
+    final Map<Surface, List<Proposition>> propositionsToPersist = new HashMap<>();
 
     // in-app and feed rules that need to be applied to their respective rules engines
     final Map<SchemaType, Map<Surface, List<LaunchRule>>> surfaceRulesBySchemaType =
             new HashMap<>();
 
+    // event filters for the in-app rules, used to skip events which cannot match any rule
+    final Map<LaunchRule, RuleEventFilter> inAppRuleEventFilters = new IdentityHashMap<>();
+
     ParsedPropositions(
             final Map<Surface, List<Proposition>> propositions,
             final List<Surface> requestedSurfaces,
             final ExtensionApi extensionApi) {
+        this(propositions, requestedSurfaces, extensionApi, null);
+    }
+
+    /**
+     * Parses the provided propositions, reusing rules from the provided {@link ParsedRuleCache}
+     * for any ruleset proposition whose content has not changed since it was last parsed.
+     *
+     * @param propositions {@code Map<Surface, List<Proposition>>} containing the propositions to
+     *     parse
+     * @param requestedSurfaces {@code List<Surface>} containing the surfaces which were requested
+     * @param extensionApi {@link ExtensionApi} instance used by the rules parser
+     * @param parsedRuleCache {@link ParsedRuleCache} used to store parsed rules, may be null
+     */
+    ParsedPropositions(
+            final Map<Surface, List<Proposition>> propositions,
+            final List<Surface> requestedSurfaces,
+            final ExtensionApi extensionApi,
+            final ParsedRuleCache parsedRuleCache) {
         for (final List<Proposition> propositionList : propositions.values()) {
             for (final Proposition proposition : propositionList) {
                 if (proposition == null) {
@@ -75,10 +97,12 @@ public class ParsedPropositions {
                 final PropositionItem firstPropositionItem = proposition.getItems().get(0);
                 switch (firstPropositionItem.getSchema()) {
                     case RULESET:
-                        final JSONObject content =
-                                new JSONObject(firstPropositionItem.getItemData());
                         final List<LaunchRule> parsedRules =
-                                JSONRulesParser.parse(content.toString(), extensionApi);
+                                parseRules(
+                                        proposition.getUniqueId(),
+                                        firstPropositionItem.getItemData(),
+                                        extensionApi,
+                                        parsedRuleCache);
                         // iam and feed items will be wrapped in a valid rules engine rule -
                         // code-based experiences are not
                         if (MessagingUtils.isNullOrEmpty(parsedRules)) {
@@ -101,10 +125,14 @@ public class ParsedPropositions {
                                 final PropositionInfo propositionInfo =
                                         PropositionInfo.createFromProposition(proposition);
                                 propositionInfoToCache.put(consequence.getId(), propositionInfo);
-                                propositionsToPersist =
-                                        MessagingUtils.updatePropositionMapForSurface(
-                                                surface, proposition, propositionsToPersist);
+                                addProposition(surface, proposition, propositionsToPersist);
                                 mergeRules(parsedRules, surface, SchemaType.INAPP);
+                                final RuleEventFilter eventFilter =
+                                        RuleEventFilter.fromRuleset(
+                                                firstPropositionItem.getItemData());
+                                for (final LaunchRule rule : parsedRules) {
+                                    inAppRuleEventFilters.put(rule, eventFilter);
+                                }
                                 break;
                             case FEED:
                                 final PropositionInfo feedPropositionInfo =
@@ -120,9 +148,7 @@ public class ParsedPropositions {
                     case JSON_CONTENT:
                     case HTML_CONTENT:
                     case DEFAULT_CONTENT:
-                        propositionsToCache =
-                                MessagingUtils.updatePropositionMapForSurface(
-                                        surface, proposition, propositionsToCache);
+                        addProposition(surface, proposition, propositionsToCache);
                         break;
                     default:
                         break;
@@ -131,6 +157,39 @@ public class ParsedPropositions {
         }
     }
 
+    private List<LaunchRule> parseRules(
+            final String propositionId,
+            final Map<String, Object> itemData,
+            final ExtensionApi extensionApi,
+            final ParsedRuleCache parsedRuleCache) {
+        if (parsedRuleCache != null) {
+            final List<LaunchRule> cachedRules = parsedRuleCache.get(propositionId, itemData);
+            if (cachedRules != null) {
+                return cachedRules;
+            }
+        }
+
+        // write the ruleset map directly as JSON rather than copying it into a JSONObject first
+        final List<LaunchRule> parsedRules =
+                JSONRulesParser.parse(RulesetJsonWriter.write(itemData), extensionApi);
+        if (parsedRuleCache != null && !MessagingUtils.isNullOrEmpty(parsedRules)) {
+            parsedRuleCache.put(propositionId, itemData, parsedRules);
+        }
+        return parsedRules;
+    }
+
+    private static void addProposition(
+            final Surface surface,
+            final Proposition proposition,
+            final Map<Surface, List<Proposition>> propositionsBySurface) {
+        List<Proposition> surfacePropositions = propositionsBySurface.get(surface);
+        if (surfacePropositions == null) {
+            surfacePropositions = new ArrayList<>();
+            propositionsBySurface.put(surface, surfacePropositions);
+        }
+        surfacePropositions.add(proposition);
+    }
+
     private void mergeRules(
             final List<LaunchRule> rules, final Surface surface, final SchemaType schemaType) {
         // get rules we may already have for this inboundType
@@ -0,0 +1,93 @@
+/*
+  Copyright 2024 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+package com.adobe.marketing.mobile.messaging;
+
+import com.adobe.marketing.mobile.launch.rulesengine.LaunchRule;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Caches the {@link LaunchRule}s parsed from ruleset propositions so a ruleset which is returned
+ * again with the same content is not parsed again.
+ *
+ * <p>Entries are keyed by proposition id and are only reused when the item data matches the data
+ * the rules were parsed from. The least recently used entry is evicted once {@link #MAX_ENTRIES}
+ * rulesets are cached.
+ */
+final class ParsedRuleCache {
+    static final int MAX_ENTRIES = 200;
+
+    private final Map<String, Entry> entries =
+            new LinkedHashMap<String, Entry>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(final Map.Entry<String, Entry> eldest) {
+                    return size() > MAX_ENTRIES;
+                }
+            };
+
+    /**
+     * Returns the rules previously parsed for the provided proposition, if its item data has not
+     * changed.
+     *
+     * @param propositionId {@link String} containing the proposition id
+     * @param itemData {@link Map<String, Object>} containing the ruleset item data
+     * @return {@code List<LaunchRule>} containing the cached rules, or null if none are cached for
+     *     the provided content
+     */
+    synchronized List<LaunchRule> get(
+            final String propositionId, final Map<String, Object> itemData) {
+        if (propositionId == null || itemData == null) {
+            return null;
+        }
+        final Entry entry = entries.get(propositionId);
+        if (entry == null
+                || entry.contentHash != itemData.hashCode()
+                || !entry.itemData.equals(itemData)) {
+            return null;
+        }
+        return entry.rules;
+    }
+
+    /**
+     * Caches the rules parsed from the provided proposition item data.
+     *
+     * @param propositionId {@link String} containing the proposition id
+     * @param itemData {@link Map<String, Object>} containing the ruleset item data
+     * @param rules {@code List<LaunchRule>} parsed from {@code itemData}
+     */
+    synchronized void put(
+            final String propositionId,
+            final Map<String, Object> itemData,
+            final List<LaunchRule> rules) {
+        if (propositionId == null || itemData == null || rules == null) {
+            return;
+        }
+        entries.put(propositionId, new Entry(itemData, rules));
+    }
+
+    synchronized int size() {
+        return entries.size();
+    }
+
+    private static final class Entry {
+        private final Map<String, Object> itemData;
+        private final int contentHash;
+        private final List<LaunchRule> rules;
+
+        private Entry(final Map<String, Object> itemData, final List<LaunchRule> rules) {
+            this.itemData = itemData;
+            this.contentHash = itemData.hashCode();
+            this.rules = rules;
+        }
+    }
+}
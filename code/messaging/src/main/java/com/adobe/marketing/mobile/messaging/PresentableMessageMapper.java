@@ -25,12 +25,19 @@ import com.adobe.marketing.mobile.services.ui.message.InAppMessageSettings;
 import com.adobe.marketing.mobile.util.DataReader;
 import com.adobe.marketing.mobile.util.DefaultPresentationUtilityProvider;
 import com.adobe.marketing.mobile.util.StringUtils;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 class PresentableMessageMapper {
+    private static final String SELF_TAG = "PresentableMessageMapper";
 
-    private static final Map<String, Message> presentableMessageMap = new HashMap<>();
+    private static final PresentableMessageRegistry messageRegistry =
+            new PresentableMessageRegistry();
+    // last time a message using each remote image asset was presented, by asset url
+    private static final Map<String, Long> assetLastPresentedTimestamps = new ConcurrentHashMap<>();
 
     private static class PresentableMessageMapperSingleton {
         private static final PresentableMessageMapper INSTANCE = new PresentableMessageMapper();
@@ -85,26 +92,157 @@ class PresentableMessageMapper {
         }
         final InternalMessage internalMessage =
                 new InternalMessage(messagingExtension, propositionItem, assetMap, propositionInfo);
-        presentableMessageMap.put(
+        return messageRegistry.register(
+                internalMessage.aepMessage.getPresentation().getId(), internalMessage);
+    }
+
+    /**
+     * Builds an {@link InternalMessage} ahead of the rule which triggers it, without registering
+     * it. The message is registered with {@link #registerMessage(InternalMessage)} once triggered.
+     *
+     * @param messagingExtension {@link MessagingExtension} instance that created this Message
+     * @param propositionItem {@link PropositionItem} instance containing item data of type {@link
+     *     InAppSchemaData}
+     * @param assetMap {@code Map<String, Object>} containing a mapping of a remote image asset URL
+     *     and it's cached location
+     * @return {@link InternalMessage} for the item, or null if a message for the item is already
+     *     registered
+     * @throws MessageRequiredFieldMissingException if the consequence {@code Map} fails validation.
+     * @throws IllegalStateException if {@link UIService} is unavailable
+     */
+    InternalMessage prebuildMessage(
+            final MessagingExtension messagingExtension,
+            final PropositionItem propositionItem,
+            final Map<String, String> assetMap,
+            final PropositionInfo propositionInfo)
+            throws MessageRequiredFieldMissingException, IllegalStateException {
+        if (findExistingInternalMessage(propositionItem) != null) {
+            return null;
+        }
+        return new InternalMessage(messagingExtension, propositionItem, assetMap, propositionInfo);
+    }
+
+    /**
+     * Registers a message built by {@link #prebuildMessage(MessagingExtension, PropositionItem,
+     * Map, PropositionInfo)}.
+     *
+     * @param internalMessage {@link InternalMessage} to register
+     * @return the {@link Message} already registered for the same proposition item, or the provided
+     *     message if there was none
+     */
+    Message registerMessage(final InternalMessage internalMessage) {
+        return messageRegistry.register(
                 internalMessage.aepMessage.getPresentation().getId(), internalMessage);
-        return internalMessage;
     }
 
     private Message findExistingInternalMessage(final PropositionItem propositionItem) {
-        if (propositionItem == null) {
+        if (propositionItem == null || propositionItem.getItemId() == null) {
             return null;
         }
-        for (final Message message : presentableMessageMap.values()) {
-            if (message.getId().equals(propositionItem.getItemId())) {
-                return message;
-            }
+        return messageRegistry.getByItemId(propositionItem.getItemId());
+    }
+
+    /**
+     * Removes a dismissed message, a new message is created if its rule is triggered again.
+     *
+     * @param message {@link InternalMessage} which was dismissed
+     */
+    void onMessageDismissed(final InternalMessage message) {
+        if (message != null && message.aepMessage != null) {
+            messageRegistry.remove(message.aepMessage.getPresentation().getId());
+        }
+    }
+
+    /**
+     * Removes the messages whose in-app rules are no longer loaded. Messages being displayed are
+     * removed once they are dismissed.
+     *
+     * @param itemIds {@code Collection<String>} containing the proposition item ids of the loaded
+     *     in-app rules
+     */
+    void retainMessages(final Collection<String> itemIds) {
+        final int removedCount = messageRegistry.retainItemIds(itemIds);
+        if (removedCount > 0) {
+            Log.trace(
+                    MessagingConstants.LOG_TAG,
+                    SELF_TAG,
+                    "Removed %d in-app message(s) whose rules were replaced, %d message(s)"
+                            + " registered.",
+                    removedCount,
+                    messageRegistry.size());
         }
-        return null;
+    }
+
+    /**
+     * Returns the number of messages currently registered.
+     *
+     * @return {@code int} containing the number of live messages
+     */
+    int getMessageCount() {
+        return messageRegistry.size();
+    }
+
+    /**
+     * Returns the number of registered messages currently being displayed.
+     *
+     * @return {@code int} containing the number of displayed messages
+     */
+    int getDisplayedMessageCount() {
+        return messageRegistry.getDisplayedCount();
+    }
+
+    @VisibleForTesting
+    PresentableMessageRegistry getMessageRegistry() {
+        return messageRegistry;
     }
 
     @VisibleForTesting
     void clearPresentableMessageMap() {
-        presentableMessageMap.clear();
+        messageRegistry.clear();
+        assetLastPresentedTimestamps.clear();
+    }
+
+    /**
+     * Records the presentation of the provided message, updating the last presented timestamp of
+     * each of its remote image assets.
+     *
+     * @param message {@link InternalMessage} which was presented
+     */
+    void recordPresentation(final InternalMessage message) {
+        if (message == null) {
+            return;
+        }
+        if (message.aepMessage != null) {
+            messageRegistry.onDisplayed(message.aepMessage.getPresentation().getId());
+        }
+        if (MessagingUtils.isNullOrEmpty(message.remoteAssets)) {
+            return;
+        }
+        final long now = System.currentTimeMillis();
+        for (final String asset : message.remoteAssets) {
+            assetLastPresentedTimestamps.put(asset, now);
+        }
+    }
+
+    /**
+     * Returns the last time a message using the provided remote image asset was presented.
+     *
+     * @param assetUrl {@link String} containing the asset url
+     * @return {@code long} containing the timestamp in milliseconds, or 0 if no message using the
+     *     asset has been presented
+     */
+    long getAssetLastPresentedTimestamp(final String assetUrl) {
+        final Long timestamp = assetUrl != null ? assetLastPresentedTimestamps.get(assetUrl) : null;
+        return timestamp != null ? timestamp : 0L;
+    }
+
+    /**
+     * Removes the presentation timestamps of remote image assets which are no longer cached.
+     *
+     * @param assetUrls {@code Collection<String>} containing the urls of the cached assets
+     */
+    void retainAssetPresentations(final Collection<String> assetUrls) {
+        assetLastPresentedTimestamps.keySet().retainAll(assetUrls);
     }
 
     /**
@@ -119,7 +257,7 @@ class PresentableMessageMapper {
         if (StringUtils.isNullOrEmpty(presentableId)) {
             return null;
         }
-        return presentableMessageMap.get(presentableId);
+        return messageRegistry.get(presentableId);
     }
 
     static class InternalMessage implements Message {
@@ -128,6 +266,8 @@ class PresentableMessageMapper {
         private final String id;
         private final MessagingExtension messagingExtension;
         private final Presentable<InAppMessage> aepMessage;
+        // remote image assets used by the message
+        final List<String> remoteAssets;
 
         private boolean autoTrack = true;
         // package private
@@ -213,6 +353,8 @@ class PresentableMessageMapper {
                                 + " empty.");
             }
 
+            remoteAssets = inAppSchemaData.getRemoteAssets();
+
             try {
                 final String html = (String) inAppSchemaData.getContent();
                 if (StringUtils.isNullOrEmpty(html)) {
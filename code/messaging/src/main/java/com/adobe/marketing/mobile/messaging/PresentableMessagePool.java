@@ -0,0 +1,158 @@
+/*
+  Copyright 2024 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+package com.adobe.marketing.mobile.messaging;
+
+import com.adobe.marketing.mobile.launch.rulesengine.RuleConsequence;
+import com.adobe.marketing.mobile.services.Log;
+import com.adobe.marketing.mobile.util.DataReader;
+import com.adobe.marketing.mobile.util.StringUtils;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Holds in-app messages built ahead of the rule which triggers them, so they can be displayed
+ * without decoding their content and creating their presentable on the trigger path.
+ *
+ * <p>The pool is bounded to {@link #MAX_POOL_SIZE} messages. It is prepared with the loaded in-app
+ * rule consequences, most likely to be triggered first, and messages whose consequence is no
+ * longer loaded are evicted.
+ */
+final class PresentableMessagePool {
+    private static final String SELF_TAG = "PresentableMessagePool";
+    static final int MAX_POOL_SIZE = 5;
+
+    /** Builds the in-app message for a proposition item. */
+    interface MessageFactory {
+        /**
+         * Builds the in-app message for the provided item.
+         *
+         * @param propositionItem {@link PropositionItem} containing the in-app message
+         * @return {@link PresentableMessageMapper.InternalMessage} for the item, or null if the
+         *     item does not need to be built ahead of time
+         * @throws MessageRequiredFieldMissingException if the item is not a valid in-app message
+         * @throws IllegalStateException if the message cannot be created
+         */
+        PresentableMessageMapper.InternalMessage build(final PropositionItem propositionItem)
+                throws MessageRequiredFieldMissingException, IllegalStateException;
+    }
+
+    private final int maxPoolSize;
+    // pre-built messages by proposition item id
+    private final Map<String, PresentableMessageMapper.InternalMessage> messages =
+            new LinkedHashMap<>();
+
+    PresentableMessagePool() {
+        this(MAX_POOL_SIZE);
+    }
+
+    PresentableMessagePool(final int maxPoolSize) {
+        this.maxPoolSize = maxPoolSize;
+    }
+
+    /**
+     * Evicts the messages which are no longer loaded and builds messages for the most likely
+     * consequences until the pool is full.
+     *
+     * @param consequences {@code List<RuleConsequence>} containing the loaded in-app rule
+     *     consequences, most likely to be triggered first
+     * @param messageFactory {@link MessageFactory} used to build the messages
+     */
+    synchronized void prepare(
+            final List<RuleConsequence> consequences, final MessageFactory messageFactory) {
+        final Set<String> loadedItemIds = new HashSet<>();
+        for (final RuleConsequence consequence : consequences) {
+            final String itemId = getItemId(consequence);
+            if (!StringUtils.isNullOrEmpty(itemId)) {
+                loadedItemIds.add(itemId);
+            }
+        }
+        int evictedCount = 0;
+        final Iterator<String> pooledItemIds = messages.keySet().iterator();
+        while (pooledItemIds.hasNext()) {
+            if (!loadedItemIds.contains(pooledItemIds.next())) {
+                pooledItemIds.remove();
+                evictedCount++;
+            }
+        }
+
+        int builtCount = 0;
+        for (final RuleConsequence consequence : consequences) {
+            if (messages.size() >= maxPoolSize) {
+                break;
+            }
+            final String itemId = getItemId(consequence);
+            if (StringUtils.isNullOrEmpty(itemId) || messages.containsKey(itemId)) {
+                continue;
+            }
+            final PropositionItem propositionItem =
+                    PropositionItem.fromRuleConsequence(consequence);
+            if (propositionItem == null || propositionItem.getSchema() != SchemaType.INAPP) {
+                continue;
+            }
+            try {
+                final PresentableMessageMapper.InternalMessage message =
+                        messageFactory.build(propositionItem);
+                if (message != null) {
+                    messages.put(itemId, message);
+                    builtCount++;
+                }
+            } catch (final MessageRequiredFieldMissingException | IllegalStateException exception) {
+                Log.debug(
+                        MessagingConstants.LOG_TAG,
+                        SELF_TAG,
+                        "Unable to build in-app message %s ahead of time: %s",
+                        itemId,
+                        exception.getLocalizedMessage());
+            }
+        }
+
+        if (builtCount > 0 || evictedCount > 0) {
+            Log.trace(
+                    MessagingConstants.LOG_TAG,
+                    SELF_TAG,
+                    "Built %d and evicted %d in-app message(s), %d message(s) ready.",
+                    builtCount,
+                    evictedCount,
+                    messages.size());
+        }
+    }
+
+    /**
+     * Removes and returns the pre-built message for the provided proposition item id.
+     *
+     * @param itemId {@link String} containing the proposition item id
+     * @return {@link PresentableMessageMapper.InternalMessage} for the item, or null if it was not
+     *     built ahead of time
+     */
+    synchronized PresentableMessageMapper.InternalMessage take(final String itemId) {
+        return itemId != null ? messages.remove(itemId) : null;
+    }
+
+    synchronized void clear() {
+        messages.clear();
+    }
+
+    synchronized int size() {
+        return messages.size();
+    }
+
+    private static String getItemId(final RuleConsequence consequence) {
+        return consequence != null
+                ? DataReader.optString(
+                        consequence.getDetail(), MessagingConstants.ConsequenceDetailKeys.ID, null)
+                : null;
+    }
+}
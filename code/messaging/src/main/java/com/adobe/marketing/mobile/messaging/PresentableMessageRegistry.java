@@ -0,0 +1,181 @@
+/*
+  Copyright 2024 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+package com.adobe.marketing.mobile.messaging;
+
+import com.adobe.marketing.mobile.services.Log;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Holds the in-app messages created for triggered rules, indexed by both presentable id and
+ * proposition item id.
+ *
+ * <p>A message is removed when it is dismissed, when its rule is no longer loaded, or when the
+ * registry exceeds its capacity, in which case the least recently used messages which are not
+ * being displayed are removed first.
+ */
+final class PresentableMessageRegistry {
+    private static final String SELF_TAG = "PresentableMessageRegistry";
+    static final int MAX_MESSAGES = 20;
+
+    private final int maxMessages;
+    // registered messages by presentable id, least recently used first
+    private final LinkedHashMap<String, PresentableMessageMapper.InternalMessage> messages =
+            new LinkedHashMap<>(16, 0.75f, true);
+    // presentable ids by proposition item id
+    private final Map<String, String> presentableIdsByItemId = new HashMap<>();
+    private final Set<String> displayedPresentableIds = new HashSet<>();
+    private long registeredCount;
+    private long evictedCount;
+
+    PresentableMessageRegistry() {
+        this(MAX_MESSAGES);
+    }
+
+    PresentableMessageRegistry(final int maxMessages) {
+        this.maxMessages = maxMessages;
+    }
+
+    /**
+     * Registers a message, unless a message for the same proposition item is already registered.
+     *
+     * @param presentableId {@link String} containing the id of the message presentable
+     * @param message {@link PresentableMessageMapper.InternalMessage} to register
+     * @return the {@link PresentableMessageMapper.InternalMessage} already registered for the same
+     *     proposition item, or the provided message if there was none
+     */
+    synchronized PresentableMessageMapper.InternalMessage register(
+            final String presentableId, final PresentableMessageMapper.InternalMessage message) {
+        final PresentableMessageMapper.InternalMessage existingMessage =
+                getByItemId(message.getId());
+        if (existingMessage != null) {
+            return existingMessage;
+        }
+        messages.put(presentableId, message);
+        presentableIdsByItemId.put(message.getId(), presentableId);
+        registeredCount++;
+        evictOverCapacity();
+        return message;
+    }
+
+    synchronized PresentableMessageMapper.InternalMessage get(final String presentableId) {
+        return messages.get(presentableId);
+    }
+
+    synchronized PresentableMessageMapper.InternalMessage getByItemId(final String itemId) {
+        final String presentableId = presentableIdsByItemId.get(itemId);
+        return presentableId != null ? messages.get(presentableId) : null;
+    }
+
+    /**
+     * Marks a message as displayed, it is not evicted for capacity until it is removed.
+     *
+     * @param presentableId {@link String} containing the id of the message presentable
+     */
+    synchronized void onDisplayed(final String presentableId) {
+        if (messages.containsKey(presentableId)) {
+            displayedPresentableIds.add(presentableId);
+        }
+    }
+
+    /**
+     * Removes a message.
+     *
+     * @param presentableId {@link String} containing the id of the message presentable
+     * @return {@code boolean} true if the message was registered
+     */
+    synchronized boolean remove(final String presentableId) {
+        final PresentableMessageMapper.InternalMessage message = messages.remove(presentableId);
+        if (message == null) {
+            return false;
+        }
+        presentableIdsByItemId.remove(message.getId());
+        displayedPresentableIds.remove(presentableId);
+        return true;
+    }
+
+    /**
+     * Removes the messages whose proposition item is no longer loaded, except messages being
+     * displayed, which are removed once dismissed.
+     *
+     * @param itemIds {@code Collection<String>} containing the loaded proposition item ids
+     * @return {@code int} containing the number of removed messages
+     */
+    synchronized int retainItemIds(final Collection<String> itemIds) {
+        final Set<String> retainedItemIds = new HashSet<>(itemIds);
+        int removedCount = 0;
+        final Iterator<Map.Entry<String, PresentableMessageMapper.InternalMessage>> iterator =
+                messages.entrySet().iterator();
+        while (iterator.hasNext()) {
+            final Map.Entry<String, PresentableMessageMapper.InternalMessage> entry =
+                    iterator.next();
+            if (retainedItemIds.contains(entry.getValue().getId())
+                    || displayedPresentableIds.contains(entry.getKey())) {
+                continue;
+            }
+            presentableIdsByItemId.remove(entry.getValue().getId());
+            iterator.remove();
+            removedCount++;
+        }
+        evictedCount += removedCount;
+        return removedCount;
+    }
+
+    synchronized void clear() {
+        messages.clear();
+        presentableIdsByItemId.clear();
+        displayedPresentableIds.clear();
+    }
+
+    synchronized int size() {
+        return messages.size();
+    }
+
+    synchronized int getDisplayedCount() {
+        return displayedPresentableIds.size();
+    }
+
+    synchronized long getRegisteredCount() {
+        return registeredCount;
+    }
+
+    synchronized long getEvictedCount() {
+        return evictedCount;
+    }
+
+    // must be called while holding the lock
+    private void evictOverCapacity() {
+        final Iterator<Map.Entry<String, PresentableMessageMapper.InternalMessage>> iterator =
+                messages.entrySet().iterator();
+        while (messages.size() > maxMessages && iterator.hasNext()) {
+            final Map.Entry<String, PresentableMessageMapper.InternalMessage> entry =
+                    iterator.next();
+            if (displayedPresentableIds.contains(entry.getKey())) {
+                continue;
+            }
+            presentableIdsByItemId.remove(entry.getValue().getId());
+            iterator.remove();
+            evictedCount++;
+            Log.trace(
+                    MessagingConstants.LOG_TAG,
+                    SELF_TAG,
+                    "Evicted in-app message %s, %d message(s) registered.",
+                    entry.getValue().getId(),
+                    messages.size());
+        }
+    }
+}
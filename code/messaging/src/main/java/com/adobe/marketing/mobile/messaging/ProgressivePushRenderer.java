@@ -0,0 +1,292 @@
+/*
+  Copyright 2024 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+package com.adobe.marketing.mobile.messaging;
+
+import android.app.NotificationManager;
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.os.Build;
+import android.service.notification.StatusBarNotification;
+import androidx.annotation.VisibleForTesting;
+import androidx.core.app.NotificationCompat;
+import androidx.core.app.NotificationManagerCompat;
+import com.adobe.marketing.mobile.MessagingPushPayload;
+import com.adobe.marketing.mobile.services.Log;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Displays push notifications with an image without waiting long for the image.
+ *
+ * <p>The image is loaded on a background thread. If it is loaded within {@link
+ * #IMAGE_GRACE_PERIOD_MS}, which is the case when it is read from the image cache, the
+ * notification is posted once with its image. Otherwise the notification is posted with its text,
+ * and if the image is loaded within {@link #IMAGE_DEADLINE_MS}, the notification is updated in
+ * place with the image, without alerting the user again.
+ *
+ * <p>Progressive display is the default because the notification used to be posted only after its
+ * image was downloaded, so a slow image server delayed the whole notification by up to the
+ * download timeout. Since cached and fast images are posted together with the text, the text is
+ * only posted on its own when the image would have delayed it.
+ */
+final class ProgressivePushRenderer {
+    private static final String SELF_TAG = "ProgressivePushRenderer";
+    private static final String THREAD_NAME = "MessagingPushImage";
+    static final long IMAGE_GRACE_PERIOD_MS = 300;
+    static final long IMAGE_DEADLINE_MS = TimeUnit.SECONDS.toMillis(8);
+
+    /** Loads the image of a push notification. */
+    interface ImageLoader {
+        Bitmap load(final Context context, final String url);
+    }
+
+    private static ProgressivePushRenderer instance;
+
+    private final ImageLoader imageLoader;
+    private final ExecutorService executorService;
+    private final long imageGracePeriodMillis;
+    private final long imageDeadlineMillis;
+
+    // metrics
+    private int renderedCount;
+    private int postedWithImageCount;
+    private int updatedCount;
+    private int missedDeadlineCount;
+    private long textLatencyMillis;
+    private long imageLatencyMillis;
+
+    static synchronized ProgressivePushRenderer getInstance() {
+        if (instance == null) {
+            instance =
+                    new ProgressivePushRenderer(
+                            MessagingPushUtils::loadImage,
+                            Executors.newCachedThreadPool(
+                                    runnable -> {
+                                        final Thread thread = new Thread(runnable, THREAD_NAME);
+                                        thread.setDaemon(true);
+                                        return thread;
+                                    }),
+                            IMAGE_GRACE_PERIOD_MS,
+                            IMAGE_DEADLINE_MS);
+        }
+        return instance;
+    }
+
+    @VisibleForTesting
+    ProgressivePushRenderer(
+            final ImageLoader imageLoader,
+            final ExecutorService executorService,
+            final long imageGracePeriodMillis,
+            final long imageDeadlineMillis) {
+        this.imageLoader = imageLoader;
+        this.executorService = executorService;
+        this.imageGracePeriodMillis = imageGracePeriodMillis;
+        this.imageDeadlineMillis = imageDeadlineMillis;
+    }
+
+    /**
+     * Posts the notification for the payload with its image if the image is loaded within the
+     * grace period. Otherwise posts it without its image, then updates it with the image once it
+     * is loaded, or until the deadline passes.
+     *
+     * @param context the application {@link Context}
+     * @param payload {@link MessagingPushPayload} the payload received from the push notification
+     * @param notificationId {@code int} containing the id of the notification
+     */
+    void render(
+            final Context context, final MessagingPushPayload payload, final int notificationId) {
+        final long startMillis = System.currentTimeMillis();
+        final NotificationManagerCompat notificationManager =
+                NotificationManagerCompat.from(context);
+        final NotificationCompat.Builder builder =
+                MessagingPushBuilder.createNotificationBuilder(payload, context);
+
+        // a cached or fast image is posted together with the text, avoiding a second update
+        final Future<Bitmap> image = loadImage(context, payload.getImageUrl());
+        final Bitmap readyBitmap =
+                awaitImage(image, payload.getImageUrl(), imageGracePeriodMillis, false);
+        if (readyBitmap != null) {
+            MessagingPushBuilder.setImage(builder, payload, readyBitmap);
+        }
+        notificationManager.notify(notificationId, builder.build());
+        final long textMillis = System.currentTimeMillis() - startMillis;
+        synchronized (this) {
+            renderedCount++;
+            textLatencyMillis += textMillis;
+            if (readyBitmap != null) {
+                postedWithImageCount++;
+                imageLatencyMillis += textMillis;
+            }
+        }
+        if (readyBitmap != null) {
+            Log.debug(
+                    MessagingPushConstants.LOG_TAG,
+                    SELF_TAG,
+                    "Push notification displayed with its image in %d ms.",
+                    textMillis);
+            return;
+        }
+
+        // the image failed to load, or is still loading after the grace period
+        final Bitmap bitmap =
+                image != null && !image.isDone()
+                        ? awaitImage(
+                                image,
+                                payload.getImageUrl(),
+                                Math.max(0, imageDeadlineMillis - imageGracePeriodMillis),
+                                true)
+                        : null;
+        final long imageMillis = System.currentTimeMillis() - startMillis;
+        if (bitmap == null) {
+            Log.debug(
+                    MessagingPushConstants.LOG_TAG,
+                    SELF_TAG,
+                    "Push notification displayed without image in %d ms.",
+                    textMillis);
+            return;
+        }
+        if (!isNotificationActive(context, notificationId)) {
+            Log.debug(
+                    MessagingPushConstants.LOG_TAG,
+                    SELF_TAG,
+                    "Push notification was dismissed before its image was loaded (%d ms).",
+                    imageMillis);
+            return;
+        }
+
+        builder.setOnlyAlertOnce(true);
+        MessagingPushBuilder.setImage(builder, payload, bitmap);
+        notificationManager.notify(notificationId, builder.build());
+        synchronized (this) {
+            updatedCount++;
+            imageLatencyMillis += imageMillis;
+        }
+        Log.debug(
+                MessagingPushConstants.LOG_TAG,
+                SELF_TAG,
+                "Push notification displayed in %d ms, updated with its image in %d ms.",
+                textMillis,
+                imageMillis);
+    }
+
+    synchronized int getRenderedCount() {
+        return renderedCount;
+    }
+
+    synchronized int getPostedWithImageCount() {
+        return postedWithImageCount;
+    }
+
+    synchronized int getUpdatedCount() {
+        return updatedCount;
+    }
+
+    synchronized int getMissedDeadlineCount() {
+        return missedDeadlineCount;
+    }
+
+    /**
+     * Returns the average time from receiving a push notification to displaying its text.
+     *
+     * @return {@code long} containing the average latency in milliseconds
+     */
+    synchronized long getAverageTextLatencyMillis() {
+        return renderedCount > 0 ? textLatencyMillis / renderedCount : 0;
+    }
+
+    /**
+     * Returns the average time from receiving a push notification to displaying its image.
+     *
+     * @return {@code long} containing the average latency in milliseconds
+     */
+    synchronized long getAverageImageLatencyMillis() {
+        final int imageCount = postedWithImageCount + updatedCount;
+        return imageCount > 0 ? imageLatencyMillis / imageCount : 0;
+    }
+
+    private Future<Bitmap> loadImage(final Context context, final String url) {
+        try {
+            return executorService.submit(() -> imageLoader.load(context, url));
+        } catch (final RejectedExecutionException exception) {
+            Log.warning(
+                    MessagingPushConstants.LOG_TAG,
+                    SELF_TAG,
+                    "Unable to load push notification image from url (%s): %s",
+                    url,
+                    exception.getMessage());
+            return null;
+        }
+    }
+
+    private Bitmap awaitImage(
+            final Future<Bitmap> image,
+            final String url,
+            final long timeoutMillis,
+            final boolean isDeadline) {
+        if (image == null) {
+            return null;
+        }
+        try {
+            return image.get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (final TimeoutException exception) {
+            if (!isDeadline) {
+                // keep loading, the notification is updated once the image is loaded
+                return null;
+            }
+            image.cancel(true);
+            synchronized (this) {
+                missedDeadlineCount++;
+            }
+            Log.debug(
+                    MessagingPushConstants.LOG_TAG,
+                    SELF_TAG,
+                    "Push notification image from url (%s) was not loaded within %d ms.",
+                    url,
+                    imageDeadlineMillis);
+        } catch (final ExecutionException exception) {
+            Log.warning(
+                    MessagingPushConstants.LOG_TAG,
+                    SELF_TAG,
+                    "Failed to load push notification image from url (%s): %s",
+                    url,
+                    exception.getMessage());
+        } catch (final InterruptedException exception) {
+            image.cancel(true);
+            Thread.currentThread().interrupt();
+        }
+        return null;
+    }
+
+    // an update would post the notification again if it was dismissed in the meantime
+    private static boolean isNotificationActive(final Context context, final int notificationId) {
+        if (Build.VERSION.SDK_INT < Build.VERSION_CODES.M) {
+            return true;
+        }
+        final NotificationManager notificationManager =
+                (NotificationManager) context.getSystemService(Context.NOTIFICATION_SERVICE);
+        if (notificationManager == null) {
+            return true;
+        }
+        for (final StatusBarNotification notification :
+                notificationManager.getActiveNotifications()) {
+            if (notification.getId() == notificationId) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
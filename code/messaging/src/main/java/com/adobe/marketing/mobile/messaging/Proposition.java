@@ -156,6 +156,7 @@ public class Proposition implements Serializable {
         return eventData;
     }
 
+    @Override
     public boolean equals(final Object object) {
         if (object instanceof Proposition) {
             final Proposition proposition = (Proposition) object;
@@ -167,4 +168,19 @@ public class Proposition implements Serializable {
             return false;
         }
     }
+
+    /**
+     * Returns a hash code consistent with {@link #equals(Object)}, which compares the item data of
+     * the first {@code PropositionItem}.
+     *
+     * @return {@code int} containing the hash code of the first item's data
+     */
+    @Override
+    public int hashCode() {
+        if (propositionItems.isEmpty()) {
+            return 0;
+        }
+        final Map<String, Object> itemData = propositionItems.get(0).getItemData();
+        return itemData != null ? itemData.hashCode() : 0;
+    }
 }
@@ -0,0 +1,504 @@
+/*
+  Copyright 2024 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+package com.adobe.marketing.mobile.messaging;
+
+import com.adobe.marketing.mobile.services.Log;
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+
+/**
+ * Encodes and decodes cached propositions using a compact, versioned binary format.
+ *
+ * <p>The encoded data starts with a header containing {@link #MAGIC} and {@link #VERSION}. A
+ * full cache is followed by the number of surface sections, a single surface cache entry by one
+ * surface section, and a cache index by the list of surface URIs. Each surface section contains
+ * the surface URI and the propositions for that surface. Proposition item data is written as
+ * tagged values so it can be decoded without reflection.
+ *
+ * <p>Starting with version 2, the encoded data ends with a CRC32 checksum of all preceding bytes
+ * so an entry which was only partially written to disk is rejected when it is decoded.
+ *
+ * <p>Lengths and counts read from the data are checked against {@link #MAX_STRING_BYTES} and
+ * {@link #MAX_ELEMENT_COUNT}, and memory is only allocated for bytes which were actually read, so
+ * corrupt data is rejected as malformed instead of causing large allocations.
+ */
+final class PropositionCacheCodec {
+    private static final String SELF_TAG = "PropositionCacheCodec";
+
+    // "AJOP" - identifies data written by this codec
+    static final int MAGIC = 0x414A4F50;
+    static final int VERSION = 2;
+    // version 1 data does not end with a checksum
+    private static final int FIRST_CHECKSUM_VERSION = 2;
+    static final int HEADER_LENGTH = 5;
+    static final int MAX_STRING_BYTES = 16 * 1024 * 1024;
+    static final int MAX_ELEMENT_COUNT = 1024 * 1024;
+    // strings longer than this are read in chunks of this size
+    private static final int READ_CHUNK_BYTES = 64 * 1024;
+    // initial capacity of decoded collections, they grow as elements are read
+    private static final int MAX_INITIAL_CAPACITY = 16;
+
+    private static final byte TAG_NULL = 0;
+    private static final byte TAG_STRING = 1;
+    private static final byte TAG_BOOLEAN = 2;
+    private static final byte TAG_INTEGER = 3;
+    private static final byte TAG_LONG = 4;
+    private static final byte TAG_DOUBLE = 5;
+    private static final byte TAG_FLOAT = 6;
+    private static final byte TAG_MAP = 7;
+    private static final byte TAG_LIST = 8;
+
+    private PropositionCacheCodec() {}
+
+    /**
+     * Determines if the provided {@code InputStream} begins with a header written by this codec.
+     * The stream position is restored before returning.
+     *
+     * @param inputStream a {@link BufferedInputStream} containing cached data
+     * @return {@code boolean} true if the stream contains data encoded by this codec
+     * @throws IOException if an error occurs reading from the stream
+     */
+    static boolean hasHeader(final BufferedInputStream inputStream) throws IOException {
+        inputStream.mark(HEADER_LENGTH);
+        try {
+            final DataInputStream dataInputStream = new DataInputStream(inputStream);
+            return dataInputStream.readInt() == MAGIC;
+        } catch (final IOException exception) {
+            return false;
+        } finally {
+            inputStream.reset();
+        }
+    }
+
+    /**
+     * Encodes the provided {@code Map<Surface, List<Proposition>>}.
+     *
+     * @param propositions {@link Map<Surface, List<Proposition>>} to be encoded
+     * @return {@code byte[]} containing the encoded propositions
+     * @throws IOException if an error occurs while encoding
+     */
+    static byte[] encode(final Map<Surface, List<Proposition>> propositions) throws IOException {
+        final ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
+        final DataOutputStream output = new DataOutputStream(byteArrayOutputStream);
+        writeHeader(output);
+        output.writeInt(propositions.size());
+        for (final Map.Entry<Surface, List<Proposition>> entry : propositions.entrySet()) {
+            writeSurfaceSection(output, entry.getKey(), entry.getValue());
+        }
+        writeChecksum(output, byteArrayOutputStream);
+        return byteArrayOutputStream.toByteArray();
+    }
+
+    /**
+     * Decodes propositions previously encoded with {@link #encode(Map)}.
+     *
+     * @param inputStream {@link InputStream} containing the encoded propositions
+     * @return {@code Map<Surface, List<Proposition>>} containing the decoded propositions
+     * @throws IOException if the data is malformed or was written by an unsupported version
+     */
+    static Map<Surface, List<Proposition>> decode(final InputStream inputStream)
+            throws IOException {
+        final CheckedInputStream checkedInputStream =
+                new CheckedInputStream(inputStream, new CRC32());
+        final DataInputStream input = new DataInputStream(checkedInputStream);
+        final int version = readHeader(input);
+        final int surfaceCount = readCount(input);
+        final Map<Surface, List<Proposition>> propositions = new HashMap<>();
+        for (int i = 0; i < surfaceCount; i++) {
+            final String uri = readString(input);
+            final List<Proposition> surfacePropositions = readPropositions(input);
+            final Surface surface = Surface.fromUriString(uri);
+            if (surface != null && !surfacePropositions.isEmpty()) {
+                propositions.put(surface, surfacePropositions);
+            }
+        }
+        verifyChecksum(checkedInputStream, version);
+        return propositions;
+    }
+
+    /**
+     * Encodes the propositions for a single {@code Surface}.
+     *
+     * @param surface the {@link Surface} the propositions belong to
+     * @param propositions {@link List<Proposition>} to be encoded
+     * @return {@code byte[]} containing the encoded surface section
+     * @throws IOException if an error occurs while encoding
+     */
+    static byte[] encodeSurface(final Surface surface, final List<Proposition> propositions)
+            throws IOException {
+        final ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
+        final DataOutputStream output = new DataOutputStream(byteArrayOutputStream);
+        writeHeader(output);
+        writeSurfaceSection(output, surface, propositions);
+        writeChecksum(output, byteArrayOutputStream);
+        return byteArrayOutputStream.toByteArray();
+    }
+
+    /**
+     * Decodes the propositions for a single {@code Surface} previously encoded with {@link
+     * #encodeSurface(Surface, List)}.
+     *
+     * @param inputStream {@link InputStream} containing the encoded surface section
+     * @param surface the {@link Surface} the propositions are expected to belong to
+     * @return {@code List<Proposition>} containing the decoded propositions
+     * @throws IOException if the data is malformed or does not belong to the provided surface
+     */
+    static List<Proposition> decodeSurface(final InputStream inputStream, final Surface surface)
+            throws IOException {
+        final CheckedInputStream checkedInputStream =
+                new CheckedInputStream(inputStream, new CRC32());
+        final DataInputStream input = new DataInputStream(checkedInputStream);
+        final int version = readHeader(input);
+        final String uri = readString(input);
+        if (!surface.getUri().equals(uri)) {
+            throw new IOException(
+                    String.format(
+                            "Cached surface (%s) does not match the requested surface (%s).",
+                            uri, surface.getUri()));
+        }
+        final List<Proposition> propositions = readPropositions(input);
+        verifyChecksum(checkedInputStream, version);
+        return propositions;
+    }
+
+    /**
+     * Encodes the index of surfaces which have cached propositions.
+     *
+     * @param surfaceUris {@link Collection<String>} containing the cached surface URIs
+     * @return {@code byte[]} containing the encoded index
+     * @throws IOException if an error occurs while encoding
+     */
+    static byte[] encodeIndex(final Collection<String> surfaceUris) throws IOException {
+        final ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
+        final DataOutputStream output = new DataOutputStream(byteArrayOutputStream);
+        writeHeader(output);
+        output.writeInt(surfaceUris.size());
+        for (final String uri : surfaceUris) {
+            writeString(output, uri);
+        }
+        writeChecksum(output, byteArrayOutputStream);
+        return byteArrayOutputStream.toByteArray();
+    }
+
+    /**
+     * Decodes the index of surfaces previously encoded with {@link #encodeIndex(Collection)}.
+     *
+     * @param inputStream {@link InputStream} containing the encoded index
+     * @return {@code List<String>} containing the cached surface URIs
+     * @throws IOException if the data is malformed or was written by an unsupported version
+     */
+    static List<String> decodeIndex(final InputStream inputStream) throws IOException {
+        final CheckedInputStream checkedInputStream =
+                new CheckedInputStream(inputStream, new CRC32());
+        final DataInputStream input = new DataInputStream(checkedInputStream);
+        final int version = readHeader(input);
+        final int surfaceCount = readCount(input);
+        final List<String> surfaceUris = new ArrayList<>(initialCapacity(surfaceCount));
+        for (int i = 0; i < surfaceCount; i++) {
+            surfaceUris.add(readString(input));
+        }
+        verifyChecksum(checkedInputStream, version);
+        return surfaceUris;
+    }
+
+    // ========================================================================================
+    // Sections
+    // ========================================================================================
+
+    static void writeHeader(final DataOutputStream output) throws IOException {
+        output.writeInt(MAGIC);
+        output.writeByte(VERSION);
+    }
+
+    static int readHeader(final DataInputStream input) throws IOException {
+        if (input.readInt() != MAGIC) {
+            throw new IOException("Cached data does not contain a valid proposition header.");
+        }
+        final int version = input.readUnsignedByte();
+        if (version < 1 || version > VERSION) {
+            throw new IOException(
+                    String.format("Unsupported proposition cache version (%d).", version));
+        }
+        return version;
+    }
+
+    // appends a CRC32 checksum of all bytes written to byteArrayOutputStream so far
+    static void writeChecksum(
+            final DataOutputStream output, final ByteArrayOutputStream byteArrayOutputStream)
+            throws IOException {
+        output.flush();
+        final CRC32 checksum = new CRC32();
+        checksum.update(byteArrayOutputStream.toByteArray());
+        output.writeInt((int) checksum.getValue());
+        output.flush();
+    }
+
+    // reads the checksum following the decoded data and verifies it matches the bytes read
+    static void verifyChecksum(final CheckedInputStream checkedInputStream, final int version)
+            throws IOException {
+        if (version < FIRST_CHECKSUM_VERSION) {
+            return;
+        }
+        final int expectedChecksum = (int) checkedInputStream.getChecksum().getValue();
+        final int checksum = new DataInputStream(checkedInputStream).readInt();
+        if (checksum != expectedChecksum) {
+            throw new IOException("Cached data is incomplete, the checksum does not match.");
+        }
+    }
+
+    static void writeSurfaceSection(
+            final DataOutputStream output,
+            final Surface surface,
+            final List<Proposition> propositions)
+            throws IOException {
+        writeString(output, surface.getUri());
+        writePropositions(output, propositions);
+    }
+
+    static void writePropositions(
+            final DataOutputStream output, final List<Proposition> propositions)
+            throws IOException {
+        if (propositions == null) {
+            output.writeInt(0);
+            return;
+        }
+        output.writeInt(propositions.size());
+        for (final Proposition proposition : propositions) {
+            writeString(output, proposition.getUniqueId());
+            writeString(output, proposition.getScope());
+            writeMap(output, proposition.getScopeDetails());
+            final List<PropositionItem> items = proposition.getItems();
+            output.writeInt(items.size());
+            for (final PropositionItem item : items) {
+                writeString(output, item.getItemId());
+                output.writeByte(item.getSchema().getValue());
+                writeMap(output, item.getItemData());
+            }
+        }
+    }
+
+    static List<Proposition> readPropositions(final DataInputStream input) throws IOException {
+        final int propositionCount = readCount(input);
+        final List<Proposition> propositions = new ArrayList<>(initialCapacity(propositionCount));
+        for (int i = 0; i < propositionCount; i++) {
+            final String id = readString(input);
+            final String scope = readString(input);
+            final Map<String, Object> scopeDetails = readMap(input);
+            final int itemCount = readCount(input);
+            final List<PropositionItem> items = new ArrayList<>(initialCapacity(itemCount));
+            for (int j = 0; j < itemCount; j++) {
+                final String itemId = readString(input);
+                final SchemaType schema = schemaFromValue(input.readUnsignedByte());
+                final Map<String, Object> itemData = readMap(input);
+                try {
+                    items.add(new PropositionItem(itemId, schema, itemData));
+                } catch (final MessageRequiredFieldMissingException exception) {
+                    Log.debug(
+                            MessagingConstants.LOG_TAG,
+                            SELF_TAG,
+                            "Skipping cached proposition item (%s): %s",
+                            itemId,
+                            exception.getLocalizedMessage());
+                }
+            }
+            try {
+                propositions.add(new Proposition(id, scope, scopeDetails, items));
+            } catch (final MessageRequiredFieldMissingException exception) {
+                Log.debug(
+                        MessagingConstants.LOG_TAG,
+                        SELF_TAG,
+                        "Skipping cached proposition (%s): %s",
+                        id,
+                        exception.getLocalizedMessage());
+            }
+        }
+        return propositions;
+    }
+
+    // ========================================================================================
+    // Values
+    // ========================================================================================
+
+    static void writeString(final DataOutputStream output, final String value)
+            throws IOException {
+        if (value == null) {
+            output.writeInt(-1);
+            return;
+        }
+        // DataOutputStream.writeUTF is limited to 64KB which html content can exceed
+        final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        output.writeInt(bytes.length);
+        output.write(bytes);
+    }
+
+    static String readString(final DataInputStream input) throws IOException {
+        final int length = input.readInt();
+        if (length == -1) {
+            return null;
+        }
+        if (length < 0 || length > MAX_STRING_BYTES) {
+            throw new IOException(String.format("Invalid cached string length (%d).", length));
+        }
+        if (length <= READ_CHUNK_BYTES) {
+            final byte[] bytes = new byte[length];
+            input.readFully(bytes);
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+
+        // a truncated entry fails once its data runs out, before the full length is allocated
+        final ByteArrayOutputStream byteArrayOutputStream =
+                new ByteArrayOutputStream(READ_CHUNK_BYTES);
+        final byte[] chunk = new byte[READ_CHUNK_BYTES];
+        int remaining = length;
+        while (remaining > 0) {
+            final int chunkLength = Math.min(remaining, READ_CHUNK_BYTES);
+            input.readFully(chunk, 0, chunkLength);
+            byteArrayOutputStream.write(chunk, 0, chunkLength);
+            remaining -= chunkLength;
+        }
+        return new String(byteArrayOutputStream.toByteArray(), StandardCharsets.UTF_8);
+    }
+
+    // reads the number of elements of a collection which is never encoded as null
+    static int readCount(final DataInputStream input) throws IOException {
+        final int count = input.readInt();
+        if (count < 0 || count > MAX_ELEMENT_COUNT) {
+            throw new IOException(String.format("Invalid cached element count (%d).", count));
+        }
+        return count;
+    }
+
+    private static int initialCapacity(final int count) {
+        return Math.min(count, MAX_INITIAL_CAPACITY);
+    }
+
+    private static void writeMap(final DataOutputStream output, final Map<String, Object> map)
+            throws IOException {
+        if (map == null) {
+            output.writeInt(-1);
+            return;
+        }
+        output.writeInt(map.size());
+        for (final Map.Entry<String, Object> entry : map.entrySet()) {
+            writeString(output, entry.getKey());
+            writeValue(output, entry.getValue());
+        }
+    }
+
+    private static Map<String, Object> readMap(final DataInputStream input) throws IOException {
+        final int size = input.readInt();
+        if (size == -1) {
+            return null;
+        }
+        if (size < 0 || size > MAX_ELEMENT_COUNT) {
+            throw new IOException(String.format("Invalid cached map size (%d).", size));
+        }
+        final Map<String, Object> map = new HashMap<>();
+        for (int i = 0; i < size; i++) {
+            final String key = readString(input);
+            map.put(key, readValue(input));
+        }
+        return map;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void writeValue(final DataOutputStream output, final Object value)
+            throws IOException {
+        if (value == null) {
+            output.writeByte(TAG_NULL);
+        } else if (value instanceof String) {
+            output.writeByte(TAG_STRING);
+            writeString(output, (String) value);
+        } else if (value instanceof Boolean) {
+            output.writeByte(TAG_BOOLEAN);
+            output.writeBoolean((Boolean) value);
+        } else if (value instanceof Integer) {
+            output.writeByte(TAG_INTEGER);
+            output.writeInt((Integer) value);
+        } else if (value instanceof Long) {
+            output.writeByte(TAG_LONG);
+            output.writeLong((Long) value);
+        } else if (value instanceof Double) {
+            output.writeByte(TAG_DOUBLE);
+            output.writeDouble((Double) value);
+        } else if (value instanceof Float) {
+            output.writeByte(TAG_FLOAT);
+            output.writeFloat((Float) value);
+        } else if (value instanceof Map) {
+            output.writeByte(TAG_MAP);
+            writeMap(output, (Map<String, Object>) value);
+        } else if (value instanceof List) {
+            output.writeByte(TAG_LIST);
+            final List<Object> list = (List<Object>) value;
+            output.writeInt(list.size());
+            for (final Object element : list) {
+                writeValue(output, element);
+            }
+        } else {
+            // any other value type is not expected in event data, store its string representation
+            output.writeByte(TAG_STRING);
+            writeString(output, value.toString());
+        }
+    }
+
+    private static Object readValue(final DataInputStream input) throws IOException {
+        final byte tag = input.readByte();
+        switch (tag) {
+            case TAG_NULL:
+                return null;
+            case TAG_STRING:
+                return readString(input);
+            case TAG_BOOLEAN:
+                return input.readBoolean();
+            case TAG_INTEGER:
+                return input.readInt();
+            case TAG_LONG:
+                return input.readLong();
+            case TAG_DOUBLE:
+                return input.readDouble();
+            case TAG_FLOAT:
+                return input.readFloat();
+            case TAG_MAP:
+                return readMap(input);
+            case TAG_LIST:
+                final int size = readCount(input);
+                final List<Object> list = new ArrayList<>(initialCapacity(size));
+                for (int i = 0; i < size; i++) {
+                    list.add(readValue(input));
+                }
+                return list;
+            default:
+                throw new IOException(String.format("Unknown cached value tag (%d).", tag));
+        }
+    }
+
+    private static SchemaType schemaFromValue(final int value) {
+        for (final SchemaType schemaType : SchemaType.values()) {
+            if (schemaType.getValue() == value) {
+                return schemaType;
+            }
+        }
+        return SchemaType.UNKNOWN;
+    }
+}
@@ -0,0 +1,177 @@
+/*
+  Copyright 2024 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+package com.adobe.marketing.mobile.messaging;
+
+import androidx.annotation.VisibleForTesting;
+import com.adobe.marketing.mobile.services.Log;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Persists proposition changes to the {@link MessagingCacheUtilities} on a background thread.
+ *
+ * <p>Changes are held for {@link #COALESCING_WINDOW_MS} before being written, and repeated changes
+ * to the same {@link Surface} within that window are collapsed into a single write. Pending
+ * changes are written when {@link #flush()} is called.
+ *
+ * <p>At most {@link #MAX_PENDING_SURFACES} surfaces are held in memory. Once the limit is reached,
+ * or if the write cannot be scheduled, the pending changes are written on the calling thread
+ * before {@link #enqueue(Map, List)} returns, which holds back the caller until the queue is
+ * empty.
+ */
+final class PropositionCacheWriter {
+    private static final String SELF_TAG = "PropositionCacheWriter";
+    private static final String THREAD_NAME = "MessagingPropositionCacheWriter";
+    static final long COALESCING_WINDOW_MS = 500;
+    static final int MAX_PENDING_SURFACES = 50;
+
+    private final MessagingCacheUtilities messagingCacheUtilities;
+    private final ScheduledExecutorService executorService;
+    // guards the pending changes and the scheduled flush
+    private final Object pendingMutex = new Object();
+    // serializes writes made from the executor and from flush callers
+    private final Object writeMutex = new Object();
+    private final Map<Surface, List<Proposition>> pendingPropositions = new LinkedHashMap<>();
+    private final Set<Surface> pendingSurfacesToRemove = new LinkedHashSet<>();
+    private ScheduledFuture<?> scheduledFlush;
+
+    PropositionCacheWriter(final MessagingCacheUtilities messagingCacheUtilities) {
+        this(
+                messagingCacheUtilities,
+                Executors.newSingleThreadScheduledExecutor(
+                        runnable -> {
+                            final Thread thread = new Thread(runnable, THREAD_NAME);
+                            thread.setDaemon(true);
+                            return thread;
+                        }));
+    }
+
+    @VisibleForTesting
+    PropositionCacheWriter(
+            final MessagingCacheUtilities messagingCacheUtilities,
+            final ScheduledExecutorService executorService) {
+        this.messagingCacheUtilities = messagingCacheUtilities;
+        this.executorService = executorService;
+    }
+
+    /**
+     * Queues the provided proposition changes to be written to the cache.
+     *
+     * <p>A {@link Surface} present in both {@code newPropositions} and {@code surfacesToRemove} is
+     * removed from the cache. Otherwise the most recent change queued for a surface replaces any
+     * earlier change which has not yet been written.
+     *
+     * @param newPropositions {@link Map<Surface, List<Proposition>>} containing the propositions to
+     *     be cached
+     * @param surfacesToRemove {@link List<Surface>} containing surfaces to be removed from the
+     *     cache
+     */
+    void enqueue(
+            final Map<Surface, List<Proposition>> newPropositions,
+            final List<Surface> surfacesToRemove) {
+        final boolean writeNow;
+        synchronized (pendingMutex) {
+            if (newPropositions != null) {
+                for (final Map.Entry<Surface, List<Proposition>> entry :
+                        newPropositions.entrySet()) {
+                    final List<Proposition> propositions =
+                            entry.getValue() != null
+                                    ? new ArrayList<>(entry.getValue())
+                                    : new ArrayList<>();
+                    pendingPropositions.put(entry.getKey(), propositions);
+                    pendingSurfacesToRemove.remove(entry.getKey());
+                }
+            }
+            if (surfacesToRemove != null) {
+                for (final Surface surface : surfacesToRemove) {
+                    pendingPropositions.remove(surface);
+                    pendingSurfacesToRemove.add(surface);
+                }
+            }
+
+            if (pendingPropositions.isEmpty() && pendingSurfacesToRemove.isEmpty()) {
+                return;
+            }
+
+            if (pendingPropositions.size() + pendingSurfacesToRemove.size()
+                    >= MAX_PENDING_SURFACES) {
+                Log.trace(
+                        MessagingConstants.LOG_TAG,
+                        SELF_TAG,
+                        "Pending proposition cache changes reached the limit (%d), writing them"
+                                + " now.",
+                        MAX_PENDING_SURFACES);
+                writeNow = true;
+            } else {
+                writeNow = scheduledFlush == null && !scheduleFlush(COALESCING_WINDOW_MS);
+            }
+        }
+
+        if (writeNow) {
+            flush();
+        }
+    }
+
+    /**
+     * Writes all pending proposition changes to the cache on the calling thread.
+     *
+     * <p>This method should be called when the application is moving to the background so queued
+     * changes are not lost if the process is terminated.
+     */
+    void flush() {
+        synchronized (writeMutex) {
+            final Map<Surface, List<Proposition>> propositionsToCache;
+            final List<Surface> surfacesToRemove;
+            synchronized (pendingMutex) {
+                if (scheduledFlush != null) {
+                    scheduledFlush.cancel(false);
+                    scheduledFlush = null;
+                }
+                if (pendingPropositions.isEmpty() && pendingSurfacesToRemove.isEmpty()) {
+                    return;
+                }
+                propositionsToCache = new HashMap<>(pendingPropositions);
+                surfacesToRemove = new ArrayList<>(pendingSurfacesToRemove);
+                pendingPropositions.clear();
+                pendingSurfacesToRemove.clear();
+            }
+
+            messagingCacheUtilities.cachePropositions(propositionsToCache, surfacesToRemove);
+        }
+    }
+
+    // must be called while holding pendingMutex, returns false if the write was not scheduled
+    private boolean scheduleFlush(final long delayMs) {
+        try {
+            scheduledFlush = executorService.schedule(this::flush, delayMs, TimeUnit.MILLISECONDS);
+            return true;
+        } catch (final RejectedExecutionException exception) {
+            Log.warning(
+                    MessagingConstants.LOG_TAG,
+                    SELF_TAG,
+                    "Unable to schedule the proposition cache write: %s",
+                    exception.getMessage());
+            scheduledFlush = null;
+            return false;
+        }
+    }
+}
@@ -0,0 +1,325 @@
+/*
+  Copyright 2024 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+package com.adobe.marketing.mobile.messaging;
+
+import androidx.annotation.VisibleForTesting;
+import com.adobe.marketing.mobile.services.Log;
+import com.adobe.marketing.mobile.util.DataReader;
+import com.adobe.marketing.mobile.util.StringUtils;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Batches consecutive proposition display or trigger interactions so the interactions of the same
+ * event type tracked within {@link #BATCH_WINDOW_MS} of each other are sent as a single decisioning
+ * event containing all of their propositions.
+ *
+ * <p>Repeated display interactions for the same proposition item within a batch are only sent
+ * once. A batch is sent when its window ends, when it reaches {@link #MAX_BATCH_SIZE} propositions,
+ * when an interaction of another event type is added, or when {@link #flush()} is called. Only
+ * one batch is open at a time and other interactions are sent immediately after it, so the order
+ * of the interactions is preserved. Interactions are drained and sent under a
+ * dispatch lock, so a batch sent by the scheduled flush is never overtaken by an interaction sent
+ * from another thread.
+ */
+final class PropositionInteractionBatcher {
+    private static final String SELF_TAG = "PropositionInteractionBatcher";
+    private static final String THREAD_NAME = "MessagingInteractionBatcher";
+    static final long BATCH_WINDOW_MS = TimeUnit.SECONDS.toMillis(1);
+    static final int MAX_BATCH_SIZE = 20;
+
+    /** Sends a proposition interaction XDM. */
+    interface Dispatcher {
+        void dispatch(final Map<String, Object> xdm);
+    }
+
+    private final Dispatcher dispatcher;
+    private final ScheduledExecutorService executorService;
+    // held while interactions are drained and sent, acquired before the batcher's lock
+    private final Object dispatchMutex = new Object();
+    // the open batch of consecutive interactions of one event type, null if none is pending
+    private Batch batch;
+    private ScheduledFuture<?> scheduledFlush;
+    private long receivedCount;
+    private long dedupedCount;
+    private long dispatchedCount;
+
+    /**
+     * Constructor.
+     *
+     * @param dispatcher {@link Dispatcher} which sends the proposition interaction XDMs
+     */
+    PropositionInteractionBatcher(final Dispatcher dispatcher) {
+        this(
+                dispatcher,
+                Executors.newSingleThreadScheduledExecutor(
+                        runnable -> {
+                            final Thread thread = new Thread(runnable, THREAD_NAME);
+                            thread.setDaemon(true);
+                            return thread;
+                        }));
+    }
+
+    @VisibleForTesting
+    PropositionInteractionBatcher(
+            final Dispatcher dispatcher, final ScheduledExecutorService executorService) {
+        this.dispatcher = dispatcher;
+        this.executorService = executorService;
+    }
+
+    /**
+     * Adds a proposition interaction to its batch, or sends it immediately if it cannot be
+     * batched.
+     *
+     * @param xdm {@code Map<String, Object>} containing the proposition interaction XDM
+     */
+    void add(final Map<String, Object> xdm) {
+        synchronized (dispatchMutex) {
+            dispatchAll(enqueue(xdm));
+        }
+    }
+
+    /** Sends the open batch. */
+    void flush() {
+        synchronized (dispatchMutex) {
+            final List<Map<String, Object>> xdmsToDispatch = new ArrayList<>();
+            synchronized (this) {
+                drainBatch(xdmsToDispatch);
+                dispatchedCount += xdmsToDispatch.size();
+            }
+            if (!xdmsToDispatch.isEmpty()) {
+                Log.trace(
+                        MessagingConstants.LOG_TAG,
+                        SELF_TAG,
+                        "Sending %d batched proposition interaction event(s).",
+                        xdmsToDispatch.size());
+            }
+            dispatchAll(xdmsToDispatch);
+        }
+    }
+
+    // adds the interaction to its batch, returns the interactions which must be sent now
+    private List<Map<String, Object>> enqueue(final Map<String, Object> xdm) {
+        final List<Map<String, Object>> xdmsToDispatch = new ArrayList<>();
+        synchronized (this) {
+            receivedCount++;
+            final String eventType =
+                    DataReader.optString(
+                            xdm,
+                            MessagingConstants.EventDataKeys.Messaging.XDMDataKeys.EVENT_TYPE,
+                            null);
+            final List<Map<String, Object>> propositions = getPropositions(xdm);
+            if (!isBatchable(eventType) || MessagingUtils.isNullOrEmpty(propositions)) {
+                drainBatch(xdmsToDispatch);
+                xdmsToDispatch.add(xdm);
+            } else {
+                if (batch != null && !eventType.equals(batch.eventType)) {
+                    drainBatch(xdmsToDispatch);
+                }
+                if (batch == null) {
+                    batch = new Batch(eventType, xdm);
+                }
+                for (final Map<String, Object> proposition : propositions) {
+                    if (!batch.add(proposition, isDisplay(eventType))) {
+                        dedupedCount++;
+                    }
+                }
+                if (batch.propositions.size() >= MAX_BATCH_SIZE) {
+                    drainBatch(xdmsToDispatch);
+                } else {
+                    scheduleFlush();
+                }
+            }
+            dispatchedCount += xdmsToDispatch.size();
+        }
+        return xdmsToDispatch;
+    }
+
+    synchronized int getPendingCount() {
+        return batch != null ? batch.propositions.size() : 0;
+    }
+
+    synchronized long getReceivedCount() {
+        return receivedCount;
+    }
+
+    synchronized long getDedupedCount() {
+        return dedupedCount;
+    }
+
+    synchronized long getDispatchedCount() {
+        return dispatchedCount;
+    }
+
+    // must be called while holding the lock
+    private void drainBatch(final List<Map<String, Object>> xdmsToDispatch) {
+        cancelScheduledFlush();
+        if (batch != null) {
+            xdmsToDispatch.add(batch.toXdm());
+            batch = null;
+        }
+    }
+
+    // must be called while holding the lock
+    private void scheduleFlush() {
+        if (scheduledFlush != null) {
+            return;
+        }
+        try {
+            scheduledFlush =
+                    executorService.schedule(this::flush, BATCH_WINDOW_MS, TimeUnit.MILLISECONDS);
+        } catch (final RejectedExecutionException exception) {
+            Log.warning(
+                    MessagingConstants.LOG_TAG,
+                    SELF_TAG,
+                    "Unable to schedule the proposition interaction batch: %s",
+                    exception.getMessage());
+        }
+    }
+
+    // must be called while holding the lock
+    private void cancelScheduledFlush() {
+        if (scheduledFlush != null) {
+            scheduledFlush.cancel(false);
+            scheduledFlush = null;
+        }
+    }
+
+    private void dispatchAll(final List<Map<String, Object>> xdms) {
+        for (final Map<String, Object> xdm : xdms) {
+            dispatcher.dispatch(xdm);
+        }
+    }
+
+    private static boolean isBatchable(final String eventType) {
+        return isDisplay(eventType)
+                || MessagingConstants.EventDataKeys.Messaging.Inbound.EventType.TRIGGER.equals(
+                        eventType);
+    }
+
+    private static boolean isDisplay(final String eventType) {
+        return MessagingConstants.EventDataKeys.Messaging.Inbound.EventType.DISPLAY.equals(
+                eventType);
+    }
+
+    private static Map<String, Object> getDecisioning(final Map<String, Object> xdm) {
+        final Map<String, Object> experience =
+                DataReader.optTypedMap(
+                        Object.class, xdm, MessagingConstants.TrackingKeys.EXPERIENCE, null);
+        return DataReader.optTypedMap(
+                Object.class,
+                experience,
+                MessagingConstants.EventDataKeys.Messaging.Inbound.Key.DECISIONING,
+                null);
+    }
+
+    private static List<Map<String, Object>> getPropositions(final Map<String, Object> xdm) {
+        return DataReader.optTypedListOfMap(
+                Object.class,
+                getDecisioning(xdm),
+                MessagingConstants.EventDataKeys.Messaging.Inbound.Key.PROPOSITIONS,
+                null);
+    }
+
+    // identifies the proposition, items and sub-item tokens a proposition interaction refers to
+    private static String getInteractionKey(final Map<String, Object> proposition) {
+        final StringBuilder key =
+                new StringBuilder(
+                        DataReader.optString(
+                                proposition,
+                                MessagingConstants.EventDataKeys.Messaging.Inbound.Key.ID,
+                                ""));
+        final List<Map<String, Object>> items =
+                DataReader.optTypedListOfMap(
+                        Object.class,
+                        proposition,
+                        MessagingConstants.EventDataKeys.Messaging.Inbound.Key.ITEMS,
+                        null);
+        if (items != null) {
+            for (final Map<String, Object> item : items) {
+                key.append('|')
+                        .append(
+                                DataReader.optString(
+                                        item,
+                                        MessagingConstants.EventDataKeys.Messaging.Inbound.Key.ID,
+                                        ""));
+                final Map<String, Object> characteristics =
+                        DataReader.optTypedMap(
+                                Object.class,
+                                item,
+                                MessagingConstants.EventDataKeys.Messaging.Inbound.Key
+                                        .CHARACTERISTICS,
+                                null);
+                final String tokens =
+                        DataReader.optString(
+                                characteristics,
+                                MessagingConstants.EventDataKeys.Messaging.Inbound.Key.TOKENS,
+                                null);
+                if (!StringUtils.isNullOrEmpty(tokens)) {
+                    key.append('#').append(tokens);
+                }
+            }
+        }
+        return key.toString();
+    }
+
+    private static final class Batch {
+        private final String eventType;
+        // the first interaction of the batch, the template of the batched XDM
+        private final Map<String, Object> templateXdm;
+        private final List<Map<String, Object>> propositions = new ArrayList<>();
+        private final Set<String> interactionKeys = new HashSet<>();
+
+        private Batch(final String eventType, final Map<String, Object> templateXdm) {
+            this.eventType = eventType;
+            this.templateXdm = templateXdm;
+        }
+
+        // returns false if the proposition is a repeated display interaction
+        private boolean add(final Map<String, Object> proposition, final boolean dedupe) {
+            if (!interactionKeys.add(getInteractionKey(proposition)) && dedupe) {
+                return false;
+            }
+            propositions.add(proposition);
+            return true;
+        }
+
+        private Map<String, Object> toXdm() {
+            final Map<String, Object> decisioning = new HashMap<>(getDecisioning(templateXdm));
+            decisioning.put(
+                    MessagingConstants.EventDataKeys.Messaging.Inbound.Key.PROPOSITIONS,
+                    propositions);
+            final Map<String, Object> experience =
+                    new HashMap<>(
+                            DataReader.optTypedMap(
+                                    Object.class,
+                                    templateXdm,
+                                    MessagingConstants.TrackingKeys.EXPERIENCE,
+                                    null));
+            experience.put(
+                    MessagingConstants.EventDataKeys.Messaging.Inbound.Key.DECISIONING,
+                    decisioning);
+            final Map<String, Object> xdm = new HashMap<>(templateXdm);
+            xdm.put(MessagingConstants.TrackingKeys.EXPERIENCE, experience);
+            return xdm;
+        }
+    }
+}
@@ -26,6 +26,7 @@ import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
 import java.io.Serializable;
 import java.lang.ref.SoftReference;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -53,6 +54,10 @@ public class PropositionItem implements Serializable {
     // Soft reference to Proposition instance
     SoftReference<Proposition> propositionReference;
 
+    // schema data decoded from the item data, which is only assigned when the item is created
+    // or deserialized
+    private transient volatile CachedSchemaData cachedSchemaData;
+
     public PropositionItem(
             @NonNull final String itemId,
             @NonNull final SchemaType schema,
@@ -87,6 +92,9 @@ public class PropositionItem implements Serializable {
     /**
      * Gets the {@code PropositionItem} data.
      *
+     * <p>The returned map is the item data itself and must not be modified. The content decoded
+     * from it is cached, so a modification is not reflected by the content getters.
+     *
      * @return {@link Map<String, Object>} containing the {@link PropositionItem} data.
      */
     @NonNull public Map<String, Object> getItemData() {
@@ -243,6 +251,8 @@ public class PropositionItem implements Serializable {
     /**
      * Returns this {@link PropositionItem}'s content as a json content {@code Map<String, Object>}.
      *
+     * <p>The returned map is shared by every call and cannot be modified.
+     *
      * @return {@link Map<String, Object>} object containing the {@link PropositionItem}'s content.
      */
     public Map<String, Object> getJsonContentMap() {
@@ -250,14 +260,18 @@ public class PropositionItem implements Serializable {
             return null;
         }
         final JsonContentSchemaData schemaData =
-                (JsonContentSchemaData) createSchemaData(SchemaType.JSON_CONTENT);
-        return schemaData != null ? schemaData.getJsonObjectContent() : null;
+                (JsonContentSchemaData) getSchemaData(SchemaType.JSON_CONTENT);
+        final Map<String, Object> content =
+                schemaData != null ? schemaData.getJsonObjectContent() : null;
+        return content != null ? Collections.unmodifiableMap(content) : null;
     }
 
     /**
      * Returns this {@link PropositionItem}'s content as a json content {@code List<Map<String,
      * Object>>}.
      *
+     * <p>The returned list is shared by every call and cannot be modified.
+     *
      * @return {@link List<Map<String, Object>>} object containing the {@link PropositionItem}'s
      *     content.
      */
@@ -266,8 +280,10 @@ public class PropositionItem implements Serializable {
             return null;
         }
         final JsonContentSchemaData schemaData =
-                (JsonContentSchemaData) createSchemaData(SchemaType.JSON_CONTENT);
-        return schemaData != null ? schemaData.getJsonArrayContent() : null;
+                (JsonContentSchemaData) getSchemaData(SchemaType.JSON_CONTENT);
+        final List<Map<String, Object>> content =
+                schemaData != null ? schemaData.getJsonArrayContent() : null;
+        return content != null ? Collections.unmodifiableList(content) : null;
     }
 
     /**
@@ -280,7 +296,7 @@ public class PropositionItem implements Serializable {
             return null;
         }
         final HtmlContentSchemaData schemaData =
-                (HtmlContentSchemaData) createSchemaData(SchemaType.HTML_CONTENT);
+                (HtmlContentSchemaData) getSchemaData(SchemaType.HTML_CONTENT);
         return schemaData != null ? schemaData.getContent() : null;
     }
 
@@ -293,7 +309,7 @@ public class PropositionItem implements Serializable {
         if (!schema.equals(SchemaType.INAPP)) {
             return null;
         }
-        return (InAppSchemaData) createSchemaData(SchemaType.INAPP);
+        return (InAppSchemaData) getSchemaData(SchemaType.INAPP);
     }
 
     /**
@@ -305,17 +321,40 @@ public class PropositionItem implements Serializable {
         if (!schema.equals(SchemaType.FEED)) {
             return null;
         }
-        return (FeedItemSchemaData) createSchemaData(SchemaType.FEED);
+        return (FeedItemSchemaData) getSchemaData(SchemaType.FEED);
+    }
+
+    /**
+     * Returns the schema data object for this {@code PropositionItem}'s content, decoding it only
+     * if it has not been decoded before.
+     *
+     * @param schemaType {@link SchemaType} to be used when creating the {@link SchemaData} object.
+     * @return {@code SchemaData} object created from the provided {@link PropositionItem}'s
+     *     content.
+     */
+    private SchemaData getSchemaData(final SchemaType schemaType) {
+        final CachedSchemaData cached = cachedSchemaData;
+        if (cached != null && cached.schemaType == schemaType) {
+            return cached.schemaData;
+        }
+
+        final SchemaData schemaData = createSchemaData(schemaType, itemData);
+        if (schemaData != null) {
+            cachedSchemaData = new CachedSchemaData(schemaType, schemaData);
+        }
+        return schemaData;
     }
 
     /**
      * Creates a schema data object from this {@code PropositionItem}'s content.
      *
      * @param schemaType {@link SchemaType} to be used when creating the {@link SchemaData} object.
+     * @param itemData {@code Map<String, Object>} containing the content to decode
      * @return {@code SchemaData} object created from the provided {@link PropositionItem}'s
      *     content.
      */
-    private SchemaData createSchemaData(final SchemaType schemaType) {
+    private static SchemaData createSchemaData(
+            final SchemaType schemaType, final Map<String, Object> itemData) {
         if (MapUtils.isNullOrEmpty(itemData)) {
             Log.trace(
                     MessagingConstants.LOG_TAG,
@@ -437,6 +476,17 @@ public class PropositionItem implements Serializable {
         return eventData;
     }
 
+    /** Decoded schema data along with the schema type it was decoded as. */
+    private static final class CachedSchemaData {
+        private final SchemaType schemaType;
+        private final SchemaData schemaData;
+
+        private CachedSchemaData(final SchemaType schemaType, final SchemaData schemaData) {
+            this.schemaType = schemaType;
+            this.schemaData = schemaData;
+        }
+    }
+
     private void readObject(final ObjectInputStream objectInputStream)
             throws ClassNotFoundException, IOException {
         itemId = objectInputStream.readUTF();
@@ -0,0 +1,169 @@
+/*
+  Copyright 2024 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+package com.adobe.marketing.mobile.messaging;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * In-memory store of {@link Proposition}s indexed by {@link Surface} and proposition id.
+ *
+ * <p>A proposition replaces the stored proposition with the same id. A proposition with a new id
+ * is ignored if its content equals the content of a proposition already stored for the surface,
+ * matching {@link Proposition#equals(Object)}. Content is looked up by hash code so upserts do not
+ * scan the stored propositions.
+ *
+ * <p>Writers are serialized, readers get an immutable snapshot which is replaced after each write
+ * and can be read without locking.
+ */
+final class PropositionStore {
+    private final Map<Surface, SurfacePropositions> propositionsBySurface = new HashMap<>();
+    private volatile Map<Surface, List<Proposition>> snapshot = Collections.emptyMap();
+
+    /**
+     * Adds or updates the provided propositions, then removes the provided surfaces.
+     *
+     * @param newPropositions {@code Map<Surface, List<Proposition>>} containing the propositions to
+     *     add or update
+     * @param surfacesToRemove {@code Collection<Surface>} containing the surfaces whose
+     *     propositions should be removed
+     */
+    synchronized void update(
+            final Map<Surface, List<Proposition>> newPropositions,
+            final Collection<Surface> surfacesToRemove) {
+        final Map<Surface, List<Proposition>> updatedSnapshot = new HashMap<>(snapshot);
+        if (newPropositions != null) {
+            for (final Map.Entry<Surface, List<Proposition>> entry : newPropositions.entrySet()) {
+                if (MessagingUtils.isNullOrEmpty(entry.getValue())) {
+                    continue;
+                }
+                SurfacePropositions surfacePropositions =
+                        propositionsBySurface.get(entry.getKey());
+                if (surfacePropositions == null) {
+                    surfacePropositions = new SurfacePropositions();
+                    propositionsBySurface.put(entry.getKey(), surfacePropositions);
+                }
+                for (final Proposition proposition : entry.getValue()) {
+                    surfacePropositions.upsert(proposition);
+                }
+                updatedSnapshot.put(entry.getKey(), surfacePropositions.toList());
+            }
+        }
+
+        if (surfacesToRemove != null) {
+            for (final Surface surface : surfacesToRemove) {
+                propositionsBySurface.remove(surface);
+                updatedSnapshot.remove(surface);
+            }
+        }
+        snapshot = Collections.unmodifiableMap(updatedSnapshot);
+    }
+
+    /**
+     * Replaces all stored propositions with the provided propositions.
+     *
+     * @param propositions {@code Map<Surface, List<Proposition>>} containing the propositions to
+     *     store
+     */
+    synchronized void replaceAll(final Map<Surface, List<Proposition>> propositions) {
+        propositionsBySurface.clear();
+        snapshot = Collections.emptyMap();
+        update(propositions, null);
+    }
+
+    /**
+     * Returns the propositions stored for the provided surface.
+     *
+     * @param surface {@link Surface} to retrieve propositions for
+     * @return unmodifiable {@code List<Proposition>} containing the stored propositions, or null
+     *     if none are stored
+     */
+    List<Proposition> get(final Surface surface) {
+        return snapshot.get(surface);
+    }
+
+    /**
+     * Returns a snapshot of all stored propositions.
+     *
+     * @return unmodifiable {@code Map<Surface, List<Proposition>>} containing the stored
+     *     propositions
+     */
+    Map<Surface, List<Proposition>> getSnapshot() {
+        return snapshot;
+    }
+
+    /** The propositions stored for a single surface. */
+    private static final class SurfacePropositions {
+        private final Map<String, Proposition> propositionsById = new LinkedHashMap<>();
+        private final Map<Integer, List<String>> idsByContentHash = new HashMap<>();
+
+        private void upsert(final Proposition proposition) {
+            if (proposition == null || proposition.getItems().isEmpty()) {
+                return;
+            }
+            final String id = proposition.getUniqueId();
+            final Proposition existingProposition = propositionsById.get(id);
+            if (existingProposition != null) {
+                removeContentHash(existingProposition.hashCode(), id);
+            } else if (containsContent(proposition)) {
+                return;
+            }
+            propositionsById.put(id, proposition);
+            addContentHash(proposition.hashCode(), id);
+        }
+
+        private boolean containsContent(final Proposition proposition) {
+            final List<String> ids = idsByContentHash.get(proposition.hashCode());
+            if (ids == null) {
+                return false;
+            }
+            for (final String id : ids) {
+                final Proposition storedProposition = propositionsById.get(id);
+                if (storedProposition != null
+                        && !storedProposition.getItems().isEmpty()
+                        && storedProposition.equals(proposition)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private void addContentHash(final int hash, final String id) {
+            List<String> ids = idsByContentHash.get(hash);
+            if (ids == null) {
+                ids = new ArrayList<>(1);
+                idsByContentHash.put(hash, ids);
+            }
+            ids.add(id);
+        }
+
+        private void removeContentHash(final int hash, final String id) {
+            final List<String> ids = idsByContentHash.get(hash);
+            if (ids == null) {
+                return;
+            }
+            ids.remove(id);
+            if (ids.isEmpty()) {
+                idsByContentHash.remove(hash);
+            }
+        }
+
+        private List<Proposition> toList() {
+            return Collections.unmodifiableList(new ArrayList<>(propositionsById.values()));
+        }
+    }
+}
@@ -0,0 +1,326 @@
+/*
+  Copyright 2024 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+package com.adobe.marketing.mobile.messaging;
+
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+import androidx.annotation.VisibleForTesting;
+import com.adobe.marketing.mobile.services.Log;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Loads the images of push notifications.
+ *
+ * <p>Images are downloaded with strict connect and read timeouts to a small on-disk cache keyed by
+ * url, so an image used by repeated campaigns is only downloaded once. An image is decoded from
+ * the cache in two passes, the first reads its dimensions and the second decodes it downsampled to
+ * fit {@link #MAX_IMAGE_WIDTH_PX} by {@link #MAX_IMAGE_HEIGHT_PX}, so a large image never has to
+ * be held in memory at full resolution.
+ */
+final class PushImageLoader {
+    private static final String SELF_TAG = "PushImageLoader";
+    private static final String CACHE_DIRECTORY = "adbMessagingPushImages";
+    private static final String TEMP_FILE_PREFIX = "image";
+    private static final String TEMP_FILE_SUFFIX = ".tmp";
+    private static final String DIGEST_ALGORITHM = "SHA-256";
+    private static final int BUFFER_SIZE = 16 * 1024;
+    static final int CONNECT_TIMEOUT_MS = (int) TimeUnit.SECONDS.toMillis(5);
+    static final int READ_TIMEOUT_MS = (int) TimeUnit.SECONDS.toMillis(10);
+    static final long MAX_IMAGE_BYTES = 5L * 1024 * 1024;
+    static final int MAX_CACHED_IMAGES = 10;
+    static final long MAX_CACHE_BYTES = 10L * 1024 * 1024;
+    // the big picture style displays images with a 2:1 aspect ratio
+    static final int MAX_IMAGE_WIDTH_PX = 1024;
+    static final int MAX_IMAGE_HEIGHT_PX = 512;
+
+    private static PushImageLoader instance;
+
+    private final File cacheDir;
+
+    // metrics
+    private int hitCount;
+    private int missCount;
+    private long bytesDownloaded;
+    private long decodeMillis;
+
+    /**
+     * Returns the image loader caching images in the application cache directory.
+     *
+     * @param context the application {@link Context}
+     * @return the {@link PushImageLoader} instance
+     */
+    static synchronized PushImageLoader getInstance(final Context context) {
+        if (instance == null) {
+            final File applicationCacheDir = context != null ? context.getCacheDir() : null;
+            instance =
+                    new PushImageLoader(
+                            applicationCacheDir != null
+                                    ? new File(applicationCacheDir, CACHE_DIRECTORY)
+                                    : null);
+        }
+        return instance;
+    }
+
+    @VisibleForTesting
+    PushImageLoader(final File cacheDir) {
+        this.cacheDir = cacheDir;
+    }
+
+    /**
+     * Loads an image from the cache, or downloads and caches it if it is not cached. If the cache
+     * is not available, the image is downloaded without caching it.
+     *
+     * @param url {@link String} containing the image url
+     * @return the downsampled {@link Bitmap}, or null if the image could not be loaded
+     */
+    Bitmap load(final String url) {
+        final File cachedFile = getCachedFile(url);
+        if (cachedFile == null) {
+            return MessagingPushUtils.download(url);
+        }
+        final boolean cached;
+        synchronized (this) {
+            cached = cachedFile.isFile() && cachedFile.length() > 0;
+            if (cached) {
+                hitCount++;
+                cachedFile.setLastModified(System.currentTimeMillis());
+            } else {
+                missCount++;
+            }
+        }
+        if (!cached) {
+            final long length = download(url, cachedFile);
+            if (length <= 0) {
+                return null;
+            }
+            synchronized (this) {
+                bytesDownloaded += length;
+                trimCache();
+            }
+        }
+
+        final long startMillis = System.currentTimeMillis();
+        final Bitmap bitmap =
+                decode(cachedFile.getPath(), MAX_IMAGE_WIDTH_PX, MAX_IMAGE_HEIGHT_PX);
+        final long elapsedMillis = System.currentTimeMillis() - startMillis;
+        synchronized (this) {
+            decodeMillis += elapsedMillis;
+        }
+        if (bitmap == null) {
+            Log.warning(
+                    MessagingPushConstants.LOG_TAG,
+                    SELF_TAG,
+                    "Failed to decode push notification image from url (%s).",
+                    url);
+            cachedFile.delete();
+            return null;
+        }
+        Log.debug(
+                MessagingPushConstants.LOG_TAG,
+                SELF_TAG,
+                "Loaded push notification image from url (%s), %s, %d bytes decoded to %dx%d in"
+                        + " %d ms.",
+                url,
+                cached ? "cached" : "downloaded",
+                cachedFile.length(),
+                bitmap.getWidth(),
+                bitmap.getHeight(),
+                elapsedMillis);
+        return bitmap;
+    }
+
+    synchronized int getHitCount() {
+        return hitCount;
+    }
+
+    synchronized int getMissCount() {
+        return missCount;
+    }
+
+    synchronized long getBytesDownloaded() {
+        return bytesDownloaded;
+    }
+
+    synchronized long getDecodeMillis() {
+        return decodeMillis;
+    }
+
+    /**
+     * Returns the largest power of two sample size which keeps the decoded image at least as large
+     * as the requested dimensions.
+     *
+     * @param width {@code int} containing the width of the image
+     * @param height {@code int} containing the height of the image
+     * @param requestedWidth {@code int} containing the requested width
+     * @param requestedHeight {@code int} containing the requested height
+     * @return {@code int} containing the sample size
+     */
+    static int calculateInSampleSize(
+            final int width,
+            final int height,
+            final int requestedWidth,
+            final int requestedHeight) {
+        int inSampleSize = 1;
+        while (width / (inSampleSize * 2) >= requestedWidth
+                && height / (inSampleSize * 2) >= requestedHeight) {
+            inSampleSize *= 2;
+        }
+        return inSampleSize;
+    }
+
+    /**
+     * Returns the name of the cache file for an image url.
+     *
+     * @param url {@link String} containing the image url
+     * @return {@link String} containing the hex encoded SHA-256 digest of the url
+     */
+    static String getCacheKey(final String url) {
+        try {
+            final byte[] digest =
+                    MessageDigest.getInstance(DIGEST_ALGORITHM)
+                            .digest(url.getBytes(StandardCharsets.UTF_8));
+            final StringBuilder key = new StringBuilder(digest.length * 2);
+            for (final byte value : digest) {
+                key.append(Character.forDigit(value >> 4 & 0xf, 16));
+                key.append(Character.forDigit(value & 0xf, 16));
+            }
+            return key.toString();
+        } catch (final NoSuchAlgorithmException exception) {
+            return Integer.toHexString(url.hashCode());
+        }
+    }
+
+    @VisibleForTesting
+    HttpURLConnection openConnection(final String url) throws IOException {
+        return (HttpURLConnection) new URL(url).openConnection();
+    }
+
+    private File getCachedFile(final String url) {
+        if (cacheDir == null || (!cacheDir.exists() && !cacheDir.mkdirs())) {
+            Log.warning(
+                    MessagingPushConstants.LOG_TAG,
+                    SELF_TAG,
+                    "Unable to cache push notification image from url (%s), the image cache is"
+                            + " not available. Downloading it without caching.",
+                    url);
+            return null;
+        }
+        return new File(cacheDir, getCacheKey(url));
+    }
+
+    // downloads an image to a temporary file which is renamed to the cache file once complete
+    private long download(final String url, final File cachedFile) {
+        HttpURLConnection connection = null;
+        File tempFile = null;
+        try {
+            connection = openConnection(url);
+            connection.setConnectTimeout(CONNECT_TIMEOUT_MS);
+            connection.setReadTimeout(READ_TIMEOUT_MS);
+            if (connection.getResponseCode() != HttpURLConnection.HTTP_OK) {
+                throw new IOException("response code " + connection.getResponseCode());
+            }
+            if (connection.getContentLength() > MAX_IMAGE_BYTES) {
+                throw new IOException("the image exceeds the maximum size");
+            }
+            tempFile = File.createTempFile(TEMP_FILE_PREFIX, TEMP_FILE_SUFFIX, cacheDir);
+            long length = 0;
+            try (InputStream inputStream = connection.getInputStream();
+                    OutputStream outputStream = new FileOutputStream(tempFile)) {
+                final byte[] buffer = new byte[BUFFER_SIZE];
+                int count;
+                while ((count = inputStream.read(buffer)) != -1) {
+                    length += count;
+                    if (length > MAX_IMAGE_BYTES) {
+                        throw new IOException("the image exceeds the maximum size");
+                    }
+                    outputStream.write(buffer, 0, count);
+                }
+            }
+            if (length == 0 || !tempFile.renameTo(cachedFile)) {
+                throw new IOException("the image could not be cached");
+            }
+            return length;
+        } catch (final IOException exception) {
+            Log.warning(
+                    MessagingPushConstants.LOG_TAG,
+                    SELF_TAG,
+                    "Failed to download push notification image from url (%s). Exception: %s",
+                    url,
+                    exception.getMessage());
+            if (tempFile != null) {
+                tempFile.delete();
+            }
+            return 0;
+        } finally {
+            if (connection != null) {
+                connection.disconnect();
+            }
+        }
+    }
+
+    // decodes the image bounds first to pick a sample size, then decodes the downsampled image
+    private static Bitmap decode(
+            final String path, final int requestedWidth, final int requestedHeight) {
+        final BitmapFactory.Options options = new BitmapFactory.Options();
+        options.inJustDecodeBounds = true;
+        BitmapFactory.decodeFile(path, options);
+        if (options.outWidth <= 0 || options.outHeight <= 0) {
+            return null;
+        }
+        options.inSampleSize =
+                calculateInSampleSize(
+                        options.outWidth, options.outHeight, requestedWidth, requestedHeight);
+        options.inJustDecodeBounds = false;
+        return BitmapFactory.decodeFile(path, options);
+    }
+
+    // must be called while holding the lock, evicts the least recently used images over the limits
+    private void trimCache() {
+        final File[] files = cacheDir.listFiles();
+        if (files == null) {
+            return;
+        }
+        // most recently used first
+        Arrays.sort(
+                files,
+                (first, second) -> Long.compare(second.lastModified(), first.lastModified()));
+        int imageCount = 0;
+        long cacheBytes = 0;
+        for (final File file : files) {
+            if (file.getName().endsWith(TEMP_FILE_SUFFIX)) {
+                continue;
+            }
+            imageCount++;
+            cacheBytes += file.length();
+            if ((imageCount > MAX_CACHED_IMAGES || cacheBytes > MAX_CACHE_BYTES)
+                    && file.delete()) {
+                Log.trace(
+                        MessagingPushConstants.LOG_TAG,
+                        SELF_TAG,
+                        "Evicted cached push notification image %s.",
+                        file.getName());
+            }
+        }
+    }
+}
@@ -0,0 +1,159 @@
+/*
+  Copyright 2024 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+package com.adobe.marketing.mobile.messaging;
+
+import com.adobe.marketing.mobile.services.Log;
+import com.adobe.marketing.mobile.util.JSONUtils;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+/**
+ * Remembers the XDM data of the push notifications whose interactions were recently tracked.
+ *
+ * <p>The XDM data of a push notification is parsed the first time one of its interactions is
+ * tracked, and reused by its later interactions, so the opened, dismissed and custom action events
+ * of a push notification share a single parse. The last {@link #MAX_CACHED_MESSAGES} push
+ * notifications are remembered.
+ */
+final class PushTrackingCache {
+    private static final String SELF_TAG = "PushTrackingCache";
+    static final int MAX_CACHED_MESSAGES = 20;
+
+    // tracked push notifications by message id, least recently used first
+    private final Map<String, Entry> entries =
+            new LinkedHashMap<String, Entry>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(final Map.Entry<String, Entry> eldest) {
+                    return size() > MAX_CACHED_MESSAGES;
+                }
+            };
+    private int parseCount;
+
+    /**
+     * Returns the XDM data of a push notification to add to its tracking events.
+     *
+     * <p>The XDM data is the cjm or mixins object of the Adobe XDM data forwarded with the push
+     * notification, with the push channel context added to its customer journey management data.
+     *
+     * @param messageId {@link String} containing the message id of the push notification
+     * @param adobeXdm {@link String} containing the Adobe XDM data of the push notification
+     * @return {@code Map<String, Object>} containing a copy of the XDM data which can be modified
+     *     by the caller, or null if the Adobe XDM data is not valid
+     */
+    Map<String, Object> getXdmTemplate(final String messageId, final String adobeXdm) {
+        final Entry entry;
+        synchronized (this) {
+            entry = getEntry(messageId);
+            if (!adobeXdm.equals(entry.adobeXdm)) {
+                parseCount++;
+                entry.adobeXdm = adobeXdm;
+                entry.xdmTemplate = parseXdmTemplate(adobeXdm);
+            }
+        }
+        // the XDM template is shared by the tracking events of a push notification, each event gets
+        // its own copy of the nested maps and lists
+        final Map<String, Object> xdmTemplate = entry.xdmTemplate;
+        return xdmTemplate != null ? InternalMessagingUtils.copyMap(xdmTemplate) : null;
+    }
+
+    synchronized int getParseCount() {
+        return parseCount;
+    }
+
+    // must be called while holding the lock
+    private Entry getEntry(final String messageId) {
+        Entry entry = entries.get(messageId);
+        if (entry == null) {
+            entry = new Entry();
+            entries.put(messageId, entry);
+        }
+        return entry;
+    }
+
+    private static Map<String, Object> parseXdmTemplate(final String adobeXdm) {
+        try {
+            // Convert the adobe string to json object
+            final Map<String, Object> xdmMapObject = JSONUtils.toMap(new JSONObject(adobeXdm));
+            if (xdmMapObject == null) {
+                Log.warning(
+                        MessagingConstants.LOG_TAG,
+                        SELF_TAG,
+                        "Failed to send Adobe data with the tracking data, Adobe XDM data"
+                                + " conversion to map failed.");
+                return null;
+            }
+
+            Map<String, Object> mixins = null;
+
+            // Check for if the json has the required keys
+            if (xdmMapObject.get(MessagingConstants.TrackingKeys.CJM) instanceof Map) {
+                mixins =
+                        (Map<String, Object>) xdmMapObject.get(MessagingConstants.TrackingKeys.CJM);
+            }
+
+            if (xdmMapObject.get(MessagingConstants.TrackingKeys.MIXINS) instanceof Map) {
+                mixins =
+                        (Map<String, Object>)
+                                xdmMapObject.get(MessagingConstants.TrackingKeys.MIXINS);
+            }
+
+            if (mixins == null) {
+                Log.debug(
+                        MessagingConstants.LOG_TAG,
+                        SELF_TAG,
+                        "Failed to send cjm xdm data with the tracking, Missing XDM data.");
+                return null;
+            }
+
+            // Check if the xdm data provided by the customer is using cjm for tracking
+            final Object experience = mixins.get(MessagingConstants.TrackingKeys.EXPERIENCE);
+            if (experience instanceof Map) {
+                final Object cjm =
+                        ((Map<String, Object>) experience)
+                                .get(MessagingConstants.TrackingKeys.CUSTOMER_JOURNEY_MANAGEMENT);
+                if (cjm instanceof Map) {
+                    // Adding Message profile and push channel context to
+                    // CUSTOMER_JOURNEY_MANAGEMENT
+                    ((Map<String, Object>) cjm)
+                            .putAll(
+                                    JSONUtils.toMap(
+                                            new JSONObject(
+                                                    MessagingConstants.TrackingKeys
+                                                            .MESSAGE_PROFILE_JSON)));
+                }
+            } else {
+                Log.warning(
+                        MessagingConstants.LOG_TAG,
+                        SELF_TAG,
+                        "Failed to send CJM XDM data with the tracking, required keys are"
+                                + " missing.");
+            }
+            return mixins;
+        } catch (final JSONException | ClassCastException e) {
+            Log.warning(
+                    MessagingConstants.LOG_TAG,
+                    SELF_TAG,
+                    "Failed to send Adobe data with the tracking data, Adobe data is malformed :"
+                            + " %s",
+                    e.getMessage());
+            return null;
+        }
+    }
+
+    private static final class Entry {
+        // the Adobe XDM data parsed into the XDM template, null until it is parsed
+        private String adobeXdm;
+        private Map<String, Object> xdmTemplate;
+    }
+}
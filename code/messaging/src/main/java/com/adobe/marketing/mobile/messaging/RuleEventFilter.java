@@ -0,0 +1,344 @@
+/*
+  Copyright 2024 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+package com.adobe.marketing.mobile.messaging;
+
+import com.adobe.marketing.mobile.util.DataReader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Describes the events which can match any rule of a ruleset, derived from the ruleset's rule
+ * conditions.
+ *
+ * <p>A filter is a list of {@link Clause}s, an event can only match a rule if it satisfies at
+ * least one clause. A clause records the event types and sources the rule requires, and the
+ * top-level event data keys which must be present. Conditions which cannot be summarized, such as
+ * historical conditions or negated matchers, do not restrict the clause, so the filter never
+ * rejects an event which the rules engine could match.
+ */
+final class RuleEventFilter {
+    // the number of clauses is capped so deeply nested conditions do not grow the filter
+    // exponentially, a ruleset exceeding it matches all events
+    static final int MAX_CLAUSES = 32;
+    static final RuleEventFilter MATCH_ALL =
+            new RuleEventFilter(Collections.singletonList(Clause.ANY));
+
+    // matchers which can only be satisfied when the event data contains the matched key
+    private static final Set<String> KEY_REQUIRED_MATCHERS =
+            new HashSet<>(Arrays.asList("eq", "ex", "gt", "ge", "lt", "le", "co", "sw", "ew"));
+
+    final List<Clause> clauses;
+
+    private RuleEventFilter(final List<Clause> clauses) {
+        this.clauses = clauses;
+    }
+
+    /**
+     * Creates a {@code RuleEventFilter} from a ruleset proposition's item data.
+     *
+     * @param ruleset {@code Map<String, Object>} containing the ruleset
+     * @return {@link RuleEventFilter} for the ruleset, or {@link #MATCH_ALL} if the ruleset
+     *     conditions cannot be summarized
+     */
+    static RuleEventFilter fromRuleset(final Map<String, Object> ruleset) {
+        final List<Map> rules =
+                DataReader.optTypedList(
+                        Map.class,
+                        ruleset,
+                        MessagingConstants.EventDataKeys.RulesEngine.JSON_RULES_KEY,
+                        null);
+        if (MessagingUtils.isNullOrEmpty(rules)) {
+            return MATCH_ALL;
+        }
+
+        final List<Clause> clauses = new ArrayList<>();
+        for (final Map rule : rules) {
+            final List<Clause> ruleClauses =
+                    fromCondition(
+                            DataReader.optTypedMap(
+                                    Object.class,
+                                    rule,
+                                    MessagingConstants.EventDataKeys.RulesEngine
+                                            .JSON_CONDITION_KEY,
+                                    null));
+            if (ruleClauses.contains(Clause.ANY)) {
+                return MATCH_ALL;
+            }
+            clauses.addAll(ruleClauses);
+            if (clauses.size() > MAX_CLAUSES) {
+                return MATCH_ALL;
+            }
+        }
+        return new RuleEventFilter(clauses);
+    }
+
+    boolean matchesAllEvents() {
+        return clauses.contains(Clause.ANY);
+    }
+
+    /**
+     * Determines if any rule in the ruleset explicitly requires an event of the provided type.
+     *
+     * @param type {@link String} containing the event type
+     * @return {@code boolean} true if a condition of the ruleset matches on the event type
+     */
+    boolean targetsEventType(final String type) {
+        final String normalizedType = normalize(type);
+        for (final Clause clause : clauses) {
+            if (clause.types != null && clause.types.contains(normalizedType)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static List<Clause> fromCondition(final Map<String, Object> condition) {
+        final Map<String, Object> definition =
+                DataReader.optTypedMap(
+                        Object.class,
+                        condition,
+                        MessagingConstants.EventDataKeys.RulesEngine.JSON_CONDITION_DEFINITION_KEY,
+                        null);
+        if (definition == null) {
+            return Collections.singletonList(Clause.ANY);
+        }
+
+        final String type =
+                DataReader.optString(
+                        condition,
+                        MessagingConstants.EventDataKeys.RulesEngine.JSON_CONDITION_TYPE_KEY,
+                        "");
+        if (MessagingConstants.EventDataKeys.RulesEngine.JSON_CONDITION_TYPE_MATCHER.equals(
+                type)) {
+            return Collections.singletonList(fromMatcher(definition));
+        } else if (MessagingConstants.EventDataKeys.RulesEngine.JSON_CONDITION_TYPE_GROUP.equals(
+                type)) {
+            return fromGroup(definition);
+        }
+        return Collections.singletonList(Clause.ANY);
+    }
+
+    private static List<Clause> fromGroup(final Map<String, Object> definition) {
+        final String logic =
+                DataReader.optString(
+                        definition,
+                        MessagingConstants.EventDataKeys.RulesEngine.JSON_GROUP_LOGIC_KEY,
+                        "");
+        final List<Map> conditions =
+                DataReader.optTypedList(
+                        Map.class,
+                        definition,
+                        MessagingConstants.EventDataKeys.RulesEngine.JSON_GROUP_CONDITIONS_KEY,
+                        null);
+        if (MessagingUtils.isNullOrEmpty(conditions)) {
+            return Collections.singletonList(Clause.ANY);
+        }
+
+        if (MessagingConstants.EventDataKeys.RulesEngine.JSON_GROUP_LOGIC_OR.equals(logic)) {
+            final List<Clause> clauses = new ArrayList<>();
+            for (final Map condition : conditions) {
+                final List<Clause> conditionClauses = fromCondition(condition);
+                if (conditionClauses.contains(Clause.ANY)) {
+                    return Collections.singletonList(Clause.ANY);
+                }
+                clauses.addAll(conditionClauses);
+            }
+            return clauses.size() > MAX_CLAUSES ? Collections.singletonList(Clause.ANY) : clauses;
+        } else if (MessagingConstants.EventDataKeys.RulesEngine.JSON_GROUP_LOGIC_AND.equals(
+                logic)) {
+            List<Clause> clauses = Collections.singletonList(Clause.ANY);
+            for (final Map condition : conditions) {
+                final List<Clause> conditionClauses = fromCondition(condition);
+                final List<Clause> combinedClauses = new ArrayList<>();
+                for (final Clause clause : clauses) {
+                    for (final Clause conditionClause : conditionClauses) {
+                        final Clause combinedClause = clause.and(conditionClause);
+                        if (combinedClause != null) {
+                            combinedClauses.add(combinedClause);
+                        }
+                    }
+                }
+                if (combinedClauses.size() > MAX_CLAUSES) {
+                    return Collections.singletonList(Clause.ANY);
+                }
+                clauses = combinedClauses;
+            }
+            return clauses;
+        }
+        return Collections.singletonList(Clause.ANY);
+    }
+
+    private static Clause fromMatcher(final Map<String, Object> definition) {
+        final String key =
+                DataReader.optString(
+                        definition,
+                        MessagingConstants.EventDataKeys.RulesEngine.JSON_MATCHER_KEY_KEY,
+                        null);
+        final String matcher =
+                DataReader.optString(
+                        definition,
+                        MessagingConstants.EventDataKeys.RulesEngine.JSON_MATCHER_TYPE_KEY,
+                        null);
+        if (key == null || matcher == null) {
+            return Clause.ANY;
+        }
+
+        final boolean isEventTypeKey =
+                MessagingConstants.EventDataKeys.RulesEngine.EVENT_TYPE_TOKEN.equals(key);
+        final boolean isEventSourceKey =
+                MessagingConstants.EventDataKeys.RulesEngine.EVENT_SOURCE_TOKEN.equals(key);
+        if (isEventTypeKey || isEventSourceKey) {
+            if (!MessagingConstants.EventDataKeys.RulesEngine.JSON_MATCHER_EQUALS.equals(matcher)) {
+                return Clause.ANY;
+            }
+            final List<Object> values =
+                    DataReader.optTypedList(
+                            Object.class,
+                            definition,
+                            MessagingConstants.EventDataKeys.RulesEngine.JSON_MATCHER_VALUES_KEY,
+                            null);
+            if (MessagingUtils.isNullOrEmpty(values)) {
+                return Clause.ANY;
+            }
+            final Set<String> matchedValues = new HashSet<>();
+            for (final Object value : values) {
+                if (!(value instanceof String)) {
+                    return Clause.ANY;
+                }
+                matchedValues.add(normalize((String) value));
+            }
+            return isEventTypeKey
+                    ? new Clause(matchedValues, null, Collections.<String>emptySet())
+                    : new Clause(null, matchedValues, Collections.<String>emptySet());
+        }
+
+        // other tokens, such as ~timestampu or ~state, are not read from the event data
+        if (key.startsWith(MessagingConstants.EventDataKeys.RulesEngine.TOKEN_PREFIX)
+                || !KEY_REQUIRED_MATCHERS.contains(matcher)) {
+            return Clause.ANY;
+        }
+        // the rules engine matches flattened event data keys, so only the top-level key is
+        // required to be present
+        final int separatorIndex = key.indexOf('.');
+        final String topLevelKey = separatorIndex > 0 ? key.substring(0, separatorIndex) : key;
+        return new Clause(null, null, Collections.singleton(topLevelKey));
+    }
+
+    /**
+     * Event types and sources are matched case insensitively by the rules engine.
+     *
+     * @param value {@link String} containing an event type or source
+     * @return {@code String} containing the normalized value
+     */
+    static String normalize(final String value) {
+        return value == null ? null : value.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * The requirements an event must meet to satisfy a rule condition. A null type or source set
+     * allows any event type or source.
+     */
+    static final class Clause {
+        static final Clause ANY = new Clause(null, null, Collections.<String>emptySet());
+
+        final Set<String> types;
+        final Set<String> sources;
+        final Set<String> requiredKeys;
+
+        Clause(final Set<String> types, final Set<String> sources, final Set<String> requiredKeys) {
+            this.types = types;
+            this.sources = sources;
+            this.requiredKeys = requiredKeys;
+        }
+
+        /**
+         * Combines this clause with another clause which must also be satisfied.
+         *
+         * @param other {@link Clause} to combine with
+         * @return {@code Clause} satisfied by events satisfying both clauses, or null if no event
+         *     can satisfy both
+         */
+        Clause and(final Clause other) {
+            if (this == ANY) {
+                return other;
+            } else if (other == ANY) {
+                return this;
+            }
+            final Set<String> combinedTypes = intersect(types, other.types);
+            final Set<String> combinedSources = intersect(sources, other.sources);
+            if ((combinedTypes != null && combinedTypes.isEmpty())
+                    || (combinedSources != null && combinedSources.isEmpty())) {
+                return null;
+            }
+            final Set<String> combinedKeys = new HashSet<>(requiredKeys);
+            combinedKeys.addAll(other.requiredKeys);
+            return new Clause(combinedTypes, combinedSources, combinedKeys);
+        }
+
+        boolean matches(final String type, final String source, final Map<String, Object> data) {
+            if (types != null && !types.contains(type)) {
+                return false;
+            }
+            if (sources != null && !sources.contains(source)) {
+                return false;
+            }
+            for (final String key : requiredKeys) {
+                if (data == null || !containsTopLevelKey(data, key)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * Determines if the event data can provide the flattened keys starting with the provided
+         * top-level key. A data key containing dots, such as "a.b", is flattened to the same keys
+         * as a nested "b" key under an "a" key, so it also provides the top-level key "a".
+         *
+         * @param data {@code Map<String, Object>} containing the event data
+         * @param key {@link String} containing the required top-level key
+         * @return {@code boolean} true if the event data contains the key
+         */
+        private static boolean containsTopLevelKey(
+                final Map<String, Object> data, final String key) {
+            if (data.containsKey(key)) {
+                return true;
+            }
+            for (final String dataKey : data.keySet()) {
+                if (dataKey != null
+                        && dataKey.length() > key.length()
+                        && dataKey.charAt(key.length()) == '.'
+                        && dataKey.startsWith(key)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private static Set<String> intersect(final Set<String> first, final Set<String> second) {
+            if (first == null) {
+                return second;
+            } else if (second == null) {
+                return first;
+            }
+            final Set<String> intersection = new HashSet<>(first);
+            intersection.retainAll(second);
+            return intersection;
+        }
+    }
+}
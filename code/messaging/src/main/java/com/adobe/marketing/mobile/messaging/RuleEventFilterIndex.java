@@ -0,0 +1,138 @@
+/*
+  Copyright 2024 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+package com.adobe.marketing.mobile.messaging;
+
+import com.adobe.marketing.mobile.Event;
+import com.adobe.marketing.mobile.EventSource;
+import com.adobe.marketing.mobile.EventType;
+import com.adobe.marketing.mobile.services.Log;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Indexes the {@link RuleEventFilter}s of the rules loaded in a rules engine by event type, so
+ * events which cannot match any loaded rule are rejected before they are evaluated by the rules
+ * engine.
+ *
+ * <p>Until the first rules are loaded every event is allowed, as the rules engine queues events
+ * received before its rules are set and evaluates them once they are.
+ */
+final class RuleEventFilterIndex {
+    private static final String SELF_TAG = "RuleEventFilterIndex";
+
+    private volatile Snapshot snapshot;
+    private final AtomicLong evaluatedEventCount = new AtomicLong();
+    private final AtomicLong skippedEventCount = new AtomicLong();
+
+    /**
+     * Rebuilds the index from the filters of all rules currently loaded in the rules engine.
+     *
+     * @param filters {@code Collection<RuleEventFilter>} containing a filter for each loaded rule
+     */
+    void update(final Collection<RuleEventFilter> filters) {
+        final Snapshot newSnapshot = new Snapshot(filters);
+        snapshot = newSnapshot;
+        Log.debug(
+                MessagingConstants.LOG_TAG,
+                SELF_TAG,
+                "Rebuilt the event filter index for %d rule(s) (%s), %d of %d event(s) skipped so"
+                        + " far.",
+                filters.size(),
+                newSnapshot.matchesAllEvents
+                        ? "all events allowed"
+                        : newSnapshot.clausesByType.size() + " event type(s) indexed",
+                skippedEventCount.get(),
+                evaluatedEventCount.get());
+    }
+
+    /**
+     * Determines if the provided {@link Event} can match any rule loaded in the rules engine.
+     *
+     * @param event {@link Event} to be checked
+     * @return {@code boolean} false if the event cannot match any loaded rule
+     */
+    boolean mayMatch(final Event event) {
+        evaluatedEventCount.incrementAndGet();
+        final Snapshot currentSnapshot = snapshot;
+        if (currentSnapshot == null || currentSnapshot.matchesAllEvents || isRulesReset(event)) {
+            return true;
+        }
+
+        final String type = RuleEventFilter.normalize(event.getType());
+        final String source = RuleEventFilter.normalize(event.getSource());
+        final Map<String, Object> data = event.getEventData();
+        final List<RuleEventFilter.Clause> typeClauses = currentSnapshot.clausesByType.get(type);
+        if (typeClauses != null) {
+            for (final RuleEventFilter.Clause clause : typeClauses) {
+                if (clause.matches(type, source, data)) {
+                    return true;
+                }
+            }
+        }
+        for (final RuleEventFilter.Clause clause : currentSnapshot.anyTypeClauses) {
+            if (clause.matches(type, source, data)) {
+                return true;
+            }
+        }
+
+        skippedEventCount.incrementAndGet();
+        return false;
+    }
+
+    long getEvaluatedEventCount() {
+        return evaluatedEventCount.get();
+    }
+
+    long getSkippedEventCount() {
+        return skippedEventCount.get();
+    }
+
+    // the rules engine dispatches a reset event after its rules are replaced, which must always
+    // be processed so queued events are evaluated
+    private static boolean isRulesReset(final Event event) {
+        return EventType.RULES_ENGINE.equalsIgnoreCase(event.getType())
+                && EventSource.REQUEST_RESET.equalsIgnoreCase(event.getSource());
+    }
+
+    private static final class Snapshot {
+        private final Map<String, List<RuleEventFilter.Clause>> clausesByType = new HashMap<>();
+        private final List<RuleEventFilter.Clause> anyTypeClauses = new ArrayList<>();
+        private boolean matchesAllEvents;
+
+        private Snapshot(final Collection<RuleEventFilter> filters) {
+            for (final RuleEventFilter filter : filters) {
+                if (filter.matchesAllEvents()) {
+                    matchesAllEvents = true;
+                    return;
+                }
+                for (final RuleEventFilter.Clause clause : filter.clauses) {
+                    if (clause.types == null) {
+                        anyTypeClauses.add(clause);
+                        continue;
+                    }
+                    for (final String type : clause.types) {
+                        List<RuleEventFilter.Clause> typeClauses = clausesByType.get(type);
+                        if (typeClauses == null) {
+                            typeClauses = new ArrayList<>();
+                            clausesByType.put(type, typeClauses);
+                        }
+                        typeClauses.add(clause);
+                    }
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,166 @@
+/*
+  Copyright 2024 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+package com.adobe.marketing.mobile.messaging;
+
+import java.util.Collection;
+import java.util.Map;
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+/**
+ * Serializes decoded ruleset payloads to the JSON string expected by the rules engine parser.
+ *
+ * <p>The string is written in a single pass over the {@code Map<String, Object>} payload, without
+ * first copying it into a {@link JSONObject}. Values are written the same way {@link
+ * JSONObject#toString()} writes them so the parsed rules are unchanged.
+ */
+final class RulesetJsonWriter {
+    // rough size of a single rule, used to avoid growing the builder repeatedly
+    private static final int INITIAL_CAPACITY_PER_ENTRY = 256;
+
+    private RulesetJsonWriter() {}
+
+    /**
+     * Writes the provided ruleset payload as a JSON string.
+     *
+     * @param ruleset {@link Map<String, Object>} containing the ruleset payload
+     * @return {@code String} containing the JSON representation of the payload, or null if the
+     *     payload is null
+     */
+    static String write(final Map<String, Object> ruleset) {
+        if (ruleset == null) {
+            return null;
+        }
+        final StringBuilder builder =
+                new StringBuilder(Math.max(16, ruleset.size() * INITIAL_CAPACITY_PER_ENTRY));
+        writeMap(builder, ruleset);
+        return builder.toString();
+    }
+
+    private static void writeMap(final StringBuilder builder, final Map<?, ?> map) {
+        builder.append('{');
+        boolean first = true;
+        for (final Map.Entry<?, ?> entry : map.entrySet()) {
+            if (entry.getKey() == null) {
+                continue;
+            }
+            if (!first) {
+                builder.append(',');
+            }
+            first = false;
+            writeString(builder, String.valueOf(entry.getKey()));
+            builder.append(':');
+            writeValue(builder, entry.getValue());
+        }
+        builder.append('}');
+    }
+
+    private static void writeCollection(final StringBuilder builder, final Collection<?> values) {
+        builder.append('[');
+        boolean first = true;
+        for (final Object value : values) {
+            if (!first) {
+                builder.append(',');
+            }
+            first = false;
+            writeValue(builder, value);
+        }
+        builder.append(']');
+    }
+
+    private static void writeArray(final StringBuilder builder, final Object[] values) {
+        builder.append('[');
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                builder.append(',');
+            }
+            writeValue(builder, values[i]);
+        }
+        builder.append(']');
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void writeValue(final StringBuilder builder, final Object value) {
+        if (value == null || value == JSONObject.NULL) {
+            builder.append("null");
+        } else if (value instanceof String) {
+            writeString(builder, (String) value);
+        } else if (value instanceof Boolean) {
+            builder.append(((Boolean) value).booleanValue());
+        } else if (value instanceof Double || value instanceof Float) {
+            writeFloatingPoint(builder, (Number) value);
+        } else if (value instanceof Number) {
+            builder.append(value.toString());
+        } else if (value instanceof Map) {
+            writeMap(builder, (Map<?, ?>) value);
+        } else if (value instanceof Collection) {
+            writeCollection(builder, (Collection<?>) value);
+        } else if (value instanceof Object[]) {
+            writeArray(builder, (Object[]) value);
+        } else if (value instanceof JSONObject || value instanceof JSONArray) {
+            builder.append(value.toString());
+        } else {
+            writeString(builder, value.toString());
+        }
+    }
+
+    private static void writeFloatingPoint(final StringBuilder builder, final Number value) {
+        final double doubleValue = value.doubleValue();
+        if (Double.isNaN(doubleValue) || Double.isInfinite(doubleValue)) {
+            builder.append("null");
+            return;
+        }
+        // whole numbers are written without a fraction, matching JSONObject
+        final long longValue = (long) doubleValue;
+        if (doubleValue == longValue) {
+            builder.append(longValue);
+        } else {
+            builder.append(value.toString());
+        }
+    }
+
+    private static void writeString(final StringBuilder builder, final String value) {
+        builder.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            final char c = value.charAt(i);
+            switch (c) {
+                case '"':
+                case '\\':
+                    builder.append('\\').append(c);
+                    break;
+                case '\b':
+                    builder.append("\\b");
+                    break;
+                case '\f':
+                    builder.append("\\f");
+                    break;
+                case '\n':
+                    builder.append("\\n");
+                    break;
+                case '\r':
+                    builder.append("\\r");
+                    break;
+                case '\t':
+                    builder.append("\\t");
+                    break;
+                default:
+                    if (c < 0x20) {
+                        builder.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        builder.append(c);
+                    }
+                    break;
+            }
+        }
+        builder.append('"');
+    }
+}
@@ -0,0 +1,336 @@
+/*
+  Copyright 2024 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+package com.adobe.marketing.mobile.messaging;
+
+import com.adobe.marketing.mobile.services.Log;
+import com.adobe.marketing.mobile.util.StringUtils;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayDeque;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Stages downloaded assets in a temporary file before they are written to the asset cache.
+ *
+ * <p>The response is streamed to a temporary file through a reusable buffer. The download fails if
+ * it exceeds the maximum asset size, if its length does not match the {@code Content-Length}
+ * header, or if its SHA-256 digest does not match the {@code Digest} header, so only complete and
+ * validated data is handed to the cache. Staging does not make the cache write itself atomic, the
+ * cache service still copies the staged file into the cache.
+ */
+final class StreamingAssetWriter {
+    private static final String SELF_TAG = "StreamingAssetWriter";
+    static final long DEFAULT_MAX_ASSET_BYTES = 5L * 1024 * 1024;
+    static final int BUFFER_SIZE = 16 * 1024;
+    private static final String TEMP_FILE_PREFIX = "asset";
+    private static final String TEMP_FILE_SUFFIX = ".tmp";
+    private static final String DIGEST_ALGORITHM = "SHA-256";
+    private static final String DIGEST_HEADER_ALGORITHM = "sha-256";
+    private static final char[] BASE64_ALPHABET =
+            "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789+/".toCharArray();
+
+    /** The reasons a staged download can fail. */
+    enum FailureReason {
+        IO_ERROR,
+        TOO_LARGE,
+        LENGTH_MISMATCH,
+        DIGEST_MISMATCH
+    }
+
+    private final String stagingLocation;
+    private final long maxAssetBytes;
+    // buffers returned by finished downloads, reused by the next downloads
+    private final ArrayDeque<byte[]> buffers = new ArrayDeque<>();
+    private boolean stagingDirectoryCleared;
+
+    // metrics
+    private final Map<FailureReason, Integer> failureCounts = new EnumMap<>(FailureReason.class);
+    private int succeededCount;
+    private long bytesDownloaded;
+    private long downloadMillis;
+
+    StreamingAssetWriter(final String stagingLocation) {
+        this(stagingLocation, DEFAULT_MAX_ASSET_BYTES);
+    }
+
+    StreamingAssetWriter(final String stagingLocation, final long maxAssetBytes) {
+        this.stagingLocation = stagingLocation;
+        this.maxAssetBytes = maxAssetBytes;
+    }
+
+    /**
+     * Streams an asset to a staged file and validates it.
+     *
+     * @param url {@link String} containing the asset url
+     * @param inputStream {@link InputStream} containing the asset data, closed once read
+     * @param expectedLength {@code long} containing the {@code Content-Length} of the response, or
+     *     a negative value if it is unknown
+     * @param digestHeader {@link String} containing the {@code Digest} header of the response, may
+     *     be null
+     * @return {@link StagedAsset} containing the validated asset, or null if the download failed
+     */
+    StagedAsset stage(
+            final String url,
+            final InputStream inputStream,
+            final long expectedLength,
+            final String digestHeader) {
+        final long startMillis = System.currentTimeMillis();
+        final File stagingDir = prepareStagingDirectory();
+        if (stagingDir == null || inputStream == null) {
+            closeQuietly(inputStream);
+            return fail(url, FailureReason.IO_ERROR, "the staging directory is not available");
+        }
+        if (expectedLength > maxAssetBytes) {
+            closeQuietly(inputStream);
+            return fail(
+                    url,
+                    FailureReason.TOO_LARGE,
+                    String.format(
+                            Locale.US, "Content-Length %d exceeds the maximum", expectedLength));
+        }
+
+        final String expectedDigest = parseSha256Digest(digestHeader);
+        final MessageDigest messageDigest =
+                expectedDigest != null ? createMessageDigest() : null;
+        final byte[] buffer = acquireBuffer();
+        File tempFile = null;
+        long length = 0;
+        try {
+            tempFile = File.createTempFile(TEMP_FILE_PREFIX, TEMP_FILE_SUFFIX, stagingDir);
+            try (OutputStream outputStream = new FileOutputStream(tempFile)) {
+                int count;
+                while (length <= maxAssetBytes && (count = inputStream.read(buffer)) != -1) {
+                    length += count;
+                    if (messageDigest != null) {
+                        messageDigest.update(buffer, 0, count);
+                    }
+                    outputStream.write(buffer, 0, count);
+                }
+            }
+        } catch (final IOException exception) {
+            deleteQuietly(tempFile);
+            return fail(url, FailureReason.IO_ERROR, exception.getLocalizedMessage());
+        } finally {
+            releaseBuffer(buffer);
+            closeQuietly(inputStream);
+        }
+
+        if (length > maxAssetBytes) {
+            deleteQuietly(tempFile);
+            return fail(url, FailureReason.TOO_LARGE, "the maximum size was exceeded");
+        }
+        if (expectedLength >= 0 && length != expectedLength) {
+            deleteQuietly(tempFile);
+            return fail(
+                    url,
+                    FailureReason.LENGTH_MISMATCH,
+                    String.format(
+                            Locale.US,
+                            "received %d of %d expected bytes",
+                            length,
+                            expectedLength));
+        }
+        if (messageDigest != null && !expectedDigest.equals(encodeBase64(messageDigest.digest()))) {
+            deleteQuietly(tempFile);
+            return fail(url, FailureReason.DIGEST_MISMATCH, "the SHA-256 digest does not match");
+        }
+
+        final long elapsedMillis = System.currentTimeMillis() - startMillis;
+        synchronized (this) {
+            succeededCount++;
+            bytesDownloaded += length;
+            downloadMillis += elapsedMillis;
+        }
+        Log.trace(
+                MessagingConstants.LOG_TAG,
+                SELF_TAG,
+                "Downloaded asset %s (%d bytes in %d ms, %d bytes/s).",
+                url,
+                length,
+                elapsedMillis,
+                getThroughput(length, elapsedMillis));
+        return new StagedAsset(tempFile, length);
+    }
+
+    synchronized int getSucceededCount() {
+        return succeededCount;
+    }
+
+    synchronized int getFailedCount(final FailureReason reason) {
+        final Integer count = failureCounts.get(reason);
+        return count != null ? count : 0;
+    }
+
+    synchronized long getBytesDownloaded() {
+        return bytesDownloaded;
+    }
+
+    /**
+     * Returns the average throughput of the successful downloads.
+     *
+     * @return {@code long} containing the throughput in bytes per second
+     */
+    synchronized long getAverageThroughput() {
+        return getThroughput(bytesDownloaded, downloadMillis);
+    }
+
+    private StagedAsset fail(final String url, final FailureReason reason, final String message) {
+        synchronized (this) {
+            final Integer count = failureCounts.get(reason);
+            failureCounts.put(reason, count != null ? count + 1 : 1);
+        }
+        Log.debug(
+                MessagingConstants.LOG_TAG,
+                SELF_TAG,
+                "Failed to download asset %s (%s): %s",
+                url,
+                reason,
+                message);
+        return null;
+    }
+
+    // removes files staged by a previous session the first time the directory is used
+    private synchronized File prepareStagingDirectory() {
+        if (StringUtils.isNullOrEmpty(stagingLocation)) {
+            return null;
+        }
+        final File stagingDir = new File(stagingLocation);
+        if (!stagingDirectoryCleared) {
+            stagingDirectoryCleared = true;
+            final File[] staleFiles = stagingDir.listFiles();
+            if (staleFiles != null) {
+                for (final File staleFile : staleFiles) {
+                    deleteQuietly(staleFile);
+                }
+            }
+        }
+        if (!stagingDir.exists() && !stagingDir.mkdirs()) {
+            return null;
+        }
+        return stagingDir;
+    }
+
+    private synchronized byte[] acquireBuffer() {
+        final byte[] buffer = buffers.poll();
+        return buffer != null ? buffer : new byte[BUFFER_SIZE];
+    }
+
+    private synchronized void releaseBuffer(final byte[] buffer) {
+        if (buffers.size() < AssetPrefetchQueue.MAX_CONCURRENT_DOWNLOADS) {
+            buffers.push(buffer);
+        }
+    }
+
+    private static long getThroughput(final long bytes, final long millis) {
+        return millis > 0 ? bytes * TimeUnit.SECONDS.toMillis(1) / millis : bytes;
+    }
+
+    /**
+     * Returns the base64 encoded SHA-256 digest from a {@code Digest} header value, such as {@code
+     * sha-256=X48E9qOokqqrvdts8nOJRJN3OWDUoyWxBf7kbu9DBPE=}.
+     *
+     * @param digestHeader {@link String} containing the {@code Digest} header value
+     * @return {@link String} containing the digest, or null if the header has no SHA-256 digest
+     */
+    static String parseSha256Digest(final String digestHeader) {
+        if (StringUtils.isNullOrEmpty(digestHeader)) {
+            return null;
+        }
+        for (final String digest : digestHeader.split(",")) {
+            final String[] parts = digest.trim().split("=", 2);
+            if (parts.length == 2
+                    && DIGEST_HEADER_ALGORITHM.equals(parts[0].trim().toLowerCase(Locale.ROOT))) {
+                return parts[1].trim();
+            }
+        }
+        return null;
+    }
+
+    static String encodeBase64(final byte[] data) {
+        final StringBuilder encoded = new StringBuilder((data.length + 2) / 3 * 4);
+        for (int i = 0; i < data.length; i += 3) {
+            final int remaining = data.length - i;
+            final int chunk =
+                    (data[i] & 0xff) << 16
+                            | (remaining > 1 ? (data[i + 1] & 0xff) << 8 : 0)
+                            | (remaining > 2 ? data[i + 2] & 0xff : 0);
+            encoded.append(BASE64_ALPHABET[chunk >> 18 & 0x3f]);
+            encoded.append(BASE64_ALPHABET[chunk >> 12 & 0x3f]);
+            encoded.append(remaining > 1 ? BASE64_ALPHABET[chunk >> 6 & 0x3f] : '=');
+            encoded.append(remaining > 2 ? BASE64_ALPHABET[chunk & 0x3f] : '=');
+        }
+        return encoded.toString();
+    }
+
+    private static MessageDigest createMessageDigest() {
+        try {
+            return MessageDigest.getInstance(DIGEST_ALGORITHM);
+        } catch (final NoSuchAlgorithmException exception) {
+            return null;
+        }
+    }
+
+    private static void closeQuietly(final InputStream inputStream) {
+        if (inputStream == null) {
+            return;
+        }
+        try {
+            inputStream.close();
+        } catch (final IOException exception) {
+            // nothing to do, the stream has been fully read or abandoned
+        }
+    }
+
+    private static void deleteQuietly(final File file) {
+        if (file != null && file.exists() && !file.delete()) {
+            Log.trace(
+                    MessagingConstants.LOG_TAG,
+                    SELF_TAG,
+                    "Failed to delete staged file %s.",
+                    file.getPath());
+        }
+    }
+
+    /** A downloaded asset which has been validated in the staging directory. */
+    static final class StagedAsset {
+        private final File file;
+        private final long length;
+
+        private StagedAsset(final File file, final long length) {
+            this.file = file;
+            this.length = length;
+        }
+
+        long getLength() {
+            return length;
+        }
+
+        InputStream openStream() throws FileNotFoundException {
+            return new FileInputStream(file);
+        }
+
+        /** Deletes the staged file once it has been written to the cache. */
+        void discard() {
+            deleteQuietly(file);
+        }
+    }
+}
@@ -19,8 +19,10 @@ import com.adobe.marketing.mobile.util.StringUtils;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 public class MessagingUtils {
     // ========================================================================================
@@ -86,8 +88,10 @@ public class MessagingUtils {
         final List<Proposition> updatedList =
                 existingList != null ? existingList : createMutableList(propositionsToAdd);
         if (existingList != null) {
+            // deduplicate by content using a hash lookup rather than scanning the list
+            final Set<Proposition> existingPropositions = new HashSet<>(updatedList);
             for (final Proposition proposition : propositionsToAdd) {
-                if (!updatedList.contains(proposition)) {
+                if (existingPropositions.add(proposition)) {
                     updatedList.add(proposition);
                 }
             }
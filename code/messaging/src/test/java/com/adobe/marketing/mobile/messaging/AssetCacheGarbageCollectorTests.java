@@ -0,0 +1,131 @@
+/*
+  Copyright 2024 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+package com.adobe.marketing.mobile.messaging;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import com.adobe.marketing.mobile.internal.util.StringEncoder;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class AssetCacheGarbageCollectorTests {
+    private static final String FIRST_ASSET = "https://www.adobe.com/first.png";
+    private static final String SECOND_ASSET = "https://www.adobe.com/second.png";
+    private File assetDir;
+
+    @Before
+    public void setup() {
+        assetDir = new File("testCache/messaging/gcImages");
+        assetDir.mkdirs();
+    }
+
+    @After
+    public void tearDown() {
+        deleteRecursively(new File("testCache"));
+    }
+
+    @Test
+    public void test_sweep_retainsAllRetainedAssets() throws IOException {
+        // setup
+        final File firstFile = createFile(assetDir, StringEncoder.sha2hash(FIRST_ASSET), "first");
+        final File secondFile =
+                createFile(assetDir, StringEncoder.sha2hash(SECOND_ASSET), "second");
+        final AssetCacheGarbageCollector garbageCollector =
+                new AssetCacheGarbageCollector(Arrays.asList(FIRST_ASSET, SECOND_ASSET));
+
+        // test
+        final long reclaimedBytes = garbageCollector.sweep(assetDir);
+
+        // verify
+        assertTrue(firstFile.exists());
+        assertTrue(secondFile.exists());
+        assertEquals(0, reclaimedBytes);
+        assertEquals(0, garbageCollector.getDeletedFileCount());
+    }
+
+    @Test
+    public void test_sweep_deletesOrphanedAssetsInSubdirectories() throws IOException {
+        // setup
+        final File retainedFile = createFile(assetDir, StringEncoder.sha2hash(FIRST_ASSET), "a");
+        final File subDir = new File(assetDir, "d38a46f6-4f43-435a-a862-4038c27b90a1");
+        subDir.mkdirs();
+        final File orphanedFile = createFile(subDir, StringEncoder.sha2hash(SECOND_ASSET), "1234");
+        final File otherOrphanedFile = createFile(assetDir, "unknown", "123456");
+        final AssetCacheGarbageCollector garbageCollector =
+                new AssetCacheGarbageCollector(Collections.singletonList(FIRST_ASSET));
+
+        // test
+        final long reclaimedBytes = garbageCollector.sweep(assetDir);
+
+        // verify
+        assertTrue(retainedFile.exists());
+        assertFalse(orphanedFile.exists());
+        assertFalse(otherOrphanedFile.exists());
+        assertEquals(10, reclaimedBytes);
+        assertEquals(2, garbageCollector.getDeletedFileCount());
+    }
+
+    @Test
+    public void test_sweep_noRetainedAssets_deletesAllAssets() throws IOException {
+        // setup
+        final File orphanedFile = createFile(assetDir, StringEncoder.sha2hash(FIRST_ASSET), "a");
+        final AssetCacheGarbageCollector garbageCollector = new AssetCacheGarbageCollector(null);
+
+        // test
+        garbageCollector.sweep(assetDir);
+
+        // verify
+        assertFalse(orphanedFile.exists());
+        assertEquals(1, garbageCollector.getDeletedFileCount());
+    }
+
+    @Test
+    public void test_sweep_missingDirectory() {
+        // setup
+        final AssetCacheGarbageCollector garbageCollector =
+                new AssetCacheGarbageCollector(Collections.singletonList(FIRST_ASSET));
+
+        // test
+        final long reclaimedBytes = garbageCollector.sweep(new File("testCache/missing"));
+
+        // verify
+        assertEquals(0, reclaimedBytes);
+    }
+
+    private static File createFile(final File dir, final String name, final String content)
+            throws IOException {
+        final File file = new File(dir, name);
+        try (FileOutputStream outputStream = new FileOutputStream(file)) {
+            outputStream.write(content.getBytes(StandardCharsets.UTF_8));
+        }
+        return file;
+    }
+
+    private static void deleteRecursively(final File file) {
+        final File[] children = file.listFiles();
+        if (children != null) {
+            for (final File child : children) {
+                deleteRecursively(child);
+            }
+        }
+        file.delete();
+    }
+}
@@ -0,0 +1,138 @@
+/*
+  Copyright 2024 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+package com.adobe.marketing.mobile.messaging;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.Before;
+import org.junit.Test;
+
+public class AssetPrefetchQueueTests {
+    private final Map<String, Runnable> startedDownloads = new LinkedHashMap<>();
+    private final AssetPrefetchQueue.AssetDownload assetDownload = startedDownloads::put;
+    private AssetPrefetchQueue assetPrefetchQueue;
+
+    @Before
+    public void setup() {
+        startedDownloads.clear();
+        assetPrefetchQueue = new AssetPrefetchQueue(2, 1);
+    }
+
+    @Test
+    public void test_submit_limitsConcurrentDownloads() {
+        // setup
+        final List<String> urls =
+                Arrays.asList(
+                        "https://one.com/1.png",
+                        "https://two.com/2.png",
+                        "https://three.com/3.png");
+
+        // test
+        assetPrefetchQueue.submit(urls, urls, assetDownload);
+
+        // verify
+        assertEquals(
+                Arrays.asList("https://one.com/1.png", "https://two.com/2.png"),
+                new ArrayList<>(startedDownloads.keySet()));
+        assertEquals(2, assetPrefetchQueue.getActiveCount());
+        assertEquals(1, assetPrefetchQueue.getQueuedCount());
+    }
+
+    @Test
+    public void test_submit_limitsDownloadsPerHost() {
+        // setup
+        final List<String> urls =
+                Arrays.asList(
+                        "https://one.com/1.png", "https://one.com/2.png", "https://two.com/3.png");
+
+        // test
+        assetPrefetchQueue.submit(urls, urls, assetDownload);
+
+        // verify
+        assertEquals(
+                Arrays.asList("https://one.com/1.png", "https://two.com/3.png"),
+                new ArrayList<>(startedDownloads.keySet()));
+        assertEquals(1, assetPrefetchQueue.getQueuedCount());
+    }
+
+    @Test
+    public void test_downloadComplete_startsNextQueuedDownload() {
+        // setup
+        final List<String> urls = Arrays.asList("https://one.com/1.png", "https://one.com/2.png");
+        assetPrefetchQueue.submit(urls, urls, assetDownload);
+
+        // test
+        startedDownloads.get("https://one.com/1.png").run();
+
+        // verify
+        assertTrue(startedDownloads.containsKey("https://one.com/2.png"));
+        assertEquals(1, assetPrefetchQueue.getActiveCount());
+        assertEquals(0, assetPrefetchQueue.getQueuedCount());
+    }
+
+    @Test
+    public void test_submit_cancelsQueuedDownloadsNoLongerRequested() {
+        // setup
+        final List<String> urls = Arrays.asList("https://one.com/1.png", "https://one.com/2.png");
+        assetPrefetchQueue.submit(urls, urls, assetDownload);
+        final List<String> newUrls = Arrays.asList("https://one.com/3.png");
+
+        // test
+        assetPrefetchQueue.submit(newUrls, newUrls, assetDownload);
+        startedDownloads.get("https://one.com/1.png").run();
+
+        // verify
+        assertFalse(startedDownloads.containsKey("https://one.com/2.png"));
+        assertTrue(startedDownloads.containsKey("https://one.com/3.png"));
+        assertFalse(assetPrefetchQueue.isRequested("https://one.com/1.png"));
+        assertTrue(assetPrefetchQueue.isRequested("https://one.com/3.png"));
+    }
+
+    @Test
+    public void test_submit_keepsQueuedDownloadsStillRetained() {
+        // setup
+        final List<String> urls = Arrays.asList("https://one.com/1.png", "https://one.com/2.png");
+        assetPrefetchQueue.submit(urls, urls, assetDownload);
+
+        // test
+        assetPrefetchQueue.submit(
+                Arrays.asList("https://two.com/3.png"),
+                Arrays.asList("https://one.com/2.png", "https://two.com/3.png"),
+                assetDownload);
+        startedDownloads.get("https://one.com/1.png").run();
+
+        // verify
+        assertTrue(startedDownloads.containsKey("https://one.com/2.png"));
+        assertTrue(startedDownloads.containsKey("https://two.com/3.png"));
+    }
+
+    @Test
+    public void test_submit_doesNotQueueActiveDownloadAgain() {
+        // setup
+        final List<String> urls = Arrays.asList("https://one.com/1.png");
+        assetPrefetchQueue.submit(urls, urls, assetDownload);
+
+        // test
+        assetPrefetchQueue.submit(urls, urls, assetDownload);
+
+        // verify
+        assertEquals(1, assetPrefetchQueue.getActiveCount());
+        assertEquals(0, assetPrefetchQueue.getQueuedCount());
+    }
+}
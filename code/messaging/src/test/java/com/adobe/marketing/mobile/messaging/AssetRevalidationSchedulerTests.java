@@ -0,0 +1,105 @@
+/*
+  Copyright 2024 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+package com.adobe.marketing.mobile.messaging;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+@RunWith(MockitoJUnitRunner.Silent.class)
+public class AssetRevalidationSchedulerTests {
+    @Mock ScheduledExecutorService mockScheduledExecutorService;
+    @Mock ScheduledFuture<?> mockScheduledFuture;
+
+    private final ArgumentCaptor<Runnable> runnableCaptor = ArgumentCaptor.forClass(Runnable.class);
+    private final ArgumentCaptor<Long> delayCaptor = ArgumentCaptor.forClass(Long.class);
+    private final AtomicInteger revalidationCount = new AtomicInteger();
+    private AssetRevalidationScheduler assetRevalidationScheduler;
+
+    @Before
+    public void setup() {
+        doReturn(mockScheduledFuture)
+                .when(mockScheduledExecutorService)
+                .schedule(any(Runnable.class), anyLong(), any(TimeUnit.class));
+        assetRevalidationScheduler =
+                new AssetRevalidationScheduler(
+                        revalidationCount::incrementAndGet, mockScheduledExecutorService);
+    }
+
+    @Test
+    public void test_schedule_collapsesRequestsIntoPendingBatch() {
+        // test
+        assetRevalidationScheduler.schedule();
+        assetRevalidationScheduler.schedule();
+
+        // verify
+        verify(mockScheduledExecutorService, times(1))
+                .schedule(
+                        any(Runnable.class),
+                        eq(AssetRevalidationScheduler.BATCH_DELAY_MS),
+                        eq(TimeUnit.MILLISECONDS));
+        assertTrue(assetRevalidationScheduler.isScheduled());
+        assertEquals(0, revalidationCount.get());
+    }
+
+    @Test
+    public void test_batch_runsRevalidation() {
+        // setup
+        assetRevalidationScheduler.schedule();
+        verify(mockScheduledExecutorService)
+                .schedule(runnableCaptor.capture(), anyLong(), any(TimeUnit.class));
+
+        // test
+        runnableCaptor.getValue().run();
+
+        // verify
+        assertEquals(1, revalidationCount.get());
+        assertFalse(assetRevalidationScheduler.isScheduled());
+    }
+
+    @Test
+    public void test_schedule_afterBatch_waitsForMinimumInterval() {
+        // setup
+        assetRevalidationScheduler.schedule();
+        verify(mockScheduledExecutorService)
+                .schedule(runnableCaptor.capture(), anyLong(), any(TimeUnit.class));
+        runnableCaptor.getValue().run();
+
+        // test
+        assetRevalidationScheduler.schedule();
+
+        // verify
+        verify(mockScheduledExecutorService, times(2))
+                .schedule(any(Runnable.class), delayCaptor.capture(), any(TimeUnit.class));
+        assertTrue(
+                delayCaptor.getValue()
+                        > AssetRevalidationScheduler.MIN_REVALIDATION_INTERVAL_MS
+                                - TimeUnit.MINUTES.toMillis(1));
+    }
+}
@@ -0,0 +1,165 @@
+/*
+  Copyright 2024 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+package com.adobe.marketing.mobile.messaging;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+@RunWith(MockitoJUnitRunner.Silent.class)
+public class CachedPropositionLoaderTests {
+    @Mock ExecutorService mockExecutorService;
+
+    private final Surface surface = Surface.fromUriString("mobileapp://mockPackageName/one");
+    private final Surface otherSurface = Surface.fromUriString("mobileapp://mockPackageName/two");
+    private final Map<Surface, List<Proposition>> cachedPropositions = new HashMap<>();
+    private final Map<Surface, Integer> readCounts = new HashMap<>();
+    private final CachedPropositionLoader.SurfaceReader surfaceReader =
+            cachedSurface -> {
+                readCounts.merge(cachedSurface, 1, Integer::sum);
+                return cachedPropositions.get(cachedSurface);
+            };
+
+    @Before
+    public void setup() {
+        cachedPropositions.put(surface, Collections.singletonList(mock(Proposition.class)));
+        cachedPropositions.put(otherSurface, Collections.singletonList(mock(Proposition.class)));
+    }
+
+    @Test
+    public void test_take_returnsPropositionsDecodedInTheBackground() {
+        // setup
+        final CachedPropositionLoader loader =
+                new CachedPropositionLoader(surfaceReader, Executors.newSingleThreadExecutor());
+        loader.prefetch(Arrays.asList(surface, otherSurface));
+
+        // test
+        final CachedPropositionLoader.LoadedPropositions loadedPropositions = loader.take(null);
+
+        // verify
+        assertEquals(cachedPropositions, loadedPropositions.propositions);
+        assertFalse(loader.hasPendingSurfaces());
+        assertEquals(1, (int) readCounts.get(surface));
+        assertEquals(1, (int) readCounts.get(otherSurface));
+    }
+
+    @Test
+    public void test_take_returnsRequestedSurfacesOnce() {
+        // setup
+        final CachedPropositionLoader loader =
+                new CachedPropositionLoader(surfaceReader, Executors.newSingleThreadExecutor());
+        loader.prefetch(Arrays.asList(surface, otherSurface));
+
+        // test
+        final Map<Surface, List<Proposition>> firstTake =
+                loader.take(Collections.singletonList(surface)).propositions;
+        final Map<Surface, List<Proposition>> secondTake =
+                loader.take(Collections.singletonList(surface)).propositions;
+
+        // verify
+        assertEquals(1, firstTake.size());
+        assertEquals(cachedPropositions.get(surface), firstTake.get(surface));
+        assertTrue(secondTake.isEmpty());
+        assertTrue(loader.hasPendingSurfaces());
+        assertEquals(
+                cachedPropositions.get(otherSurface),
+                loader.take(null).propositions.get(otherSurface));
+    }
+
+    @Test
+    public void test_take_surfaceWithoutPropositions_isOmitted() {
+        // setup
+        cachedPropositions.remove(otherSurface);
+        final CachedPropositionLoader loader =
+                new CachedPropositionLoader(surfaceReader, Executors.newSingleThreadExecutor());
+        loader.prefetch(Arrays.asList(surface, otherSurface));
+
+        // test
+        final Map<Surface, List<Proposition>> propositions = loader.take(null).propositions;
+
+        // verify
+        assertEquals(1, propositions.size());
+        assertTrue(propositions.containsKey(surface));
+    }
+
+    @Test
+    public void test_take_whenBackgroundDecodeRejected_decodesOnCallingThread() {
+        // setup
+        doThrow(new RejectedExecutionException())
+                .when(mockExecutorService)
+                .submit(any(Callable.class));
+        final CachedPropositionLoader loader =
+                new CachedPropositionLoader(surfaceReader, mockExecutorService);
+        loader.prefetch(Collections.singletonList(surface));
+
+        // verify nothing is decoded until the surface is taken
+        assertTrue(readCounts.isEmpty());
+
+        // test
+        final CachedPropositionLoader.LoadedPropositions loadedPropositions = loader.take(null);
+
+        // verify
+        assertEquals(cachedPropositions.get(surface), loadedPropositions.propositions.get(surface));
+        assertEquals(0, loadedPropositions.backgroundDecodeMillis);
+        assertEquals(1, (int) readCounts.get(surface));
+    }
+
+    @Test
+    public void test_prefetch_noSurfaces_doesNotStartDecoding() {
+        // setup
+        final CachedPropositionLoader loader =
+                new CachedPropositionLoader(surfaceReader, mockExecutorService);
+
+        // test
+        loader.prefetch(Collections.emptyList());
+
+        // verify
+        verify(mockExecutorService, never()).submit(any(Callable.class));
+        assertFalse(loader.hasPendingSurfaces());
+    }
+
+    @Test
+    public void test_prefetch_shutsDownExecutorOnceSurfacesAreQueued() {
+        // setup
+        final CachedPropositionLoader loader =
+                new CachedPropositionLoader(surfaceReader, mockExecutorService);
+
+        // test
+        loader.prefetch(Arrays.asList(surface, otherSurface));
+
+        // verify
+        verify(mockExecutorService, times(2)).submit(any(Callable.class));
+        verify(mockExecutorService, times(1)).shutdown();
+        assertTrue(loader.hasPendingSurfaces());
+    }
+}
@@ -22,6 +22,7 @@ import static org.junit.Assert.fail;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyMap;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
@@ -58,6 +59,7 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ScheduledExecutorService;
 import org.json.JSONException;
 import org.json.JSONObject;
 import org.junit.After;
@@ -103,6 +105,7 @@ public class EdgePersonalizationResponseHandlerTests {
     @Mock SerialWorkDispatcher<Event> mockSerialWorkDispatcher;
     @Mock PresentableMessageMapper mockPresentableMessageMapper;
     @Mock PresentableMessageMapper.InternalMessage mockInternalMessage;
+    @Mock ScheduledExecutorService mockScheduledExecutorService;
 
     private File cacheDir;
     private EdgePersonalizationResponseHandler edgePersonalizationResponseHandler;
@@ -135,6 +138,7 @@ public class EdgePersonalizationResponseHandlerTests {
         reset(mockSerialWorkDispatcher);
         reset(mockPresentableMessageMapper);
         reset(mockInternalMessage);
+        reset(mockScheduledExecutorService);
 
         if (cacheDir.exists()) {
             cacheDir.delete();
@@ -169,7 +173,9 @@ public class EdgePersonalizationResponseHandlerTests {
                             mockExtensionApi,
                             mockMessagingRulesEngine,
                             mockFeedRulesEngine,
-                            mockMessagingCacheUtilities);
+                            mockMessagingCacheUtilities,
+                            new PropositionCacheWriter(
+                                    mockMessagingCacheUtilities, mockScheduledExecutorService));
             edgePersonalizationResponseHandler.setMessagesRequestEventId(
                     "TESTING_ID", Collections.singletonList(new Surface()));
             edgePersonalizationResponseHandler.setSerialWorkDispatcher(mockSerialWorkDispatcher);
@@ -729,7 +735,7 @@ public class EdgePersonalizationResponseHandlerTests {
                                 MessagingTestUtils.createMessagingPropositionItemList(4));
                         when(JSONRulesParser.parse(anyString(), any(ExtensionApi.class)))
                                 .thenCallRealMethod();
-                        when(mockFeedRulesEngine.evaluate(any(Event.class)))
+                        when(mockFeedRulesEngine.evaluate(any(Event.class), anyList()))
                                 .thenReturn(matchedFeedRules);
 
                         // setup in progress in-app propositions
@@ -783,7 +789,10 @@ public class EdgePersonalizationResponseHandlerTests {
                                 .replaceRules(feedRulesListCaptor.capture());
                         assertEquals(4, feedRulesListCaptor.getValue().size());
 
-                        // verify in-app propositions are cached
+                        // verify in-app propositions are queued and cached when flushed
+                        verify(mockMessagingCacheUtilities, times(0))
+                                .cachePropositions(anyMap(), anyList());
+                        edgePersonalizationResponseHandler.flushCachedPropositions();
                         ArgumentCaptor<Map<Surface, List<Proposition>>> cachedPropositionsCaptor =
                                 ArgumentCaptor.forClass(Map.class);
                         ArgumentCaptor<List<Surface>> surfacesToRemoveCaptor =
@@ -858,6 +867,7 @@ public class EdgePersonalizationResponseHandlerTests {
 
                         // cache propositions initially
                         edgePersonalizationResponseHandler.handleProcessCompletedEvent(mockEvent);
+                        edgePersonalizationResponseHandler.flushCachedPropositions();
 
                         // test : subsequent response does not contain cached previously in-app
                         // propositions
@@ -881,6 +891,7 @@ public class EdgePersonalizationResponseHandlerTests {
 
                         // setup processing completed event
                         edgePersonalizationResponseHandler.handleProcessCompletedEvent(mockEvent);
+                        edgePersonalizationResponseHandler.flushCachedPropositions();
 
                         // verify parsed rules replaced in in-app rules engine only for the first
                         // response
@@ -888,11 +899,11 @@ public class EdgePersonalizationResponseHandlerTests {
                                 .replaceRules(inAppRulesListCaptor.capture());
                         assertEquals(3, inAppRulesListCaptor.getValue().size());
 
-                        // verify parsed rules replaced in feed rules engine for both responses
-                        verify(mockFeedRulesEngine, times(2))
+                        // verify parsed rules replaced in feed rules engine only for the first
+                        // response as the feed content is unchanged in the second response
+                        verify(mockFeedRulesEngine, times(1))
                                 .replaceRules(feedRulesListCaptor.capture());
-                        assertEquals(4, feedRulesListCaptor.getAllValues().get(0).size());
-                        assertEquals(4, feedRulesListCaptor.getAllValues().get(1).size());
+                        assertEquals(4, feedRulesListCaptor.getValue().size());
 
                         // verify in-app propositions are cached for first response
                         ArgumentCaptor<Map<Surface, List<Proposition>>> cachedPropositionsCaptor =
@@ -923,6 +934,60 @@ public class EdgePersonalizationResponseHandlerTests {
                 });
     }
 
+    @Test
+    public void test_handleProcessCompletedEvent_UnchangedInAppPropositionsInSubsequentResponse() {
+        runUsingMockedServiceProvider(
+                () -> {
+                    // setup
+                    try (MockedStatic<JSONRulesParser> ignored =
+                            Mockito.mockStatic(JSONRulesParser.class)) {
+                        when(JSONRulesParser.parse(anyString(), any(ExtensionApi.class)))
+                                .thenCallRealMethod();
+
+                        Surface inappSurface = new Surface();
+                        MessageTestConfig config = new MessageTestConfig();
+                        config.count = 3;
+                        List<Map<String, Object>> payload =
+                                MessagingTestUtils.generateMessagePayload(config);
+
+                        Map<String, Object> eventData = new HashMap<>();
+                        eventData.put("payload", payload);
+                        eventData.put("requestEventId", "TESTING_ID");
+                        Event responseEvent = mock(Event.class);
+                        when(responseEvent.getEventData()).thenReturn(eventData);
+
+                        Map<String, Object> completedEventData = new HashMap<>();
+                        completedEventData.put(ENDING_EVENT_ID, "TESTING_ID");
+                        Event completedEvent = mock(Event.class);
+                        when(completedEvent.getEventData()).thenReturn(completedEventData);
+
+                        // test: the same response is received twice
+                        for (int i = 0; i < 2; i++) {
+                            edgePersonalizationResponseHandler.setMessagesRequestEventId(
+                                    "TESTING_ID", Collections.singletonList(inappSurface));
+                            edgePersonalizationResponseHandler
+                                    .handleEdgePersonalizationNotification(responseEvent);
+                            edgePersonalizationResponseHandler.handleProcessCompletedEvent(
+                                    completedEvent);
+                        }
+
+                        // verify the ruleset is parsed and replaced in the rules engine only once,
+                        // as the payload contains the same proposition three times
+                        ignored.verify(
+                                () -> JSONRulesParser.parse(anyString(), any(ExtensionApi.class)),
+                                times(1));
+                        verify(mockMessagingRulesEngine, times(1))
+                                .replaceRules(inAppRulesListCaptor.capture());
+                        assertEquals(3, inAppRulesListCaptor.getValue().size());
+
+                        // verify the assets are refreshed for both responses, so assets missing
+                        // from the cache are downloaded again
+                        verify(mockMessagingCacheUtilities, times(2))
+                                .cacheImageAssets(anyList(), anyList());
+                    }
+                });
+    }
+
     @Test
     public void test_handleProcessCompletedEvent_CodeBasedPropositions() {
         runUsingMockedServiceProvider(
@@ -1049,7 +1114,7 @@ public class EdgePersonalizationResponseHandlerTests {
                                 surface, MessagingTestUtils.createMessagingPropositionItemList(4));
                         when(JSONRulesParser.parse(anyString(), any(ExtensionApi.class)))
                                 .thenCallRealMethod();
-                        when(mockFeedRulesEngine.evaluate(any(Event.class)))
+                        when(mockFeedRulesEngine.evaluate(any(Event.class), anyList()))
                                 .thenReturn(matchedFeedRules);
 
                         // setup in progress in-app propositions
@@ -1167,7 +1232,7 @@ public class EdgePersonalizationResponseHandlerTests {
                                 MessagingTestUtils.createMessagingPropositionItemList(3));
                         when(JSONRulesParser.parse(anyString(), any(ExtensionApi.class)))
                                 .thenCallRealMethod();
-                        when(mockFeedRulesEngine.evaluate(any(Event.class)))
+                        when(mockFeedRulesEngine.evaluate(any(Event.class), anyList()))
                                 .thenReturn(matchedFeedRules);
 
                         // setup in progress feed propositions
@@ -1226,8 +1291,6 @@ public class EdgePersonalizationResponseHandlerTests {
                     try (MockedStatic<JSONRulesParser> ignored =
                             Mockito.mockStatic(JSONRulesParser.class)) {
                         // setup cached propositions
-                        when(mockMessagingCacheUtilities.arePropositionsCached()).thenReturn(true);
-
                         when(JSONRulesParser.parse(anyString(), any(ExtensionApi.class)))
                                 .thenCallRealMethod();
 
@@ -1244,8 +1307,7 @@ public class EdgePersonalizationResponseHandlerTests {
                         } catch (Exception e) {
                             fail(e.getMessage());
                         }
-                        when(mockMessagingCacheUtilities.getCachedPropositions())
-                                .thenReturn(cachedPayload);
+                        setCachedPropositions(cachedPayload);
                         edgePersonalizationResponseHandler =
                                 new EdgePersonalizationResponseHandler(
                                         mockMessagingExtension,
@@ -1255,6 +1317,7 @@ public class EdgePersonalizationResponseHandlerTests {
                                         mockMessagingCacheUtilities);
                         edgePersonalizationResponseHandler.setSerialWorkDispatcher(
                                 mockSerialWorkDispatcher);
+                        edgePersonalizationResponseHandler.loadCachedPropositionIndex();
 
                         // setup valid surfaces
                         Surface inappSurface = new Surface();
@@ -1274,7 +1337,7 @@ public class EdgePersonalizationResponseHandlerTests {
                                 MessagingTestUtils.createMessagingPropositionItemList(3));
                         when(JSONRulesParser.parse(anyString(), any(ExtensionApi.class)))
                                 .thenCallRealMethod();
-                        when(mockFeedRulesEngine.evaluate(any(Event.class)))
+                        when(mockFeedRulesEngine.evaluate(any(Event.class), anyList()))
                                 .thenReturn(matchedFeedRules);
 
                         // setup in progress feed propositions
@@ -1345,7 +1408,7 @@ public class EdgePersonalizationResponseHandlerTests {
                                 MessagingTestUtils.createMessagingPropositionItemList(3));
                         when(JSONRulesParser.parse(anyString(), any(ExtensionApi.class)))
                                 .thenCallRealMethod();
-                        when(mockFeedRulesEngine.evaluate(any(Event.class)))
+                        when(mockFeedRulesEngine.evaluate(any(Event.class), anyList()))
                                 .thenReturn(matchedFeedRules);
 
                         // setup in progress feed propositions
@@ -1408,7 +1471,7 @@ public class EdgePersonalizationResponseHandlerTests {
                                 MessagingTestUtils.createMessagingPropositionItemList(3));
                         when(JSONRulesParser.parse(anyString(), any(ExtensionApi.class)))
                                 .thenCallRealMethod();
-                        when(mockFeedRulesEngine.evaluate(any(Event.class)))
+                        when(mockFeedRulesEngine.evaluate(any(Event.class), anyList()))
                                 .thenReturn(matchedFeedRules);
 
                         // setup in progress feed propositions
@@ -1443,42 +1506,25 @@ public class EdgePersonalizationResponseHandlerTests {
     }
 
     // ========================================================================================
-    // edgePersonalizationResponseHandler load cached propositions on instantiation
+    // edgePersonalizationResponseHandler loadCachedPropositions
     // ========================================================================================
     @Test
-    public void
-            test_cachedPropositions_cacheLoadedOnEdgePersonalizationResponseHandlerConstruction() {
+    public void test_loadCachedPropositions() {
         int inAppCount = 5;
         runUsingMockedServiceProvider(
                 () -> {
                     // setup
                     try (MockedStatic<JSONRulesParser> ignored =
                             Mockito.mockStatic(JSONRulesParser.class)) {
-                        when(mockMessagingCacheUtilities.arePropositionsCached()).thenReturn(true);
-
                         when(JSONRulesParser.parse(anyString(), any(ExtensionApi.class)))
                                 .thenCallRealMethod();
 
                         CacheService cacheService = new FileCacheService();
                         when(mockServiceProvider.getCacheService()).thenReturn(cacheService);
                         Map<Surface, List<Proposition>> payload = new HashMap<>();
-                        try {
-                            MessageTestConfig config = new MessageTestConfig();
-                            config.count = 1;
-                            List<Map<String, Object>> payloadList = new ArrayList<>();
-                            for (int i = 0; i < inAppCount; i++) {
-                                payloadList.addAll(
-                                        MessagingTestUtils.generateMessagePayload(config));
-                            }
-                            payload.put(
-                                    new Surface(),
-                                    InternalMessagingUtils.getPropositionsFromPayloads(
-                                            payloadList));
-                        } catch (Exception e) {
-                            fail(e.getMessage());
-                        }
-                        when(mockMessagingCacheUtilities.getCachedPropositions())
-                                .thenReturn(payload);
+                        Surface surface = new Surface();
+                        payload.put(surface, generateInAppPropositions(surface, inAppCount));
+                        setCachedPropositions(payload);
 
                         // test
                         edgePersonalizationResponseHandler =
@@ -1488,25 +1534,87 @@ public class EdgePersonalizationResponseHandlerTests {
                                         mockMessagingRulesEngine,
                                         mockFeedRulesEngine,
                                         mockMessagingCacheUtilities);
+                        edgePersonalizationResponseHandler.loadCachedPropositionIndex();
+
+                        // verify only the cache index is read before the propositions are used
+                        verify(mockMessagingCacheUtilities, times(1)).getCachedSurfaces();
+                        verify(mockMessagingCacheUtilities, times(0)).getCachedPropositions();
+                        verify(mockMessagingRulesEngine, times(0)).replaceRules(anyList());
+
+                        edgePersonalizationResponseHandler.loadCachedPropositions(null);
+                        edgePersonalizationResponseHandler.loadCachedPropositions(null);
 
-                        // verify cached rules replaced in rules engine
+                        // verify cached propositions decoded and loaded once and cached rules
+                        // replaced in rules engine
+                        verify(mockMessagingCacheUtilities, times(1))
+                                .getCachedPropositions(any(Surface.class));
                         verify(mockMessagingRulesEngine, times(1))
                                 .replaceRules(listArgumentCaptor.capture());
                         assertEquals(5, listArgumentCaptor.getValue().size());
+
+                        // verify the assets of the cached messages are mapped
+                        verify(mockMessagingCacheUtilities, times(1))
+                                .cacheImageAssets(anyList(), anyList());
                     }
                 });
     }
 
     @Test
-    public void
-            test_cachedPropositions_cacheLoadedOnEdgePersonalizationResponseHandlerConstruction_whenPropositionsNotCached() {
+    public void test_loadCachedPropositions_loadsRequestedSurfacesOnly() {
         runUsingMockedServiceProvider(
                 () -> {
                     // setup
                     try (MockedStatic<JSONRulesParser> ignored =
                             Mockito.mockStatic(JSONRulesParser.class)) {
-                        when(mockMessagingCacheUtilities.arePropositionsCached()).thenReturn(false);
-                        ;
+                        when(JSONRulesParser.parse(anyString(), any(ExtensionApi.class)))
+                                .thenCallRealMethod();
+
+                        CacheService cacheService = new FileCacheService();
+                        when(mockServiceProvider.getCacheService()).thenReturn(cacheService);
+                        Surface firstSurface = new Surface("first");
+                        Surface secondSurface = new Surface("second");
+                        Map<Surface, List<Proposition>> payload = new HashMap<>();
+                        payload.put(firstSurface, generateInAppPropositions(firstSurface, 2));
+                        payload.put(secondSurface, generateInAppPropositions(secondSurface, 3));
+                        setCachedPropositions(payload);
+                        edgePersonalizationResponseHandler =
+                                new EdgePersonalizationResponseHandler(
+                                        mockMessagingExtension,
+                                        mockExtensionApi,
+                                        mockMessagingRulesEngine,
+                                        mockFeedRulesEngine,
+                                        mockMessagingCacheUtilities);
+                        edgePersonalizationResponseHandler.loadCachedPropositionIndex();
+
+                        // test
+                        edgePersonalizationResponseHandler.loadCachedPropositions(
+                                Collections.singletonList(firstSurface));
+
+                        // verify only the rules of the requested surface are loaded
+                        verify(mockMessagingRulesEngine, times(1))
+                                .replaceRules(listArgumentCaptor.capture());
+                        assertEquals(2, listArgumentCaptor.getValue().size());
+
+                        // test
+                        edgePersonalizationResponseHandler.loadCachedPropositions(null);
+
+                        // verify the rules of the remaining surface are added
+                        verify(mockMessagingRulesEngine, times(1))
+                                .addRules(listArgumentCaptor.capture());
+                        assertEquals(3, listArgumentCaptor.getValue().size());
+                    }
+                });
+    }
+
+    @Test
+    public void test_loadCachedPropositions_whenPropositionsNotCached() {
+        runUsingMockedServiceProvider(
+                () -> {
+                    // setup
+                    try (MockedStatic<JSONRulesParser> ignored =
+                            Mockito.mockStatic(JSONRulesParser.class)) {
+                        when(mockMessagingCacheUtilities.getCachedSurfaces())
+                                .thenReturn(new ArrayList<>());
 
                         // test
                         edgePersonalizationResponseHandler =
@@ -1516,23 +1624,29 @@ public class EdgePersonalizationResponseHandlerTests {
                                         mockMessagingRulesEngine,
                                         mockFeedRulesEngine,
                                         mockMessagingCacheUtilities);
+                        edgePersonalizationResponseHandler.loadCachedPropositionIndex();
+                        edgePersonalizationResponseHandler.loadCachedPropositions(null);
 
-                        // verify cached rules not replaced in rules engine
+                        // verify no cached propositions decoded and cached rules not replaced in
+                        // rules engine
+                        verify(mockMessagingCacheUtilities, times(0))
+                                .getCachedPropositions(any(Surface.class));
                         verify(mockMessagingRulesEngine, times(0)).replaceRules(anyList());
                     }
                 });
     }
 
     @Test
-    public void
-            test_cachedPropositions_cacheLoadedOnEdgePersonalizationResponseHandlerConstruction_whenCachePropositionsAreNull() {
+    public void test_loadCachedPropositions_whenCachePropositionsAreNull() {
         runUsingMockedServiceProvider(
                 () -> {
                     // setup
                     try (MockedStatic<JSONRulesParser> ignored =
                             Mockito.mockStatic(JSONRulesParser.class)) {
-                        when(mockMessagingCacheUtilities.arePropositionsCached()).thenReturn(true);
-                        when(mockMessagingCacheUtilities.getCachedPropositions()).thenReturn(null);
+                        when(mockMessagingCacheUtilities.getCachedSurfaces())
+                                .thenReturn(Collections.singletonList(new Surface()));
+                        when(mockMessagingCacheUtilities.getCachedPropositions(any(Surface.class)))
+                                .thenReturn(null);
 
                         // test
                         edgePersonalizationResponseHandler =
@@ -1542,6 +1656,8 @@ public class EdgePersonalizationResponseHandlerTests {
                                         mockMessagingRulesEngine,
                                         mockFeedRulesEngine,
                                         mockMessagingCacheUtilities);
+                        edgePersonalizationResponseHandler.loadCachedPropositionIndex();
+                        edgePersonalizationResponseHandler.loadCachedPropositions(null);
 
                         // verify cached rules not replaced in rules engine
                         verify(mockMessagingRulesEngine, times(0)).replaceRules(anyList());
@@ -1550,16 +1666,16 @@ public class EdgePersonalizationResponseHandlerTests {
     }
 
     @Test
-    public void
-            test_cachedPropositions_cacheLoadedOnEdgePersonalizationResponseHandlerConstruction_whenCachePropositionsAreEmpty() {
+    public void test_loadCachedPropositions_whenCachePropositionsAreEmpty() {
         runUsingMockedServiceProvider(
                 () -> {
                     // setup
                     try (MockedStatic<JSONRulesParser> ignored =
                             Mockito.mockStatic(JSONRulesParser.class)) {
-                        when(mockMessagingCacheUtilities.arePropositionsCached()).thenReturn(true);
-                        when(mockMessagingCacheUtilities.getCachedPropositions())
-                                .thenReturn(new HashMap<>());
+                        when(mockMessagingCacheUtilities.getCachedSurfaces())
+                                .thenReturn(Collections.singletonList(new Surface()));
+                        when(mockMessagingCacheUtilities.getCachedPropositions(any(Surface.class)))
+                                .thenReturn(new ArrayList<>());
 
                         // test
                         edgePersonalizationResponseHandler =
@@ -1569,6 +1685,8 @@ public class EdgePersonalizationResponseHandlerTests {
                                         mockMessagingRulesEngine,
                                         mockFeedRulesEngine,
                                         mockMessagingCacheUtilities);
+                        edgePersonalizationResponseHandler.loadCachedPropositionIndex();
+                        edgePersonalizationResponseHandler.loadCachedPropositions(null);
 
                         // verify cached rules not replaced in rules engine
                         verify(mockMessagingRulesEngine, times(0)).replaceRules(anyList());
@@ -1577,15 +1695,12 @@ public class EdgePersonalizationResponseHandlerTests {
     }
 
     @Test
-    public void
-            test_cachedPropositions_cacheLoadedOnEdgePersonalizationResponseHandlerConstruction_whenCachePropositionsSchemaIsNotInApp() {
+    public void test_loadCachedPropositions_whenCachePropositionsSchemaIsNotInApp() {
         runUsingMockedServiceProvider(
                 () -> {
                     // setup
                     try (MockedStatic<JSONRulesParser> ignored =
                             Mockito.mockStatic(JSONRulesParser.class)) {
-                        when(mockMessagingCacheUtilities.arePropositionsCached()).thenReturn(true);
-
                         when(JSONRulesParser.parse(anyString(), any(ExtensionApi.class)))
                                 .thenCallRealMethod();
 
@@ -1606,8 +1721,7 @@ public class EdgePersonalizationResponseHandlerTests {
                         } catch (Exception e) {
                             fail(e.getMessage());
                         }
-                        when(mockMessagingCacheUtilities.getCachedPropositions())
-                                .thenReturn(payload);
+                        setCachedPropositions(payload);
 
                         // test
                         edgePersonalizationResponseHandler =
@@ -1617,13 +1731,38 @@ public class EdgePersonalizationResponseHandlerTests {
                                         mockMessagingRulesEngine,
                                         mockFeedRulesEngine,
                                         mockMessagingCacheUtilities);
+                        edgePersonalizationResponseHandler.loadCachedPropositionIndex();
+                        edgePersonalizationResponseHandler.loadCachedPropositions(null);
 
-                        // verify cached rules replaced in rules engine
+                        // verify cached rules not replaced in rules engine
                         verify(mockMessagingRulesEngine, times(0)).replaceRules(anyList());
                     }
                 });
     }
 
+    private void setCachedPropositions(final Map<Surface, List<Proposition>> cachedPropositions) {
+        when(mockMessagingCacheUtilities.getCachedSurfaces())
+                .thenReturn(new ArrayList<>(cachedPropositions.keySet()));
+        when(mockMessagingCacheUtilities.getCachedPropositions(any(Surface.class)))
+                .thenAnswer(invocation -> cachedPropositions.get(invocation.getArgument(0)));
+    }
+
+    private List<Proposition> generateInAppPropositions(final Surface surface, final int count) {
+        final List<Map<String, Object>> payloadList = new ArrayList<>();
+        try {
+            MessageTestConfig config = new MessageTestConfig();
+            config.count = count;
+            payloadList.addAll(MessagingTestUtils.generateMessagePayload(config));
+        } catch (Exception e) {
+            fail(e.getMessage());
+        }
+        for (int i = 0; i < payloadList.size(); i++) {
+            payloadList.get(i).put("scope", surface.getUri());
+            payloadList.get(i).put("id", surface.getUri() + i);
+        }
+        return InternalMessagingUtils.getPropositionsFromPayloads(payloadList);
+    }
+
     // ========================================================================================
     // createInAppMessage
     // ========================================================================================
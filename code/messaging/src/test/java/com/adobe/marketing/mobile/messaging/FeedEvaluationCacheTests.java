@@ -0,0 +1,180 @@
+/*
+  Copyright 2024 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+package com.adobe.marketing.mobile.messaging;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Before;
+import org.junit.Test;
+
+public class FeedEvaluationCacheTests {
+    private final Surface surface = Surface.fromUriString("mobileapp://mockPackageName/one");
+    private final Surface otherSurface = Surface.fromUriString("mobileapp://mockPackageName/two");
+    private FeedEvaluationCache feedEvaluationCache;
+    private AtomicInteger evaluationCount;
+    private FeedEvaluationCache.Evaluation evaluation;
+
+    @Before
+    public void setup() {
+        feedEvaluationCache = new FeedEvaluationCache();
+        evaluationCount = new AtomicInteger();
+        evaluation =
+                () -> {
+                    evaluationCount.incrementAndGet();
+                    return new HashMap<>();
+                };
+    }
+
+    @Test
+    public void test_getOrEvaluate_sameSurfaces_reusesEvaluation() {
+        // setup
+        final Map<Surface, List<Proposition>> first =
+                feedEvaluationCache.getOrEvaluate(
+                        Arrays.asList(surface, otherSurface), 1, evaluation);
+
+        // test
+        final Map<Surface, List<Proposition>> second =
+                feedEvaluationCache.getOrEvaluate(
+                        Arrays.asList(otherSurface, surface), 1, evaluation);
+
+        // verify
+        assertSame(first, second);
+        assertEquals(1, evaluationCount.get());
+        assertEquals(1, feedEvaluationCache.getHitCount());
+        assertEquals(1, feedEvaluationCache.getMissCount());
+    }
+
+    @Test
+    public void test_getOrEvaluate_differentSurfaces_evaluatesAgain() {
+        // setup
+        feedEvaluationCache.getOrEvaluate(Collections.singletonList(surface), 1, evaluation);
+
+        // test
+        feedEvaluationCache.getOrEvaluate(Collections.singletonList(otherSurface), 1, evaluation);
+
+        // verify
+        assertEquals(2, evaluationCount.get());
+        assertEquals(2, feedEvaluationCache.size());
+    }
+
+    @Test
+    public void test_getOrEvaluate_ruleSetVersionChanged_evaluatesAgain() {
+        // setup
+        final Map<Surface, List<Proposition>> first =
+                feedEvaluationCache.getOrEvaluate(
+                        Collections.singletonList(surface), 1, evaluation);
+
+        // test
+        final Map<Surface, List<Proposition>> second =
+                feedEvaluationCache.getOrEvaluate(
+                        Collections.singletonList(surface), 2, evaluation);
+
+        // verify
+        assertNotSame(first, second);
+        assertEquals(2, evaluationCount.get());
+    }
+
+    @Test
+    public void test_getOrEvaluate_afterInvalidate_evaluatesAgain() {
+        // setup
+        feedEvaluationCache.getOrEvaluate(Collections.singletonList(surface), 1, evaluation);
+
+        // test
+        feedEvaluationCache.invalidate();
+        feedEvaluationCache.getOrEvaluate(Collections.singletonList(surface), 1, evaluation);
+
+        // verify
+        assertEquals(2, evaluationCount.get());
+    }
+
+    @Test
+    public void test_getOrEvaluate_invalidatedDuringEvaluation_resultNotCached() {
+        // setup
+        final FeedEvaluationCache.Evaluation invalidatingEvaluation =
+                () -> {
+                    evaluationCount.incrementAndGet();
+                    feedEvaluationCache.invalidate();
+                    return new HashMap<>();
+                };
+
+        // test
+        feedEvaluationCache.getOrEvaluate(
+                Collections.singletonList(surface), 1, invalidatingEvaluation);
+
+        // verify
+        assertEquals(0, feedEvaluationCache.size());
+    }
+
+    @Test
+    public void test_getOrEvaluate_expiredEntry_evaluatesAgain() throws InterruptedException {
+        // setup
+        feedEvaluationCache = new FeedEvaluationCache(0);
+        feedEvaluationCache.getOrEvaluate(Collections.singletonList(surface), 1, evaluation);
+        Thread.sleep(5);
+
+        // test
+        feedEvaluationCache.getOrEvaluate(Collections.singletonList(surface), 1, evaluation);
+
+        // verify
+        assertEquals(2, evaluationCount.get());
+    }
+
+    @Test
+    public void test_getOrEvaluate_concurrentRequests_shareEvaluation() throws Exception {
+        // setup
+        final CountDownLatch evaluationStarted = new CountDownLatch(1);
+        final CountDownLatch releaseEvaluation = new CountDownLatch(1);
+        final FeedEvaluationCache.Evaluation slowEvaluation =
+                () -> {
+                    evaluationCount.incrementAndGet();
+                    evaluationStarted.countDown();
+                    try {
+                        releaseEvaluation.await(1, TimeUnit.SECONDS);
+                    } catch (final InterruptedException exception) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return new HashMap<>();
+                };
+        final Thread firstRequest =
+                new Thread(
+                        () ->
+                                feedEvaluationCache.getOrEvaluate(
+                                        Collections.singletonList(surface), 1, slowEvaluation));
+        final Thread secondRequest =
+                new Thread(
+                        () ->
+                                feedEvaluationCache.getOrEvaluate(
+                                        Collections.singletonList(surface), 1, slowEvaluation));
+
+        // test
+        firstRequest.start();
+        evaluationStarted.await(1, TimeUnit.SECONDS);
+        secondRequest.start();
+        releaseEvaluation.countDown();
+        firstRequest.join(1000);
+        secondRequest.join(1000);
+
+        // verify
+        assertEquals(1, evaluationCount.get());
+        assertEquals(1, feedEvaluationCache.getHitCount());
+    }
+}
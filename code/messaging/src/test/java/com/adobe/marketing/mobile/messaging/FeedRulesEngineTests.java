@@ -17,6 +17,9 @@ import com.adobe.marketing.mobile.EventType;
 import com.adobe.marketing.mobile.ExtensionApi;
 import com.adobe.marketing.mobile.launch.rulesengine.LaunchRule;
 import com.adobe.marketing.mobile.launch.rulesengine.json.JSONRulesParser;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -34,6 +37,8 @@ public class FeedRulesEngineTests {
 
     private FeedRulesEngine feedRulesEngine;
 
+    private final Surface packageSurface = Surface.fromUriString("mobileapp://mockPackageName");
+
     private Event defaultEvent =
             new Event.Builder("event", EventType.GENERIC_TRACK, EventSource.REQUEST_CONTENT)
                     .setEventData(
@@ -52,7 +57,7 @@ public class FeedRulesEngineTests {
     @Test(expected = IllegalArgumentException.class)
     public void test_evaluate_WithNullEvent() {
         // test
-        feedRulesEngine.evaluate(null);
+        feedRulesEngine.evaluate(null, Collections.singletonList(packageSurface));
     }
 
     @Test
@@ -65,10 +70,10 @@ public class FeedRulesEngineTests {
 
         // test
         Map<Surface, List<PropositionItem>> propositionItemsBySurface =
-                feedRulesEngine.evaluate(defaultEvent);
+                feedRulesEngine.evaluate(defaultEvent, Collections.singletonList(packageSurface));
 
         // verify
-        Assert.assertNull(propositionItemsBySurface);
+        Assert.assertTrue(propositionItemsBySurface.isEmpty());
     }
 
     @Test
@@ -81,7 +86,7 @@ public class FeedRulesEngineTests {
 
         // test
         Map<Surface, List<PropositionItem>> propositionItemsBySurface =
-                feedRulesEngine.evaluate(defaultEvent);
+                feedRulesEngine.evaluate(defaultEvent, Collections.singletonList(packageSurface));
 
         // verify
         Assert.assertNotNull(propositionItemsBySurface);
@@ -98,13 +103,12 @@ public class FeedRulesEngineTests {
 
         // test
         Map<Surface, List<PropositionItem>> propositionItemsBySurface =
-                feedRulesEngine.evaluate(defaultEvent);
+                feedRulesEngine.evaluate(defaultEvent, Collections.singletonList(packageSurface));
 
         // verify
         Assert.assertNotNull(propositionItemsBySurface);
         Assert.assertEquals(1, propositionItemsBySurface.size());
-        List<PropositionItem> inboundMessageList =
-                propositionItemsBySurface.get(Surface.fromUriString("mobileapp://mockPackageName"));
+        List<PropositionItem> inboundMessageList = propositionItemsBySurface.get(packageSurface);
         Assert.assertNotNull(inboundMessageList);
         Assert.assertEquals(1, inboundMessageList.size());
         Assert.assertEquals(SchemaType.FEED, inboundMessageList.get(0).getSchema());
@@ -119,17 +123,16 @@ public class FeedRulesEngineTests {
         Assert.assertNotNull(rulesJson);
         List<LaunchRule> rules = JSONRulesParser.parse(rulesJson, mockExtensionApi);
         feedRulesEngine.replaceRules(rules);
+        Surface feedSurface = Surface.fromUriString("mobileapp://com.feeds.testing/feeds/apifeed");
 
         // test
         Map<Surface, List<PropositionItem>> propositionItemsBySurface =
-                feedRulesEngine.evaluate(defaultEvent);
+                feedRulesEngine.evaluate(defaultEvent, Collections.singletonList(feedSurface));
 
         // verify
         Assert.assertNotNull(propositionItemsBySurface);
         Assert.assertEquals(1, propositionItemsBySurface.size());
-        List<PropositionItem> inboundMessageList =
-                propositionItemsBySurface.get(
-                        Surface.fromUriString("mobileapp://com.feeds.testing/feeds/apifeed"));
+        List<PropositionItem> inboundMessageList = propositionItemsBySurface.get(feedSurface);
         Assert.assertNotNull(inboundMessageList);
         Assert.assertEquals(2, inboundMessageList.size());
     }
@@ -145,27 +148,74 @@ public class FeedRulesEngineTests {
 
         // test
         Map<Surface, List<PropositionItem>> propositionItemsBySurface =
-                feedRulesEngine.evaluate(defaultEvent);
+                feedRulesEngine.evaluate(defaultEvent, Collections.singletonList(packageSurface));
 
         // verify
         Assert.assertTrue(propositionItemsBySurface.isEmpty());
     }
 
     @Test
-    public void test_evaluate_WithMissingSurfaceInConsequencesDetailMetadata() {
+    public void test_evaluateSurfaces_onlyRequestedSurfacesEvaluated() {
         // setup
         String rulesJson =
                 MessagingTestUtils.loadStringFromFile(
-                        "feedPropositionContentMissingSurfaceMetadata.json");
+                        "feedPropositionContentFeedItemConsequences.json");
         Assert.assertNotNull(rulesJson);
         List<LaunchRule> rules = JSONRulesParser.parse(rulesJson, mockExtensionApi);
         feedRulesEngine.replaceRules(rules);
+        Surface feedSurface = Surface.fromUriString("mobileapp://com.feeds.testing/feeds/apifeed");
+        Surface otherSurface = Surface.fromUriString("mobileapp://com.feeds.testing/feeds/other");
 
         // test
-        Map<Surface, List<PropositionItem>> propositionItemsBySurface =
-                feedRulesEngine.evaluate(defaultEvent);
+        Map<Surface, List<PropositionItem>> otherSurfaceItems =
+                feedRulesEngine.evaluate(defaultEvent, Collections.singletonList(otherSurface));
+        Map<Surface, List<PropositionItem>> feedSurfaceItems =
+                feedRulesEngine.evaluate(defaultEvent, Arrays.asList(feedSurface, otherSurface));
 
         // verify
-        Assert.assertTrue(propositionItemsBySurface.isEmpty());
+        Assert.assertTrue(otherSurfaceItems.isEmpty());
+        Assert.assertEquals(0, feedRulesEngine.getSurfaceRuleCount(otherSurface));
+        Assert.assertTrue(feedRulesEngine.getSurfaceRuleCount(feedSurface) > 0);
+        Assert.assertEquals(1, feedSurfaceItems.size());
+        Assert.assertEquals(2, feedSurfaceItems.get(feedSurface).size());
+    }
+
+    @Test
+    public void test_evaluateSurfaces_rulesReplaced_surfaceRemoved() {
+        // setup
+        String rulesJson = MessagingTestUtils.loadStringFromFile("feedPropositionContent.json");
+        Assert.assertNotNull(rulesJson);
+        List<LaunchRule> rules = JSONRulesParser.parse(rulesJson, mockExtensionApi);
+        feedRulesEngine.replaceRules(rules);
+        Assert.assertEquals(1, feedRulesEngine.getSurfaceRuleCount(packageSurface));
+
+        // test
+        feedRulesEngine.replaceRules(new ArrayList<>());
+
+        // verify
+        Assert.assertEquals(0, feedRulesEngine.getSurfaceRuleCount(packageSurface));
+        Assert.assertTrue(
+                feedRulesEngine
+                        .evaluate(defaultEvent, Collections.singletonList(packageSurface))
+                        .isEmpty());
+    }
+
+    @Test
+    public void test_evaluateSurfaces_missingSurfaceMetadata_ruleNotLoadedForAnySurface() {
+        // setup
+        String rulesJson =
+                MessagingTestUtils.loadStringFromFile(
+                        "feedPropositionContentMissingSurfaceMetadata.json");
+        Assert.assertNotNull(rulesJson);
+        List<LaunchRule> rules = JSONRulesParser.parse(rulesJson, mockExtensionApi);
+
+        // test
+        feedRulesEngine.replaceRules(rules);
+
+        // verify
+        Assert.assertTrue(
+                feedRulesEngine
+                        .evaluate(defaultEvent, Collections.singletonList(packageSurface))
+                        .isEmpty());
     }
 }
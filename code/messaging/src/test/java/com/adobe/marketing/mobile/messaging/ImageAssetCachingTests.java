@@ -236,6 +236,33 @@ public class ImageAssetCachingTests {
                 });
     }
 
+    @Test
+    public void testCacheImageAssets_RetainedAssetNotCached_DownloadedAfterNewAssets() {
+        // setup
+        setupServiceProviderMockAndRunTest(
+                () -> {
+                    ArgumentCaptor<NetworkRequest> networkRequestArgumentCaptor =
+                            ArgumentCaptor.forClass(NetworkRequest.class);
+                    final List<String> imageAssets = new ArrayList<>();
+                    imageAssets.add(IMAGE_URL2);
+                    imageAssets.add(IMAGE_URL);
+                    final List<String> newImageAssets = new ArrayList<>();
+                    newImageAssets.add(IMAGE_URL);
+                    // test
+                    messagingCacheUtilities.cacheImageAssets(imageAssets, newImageAssets);
+                    // verify the retained asset missing from the cache is requested after the new
+                    // asset
+                    verify(mockNetworkService, times(2))
+                            .connectAsync(
+                                    networkRequestArgumentCaptor.capture(),
+                                    any(NetworkCallback.class));
+                    List<NetworkRequest> networkRequestList =
+                            networkRequestArgumentCaptor.getAllValues();
+                    assertEquals(IMAGE_URL, networkRequestList.get(0).getUrl());
+                    assertEquals(IMAGE_URL2, networkRequestList.get(1).getUrl());
+                });
+    }
+
     @Test
     public void testGetAssetMap() {
         // setup
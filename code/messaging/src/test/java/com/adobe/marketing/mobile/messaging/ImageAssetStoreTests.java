@@ -0,0 +1,252 @@
+/*
+  Copyright 2024 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+package com.adobe.marketing.mobile.messaging;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.adobe.marketing.mobile.services.caching.CacheEntry;
+import com.adobe.marketing.mobile.services.caching.CacheResult;
+import com.adobe.marketing.mobile.services.caching.CacheService;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+@RunWith(MockitoJUnitRunner.Silent.class)
+public class ImageAssetStoreTests {
+    private static final String CACHE_LOCATION = "testCache/messaging/images";
+    private static final String FIRST_ASSET = "https://www.adobe.com/first.png";
+    private static final String SECOND_ASSET = "https://www.adobe.com/second.png";
+    private static final String THIRD_ASSET = "https://www.adobe.com/third.png";
+    private static final long MAX_AGE_MILLIS = 1000;
+
+    @Mock CacheService mockCacheService;
+    @Mock PresentableMessageMapper mockPresentableMessageMapper;
+
+    private ImageAssetStore imageAssetStore;
+    private final List<String> evictedUrls = new ArrayList<>();
+
+    @Before
+    public void setup() {
+        imageAssetStore =
+                new ImageAssetStore(
+                        mockCacheService,
+                        CACHE_LOCATION,
+                        mockPresentableMessageMapper,
+                        100,
+                        MAX_AGE_MILLIS);
+        imageAssetStore.setEvictionListener(evictedUrls::addAll);
+    }
+
+    @Test
+    public void test_onAssetCached_tracksBytesStored() {
+        // test
+        imageAssetStore.onAssetCached(FIRST_ASSET, 40);
+        imageAssetStore.onAssetCached(SECOND_ASSET, 30);
+        imageAssetStore.onAssetCached(FIRST_ASSET, 50);
+
+        // verify
+        assertEquals(80, imageAssetStore.getBytesStored());
+        assertEquals(2, imageAssetStore.getAssetCount());
+        verify(mockCacheService, never()).remove(anyString(), anyString());
+    }
+
+    @Test
+    public void test_onAssetCached_notifiesCacheListener() {
+        // setup
+        final List<String> cachedUrls = new ArrayList<>();
+        imageAssetStore.setCacheListener(cachedUrls::add);
+
+        // test
+        imageAssetStore.onAssetCached(FIRST_ASSET, 40);
+        imageAssetStore.onAssetFound(SECOND_ASSET, 30, System.currentTimeMillis());
+
+        // verify
+        assertEquals(Collections.singletonList(FIRST_ASSET), cachedUrls);
+    }
+
+    @Test
+    public void test_onAssetCached_overBudget_evictsLeastRecentlyUsedAsset() {
+        // setup
+        final long now = System.currentTimeMillis();
+        imageAssetStore.onAssetFound(FIRST_ASSET, 40, now - 300);
+        imageAssetStore.onAssetFound(SECOND_ASSET, 40, now - 200);
+
+        // test
+        imageAssetStore.onAssetCached(THIRD_ASSET, 40);
+
+        // verify
+        assertEquals(Collections.singletonList(FIRST_ASSET), evictedUrls);
+        verify(mockCacheService).remove(CACHE_LOCATION, FIRST_ASSET);
+        assertEquals(80, imageAssetStore.getBytesStored());
+        assertEquals(1, imageAssetStore.getEvictedCount());
+    }
+
+    @Test
+    public void test_trim_usesLastPresentedTimestamps() {
+        // setup
+        final long now = System.currentTimeMillis();
+        imageAssetStore.onAssetFound(FIRST_ASSET, 40, now - 300);
+        imageAssetStore.onAssetFound(SECOND_ASSET, 40, now - 200);
+        when(mockPresentableMessageMapper.getAssetLastPresentedTimestamp(FIRST_ASSET))
+                .thenReturn(now - 100);
+
+        // test
+        imageAssetStore.onAssetCached(THIRD_ASSET, 40);
+
+        // verify
+        assertEquals(Collections.singletonList(SECOND_ASSET), evictedUrls);
+        assertTrue(imageAssetStore.contains(FIRST_ASSET));
+    }
+
+    @Test
+    public void test_trim_evictsExpiredAssets() {
+        // setup
+        final long now = System.currentTimeMillis();
+        imageAssetStore.onAssetFound(FIRST_ASSET, 10, now - 2 * MAX_AGE_MILLIS);
+        imageAssetStore.onAssetFound(SECOND_ASSET, 10, now);
+
+        // test
+        imageAssetStore.trim(now);
+
+        // verify
+        assertEquals(Collections.singletonList(FIRST_ASSET), evictedUrls);
+        assertFalse(imageAssetStore.contains(FIRST_ASSET));
+        assertEquals(10, imageAssetStore.getBytesStored());
+    }
+
+    @Test
+    public void test_onAssetsRequested_countsHitsAndMisses() {
+        // setup
+        imageAssetStore.onAssetCached(FIRST_ASSET, 10);
+
+        // test
+        imageAssetStore.onAssetsRequested(Arrays.asList(FIRST_ASSET, SECOND_ASSET));
+        imageAssetStore.onAssetsRequested(Collections.singletonList(FIRST_ASSET));
+
+        // verify
+        assertEquals(2, imageAssetStore.getHitCount());
+        assertEquals(1, imageAssetStore.getMissCount());
+        assertEquals(2.0 / 3, imageAssetStore.getHitRatio(), 0.001);
+    }
+
+    @Test
+    public void test_onAssetsRequested_refreshesLastUsedTime() {
+        // setup
+        final long now = System.currentTimeMillis();
+        imageAssetStore.onAssetFound(FIRST_ASSET, 10, now - 2 * MAX_AGE_MILLIS);
+
+        // test
+        imageAssetStore.onAssetsRequested(Collections.singletonList(FIRST_ASSET));
+        imageAssetStore.trim();
+
+        // verify
+        assertTrue(imageAssetStore.contains(FIRST_ASSET));
+    }
+
+    @Test
+    public void test_onAssetFound_doesNotReplaceTrackedAsset() {
+        // setup
+        imageAssetStore.onAssetCached(FIRST_ASSET, 10);
+
+        // test
+        imageAssetStore.onAssetFound(FIRST_ASSET, 50, 0);
+
+        // verify
+        assertEquals(10, imageAssetStore.getBytesStored());
+        assertTrue(imageAssetStore.contains(FIRST_ASSET));
+    }
+
+    @Test
+    public void test_onAssetFound_usesLastUsedTimePersistedInPreviousSession() throws IOException {
+        // setup
+        final long now = System.currentTimeMillis();
+        final ArgumentCaptor<CacheEntry> cacheEntryCaptor =
+                ArgumentCaptor.forClass(CacheEntry.class);
+        imageAssetStore.onAssetFound(FIRST_ASSET, 10, now - 5 * MAX_AGE_MILLIS);
+        imageAssetStore.onAssetsRequested(Collections.singletonList(FIRST_ASSET));
+        imageAssetStore.persistUsage();
+        verify(mockCacheService)
+                .set(
+                        eq(MessagingTestConstants.CACHE_BASE_DIR),
+                        eq(MessagingTestConstants.IMAGES_USAGE_CACHE_KEY),
+                        cacheEntryCaptor.capture());
+        final byte[] persistedUsage = readBytes(cacheEntryCaptor.getValue().getData());
+        final CacheResult mockCacheResult = mock(CacheResult.class);
+        when(mockCacheResult.getData())
+                .thenAnswer(invocation -> new ByteArrayInputStream(persistedUsage));
+        when(mockCacheService.get(
+                        MessagingTestConstants.CACHE_BASE_DIR,
+                        MessagingTestConstants.IMAGES_USAGE_CACHE_KEY))
+                .thenReturn(mockCacheResult);
+        final ImageAssetStore nextSessionStore =
+                new ImageAssetStore(
+                        mockCacheService,
+                        CACHE_LOCATION,
+                        mockPresentableMessageMapper,
+                        100,
+                        MAX_AGE_MILLIS);
+
+        // test
+        nextSessionStore.onAssetFound(FIRST_ASSET, 10, now - 5 * MAX_AGE_MILLIS);
+        nextSessionStore.trim(now);
+
+        // verify the asset is not evicted for the age of its cache file
+        assertTrue(nextSessionStore.contains(FIRST_ASSET));
+        verify(mockCacheService, never()).remove(anyString(), anyString());
+    }
+
+    @Test
+    public void test_retainAll_stopsTrackingAssetsNoLongerRetained() {
+        // setup
+        imageAssetStore.onAssetCached(FIRST_ASSET, 10);
+        imageAssetStore.onAssetCached(SECOND_ASSET, 20);
+
+        // test
+        imageAssetStore.retainAll(Collections.singletonList(SECOND_ASSET));
+
+        // verify
+        assertFalse(imageAssetStore.contains(FIRST_ASSET));
+        assertEquals(20, imageAssetStore.getBytesStored());
+        assertTrue(evictedUrls.isEmpty());
+        verify(mockPresentableMessageMapper)
+                .retainAssetPresentations(Collections.singleton(SECOND_ASSET));
+    }
+
+    private static byte[] readBytes(final InputStream inputStream) throws IOException {
+        final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        final byte[] buffer = new byte[1024];
+        int read;
+        while ((read = inputStream.read(buffer)) != -1) {
+            outputStream.write(buffer, 0, read);
+        }
+        return outputStream.toByteArray();
+    }
+}
@@ -1253,6 +1253,34 @@ public class InternalMessagingUtilsTests {
         assertEquals("ending-event-id", result);
     }
 
+    // ========================================================================================
+    // isSharedStateChangeEvent
+    // ========================================================================================
+    @Test
+    public void test_isSharedStateChangeEvent() {
+        // setup
+        final Event sharedStateEvent =
+                new Event.Builder(
+                                "Shared state change",
+                                EventType.HUB,
+                                "com.adobe.eventSource.sharedState")
+                        .build();
+        final Event xdmSharedStateEvent =
+                new Event.Builder(
+                                "Shared state change (XDM)",
+                                EventType.HUB,
+                                "com.adobe.eventSource.xdmSharedState")
+                        .build();
+        final Event otherEvent =
+                new Event.Builder("event", EventType.HUB, EventSource.REQUEST_CONTENT).build();
+
+        // test and verify
+        assertTrue(InternalMessagingUtils.isSharedStateChangeEvent(sharedStateEvent));
+        assertTrue(InternalMessagingUtils.isSharedStateChangeEvent(xdmSharedStateEvent));
+        assertFalse(InternalMessagingUtils.isSharedStateChangeEvent(otherEvent));
+        assertFalse(InternalMessagingUtils.isSharedStateChangeEvent(null));
+    }
+
     // ========================================================================================
     // Error Event creation
     // ========================================================================================
@@ -11,7 +11,9 @@
 
 package com.adobe.marketing.mobile.messaging;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
@@ -39,6 +41,7 @@ import java.net.HttpURLConnection;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.Map;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
@@ -392,4 +395,103 @@ public class MessageAssetDownloaderTests {
                             .set(eq(expectedCacheLocation), eq(assetUrl), any(CacheEntry.class));
                 });
     }
+
+    @Test
+    public void testDownloadAssetCollection_when_cachedAssetIsFresh_then_assetIsNotRequested() {
+        // setup
+        setupServiceProviderMockAndRunTest(
+                () -> {
+                    final HashMap<String, String> metadata = new HashMap<>();
+                    metadata.put(
+                            MessagingConstants.METADATA_FRESH_UNTIL,
+                            String.valueOf(System.currentTimeMillis() + 60000));
+                    when(mockCacheResult.getMetadata()).thenReturn(metadata);
+
+                    // test
+                    messageAssetsDownloader.downloadAssetCollection();
+
+                    // verify
+                    verify(mockCacheService, times(1)).get(eq(expectedCacheLocation), eq(assetUrl));
+                    verify(mockNetworkService, times(0))
+                            .connectAsync(any(NetworkRequest.class), any(NetworkCallback.class));
+                });
+    }
+
+    @Test
+    public void
+            testDownloadAssetCollection_when_notModifiedWithMaxAge_then_freshnessIsExtended() {
+        // setup
+        setupServiceProviderMockAndRunTest(
+                () -> {
+                    final HashMap<String, String> metadata = new HashMap<>();
+                    metadata.put(MessagingConstants.HTTP_HEADER_ETAG, "etag");
+                    when(mockCacheResult.getMetadata()).thenReturn(metadata);
+                    when(mockCacheResult.getData())
+                            .thenReturn(
+                                    new ByteArrayInputStream(
+                                            "assetData".getBytes(StandardCharsets.UTF_8)));
+                    when(mockHttpConnection.getResponseCode())
+                            .thenReturn(HttpURLConnection.HTTP_NOT_MODIFIED);
+                    when(mockHttpConnection.getResponsePropertyValue(
+                                    MessagingConstants.HTTP_HEADER_CACHE_CONTROL))
+                            .thenReturn("public, max-age=3600");
+                    doAnswer(
+                                    (Answer<Void>)
+                                            invocation -> {
+                                                NetworkCallback callback =
+                                                        invocation.getArgument(1);
+                                                callback.call(mockHttpConnection);
+                                                return null;
+                                            })
+                            .when(mockNetworkService)
+                            .connectAsync(any(NetworkRequest.class), any(NetworkCallback.class));
+                    final ImageAssetStore imageAssetStore =
+                            new ImageAssetStore(mockCacheService, expectedCacheLocation, null);
+                    imageAssetStore.onAssetFound(assetUrl, 9, System.currentTimeMillis());
+                    messageAssetsDownloader =
+                            new MessageAssetDownloader(
+                                    assets, assets, new AssetPrefetchQueue(), imageAssetStore);
+
+                    // test
+                    messageAssetsDownloader.downloadAssetCollection();
+                    messageAssetsDownloader.downloadAssetCollection();
+
+                    // verify the freshness is extended without rewriting the cached asset, so
+                    // the asset is not requested again
+                    verify(mockCacheService, times(0))
+                            .set(eq(expectedCacheLocation), eq(assetUrl), any(CacheEntry.class));
+                    verify(mockNetworkService, times(1))
+                            .connectAsync(any(NetworkRequest.class), any(NetworkCallback.class));
+                    assertTrue(imageAssetStore.isFresh(assetUrl, System.currentTimeMillis()));
+                });
+    }
+
+    @Test
+    public void testParseMaxAge() {
+        assertEquals(3600, MessageAssetDownloader.parseMaxAge("public, max-age=3600"));
+        assertEquals(60, MessageAssetDownloader.parseMaxAge("MAX-AGE=\"60\""));
+        assertEquals(0, MessageAssetDownloader.parseMaxAge("max-age=3600, no-cache"));
+        assertEquals(0, MessageAssetDownloader.parseMaxAge("no-store"));
+        assertEquals(0, MessageAssetDownloader.parseMaxAge("max-age=invalid"));
+        assertEquals(0, MessageAssetDownloader.parseMaxAge("max-age=-5"));
+        assertEquals(0, MessageAssetDownloader.parseMaxAge(null));
+    }
+
+    @Test
+    public void testIsFresh() {
+        final long now = System.currentTimeMillis();
+        final HashMap<String, String> metadata = new HashMap<>();
+        metadata.put(MessagingConstants.METADATA_FRESH_UNTIL, String.valueOf(now + 1));
+        assertTrue(MessageAssetDownloader.isFresh(cacheResultWithMetadata(metadata), now));
+        assertFalse(MessageAssetDownloader.isFresh(cacheResultWithMetadata(metadata), now + 1));
+        assertFalse(
+                MessageAssetDownloader.isFresh(cacheResultWithMetadata(new HashMap<>()), now));
+        assertFalse(MessageAssetDownloader.isFresh(null, now));
+    }
+
+    private static CacheResult cacheResultWithMetadata(final Map<String, String> metadata) {
+        final CacheResult cacheResult = mock(CacheResult.class);
+        when(cacheResult.getMetadata()).thenReturn(metadata);
+        return cacheResult;
+    }
 }
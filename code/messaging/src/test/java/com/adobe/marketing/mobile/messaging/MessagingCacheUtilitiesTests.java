@@ -27,6 +27,7 @@ import static org.mockito.Mockito.when;
 
 import com.adobe.marketing.mobile.services.DeviceInforming;
 import com.adobe.marketing.mobile.services.ServiceProvider;
+import com.adobe.marketing.mobile.services.caching.CacheEntry;
 import com.adobe.marketing.mobile.services.caching.CacheResult;
 import com.adobe.marketing.mobile.services.caching.CacheService;
 import java.io.ByteArrayInputStream;
@@ -46,6 +47,8 @@ import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.mockito.MockedConstruction;
 import org.mockito.MockedStatic;
@@ -55,6 +58,13 @@ import org.mockito.junit.MockitoJUnitRunner;
 
 @RunWith(MockitoJUnitRunner.Silent.class)
 public class MessagingCacheUtilitiesTests {
+    private static final String SURFACE_URI = "mobileapp://mockPackageName";
+    private static final String OTHER_SURFACE_URI = "mobileapp://mockPackageName/other";
+    private static final String SURFACE_CACHE_KEY =
+            MessagingTestConstants.PROPOSITIONS_SURFACE_CACHE_KEY_PREFIX + SURFACE_URI;
+    private static final String OTHER_SURFACE_CACHE_KEY =
+            MessagingTestConstants.PROPOSITIONS_SURFACE_CACHE_KEY_PREFIX + OTHER_SURFACE_URI;
+
     @Mock CacheService mockCacheService;
     @Mock ServiceProvider mockServiceProvider;
     @Mock CacheResult mockCacheResult;
@@ -171,6 +181,7 @@ public class MessagingCacheUtilitiesTests {
                     .when(ServiceProvider::getInstance)
                     .thenReturn(mockServiceProvider);
             when(mockServiceProvider.getCacheService()).thenReturn(mockCacheService);
+            when(mockCacheService.set(anyString(), anyString(), any())).thenReturn(true);
             when(mockServiceProvider.getDeviceInfoService()).thenReturn(mockDeviceInfoService);
             when(mockDeviceInfoService.getApplicationCacheDir()).thenReturn(cacheDir);
             when(mockDeviceInfoService.getApplicationPackageName()).thenReturn("mockPackageName");
@@ -222,7 +233,9 @@ public class MessagingCacheUtilitiesTests {
         runWithMockedServiceProvider(
                 () -> {
                     // setup
-                    when(mockCacheService.get(anyString(), anyString()))
+                    when(mockCacheService.get(
+                                    eq(MessagingTestConstants.CACHE_BASE_DIR),
+                                    eq(MessagingTestConstants.PROPOSITIONS_CACHE_SUBDIRECTORY)))
                             .thenReturn(mockCacheResult);
                     when(mockCacheResult.getMetadata()).thenReturn(fakeMetaData);
                     when(mockCacheResult.getData()).thenReturn(propositionPayloadInputStream);
@@ -232,7 +245,10 @@ public class MessagingCacheUtilitiesTests {
                             messagingCacheUtilities.getCachedPropositions();
 
                     // verify
-                    verify(mockCacheService, times(1)).get(anyString(), anyString());
+                    verify(mockCacheService, times(1))
+                            .get(
+                                    eq(MessagingTestConstants.CACHE_BASE_DIR),
+                                    eq(MessagingTestConstants.PROPOSITIONS_CACHE_SUBDIRECTORY));
                     assertNotNull(retrievedPayload);
                     assertEquals(1, retrievedPayload.size());
                 });
@@ -243,7 +259,9 @@ public class MessagingCacheUtilitiesTests {
         runWithMockedServiceProvider(
                 () -> {
                     // setup
-                    when(mockCacheService.get(anyString(), anyString()))
+                    when(mockCacheService.get(
+                                    eq(MessagingTestConstants.CACHE_BASE_DIR),
+                                    eq(MessagingTestConstants.PROPOSITIONS_CACHE_SUBDIRECTORY)))
                             .thenReturn(mockCacheResult);
                     when(mockCacheResult.getMetadata()).thenReturn(fakeMetaData);
                     when(mockCacheResult.getData()).thenReturn(propositionInputStream);
@@ -253,9 +271,228 @@ public class MessagingCacheUtilitiesTests {
                             messagingCacheUtilities.getCachedPropositions();
 
                     // verify
-                    verify(mockCacheService, times(1)).get(anyString(), anyString());
+                    verify(mockCacheService, times(1))
+                            .get(
+                                    eq(MessagingTestConstants.CACHE_BASE_DIR),
+                                    eq(MessagingTestConstants.PROPOSITIONS_CACHE_SUBDIRECTORY));
+                    assertNotNull(retrievedPayload);
+                    assertEquals(1, retrievedPayload.size());
+                    // verify legacy cache migrated to per-surface cache entries
+                    verifyLegacyCacheMigrated();
+                });
+    }
+
+    @Test
+    public void testGetCachedPropositions_WhenPropositionsPreviouslyCachedInSingleEntry()
+            throws IOException {
+        final List<Proposition> list = new ArrayList<>();
+        list.add(proposition);
+        final Map<Surface, List<Proposition>> propositions = new HashMap<>();
+        propositions.put(Surface.fromUriString("mobileapp://mockPackageName"), list);
+        final byte[] encodedPropositions = PropositionCacheCodec.encode(propositions);
+
+        runWithMockedServiceProvider(
+                () -> {
+                    // setup
+                    when(mockCacheService.get(
+                                    eq(MessagingTestConstants.CACHE_BASE_DIR),
+                                    eq(MessagingTestConstants.PROPOSITIONS_CACHE_SUBDIRECTORY)))
+                            .thenReturn(mockCacheResult);
+                    when(mockCacheResult.getMetadata()).thenReturn(fakeMetaData);
+                    when(mockCacheResult.getData())
+                            .thenReturn(new ByteArrayInputStream(encodedPropositions));
+
+                    // test
+                    final Map<Surface, List<Proposition>> retrievedPayload =
+                            messagingCacheUtilities.getCachedPropositions();
+
+                    // verify
                     assertNotNull(retrievedPayload);
                     assertEquals(1, retrievedPayload.size());
+                    final Proposition retrievedProposition =
+                            retrievedPayload
+                                    .get(Surface.fromUriString("mobileapp://mockPackageName"))
+                                    .get(0);
+                    assertEquals(proposition.getUniqueId(), retrievedProposition.getUniqueId());
+                    assertEquals(proposition.getScope(), retrievedProposition.getScope());
+                    assertEquals(proposition, retrievedProposition);
+                    // verify legacy cache migrated to per-surface cache entries
+                    verifyLegacyCacheMigrated();
+                });
+    }
+
+    @Test
+    public void testGetCachedPropositions_WhenPropositionIndexExists() throws IOException {
+        final CacheResult indexCacheResult =
+                cacheResultWithData(
+                        PropositionCacheCodec.encodeIndex(Arrays.asList(SURFACE_URI)));
+        final CacheResult surfaceCacheResult =
+                cacheResultWithData(
+                        PropositionCacheCodec.encodeSurface(
+                                Surface.fromUriString(SURFACE_URI), Arrays.asList(proposition)));
+
+        runWithMockedServiceProvider(
+                () -> {
+                    // setup
+                    when(mockCacheService.get(
+                                    eq(MessagingTestConstants.CACHE_BASE_DIR),
+                                    eq(MessagingTestConstants.PROPOSITIONS_INDEX_CACHE_KEY)))
+                            .thenReturn(indexCacheResult);
+                    when(mockCacheService.get(
+                                    eq(MessagingTestConstants.CACHE_BASE_DIR),
+                                    eq(SURFACE_CACHE_KEY)))
+                            .thenReturn(surfaceCacheResult);
+
+                    // test
+                    final Map<Surface, List<Proposition>> retrievedPayload =
+                            messagingCacheUtilities.getCachedPropositions();
+
+                    // verify
+                    assertNotNull(retrievedPayload);
+                    assertEquals(1, retrievedPayload.size());
+                    assertEquals(
+                            proposition.getUniqueId(),
+                            retrievedPayload
+                                    .get(Surface.fromUriString(SURFACE_URI))
+                                    .get(0)
+                                    .getUniqueId());
+                    // verify legacy entry not read
+                    verify(mockCacheService, times(0))
+                            .get(
+                                    eq(MessagingTestConstants.CACHE_BASE_DIR),
+                                    eq(MessagingTestConstants.PROPOSITIONS_CACHE_SUBDIRECTORY));
+                    verify(mockCacheService, times(0)).set(anyString(), anyString(), any());
+                });
+    }
+
+    @Test
+    public void testGetCachedSurfaces_WhenPropositionIndexExists() throws IOException {
+        final CacheResult indexCacheResult =
+                cacheResultWithData(
+                        PropositionCacheCodec.encodeIndex(
+                                Arrays.asList(SURFACE_URI, OTHER_SURFACE_URI)));
+
+        runWithMockedServiceProvider(
+                () -> {
+                    // setup
+                    when(mockCacheService.get(
+                                    eq(MessagingTestConstants.CACHE_BASE_DIR),
+                                    eq(MessagingTestConstants.PROPOSITIONS_INDEX_CACHE_KEY)))
+                            .thenReturn(indexCacheResult);
+
+                    // test
+                    final List<Surface> cachedSurfaces =
+                            messagingCacheUtilities.getCachedSurfaces();
+
+                    // verify
+                    assertEquals(
+                            Arrays.asList(
+                                    Surface.fromUriString(SURFACE_URI),
+                                    Surface.fromUriString(OTHER_SURFACE_URI)),
+                            cachedSurfaces);
+                    // verify the surface entries are not read
+                    verify(mockCacheService, times(0))
+                            .get(eq(MessagingTestConstants.CACHE_BASE_DIR), eq(SURFACE_CACHE_KEY));
+                });
+    }
+
+    @Test
+    public void testGetCachedSurfaces_WhenPropositionsPreviouslyCachedInSingleEntry()
+            throws IOException {
+        final Map<Surface, List<Proposition>> propositions = new HashMap<>();
+        propositions.put(Surface.fromUriString(SURFACE_URI), Arrays.asList(proposition));
+        final byte[] encodedPropositions = PropositionCacheCodec.encode(propositions);
+
+        runWithMockedServiceProvider(
+                () -> {
+                    // setup
+                    when(mockCacheService.get(
+                                    eq(MessagingTestConstants.CACHE_BASE_DIR),
+                                    eq(MessagingTestConstants.PROPOSITIONS_CACHE_SUBDIRECTORY)))
+                            .thenReturn(mockCacheResult);
+                    when(mockCacheResult.getMetadata()).thenReturn(fakeMetaData);
+                    when(mockCacheResult.getData())
+                            .thenReturn(new ByteArrayInputStream(encodedPropositions));
+
+                    // test
+                    final List<Surface> cachedSurfaces =
+                            messagingCacheUtilities.getCachedSurfaces();
+
+                    // verify
+                    assertEquals(
+                            Collections.singletonList(Surface.fromUriString(SURFACE_URI)),
+                            cachedSurfaces);
+                    // verify legacy cache migrated to per-surface cache entries
+                    verifyLegacyCacheMigrated();
+                });
+    }
+
+    @Test
+    public void testGetCachedSurfaces_ReturnsEmptyList_WhenNoPropositionsCached() {
+        runWithMockedServiceProvider(
+                () -> {
+                    // test
+                    final List<Surface> cachedSurfaces =
+                            messagingCacheUtilities.getCachedSurfaces();
+
+                    // verify
+                    assertTrue(cachedSurfaces.isEmpty());
+                });
+    }
+
+    @Test
+    public void testGetCachedPropositions_ForSurface() throws IOException {
+        final CacheResult surfaceCacheResult =
+                cacheResultWithData(
+                        PropositionCacheCodec.encodeSurface(
+                                Surface.fromUriString(SURFACE_URI), Arrays.asList(proposition)));
+
+        runWithMockedServiceProvider(
+                () -> {
+                    // setup
+                    when(mockCacheService.get(
+                                    eq(MessagingTestConstants.CACHE_BASE_DIR),
+                                    eq(SURFACE_CACHE_KEY)))
+                            .thenReturn(surfaceCacheResult);
+
+                    // test
+                    final List<Proposition> retrievedPropositions =
+                            messagingCacheUtilities.getCachedPropositions(
+                                    Surface.fromUriString(SURFACE_URI));
+
+                    // verify
+                    assertEquals(1, retrievedPropositions.size());
+                    assertEquals(
+                            proposition.getUniqueId(), retrievedPropositions.get(0).getUniqueId());
+                    // verify the proposition index is not read
+                    verify(mockCacheService, times(0))
+                            .get(
+                                    eq(MessagingTestConstants.CACHE_BASE_DIR),
+                                    eq(MessagingTestConstants.PROPOSITIONS_INDEX_CACHE_KEY));
+                });
+    }
+
+    @Test
+    public void testGetCachedPropositions_ReturnsNull_WhenIndexedSurfaceEntryIsMissing()
+            throws IOException {
+        final CacheResult indexCacheResult =
+                cacheResultWithData(
+                        PropositionCacheCodec.encodeIndex(Arrays.asList(SURFACE_URI)));
+
+        runWithMockedServiceProvider(
+                () -> {
+                    // setup
+                    when(mockCacheService.get(
+                                    eq(MessagingTestConstants.CACHE_BASE_DIR),
+                                    eq(MessagingTestConstants.PROPOSITIONS_INDEX_CACHE_KEY)))
+                            .thenReturn(indexCacheResult);
+
+                    // test
+                    final Map<Surface, List<Proposition>> retrievedPayload =
+                            messagingCacheUtilities.getCachedPropositions();
+
+                    // verify
+                    assertNull(retrievedPayload);
                 });
     }
 
@@ -264,14 +501,19 @@ public class MessagingCacheUtilitiesTests {
         runWithMockedServiceProvider(
                 () -> {
                     // setup
-                    when(mockCacheService.get(anyString(), anyString())).thenReturn(null);
+                    when(mockCacheService.get(
+                                    eq(MessagingTestConstants.CACHE_BASE_DIR),
+                                    eq(MessagingTestConstants.PROPOSITIONS_CACHE_SUBDIRECTORY))).thenReturn(null);
 
                     // test
                     final Map<Surface, List<Proposition>> retrievedPayload =
                             messagingCacheUtilities.getCachedPropositions();
 
                     // verify
-                    verify(mockCacheService, times(1)).get(anyString(), anyString());
+                    verify(mockCacheService, times(1))
+                            .get(
+                                    eq(MessagingTestConstants.CACHE_BASE_DIR),
+                                    eq(MessagingTestConstants.PROPOSITIONS_CACHE_SUBDIRECTORY));
                     assertNull(retrievedPayload);
                 });
     }
@@ -281,7 +523,9 @@ public class MessagingCacheUtilitiesTests {
         runWithMockedServiceProvider(
                 () -> {
                     // setup
-                    when(mockCacheService.get(anyString(), anyString()))
+                    when(mockCacheService.get(
+                                    eq(MessagingTestConstants.CACHE_BASE_DIR),
+                                    eq(MessagingTestConstants.PROPOSITIONS_CACHE_SUBDIRECTORY)))
                             .thenReturn(mockCacheResult);
                     when(mockCacheResult.getMetadata()).thenReturn(fakeMetaData);
                     when(mockCacheResult.getData()).thenReturn(null);
@@ -291,7 +535,10 @@ public class MessagingCacheUtilitiesTests {
                             messagingCacheUtilities.getCachedPropositions();
 
                     // verify
-                    verify(mockCacheService, times(1)).get(anyString(), anyString());
+                    verify(mockCacheService, times(1))
+                            .get(
+                                    eq(MessagingTestConstants.CACHE_BASE_DIR),
+                                    eq(MessagingTestConstants.PROPOSITIONS_CACHE_SUBDIRECTORY));
                     assertNull(retrievedPayload);
                 });
     }
@@ -301,9 +548,12 @@ public class MessagingCacheUtilitiesTests {
         runWithMockedServiceProvider(
                 () -> {
                     // setup
-                    when(mockCacheService.get(anyString(), anyString()))
+                    when(mockCacheService.get(
+                                    eq(MessagingTestConstants.CACHE_BASE_DIR),
+                                    eq(MessagingTestConstants.PROPOSITIONS_CACHE_SUBDIRECTORY)))
                             .thenReturn(mockCacheResult);
                     when(mockCacheResult.getMetadata()).thenReturn(fakeMetaData);
+                    when(mockCacheResult.getData()).thenReturn(propositionInputStream);
                     try (MockedConstruction<ObjectInputStream> objectInputStreamMockedConstruction =
                             Mockito.mockConstruction(
                                     ObjectInputStream.class,
@@ -315,7 +565,12 @@ public class MessagingCacheUtilitiesTests {
                                 messagingCacheUtilities.getCachedPropositions();
 
                         // verify
-                        verify(mockCacheService, times(1)).get(anyString(), anyString());
+                        verify(mockCacheService, times(1))
+                                .get(
+                                        eq(MessagingTestConstants.CACHE_BASE_DIR),
+                                        eq(
+                                                MessagingTestConstants
+                                                        .PROPOSITIONS_CACHE_SUBDIRECTORY));
                         assertNull(retrievedPayload);
                     }
                 });
@@ -327,9 +582,12 @@ public class MessagingCacheUtilitiesTests {
         runWithMockedServiceProvider(
                 () -> {
                     // setup
-                    when(mockCacheService.get(anyString(), anyString()))
+                    when(mockCacheService.get(
+                                    eq(MessagingTestConstants.CACHE_BASE_DIR),
+                                    eq(MessagingTestConstants.PROPOSITIONS_CACHE_SUBDIRECTORY)))
                             .thenReturn(mockCacheResult);
                     when(mockCacheResult.getMetadata()).thenReturn(fakeMetaData);
+                    when(mockCacheResult.getData()).thenReturn(propositionInputStream);
                     try (MockedConstruction<ObjectInputStream> objectInputStreamMockedConstruction =
                             Mockito.mockConstruction(
                                     ObjectInputStream.class,
@@ -343,7 +601,12 @@ public class MessagingCacheUtilitiesTests {
                                 messagingCacheUtilities.getCachedPropositions();
 
                         // verify
-                        verify(mockCacheService, times(1)).get(anyString(), anyString());
+                        verify(mockCacheService, times(1))
+                                .get(
+                                        eq(MessagingTestConstants.CACHE_BASE_DIR),
+                                        eq(
+                                                MessagingTestConstants
+                                                        .PROPOSITIONS_CACHE_SUBDIRECTORY));
                         assertNull(retrievedPayload);
                     }
                 });
@@ -355,9 +618,12 @@ public class MessagingCacheUtilitiesTests {
         runWithMockedServiceProvider(
                 () -> {
                     // setup
-                    when(mockCacheService.get(anyString(), anyString()))
+                    when(mockCacheService.get(
+                                    eq(MessagingTestConstants.CACHE_BASE_DIR),
+                                    eq(MessagingTestConstants.PROPOSITIONS_CACHE_SUBDIRECTORY)))
                             .thenReturn(mockCacheResult);
                     when(mockCacheResult.getMetadata()).thenReturn(fakeMetaData);
+                    when(mockCacheResult.getData()).thenReturn(propositionInputStream);
                     try (MockedConstruction<ObjectInputStream> objectInputStreamMockedConstruction =
                             Mockito.mockConstruction(
                                     ObjectInputStream.class,
@@ -370,7 +636,12 @@ public class MessagingCacheUtilitiesTests {
                                 messagingCacheUtilities.getCachedPropositions();
 
                         // verify
-                        verify(mockCacheService, times(1)).get(anyString(), anyString());
+                        verify(mockCacheService, times(1))
+                                .get(
+                                        eq(MessagingTestConstants.CACHE_BASE_DIR),
+                                        eq(
+                                                MessagingTestConstants
+                                                        .PROPOSITIONS_CACHE_SUBDIRECTORY));
                         assertNull(retrievedPayload);
                     }
                 });
@@ -381,9 +652,12 @@ public class MessagingCacheUtilitiesTests {
         runWithMockedServiceProvider(
                 () -> {
                     // setup
-                    when(mockCacheService.get(anyString(), anyString()))
+                    when(mockCacheService.get(
+                                    eq(MessagingTestConstants.CACHE_BASE_DIR),
+                                    eq(MessagingTestConstants.PROPOSITIONS_CACHE_SUBDIRECTORY)))
                             .thenReturn(mockCacheResult);
                     when(mockCacheResult.getMetadata()).thenReturn(fakeMetaData);
+                    when(mockCacheResult.getData()).thenReturn(propositionInputStream);
                     try (MockedConstruction<ObjectInputStream> objectInputStreamMockedConstruction =
                             Mockito.mockConstruction(
                                     ObjectInputStream.class,
@@ -396,7 +670,12 @@ public class MessagingCacheUtilitiesTests {
                                 messagingCacheUtilities.getCachedPropositions();
 
                         // verify
-                        verify(mockCacheService, times(1)).get(anyString(), anyString());
+                        verify(mockCacheService, times(1))
+                                .get(
+                                        eq(MessagingTestConstants.CACHE_BASE_DIR),
+                                        eq(
+                                                MessagingTestConstants
+                                                        .PROPOSITIONS_CACHE_SUBDIRECTORY));
                         assertNull(retrievedPayload);
                     }
                 });
@@ -408,7 +687,9 @@ public class MessagingCacheUtilitiesTests {
         runWithMockedServiceProvider(
                 () -> {
                     // setup
-                    when(mockCacheService.get(anyString(), anyString()))
+                    when(mockCacheService.get(
+                                    eq(MessagingTestConstants.CACHE_BASE_DIR),
+                                    eq(MessagingTestConstants.PROPOSITIONS_CACHE_SUBDIRECTORY)))
                             .thenReturn(mockCacheResult);
                     when(mockCacheResult.getMetadata()).thenReturn(fakeMetaData);
                     when(mockCacheResult.getData())
@@ -421,7 +702,10 @@ public class MessagingCacheUtilitiesTests {
                             messagingCacheUtilities.getCachedPropositions();
 
                     // verify
-                    verify(mockCacheService, times(1)).get(anyString(), anyString());
+                    verify(mockCacheService, times(1))
+                            .get(
+                                    eq(MessagingTestConstants.CACHE_BASE_DIR),
+                                    eq(MessagingTestConstants.PROPOSITIONS_CACHE_SUBDIRECTORY));
                     assertNull(retrievedPayload);
                 });
     }
@@ -431,11 +715,6 @@ public class MessagingCacheUtilitiesTests {
         runWithMockedServiceProvider(
                 () -> {
                     // setup
-                    when(mockCacheService.get(anyString(), anyString()))
-                            .thenReturn(mockCacheResult);
-                    when(mockCacheResult.getMetadata()).thenReturn(fakeMetaData);
-                    when(mockCacheResult.getData()).thenReturn(propositionInputStream);
-
                     final List<Proposition> list = new ArrayList<>();
                     list.add(proposition);
                     final Map<Surface, List<Proposition>> propositions = new HashMap<>();
@@ -448,20 +727,78 @@ public class MessagingCacheUtilitiesTests {
                     verify(mockCacheService, times(1))
                             .set(
                                     eq(MessagingTestConstants.CACHE_BASE_DIR),
-                                    eq(MessagingTestConstants.PROPOSITIONS_CACHE_SUBDIRECTORY),
+                                    eq(SURFACE_CACHE_KEY),
+                                    any());
+                    verify(mockCacheService, times(1))
+                            .set(
+                                    eq(MessagingTestConstants.CACHE_BASE_DIR),
+                                    eq(MessagingTestConstants.PROPOSITIONS_INDEX_CACHE_KEY),
                                     any());
                 });
     }
 
     @Test
-    public void testCachePropositionPayload_WithSurfacesToRemove() {
+    public void testCachePropositionPayload_OnlyWritesUpdatedSurface() throws IOException {
+        final CacheResult indexCacheResult =
+                cacheResultWithData(
+                        PropositionCacheCodec.encodeIndex(
+                                Arrays.asList(SURFACE_URI, OTHER_SURFACE_URI)));
+
         runWithMockedServiceProvider(
                 () -> {
                     // setup
-                    when(mockCacheService.get(anyString(), anyString()))
-                            .thenReturn(mockCacheResult);
-                    when(mockCacheResult.getMetadata()).thenReturn(fakeMetaData);
-                    when(mockCacheResult.getData()).thenReturn(propositionInputStream);
+                    when(mockCacheService.get(
+                                    eq(MessagingTestConstants.CACHE_BASE_DIR),
+                                    eq(MessagingTestConstants.PROPOSITIONS_INDEX_CACHE_KEY)))
+                            .thenReturn(indexCacheResult);
+
+                    final List<Proposition> list = new ArrayList<>();
+                    list.add(proposition);
+                    final Map<Surface, List<Proposition>> propositions = new HashMap<>();
+                    propositions.put(new Surface(), list);
+
+                    // test
+                    messagingCacheUtilities.cachePropositions(propositions, Collections.EMPTY_LIST);
+
+                    // verify only the updated surface entry is written
+                    verify(mockCacheService, times(1))
+                            .set(
+                                    eq(MessagingTestConstants.CACHE_BASE_DIR),
+                                    eq(SURFACE_CACHE_KEY),
+                                    any());
+                    // verify other surface entries are not read or written
+                    verify(mockCacheService, times(0))
+                            .get(
+                                    eq(MessagingTestConstants.CACHE_BASE_DIR),
+                                    eq(OTHER_SURFACE_CACHE_KEY));
+                    verify(mockCacheService, times(0))
+                            .set(
+                                    eq(MessagingTestConstants.CACHE_BASE_DIR),
+                                    eq(OTHER_SURFACE_CACHE_KEY),
+                                    any());
+                    // verify index is unchanged
+                    verify(mockCacheService, times(0))
+                            .set(
+                                    eq(MessagingTestConstants.CACHE_BASE_DIR),
+                                    eq(MessagingTestConstants.PROPOSITIONS_INDEX_CACHE_KEY),
+                                    any());
+                });
+    }
+
+    @Test
+    public void testCachePropositionPayload_WithSurfacesToRemove() throws IOException {
+        final CacheResult indexCacheResult =
+                cacheResultWithData(
+                        PropositionCacheCodec.encodeIndex(
+                                Arrays.asList(SURFACE_URI, OTHER_SURFACE_URI)));
+
+        runWithMockedServiceProvider(
+                () -> {
+                    // setup
+                    when(mockCacheService.get(
+                                    eq(MessagingTestConstants.CACHE_BASE_DIR),
+                                    eq(MessagingTestConstants.PROPOSITIONS_INDEX_CACHE_KEY)))
+                            .thenReturn(indexCacheResult);
 
                     final List<Proposition> list = new ArrayList<>();
                     list.add(proposition);
@@ -476,23 +813,60 @@ public class MessagingCacheUtilitiesTests {
                     verify(mockCacheService, times(0))
                             .set(
                                     eq(MessagingTestConstants.CACHE_BASE_DIR),
-                                    eq(MessagingTestConstants.PROPOSITIONS_CACHE_SUBDIRECTORY),
+                                    eq(SURFACE_CACHE_KEY),
+                                    any());
+                    verify(mockCacheService, times(1))
+                            .remove(
+                                    eq(MessagingTestConstants.CACHE_BASE_DIR),
+                                    eq(SURFACE_CACHE_KEY));
+                    verify(mockCacheService, times(0))
+                            .remove(
+                                    eq(MessagingTestConstants.CACHE_BASE_DIR),
+                                    eq(OTHER_SURFACE_CACHE_KEY));
+                    verify(mockCacheService, times(1))
+                            .set(
+                                    eq(MessagingTestConstants.CACHE_BASE_DIR),
+                                    eq(MessagingTestConstants.PROPOSITIONS_INDEX_CACHE_KEY),
                                     any());
                 });
     }
 
     @Test
-    public void testCachePropositionPayload_EmptyPropositions() {
+    public void testCachePropositionPayload_RemovesIndex_WhenAllSurfacesRemoved()
+            throws IOException {
+        final CacheResult indexCacheResult =
+                cacheResultWithData(
+                        PropositionCacheCodec.encodeIndex(Arrays.asList(SURFACE_URI)));
+
         runWithMockedServiceProvider(
                 () -> {
                     // setup
-                    when(mockCacheService.get(anyString(), anyString()))
-                            .thenReturn(mockCacheResult);
-                    when(mockCacheResult.getMetadata()).thenReturn(fakeMetaData);
-                    when(mockCacheResult.getData()).thenReturn(null);
+                    when(mockCacheService.get(
+                                    eq(MessagingTestConstants.CACHE_BASE_DIR),
+                                    eq(MessagingTestConstants.PROPOSITIONS_INDEX_CACHE_KEY)))
+                            .thenReturn(indexCacheResult);
 
-                    final List<Proposition> list = new ArrayList<>();
-                    list.add(proposition);
+                    // test
+                    messagingCacheUtilities.cachePropositions(
+                            new HashMap<>(), Arrays.asList(new Surface()));
+
+                    // verify cache cleared as no propositions were present
+                    verify(mockCacheService, times(1))
+                            .remove(
+                                    eq(MessagingTestConstants.CACHE_BASE_DIR),
+                                    eq(MessagingTestConstants.PROPOSITIONS_INDEX_CACHE_KEY));
+                    verify(mockCacheService, times(1))
+                            .remove(
+                                    eq(MessagingTestConstants.CACHE_BASE_DIR),
+                                    eq(SURFACE_CACHE_KEY));
+                });
+    }
+
+    @Test
+    public void testCachePropositionPayload_EmptyPropositions() {
+        runWithMockedServiceProvider(
+                () -> {
+                    // setup
                     final Map<Surface, List<Proposition>> propositions = new HashMap<>();
 
                     // test
@@ -502,33 +876,62 @@ public class MessagingCacheUtilitiesTests {
                     verify(mockCacheService, times(1))
                             .remove(
                                     eq(MessagingTestConstants.CACHE_BASE_DIR),
-                                    eq(MessagingTestConstants.PROPOSITIONS_CACHE_SUBDIRECTORY));
+                                    eq(MessagingTestConstants.PROPOSITIONS_INDEX_CACHE_KEY));
+                    verify(mockCacheService, times(0)).set(anyString(), anyString(), any());
                 });
     }
 
     @Test
-    public void
-            testCachePropositionPayload_DoesNotSetCache_WhenIOExceptionOccursWhenWritingObject() {
+    public void testCachePropositionPayload_MigratesLegacyCache() {
         runWithMockedServiceProvider(
                 () -> {
                     // setup
-                    when(mockCacheService.get(anyString(), anyString()))
+                    when(mockCacheService.get(
+                                    eq(MessagingTestConstants.CACHE_BASE_DIR),
+                                    eq(MessagingTestConstants.PROPOSITIONS_CACHE_SUBDIRECTORY)))
                             .thenReturn(mockCacheResult);
                     when(mockCacheResult.getMetadata()).thenReturn(fakeMetaData);
                     when(mockCacheResult.getData()).thenReturn(propositionInputStream);
-                    try (MockedConstruction<ObjectOutputStream>
-                            objectOutputStreamMockedConstruction =
-                                    Mockito.mockConstruction(
-                                            ObjectOutputStream.class,
-                                            (mock, context) -> {
-                                                doThrow(new IOException())
-                                                        .when(mock)
-                                                        .writeObject(any(Map.class));
-                                            })) {
+
+                    final List<Proposition> list = new ArrayList<>();
+                    list.add(proposition);
+                    final Map<Surface, List<Proposition>> propositions = new HashMap<>();
+                    propositions.put(Surface.fromUriString(OTHER_SURFACE_URI), list);
+
+                    // test
+                    messagingCacheUtilities.cachePropositions(propositions, Collections.EMPTY_LIST);
+
+                    // verify legacy propositions migrated and new surface entry written
+                    verifyLegacyCacheMigrated();
+                    verify(mockCacheService, times(1))
+                            .set(
+                                    eq(MessagingTestConstants.CACHE_BASE_DIR),
+                                    eq(OTHER_SURFACE_CACHE_KEY),
+                                    any());
+                    verify(mockCacheService, times(2))
+                            .set(
+                                    eq(MessagingTestConstants.CACHE_BASE_DIR),
+                                    eq(MessagingTestConstants.PROPOSITIONS_INDEX_CACHE_KEY),
+                                    any());
+                });
+    }
+
+    @Test
+    public void testCachePropositionPayload_DoesNotSetCache_WhenIOExceptionOccursWhenEncoding() {
+        runWithMockedServiceProvider(
+                () -> {
+                    // setup
+                    try (MockedStatic<PropositionCacheCodec> codecMockedStatic =
+                            Mockito.mockStatic(
+                                    PropositionCacheCodec.class, Mockito.CALLS_REAL_METHODS)) {
+                        codecMockedStatic
+                                .when(() -> PropositionCacheCodec.encodeSurface(any(), any()))
+                                .thenThrow(new IOException());
 
                         final List<Proposition> list = new ArrayList<>();
                         list.add(proposition);
                         final Map<Surface, List<Proposition>> propositions = new HashMap<>();
+                        propositions.put(new Surface(), list);
 
                         // test
                         messagingCacheUtilities.cachePropositions(
@@ -541,48 +944,158 @@ public class MessagingCacheUtilitiesTests {
     }
 
     @Test
-    public void
-            testCachePropositionPayload_SetsCache_WhenIOExceptionOccursWhenClosingObjectOutputStream() {
+    public void testCachePropositionPayload_CachedDataCanBeRetrieved() {
         runWithMockedServiceProvider(
                 () -> {
                     // setup
-                    when(mockCacheService.get(anyString(), anyString()))
-                            .thenReturn(mockCacheResult);
-                    when(mockCacheResult.getMetadata()).thenReturn(fakeMetaData);
-                    when(mockCacheResult.getData()).thenReturn(propositionInputStream);
-                    try (MockedConstruction<ObjectOutputStream>
-                            objectOutputStreamMockedConstruction =
-                                    Mockito.mockConstruction(
-                                            ObjectOutputStream.class,
-                                            (mock, context) -> {
-                                                doThrow(new IOException()).when(mock).close();
-                                            })) {
-                        final List<Proposition> list = new ArrayList<>();
-                        list.add(proposition);
-                        final Map<Surface, List<Proposition>> propositions = new HashMap<>();
+                    final List<Proposition> list = new ArrayList<>();
+                    list.add(proposition);
+                    final Map<Surface, List<Proposition>> propositions = new HashMap<>();
+                    propositions.put(new Surface(), list);
 
-                        // test
-                        messagingCacheUtilities.cachePropositions(
-                                propositions, Collections.EMPTY_LIST);
+                    // test
+                    messagingCacheUtilities.cachePropositions(propositions, Collections.EMPTY_LIST);
 
-                        // verify
-                        verify(mockCacheService, times(1))
-                                .set(
-                                        eq(MessagingTestConstants.CACHE_BASE_DIR),
-                                        eq(MessagingTestConstants.PROPOSITIONS_CACHE_SUBDIRECTORY),
-                                        any());
-                    }
+                    // verify
+                    final ArgumentCaptor<CacheEntry> surfaceEntryCaptor =
+                            ArgumentCaptor.forClass(CacheEntry.class);
+                    verify(mockCacheService, times(1))
+                            .set(
+                                    eq(MessagingTestConstants.CACHE_BASE_DIR),
+                                    eq(SURFACE_CACHE_KEY),
+                                    surfaceEntryCaptor.capture());
+                    final ArgumentCaptor<CacheEntry> indexEntryCaptor =
+                            ArgumentCaptor.forClass(CacheEntry.class);
+                    verify(mockCacheService, times(1))
+                            .set(
+                                    eq(MessagingTestConstants.CACHE_BASE_DIR),
+                                    eq(MessagingTestConstants.PROPOSITIONS_INDEX_CACHE_KEY),
+                                    indexEntryCaptor.capture());
+                    when(mockCacheService.get(
+                                    eq(MessagingTestConstants.CACHE_BASE_DIR),
+                                    eq(MessagingTestConstants.PROPOSITIONS_INDEX_CACHE_KEY)))
+                            .thenReturn(
+                                    cacheResultWithData(
+                                            readBytes(indexEntryCaptor.getValue().getData())));
+                    when(mockCacheService.get(
+                                    eq(MessagingTestConstants.CACHE_BASE_DIR),
+                                    eq(SURFACE_CACHE_KEY)))
+                            .thenReturn(
+                                    cacheResultWithData(
+                                            readBytes(surfaceEntryCaptor.getValue().getData())));
+                    final Map<Surface, List<Proposition>> retrievedPayload =
+                            messagingCacheUtilities.getCachedPropositions();
+                    assertNotNull(retrievedPayload);
+                    assertEquals(list, retrievedPayload.get(new Surface()));
                 });
     }
 
     @Test
-    public void testClearCache() {
+    public void testGetCachedPropositions_SweepsSurfaceEntries_WhenIndexIsCorrupt()
+            throws IOException {
+        final CacheResult corruptIndexCacheResult = cacheResultWithData(new byte[] {1, 2, 3});
+        final CacheResult backupIndexCacheResult =
+                cacheResultWithData(
+                        PropositionCacheCodec.encodeIndex(
+                                Arrays.asList(SURFACE_URI, OTHER_SURFACE_URI)));
+
         runWithMockedServiceProvider(
                 () -> {
+                    // setup
+                    when(mockCacheService.get(
+                                    eq(MessagingTestConstants.CACHE_BASE_DIR),
+                                    eq(MessagingTestConstants.PROPOSITIONS_INDEX_CACHE_KEY)))
+                            .thenReturn(corruptIndexCacheResult);
+                    when(mockCacheService.get(
+                                    eq(MessagingTestConstants.CACHE_BASE_DIR),
+                                    eq(
+                                            MessagingTestConstants
+                                                    .PROPOSITIONS_INDEX_BACKUP_CACHE_KEY)))
+                            .thenReturn(backupIndexCacheResult);
+
+                    // test
+                    final Map<Surface, List<Proposition>> retrievedPayload =
+                            messagingCacheUtilities.getCachedPropositions();
+
+                    // verify orphaned surface entries and both index entries are removed
+                    assertNull(retrievedPayload);
+                    verify(mockCacheService, times(1))
+                            .remove(
+                                    eq(MessagingTestConstants.CACHE_BASE_DIR),
+                                    eq(SURFACE_CACHE_KEY));
+                    verify(mockCacheService, times(1))
+                            .remove(
+                                    eq(MessagingTestConstants.CACHE_BASE_DIR),
+                                    eq(OTHER_SURFACE_CACHE_KEY));
+                    verify(mockCacheService, times(1))
+                            .remove(
+                                    eq(MessagingTestConstants.CACHE_BASE_DIR),
+                                    eq(MessagingTestConstants.PROPOSITIONS_INDEX_CACHE_KEY));
+                    verify(mockCacheService, times(1))
+                            .remove(
+                                    eq(MessagingTestConstants.CACHE_BASE_DIR),
+                                    eq(
+                                            MessagingTestConstants
+                                                    .PROPOSITIONS_INDEX_BACKUP_CACHE_KEY));
+                });
+    }
+
+    @Test
+    public void testCachePropositionPayload_WritesBackupIndexBeforeIndex() {
+        runWithMockedServiceProvider(
+                () -> {
+                    // setup
+                    final List<Proposition> list = new ArrayList<>();
+                    list.add(proposition);
+                    final Map<Surface, List<Proposition>> propositions = new HashMap<>();
+                    propositions.put(new Surface(), list);
+
+                    // test
+                    messagingCacheUtilities.cachePropositions(propositions, Collections.EMPTY_LIST);
+
+                    // verify
+                    final InOrder inOrder = Mockito.inOrder(mockCacheService);
+                    inOrder.verify(mockCacheService)
+                            .set(
+                                    eq(MessagingTestConstants.CACHE_BASE_DIR),
+                                    eq(
+                                            MessagingTestConstants
+                                                    .PROPOSITIONS_INDEX_BACKUP_CACHE_KEY),
+                                    any());
+                    inOrder.verify(mockCacheService)
+                            .set(
+                                    eq(MessagingTestConstants.CACHE_BASE_DIR),
+                                    eq(MessagingTestConstants.PROPOSITIONS_INDEX_CACHE_KEY),
+                                    any());
+                });
+    }
+
+    @Test
+    public void testClearCache() throws IOException {
+        final CacheResult indexCacheResult =
+                cacheResultWithData(
+                        PropositionCacheCodec.encodeIndex(Arrays.asList(SURFACE_URI)));
+
+        runWithMockedServiceProvider(
+                () -> {
+                    // setup
+                    when(mockCacheService.get(
+                                    eq(MessagingTestConstants.CACHE_BASE_DIR),
+                                    eq(MessagingTestConstants.PROPOSITIONS_INDEX_CACHE_KEY)))
+                            .thenReturn(indexCacheResult);
+
                     // test
                     messagingCacheUtilities.clearCachedData();
 
                     // verify
+                    verify(mockCacheService, times(1))
+                            .remove(
+                                    eq(MessagingTestConstants.CACHE_BASE_DIR),
+                                    eq(SURFACE_CACHE_KEY));
+                    verify(mockCacheService, times(1))
+                            .remove(
+                                    eq(MessagingTestConstants.CACHE_BASE_DIR),
+                                    eq(MessagingTestConstants.PROPOSITIONS_INDEX_CACHE_KEY));
                     verify(mockCacheService, times(1))
                             .remove(
                                     eq(MessagingTestConstants.CACHE_BASE_DIR),
@@ -591,6 +1104,39 @@ public class MessagingCacheUtilitiesTests {
                             .remove(
                                     eq(MessagingTestConstants.CACHE_BASE_DIR),
                                     eq(MessagingTestConstants.IMAGES_CACHE_SUBDIRECTORY));
+                    verify(mockCacheService, times(1))
+                            .remove(
+                                    eq(MessagingTestConstants.CACHE_BASE_DIR),
+                                    eq(MessagingTestConstants.IMAGES_USAGE_CACHE_KEY));
                 });
     }
+
+    private CacheResult cacheResultWithData(final byte[] data) {
+        final CacheResult cacheResult = Mockito.mock(CacheResult.class);
+        when(cacheResult.getData()).thenAnswer(invocation -> new ByteArrayInputStream(data));
+        return cacheResult;
+    }
+
+    private byte[] readBytes(final InputStream inputStream) {
+        final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        final byte[] buffer = new byte[1024];
+        int read;
+        try {
+            while ((read = inputStream.read(buffer)) != -1) {
+                outputStream.write(buffer, 0, read);
+            }
+        } catch (final IOException exception) {
+            return new byte[0];
+        }
+        return outputStream.toByteArray();
+    }
+
+    private void verifyLegacyCacheMigrated() {
+        verify(mockCacheService, times(1))
+                .set(eq(MessagingTestConstants.CACHE_BASE_DIR), eq(SURFACE_CACHE_KEY), any());
+        verify(mockCacheService, times(1))
+                .remove(
+                        eq(MessagingTestConstants.CACHE_BASE_DIR),
+                        eq(MessagingTestConstants.PROPOSITIONS_CACHE_SUBDIRECTORY));
+    }
 }
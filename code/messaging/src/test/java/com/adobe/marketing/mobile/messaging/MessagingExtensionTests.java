@@ -196,6 +196,12 @@ public class MessagingExtensionTests {
                     // test
                     messagingExtension.onRegistered();
 
+                    // verify only the proposition cache index is read
+                    verify(mockEdgePersonalizationResponseHandler, times(1))
+                            .loadCachedPropositionIndex();
+                    verify(mockEdgePersonalizationResponseHandler, times(0))
+                            .loadCachedPropositions(any());
+
                     // verify 6 listeners are registered
                     verify(mockExtensionApi, times(1))
                             .registerEventListener(
@@ -414,6 +420,8 @@ public class MessagingExtensionTests {
 
                     // verify
                     assertTrue(messagingExtension.readyForEvent(testEvent));
+                    verify(mockEdgePersonalizationResponseHandler, times(0))
+                            .loadCachedPropositions(any());
                 });
     }
 
@@ -451,6 +459,8 @@ public class MessagingExtensionTests {
 
                     // verify
                     assertFalse(messagingExtension.readyForEvent(testEvent));
+                    verify(mockEdgePersonalizationResponseHandler, times(0))
+                            .loadCachedPropositions(any());
                 });
     }
 
@@ -510,12 +520,71 @@ public class MessagingExtensionTests {
                     when(mockEvent.getEventData()).thenReturn(eventData);
                     when(mockEvent.getType()).thenReturn(EventType.GENERIC_TRACK);
                     when(mockEvent.getSource()).thenReturn(EventSource.REQUEST_CONTENT);
+                    when(mockEdgePersonalizationResponseHandler.mayMatchInAppRules(mockEvent))
+                            .thenReturn(true);
 
                     // test
                     messagingExtension.handleWildcardEvents(mockEvent);
 
-                    // verify rules engine processes event
+                    // verify cached propositions are loaded and rules engine processes event
+                    verify(mockEdgePersonalizationResponseHandler, times(1))
+                            .loadCachedPropositions(null);
+                    verify(mockEdgePersonalizationResponseHandler, times(1))
+                            .prebuildInAppMessagesIfAssetsCached();
                     verify(mockMessagingRulesEngine, times(1)).processEvent(eq(mockEvent));
+                    verify(mockEdgePersonalizationResponseHandler, times(0))
+                            .flushCachedPropositions();
+                });
+    }
+
+    @Test
+    public void test_handleWildcardEvents_when_eventCannotMatchInAppRules() {
+        // setup
+        runUsingMockedServiceProvider(
+                () -> {
+                    Map<String, Object> eventData = new HashMap<>();
+                    eventData.put("key", "value");
+                    Event mockEvent = mock(Event.class);
+                    when(mockEvent.getEventData()).thenReturn(eventData);
+                    when(mockEvent.getType()).thenReturn(EventType.GENERIC_TRACK);
+                    when(mockEvent.getSource()).thenReturn(EventSource.REQUEST_CONTENT);
+                    when(mockEdgePersonalizationResponseHandler.mayMatchInAppRules(mockEvent))
+                            .thenReturn(false);
+
+                    // test
+                    messagingExtension.handleWildcardEvents(mockEvent);
+
+                    // verify rules engine does not process event
+                    verify(mockMessagingRulesEngine, times(0)).processEvent(any());
+                });
+    }
+
+    @Test
+    public void test_handleWildcardEvents_when_lifecyclePauseEventReceived() {
+        // setup
+        runUsingMockedServiceProvider(
+                () -> {
+                    Map<String, Object> eventData = new HashMap<>();
+                    eventData.put(
+                            MessagingTestConstants.EventDataKeys.Lifecycle.LIFECYCLE_ACTION_KEY,
+                            MessagingTestConstants.EventDataKeys.Lifecycle.LIFECYCLE_PAUSE);
+                    Event testEvent =
+                            new Event.Builder(
+                                            "LifecyclePause",
+                                            EventType.GENERIC_LIFECYCLE,
+                                            EventSource.REQUEST_CONTENT)
+                                    .setEventData(eventData)
+                                    .build();
+                    when(mockEdgePersonalizationResponseHandler.mayMatchInAppRules(testEvent))
+                            .thenReturn(true);
+
+                    // test
+                    messagingExtension.handleWildcardEvents(testEvent);
+
+                    // verify queued propositions are persisted and rules engine processes event
+                    verify(mockEdgePersonalizationResponseHandler, times(1))
+                            .flushCachedPropositions();
+                    verify(mockMessagingRulesEngine, times(1)).processEvent(eq(testEvent));
                 });
     }
 
@@ -1452,6 +1521,40 @@ public class MessagingExtensionTests {
                 });
     }
 
+    @Test
+    public void test_processEvent_messageTrackingEvent_repeatedInteraction_xdmParsedOnce() {
+        runUsingMockedServiceProvider(
+                () -> {
+                    // setup
+                    mockConfigSharedState();
+                    final String adobeXdm =
+                            "{\"cjm\": {\"_experience\": {\"customerJourneyManagement\": {"
+                                    + " \"trackingkey\": \"trackingValue\"}}}}";
+                    final ArgumentCaptor<Event> eventCaptor = ArgumentCaptor.forClass(Event.class);
+
+                    // test
+                    messagingExtension.processEvent(
+                            samplePushTrackingEvent(
+                                    "pushClicked", "messageId", "actionId", true, adobeXdm));
+                    messagingExtension.processEvent(
+                            samplePushTrackingEvent(
+                                    "pushClicked", "messageId", "actionId", true, adobeXdm));
+
+                    // verify each interaction is tracked
+                    verify(mockExtensionApi, times(4)).dispatch(eventCaptor.capture());
+                    final List<Event> dispatchedEvents = eventCaptor.getAllValues();
+                    assertEquals("Push tracking edge event", dispatchedEvents.get(1).getName());
+                    assertEquals("Push tracking edge event", dispatchedEvents.get(3).getName());
+
+                    // verify the adobe xdm is parsed once for the push notification
+                    assertEquals(1, messagingExtension.pushTrackingCache.getParseCount());
+                    assertEquals(
+                            "trackingValue",
+                            MessagingTestUtils.flattenMap(dispatchedEvents.get(3).getEventData())
+                                    .get("xdm._experience.customerJourneyManagement.trackingkey"));
+                });
+    }
+
     @Test
     public void test_processEvent_messageTrackingEvent_adobeXDMIsMalformed() {
         runUsingMockedServiceProvider(
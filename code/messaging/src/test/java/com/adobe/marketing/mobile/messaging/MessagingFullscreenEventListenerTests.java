@@ -123,6 +123,7 @@ public class MessagingFullscreenEventListenerTests {
                     verify(mockMessage, times(1)).track(null, MessagingEdgeEventType.DISPLAY);
                     verify(mockMessage, times(1))
                             .recordEventHistory(null, MessagingEdgeEventType.DISPLAY);
+                    verify(mockPresentableMessageMapper, times(1)).recordPresentation(mockMessage);
                 });
     }
 
@@ -175,6 +176,7 @@ public class MessagingFullscreenEventListenerTests {
                     verify(mockMessage, times(1)).track(null, MessagingEdgeEventType.DISMISS);
                     verify(mockMessage, times(1))
                             .recordEventHistory(null, MessagingEdgeEventType.DISMISS);
+                    verify(mockPresentableMessageMapper, times(1)).onMessageDismissed(mockMessage);
                 });
     }
 
@@ -78,6 +78,7 @@ public class MessagingPushBuilderTests {
     public void before() {
         mockUriStringCaptor = ArgumentCaptor.forClass(String.class);
         launchIntentCaptor = ArgumentCaptor.forClass(Intent.class);
+        NotificationResourceRegistry.getInstance().reset();
 
         utils = mockStatic(MessagingPushUtils.class);
         staticMockPendingIntent = mockStatic(PendingIntent.class);
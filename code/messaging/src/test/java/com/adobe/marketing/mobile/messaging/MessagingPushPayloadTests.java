@@ -16,6 +16,7 @@ import static org.mockito.Mockito.when;
 import com.adobe.marketing.mobile.MessagingPushPayload;
 import com.google.firebase.messaging.RemoteMessage;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import org.junit.Assert;
 import org.junit.Test;
@@ -138,9 +139,103 @@ public class MessagingPushPayloadTests {
         Assert.assertEquals(mockData, payload.getData());
     }
 
+    // ========================================================================================
+    // lazy decoding
+    // ========================================================================================
+    @Test
+    public void test_Constructor_with_RemoteMessage_doesNotDecodeOrCopyData() {
+        // setup
+        final Map<String, String> mockDataMap = Mockito.mock(Map.class);
+
+        // test
+        payload = new MessagingPushPayload(createRemoteMessage(mockDataMap));
+
+        // verify
+        Mockito.verify(mockDataMap, Mockito.never()).get(Mockito.any());
+        Assert.assertSame(mockDataMap, payload.getData());
+    }
+
+    @Test
+    public void test_Constructor_with_MapData_copiesData() {
+        // setup
+        mockData = getMockData(false);
+
+        // test
+        payload = new MessagingPushPayload(mockData);
+        mockData.put(MessagingTestConstants.Push.PayloadKeys.TITLE, "updatedTitle");
+
+        // verify
+        Assert.assertNotSame(mockData, payload.getData());
+        Assert.assertEquals(mockTitle, payload.getTitle());
+    }
+
+    @Test
+    public void test_Getters_decodeOnlyTheRequestedField() {
+        // setup
+        final Map<String, String> mockDataMap = Mockito.mock(Map.class);
+        when(mockDataMap.get(MessagingTestConstants.Push.PayloadKeys.TITLE)).thenReturn(mockTitle);
+        payload = new MessagingPushPayload(createRemoteMessage(mockDataMap));
+
+        // test
+        final String title = payload.getTitle();
+
+        // verify
+        Assert.assertEquals(mockTitle, title);
+        Mockito.verify(mockDataMap, Mockito.times(1)).get(Mockito.any());
+    }
+
+    @Test
+    public void test_getActionButtons_parsedOnce() {
+        // setup
+        final Map<String, String> mockDataMap = Mockito.spy(getMockData(false));
+        payload = new MessagingPushPayload(createRemoteMessage(mockDataMap));
+
+        // test
+        final List<MessagingPushPayload.ActionButton> actionButtons = payload.getActionButtons();
+
+        // verify
+        Assert.assertSame(actionButtons, payload.getActionButtons());
+        Mockito.verify(mockDataMap, Mockito.times(1))
+                .get(MessagingTestConstants.Push.PayloadKeys.ACTION_BUTTONS);
+    }
+
+    @Test
+    public void test_NullData_returnsDefaults() {
+        // test
+        payload = new MessagingPushPayload((Map<String, String>) null);
+
+        // verify
+        Assert.assertNull(payload.getTitle());
+        Assert.assertNull(payload.getActionType());
+        Assert.assertEquals(0, payload.getBadgeCount());
+        Assert.assertEquals(0, payload.getNotificationPriority());
+        Assert.assertTrue(payload.getActionButtons().isEmpty());
+    }
+
+    @Test
+    public void test_getBadgeCount_invalidCount_returnsZero() {
+        // setup
+        mockData = getMockData(false);
+        mockData.put(MessagingTestConstants.Push.PayloadKeys.BADGE_NUMBER, "one");
+        payload = new MessagingPushPayload(mockData);
+
+        // test
+        final int badgeCount = payload.getBadgeCount();
+
+        // verify
+        Assert.assertEquals(0, badgeCount);
+    }
+
     // ========================================================================================
     // Helper
     // ========================================================================================
+    private RemoteMessage createRemoteMessage(final Map<String, String> data) {
+        final RemoteMessage mockMessage = Mockito.mock(RemoteMessage.class);
+        when(mockMessage.getMessageId()).thenReturn("mockMessageId");
+        when(mockMessage.getData()).thenReturn(data);
+        return mockMessage;
+    }
+
     private Map<String, String> getMockData(boolean testingMalformedButtonString) {
         Map<String, String> mockData = new HashMap<>();
         mockData.put(MessagingTestConstants.Push.PayloadKeys.TITLE, mockTitle);
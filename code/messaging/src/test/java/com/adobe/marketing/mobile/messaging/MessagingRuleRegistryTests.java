@@ -0,0 +1,229 @@
+/*
+  Copyright 2024 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+package com.adobe.marketing.mobile.messaging;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.reset;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import com.adobe.marketing.mobile.launch.rulesengine.LaunchRule;
+import com.adobe.marketing.mobile.launch.rulesengine.LaunchRulesEngine;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+@RunWith(MockitoJUnitRunner.Silent.class)
+public class MessagingRuleRegistryTests {
+    @Mock LaunchRulesEngine mockLaunchRulesEngine;
+    @Mock LaunchRule mockFirstRule;
+    @Mock LaunchRule mockSecondRule;
+    @Mock LaunchRule mockThirdRule;
+
+    private final ArgumentCaptor<List<LaunchRule>> rulesCaptor =
+            ArgumentCaptor.forClass(List.class);
+    private final Surface surface = Surface.fromUriString("mobileapp://mockPackageName/one");
+    private final Surface otherSurface = Surface.fromUriString("mobileapp://mockPackageName/two");
+    private MessagingRuleRegistry messagingRuleRegistry;
+
+    @Before
+    public void setup() {
+        messagingRuleRegistry = new MessagingRuleRegistry(mockLaunchRulesEngine);
+    }
+
+    @Test
+    public void test_update_firstLoad_replacesRules() {
+        // test
+        final MessagingRuleRegistry.RuleChanges changes =
+                messagingRuleRegistry.update(rulesFor(surface, mockFirstRule), null);
+
+        // verify
+        verify(mockLaunchRulesEngine, times(1)).replaceRules(rulesCaptor.capture());
+        assertEquals(Collections.singletonList(mockFirstRule), rulesCaptor.getValue());
+        assertEquals(Collections.singletonList(mockFirstRule), changes.addedRules);
+        assertEquals(0, changes.removedRuleCount);
+    }
+
+    @Test
+    public void test_update_unchangedRules_doesNotUpdateRulesEngine() {
+        // setup
+        messagingRuleRegistry.update(rulesFor(surface, mockFirstRule), null);
+        reset(mockLaunchRulesEngine);
+
+        // test
+        final MessagingRuleRegistry.RuleChanges changes =
+                messagingRuleRegistry.update(rulesFor(surface, mockFirstRule), new ArrayList<>());
+
+        // verify
+        assertTrue(changes.isEmpty());
+        verify(mockLaunchRulesEngine, times(0)).replaceRules(anyList());
+        verify(mockLaunchRulesEngine, times(0)).addRules(anyList());
+    }
+
+    @Test
+    public void test_getVersion_changesOnlyWhenRulesChange() {
+        // setup
+        messagingRuleRegistry.update(rulesFor(surface, mockFirstRule), null);
+        final long version = messagingRuleRegistry.getVersion();
+
+        // test
+        messagingRuleRegistry.update(rulesFor(surface, mockFirstRule), null);
+        final long unchangedVersion = messagingRuleRegistry.getVersion();
+        messagingRuleRegistry.update(rulesFor(surface, mockSecondRule), null);
+
+        // verify
+        assertEquals(version, unchangedVersion);
+        assertEquals(version + 1, messagingRuleRegistry.getVersion());
+    }
+
+    @Test
+    public void test_update_addedRulesOnly_addsRules() {
+        // setup
+        messagingRuleRegistry.update(rulesFor(surface, mockFirstRule), null);
+        reset(mockLaunchRulesEngine);
+
+        // test
+        final MessagingRuleRegistry.RuleChanges changes =
+                messagingRuleRegistry.update(
+                        rulesFor(otherSurface, mockSecondRule, mockThirdRule), null);
+
+        // verify
+        verify(mockLaunchRulesEngine, times(0)).replaceRules(anyList());
+        verify(mockLaunchRulesEngine, times(1)).addRules(rulesCaptor.capture());
+        assertEquals(Arrays.asList(mockSecondRule, mockThirdRule), rulesCaptor.getValue());
+        assertEquals(Arrays.asList(mockSecondRule, mockThirdRule), changes.addedRules);
+        assertEquals(3, messagingRuleRegistry.getRuleCount());
+    }
+
+    @Test
+    public void test_update_ruleAddedToExistingSurface_addsOnlyNewRule() {
+        // setup
+        messagingRuleRegistry.update(rulesFor(surface, mockFirstRule), null);
+        reset(mockLaunchRulesEngine);
+
+        // test
+        messagingRuleRegistry.update(rulesFor(surface, mockFirstRule, mockSecondRule), null);
+
+        // verify
+        verify(mockLaunchRulesEngine, times(1)).addRules(rulesCaptor.capture());
+        assertEquals(Collections.singletonList(mockSecondRule), rulesCaptor.getValue());
+    }
+
+    @Test
+    public void test_update_rulesReordered_replacesRules() {
+        // setup
+        messagingRuleRegistry.update(rulesFor(surface, mockFirstRule, mockSecondRule), null);
+        reset(mockLaunchRulesEngine);
+
+        // test
+        final MessagingRuleRegistry.RuleChanges changes =
+                messagingRuleRegistry.update(
+                        rulesFor(surface, mockSecondRule, mockFirstRule), null);
+
+        // verify
+        assertFalse(changes.isEmpty());
+        assertTrue(changes.reordered);
+        verify(mockLaunchRulesEngine, times(0)).addRules(anyList());
+        verify(mockLaunchRulesEngine, times(1)).replaceRules(rulesCaptor.capture());
+        assertEquals(Arrays.asList(mockSecondRule, mockFirstRule), rulesCaptor.getValue());
+    }
+
+    @Test
+    public void test_update_ruleAddedBeforeOtherSurface_replacesRules() {
+        // setup
+        messagingRuleRegistry.update(rulesFor(surface, mockFirstRule), null);
+        messagingRuleRegistry.update(rulesFor(otherSurface, mockSecondRule), null);
+        reset(mockLaunchRulesEngine);
+
+        // test
+        messagingRuleRegistry.update(rulesFor(surface, mockFirstRule, mockThirdRule), null);
+
+        // verify
+        verify(mockLaunchRulesEngine, times(0)).addRules(anyList());
+        verify(mockLaunchRulesEngine, times(1)).replaceRules(rulesCaptor.capture());
+        assertEquals(
+                Arrays.asList(mockFirstRule, mockThirdRule, mockSecondRule),
+                rulesCaptor.getValue());
+        assertEquals(rulesCaptor.getValue(), messagingRuleRegistry.getRules());
+    }
+
+    @Test
+    public void test_update_ruleRemoved_replacesRules() {
+        // setup
+        messagingRuleRegistry.update(rulesFor(surface, mockFirstRule, mockSecondRule), null);
+        reset(mockLaunchRulesEngine);
+
+        // test
+        final MessagingRuleRegistry.RuleChanges changes =
+                messagingRuleRegistry.update(rulesFor(surface, mockSecondRule), null);
+
+        // verify
+        verify(mockLaunchRulesEngine, times(1)).replaceRules(rulesCaptor.capture());
+        assertEquals(Collections.singletonList(mockSecondRule), rulesCaptor.getValue());
+        assertTrue(changes.addedRules.isEmpty());
+        assertEquals(1, changes.removedRuleCount);
+    }
+
+    @Test
+    public void test_update_surfaceRemoved_replacesRules() {
+        // setup
+        final Map<Surface, List<LaunchRule>> rules = rulesFor(surface, mockFirstRule);
+        rules.putAll(rulesFor(otherSurface, mockSecondRule));
+        messagingRuleRegistry.update(rules, null);
+        reset(mockLaunchRulesEngine);
+
+        // test
+        final MessagingRuleRegistry.RuleChanges changes =
+                messagingRuleRegistry.update(
+                        new HashMap<>(), Collections.singletonList(otherSurface));
+
+        // verify
+        verify(mockLaunchRulesEngine, times(1)).replaceRules(rulesCaptor.capture());
+        assertEquals(Collections.singletonList(mockFirstRule), rulesCaptor.getValue());
+        assertEquals(1, changes.removedRuleCount);
+        assertEquals(Collections.singletonList(mockFirstRule), messagingRuleRegistry.getRules());
+    }
+
+    @Test
+    public void test_update_unknownSurfaceRemoved_doesNotUpdateRulesEngine() {
+        // setup
+        messagingRuleRegistry.update(rulesFor(surface, mockFirstRule), null);
+        reset(mockLaunchRulesEngine);
+
+        // test
+        final MessagingRuleRegistry.RuleChanges changes =
+                messagingRuleRegistry.update(null, Collections.singletonList(otherSurface));
+
+        // verify
+        assertTrue(changes.isEmpty());
+        verify(mockLaunchRulesEngine, times(0)).replaceRules(anyList());
+    }
+
+    private Map<Surface, List<LaunchRule>> rulesFor(
+            final Surface surface, final LaunchRule... rules) {
+        final Map<Surface, List<LaunchRule>> rulesBySurface = new HashMap<>();
+        rulesBySurface.put(surface, new ArrayList<>(Arrays.asList(rules)));
+        return rulesBySurface;
+    }
+}
@@ -19,7 +19,9 @@ import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.mockStatic;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -158,6 +160,41 @@ public class MessagingServiceTests {
                 () -> MessagingPushBuilder.build(any(MessagingPushPayload.class), eq(context)));
     }
 
+    @Test
+    public void test_handleRemoteMessage_WhenPushNotificationHasImage_RendersProgressively() {
+        // setup
+        when(remoteMessage.getData())
+                .thenReturn(
+                        new HashMap<String, String>() {
+                            {
+                                put("_xdm", "somevalues");
+                                put("adb_title", "Sample Title");
+                                put("adb_image", "https://www.sampleimage.com");
+                            }
+                        });
+        final ProgressivePushRenderer mockRenderer = mock(ProgressivePushRenderer.class);
+        try (MockedStatic<ProgressivePushRenderer> rendererMockedStatic =
+                mockStatic(ProgressivePushRenderer.class)) {
+            rendererMockedStatic.when(ProgressivePushRenderer::getInstance).thenReturn(mockRenderer);
+
+            // test
+            boolean isHandled = MessagingService.handleRemoteMessage(context, remoteMessage);
+
+            // verify
+            assertTrue(isHandled);
+            verify(mockRenderer, times(1))
+                    .render(
+                            eq(context),
+                            any(MessagingPushPayload.class),
+                            eq("someMessageID".hashCode()));
+            pushBuilder.verify(
+                    () -> MessagingPushBuilder.build(any(MessagingPushPayload.class), any()),
+                    never());
+            verify(notificationManager, never()).notify(anyInt(), any());
+            mobileCore.verify(() -> MobileCore.dispatchEvent(any(Event.class)));
+        }
+    }
+
     @Test
     public void test_handleRemoteMessage_WhenNotificationFromAssurance() {
         // setup
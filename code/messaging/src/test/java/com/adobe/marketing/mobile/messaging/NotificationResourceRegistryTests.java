@@ -0,0 +1,185 @@
+/*
+  Copyright 2024 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+package com.adobe.marketing.mobile.messaging;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mockStatic;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import android.app.NotificationChannel;
+import android.app.NotificationManager;
+import android.content.Context;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.MockedStatic;
+import org.mockito.junit.MockitoJUnitRunner;
+
+@RunWith(MockitoJUnitRunner.Silent.class)
+public class NotificationResourceRegistryTests {
+    private static final String CHANNEL_ID = "someChannel";
+
+    @Mock NotificationManager notificationManager;
+    @Mock NotificationChannel channel;
+    @Mock Context context;
+
+    private MockedStatic<MessagingPushUtils> utils;
+    private NotificationResourceRegistry registry;
+
+    @Before
+    public void setup() {
+        utils = mockStatic(MessagingPushUtils.class);
+        when(channel.getId()).thenReturn(CHANNEL_ID);
+        when(channel.getImportance()).thenReturn(NotificationManager.IMPORTANCE_HIGH);
+        when(notificationManager.getNotificationChannel(CHANNEL_ID)).thenReturn(channel);
+        registry = NotificationResourceRegistry.getInstance();
+        registry.reset();
+    }
+
+    @After
+    public void tearDown() {
+        utils.close();
+        registry.reset();
+    }
+
+    @Test
+    public void test_channelExists_foundChannel_notLookedUpAgain() {
+        // test
+        final boolean exists = registry.channelExists(notificationManager, CHANNEL_ID);
+        final boolean existsAgain = registry.channelExists(notificationManager, CHANNEL_ID);
+
+        // verify
+        assertTrue(exists);
+        assertTrue(existsAgain);
+        verify(notificationManager, times(1)).getNotificationChannel(CHANNEL_ID);
+        assertEquals(
+                Integer.valueOf(NotificationManager.IMPORTANCE_HIGH),
+                registry.getChannelImportance(CHANNEL_ID));
+        assertEquals(1, registry.getChannelQueryCount());
+    }
+
+    @Test
+    public void test_channelExists_missingChannel_lookedUpEachTime() {
+        // test
+        final boolean exists = registry.channelExists(notificationManager, "otherChannel");
+        final boolean existsAgain = registry.channelExists(notificationManager, "otherChannel");
+
+        // verify
+        assertFalse(exists);
+        assertFalse(existsAgain);
+        verify(notificationManager, times(2)).getNotificationChannel("otherChannel");
+        assertNull(registry.getChannelImportance("otherChannel"));
+    }
+
+    @Test
+    public void test_channelExists_channelCreatedByApplication_returnsTrue() {
+        // setup
+        when(notificationManager.getNotificationChannel(CHANNEL_ID)).thenReturn(null, channel);
+        registry.channelExists(notificationManager, CHANNEL_ID);
+
+        // test
+        final boolean exists = registry.channelExists(notificationManager, CHANNEL_ID);
+
+        // verify
+        assertTrue(exists);
+    }
+
+    @Test
+    public void test_channelExists_lookupFailsForUnknownChannel_returnsFalse() {
+        // setup
+        when(notificationManager.getNotificationChannel(anyString()))
+                .thenThrow(new IllegalStateException("binder failure"));
+
+        // test
+        final boolean otherExists = registry.channelExists(notificationManager, "otherChannel");
+
+        // verify
+        assertFalse(otherExists);
+    }
+
+    @Test
+    public void test_onChannelCreated_channelExistsWithoutLookup() {
+        // test
+        registry.onChannelCreated(channel);
+
+        // verify
+        assertTrue(registry.channelExists(notificationManager, CHANNEL_ID));
+        verify(notificationManager, never()).getNotificationChannel(anyString());
+    }
+
+    @Test
+    public void test_onChannelCreated_recordsImportance() {
+        // test
+        registry.onChannelCreated(channel);
+
+        // verify
+        assertEquals(
+                Integer.valueOf(NotificationManager.IMPORTANCE_HIGH),
+                registry.getChannelImportance(CHANNEL_ID));
+    }
+
+    @Test
+    public void test_getSmallIcon_resolvesResourceOnce() {
+        // setup
+        utils.when(() -> MessagingPushUtils.getSmallIconWithResourceName("icon", context))
+                .thenReturn(123);
+
+        // test
+        final int iconId = registry.getSmallIcon("icon", context);
+        final int cachedIconId = registry.getSmallIcon("icon", context);
+
+        // verify
+        assertEquals(123, iconId);
+        assertEquals(123, cachedIconId);
+        utils.verify(
+                () -> MessagingPushUtils.getSmallIconWithResourceName("icon", context), times(1));
+    }
+
+    @Test
+    public void test_getSmallIcon_emptyName_returnsZero() {
+        // test
+        final int iconId = registry.getSmallIcon("", context);
+
+        // verify
+        assertEquals(0, iconId);
+        utils.verify(
+                () -> MessagingPushUtils.getSmallIconWithResourceName(anyString(), any()),
+                never());
+    }
+
+    @Test
+    public void test_getDefaultAppIcon_retriesFailedLookup() {
+        // setup
+        utils.when(() -> MessagingPushUtils.getDefaultAppIcon(context)).thenReturn(-1, 456);
+
+        // test
+        final int failedIcon = registry.getDefaultAppIcon(context);
+        final int icon = registry.getDefaultAppIcon(context);
+        final int cachedIcon = registry.getDefaultAppIcon(context);
+
+        // verify
+        assertEquals(-1, failedIcon);
+        assertEquals(456, icon);
+        assertEquals(456, cachedIcon);
+        utils.verify(() -> MessagingPushUtils.getDefaultAppIcon(context), times(2));
+    }
+}
@@ -14,6 +14,7 @@ package com.adobe.marketing.mobile.messaging;
 import com.adobe.marketing.mobile.ExtensionApi;
 import com.adobe.marketing.mobile.launch.rulesengine.LaunchRule;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -228,6 +229,72 @@ public class ParsedPropositionsTests {
         Assert.assertEquals(1, iamRules.size());
     }
 
+    @Test
+    public void test_parsedPropositionConstructor_WithParsedRuleCache_reusesUnchangedRules() {
+        // setup
+        Map<Surface, List<Proposition>> propositions = new HashMap<>();
+        propositions.put(mockInAppSurface, Collections.singletonList(mockInAppProposition));
+        List<Surface> requestedSurfaces = Collections.singletonList(mockInAppSurface);
+        ParsedRuleCache parsedRuleCache = new ParsedRuleCache();
+
+        // test
+        ParsedPropositions firstParse =
+                new ParsedPropositions(
+                        propositions, requestedSurfaces, mockExtensionApi, parsedRuleCache);
+        ParsedPropositions secondParse =
+                new ParsedPropositions(
+                        propositions, requestedSurfaces, mockExtensionApi, parsedRuleCache);
+
+        // verify
+        Assert.assertEquals(1, parsedRuleCache.size());
+        List<LaunchRule> firstRules =
+                firstParse.surfaceRulesBySchemaType.get(SchemaType.INAPP).get(mockInAppSurface);
+        List<LaunchRule> secondRules =
+                secondParse.surfaceRulesBySchemaType.get(SchemaType.INAPP).get(mockInAppSurface);
+        Assert.assertEquals(1, secondRules.size());
+        Assert.assertSame(firstRules.get(0), secondRules.get(0));
+        Assert.assertEquals(1, secondParse.propositionInfoToCache.size());
+        Assert.assertEquals(1, secondParse.propositionsToPersist.size());
+    }
+
+    @Test
+    public void test_parsedPropositionConstructor_WithParsedRuleCache_reparsesChangedRules()
+            throws MessageRequiredFieldMissingException {
+        // setup
+        List<Surface> requestedSurfaces = Collections.singletonList(mockInAppSurface);
+        ParsedRuleCache parsedRuleCache = new ParsedRuleCache();
+        Map<Surface, List<Proposition>> propositions = new HashMap<>();
+        propositions.put(mockInAppSurface, Collections.singletonList(mockInAppProposition));
+        ParsedPropositions firstParse =
+                new ParsedPropositions(
+                        propositions, requestedSurfaces, mockExtensionApi, parsedRuleCache);
+
+        Map<String, Object> updatedContent = new HashMap<>(inappPropositionContent);
+        updatedContent.put("version", 2);
+        PropositionItem updatedItem =
+                new PropositionItem("inapp2", SchemaType.RULESET, updatedContent);
+        Proposition updatedProposition =
+                new Proposition(
+                        "inapp2",
+                        mockInAppSurface.getUri(),
+                        mockScopeDetails,
+                        Collections.singletonList(updatedItem));
+        propositions.put(mockInAppSurface, Collections.singletonList(updatedProposition));
+
+        // test
+        ParsedPropositions secondParse =
+                new ParsedPropositions(
+                        propositions, requestedSurfaces, mockExtensionApi, parsedRuleCache);
+
+        // verify
+        List<LaunchRule> firstRules =
+                firstParse.surfaceRulesBySchemaType.get(SchemaType.INAPP).get(mockInAppSurface);
+        List<LaunchRule> secondRules =
+                secondParse.surfaceRulesBySchemaType.get(SchemaType.INAPP).get(mockInAppSurface);
+        Assert.assertEquals(1, secondRules.size());
+        Assert.assertNotSame(firstRules.get(0), secondRules.get(0));
+    }
+
     @Test
     public void test_parsedPropositionConstructor_WithFeedProposition() {
         // setup
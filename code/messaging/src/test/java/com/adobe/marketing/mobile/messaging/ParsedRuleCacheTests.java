@@ -0,0 +1,103 @@
+/*
+  Copyright 2024 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+package com.adobe.marketing.mobile.messaging;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import com.adobe.marketing.mobile.launch.rulesengine.LaunchRule;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+@RunWith(MockitoJUnitRunner.Silent.class)
+public class ParsedRuleCacheTests {
+    @Mock LaunchRule mockLaunchRule;
+
+    private ParsedRuleCache parsedRuleCache;
+    private Map<String, Object> itemData;
+    private List<LaunchRule> rules;
+
+    @Before
+    public void setup() {
+        parsedRuleCache = new ParsedRuleCache();
+        itemData = new HashMap<>();
+        itemData.put("version", 1);
+        itemData.put("rules", Collections.singletonList(Collections.singletonMap("key", "value")));
+        rules = Collections.singletonList(mockLaunchRule);
+    }
+
+    @Test
+    public void test_get_returnsCachedRules_whenContentIsEqual() {
+        // setup
+        parsedRuleCache.put("propositionId", itemData, rules);
+
+        // test
+        final List<LaunchRule> cachedRules =
+                parsedRuleCache.get("propositionId", new HashMap<>(itemData));
+
+        // verify
+        assertSame(rules, cachedRules);
+    }
+
+    @Test
+    public void test_get_returnsNull_whenContentChanged() {
+        // setup
+        parsedRuleCache.put("propositionId", itemData, rules);
+        final Map<String, Object> updatedItemData = new HashMap<>(itemData);
+        updatedItemData.put("version", 2);
+
+        // test
+        final List<LaunchRule> cachedRules = parsedRuleCache.get("propositionId", updatedItemData);
+
+        // verify
+        assertNull(cachedRules);
+    }
+
+    @Test
+    public void test_get_returnsNull_whenPropositionIdNotCached() {
+        // setup
+        parsedRuleCache.put("propositionId", itemData, rules);
+
+        // test
+        final List<LaunchRule> cachedRules = parsedRuleCache.get("otherId", itemData);
+
+        // verify
+        assertNull(cachedRules);
+    }
+
+    @Test
+    public void test_put_evictsLeastRecentlyUsedEntry_whenFull() {
+        // setup
+        for (int i = 0; i < ParsedRuleCache.MAX_ENTRIES; i++) {
+            parsedRuleCache.put("propositionId" + i, itemData, rules);
+        }
+        // access the first entry so the second entry becomes the least recently used
+        parsedRuleCache.get("propositionId0", itemData);
+
+        // test
+        parsedRuleCache.put("newPropositionId", itemData, rules);
+
+        // verify
+        assertEquals(ParsedRuleCache.MAX_ENTRIES, parsedRuleCache.size());
+        assertSame(rules, parsedRuleCache.get("propositionId0", itemData));
+        assertNull(parsedRuleCache.get("propositionId1", itemData));
+        assertSame(rules, parsedRuleCache.get("newPropositionId", itemData));
+    }
+}
@@ -37,6 +37,7 @@ import com.adobe.marketing.mobile.services.ui.message.InAppMessageEventHandler;
 import com.adobe.marketing.mobile.services.ui.message.InAppMessageSettings;
 import com.adobe.marketing.mobile.services.uri.UriOpening;
 import com.adobe.marketing.mobile.util.DefaultPresentationUtilityProvider;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 import org.json.JSONException;
@@ -981,4 +982,101 @@ public class PresentableMessageMapperTests {
                     assertNull(message);
                 });
     }
+
+    // ========================================================================================
+    // registry eviction
+    // ========================================================================================
+    @Test
+    public void test_onMessageDismissed_removesMessage() {
+        // setup
+        runUsingMockedServiceProvider(
+                () -> {
+                    try {
+                        internalMessage =
+                                (PresentableMessageMapper.InternalMessage)
+                                        PresentableMessageMapper.getInstance()
+                                                .createMessage(
+                                                        mockMessagingExtension,
+                                                        createPropositionItem(),
+                                                        new HashMap<>(),
+                                                        null);
+                    } catch (Exception exception) {
+                        fail(exception.getMessage());
+                    }
+                    PresentableMessageMapper.getInstance().recordPresentation(internalMessage);
+                    assertEquals(1, PresentableMessageMapper.getInstance().getMessageCount());
+                    assertEquals(
+                            1, PresentableMessageMapper.getInstance().getDisplayedMessageCount());
+
+                    // test
+                    PresentableMessageMapper.getInstance().onMessageDismissed(internalMessage);
+
+                    // verify
+                    assertEquals(0, PresentableMessageMapper.getInstance().getMessageCount());
+                    assertEquals(
+                            0, PresentableMessageMapper.getInstance().getDisplayedMessageCount());
+                    assertNull(
+                            PresentableMessageMapper.getInstance()
+                                    .getMessageFromPresentableId("mockId"));
+                });
+    }
+
+    @Test
+    public void test_retainMessages_removesMessagesOfReplacedRules() {
+        // setup
+        runUsingMockedServiceProvider(
+                () -> {
+                    try {
+                        PresentableMessageMapper.getInstance()
+                                .createMessage(
+                                        mockMessagingExtension,
+                                        createPropositionItem(),
+                                        new HashMap<>(),
+                                        null);
+                    } catch (Exception exception) {
+                        fail(exception.getMessage());
+                    }
+
+                    // test
+                    PresentableMessageMapper.getInstance()
+                            .retainMessages(Collections.singletonList("otherItemId"));
+
+                    // verify
+                    assertEquals(0, PresentableMessageMapper.getInstance().getMessageCount());
+                    assertNull(
+                            PresentableMessageMapper.getInstance()
+                                    .getMessageFromPresentableId("mockId"));
+                });
+    }
+
+    @Test
+    public void test_retainMessages_keepsMessagesOfLoadedRules() {
+        // setup
+        runUsingMockedServiceProvider(
+                () -> {
+                    try {
+                        internalMessage =
+                                (PresentableMessageMapper.InternalMessage)
+                                        PresentableMessageMapper.getInstance()
+                                                .createMessage(
+                                                        mockMessagingExtension,
+                                                        createPropositionItem(),
+                                                        new HashMap<>(),
+                                                        null);
+                    } catch (Exception exception) {
+                        fail(exception.getMessage());
+                    }
+
+                    // test
+                    PresentableMessageMapper.getInstance()
+                            .retainMessages(Collections.singletonList("123456789"));
+
+                    // verify
+                    assertEquals(1, PresentableMessageMapper.getInstance().getMessageCount());
+                    assertEquals(
+                            internalMessage,
+                            PresentableMessageMapper.getInstance()
+                                    .getMessageFromPresentableId("mockId"));
+                });
+    }
 }
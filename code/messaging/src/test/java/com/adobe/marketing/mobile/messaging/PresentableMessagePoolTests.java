@@ -0,0 +1,179 @@
+/*
+  Copyright 2024 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+package com.adobe.marketing.mobile.messaging;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.mockito.Mockito.mock;
+
+import com.adobe.marketing.mobile.launch.rulesengine.RuleConsequence;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.Before;
+import org.junit.Test;
+
+public class PresentableMessagePoolTests {
+    private PresentableMessagePool pool;
+    private List<String> builtItemIds;
+    private PresentableMessagePool.MessageFactory factory;
+
+    @Before
+    public void setup() {
+        pool = new PresentableMessagePool(2);
+        builtItemIds = new ArrayList<>();
+        factory =
+                propositionItem -> {
+                    builtItemIds.add(propositionItem.getItemId());
+                    return mock(PresentableMessageMapper.InternalMessage.class);
+                };
+    }
+
+    @Test
+    public void test_prepare_buildsMessagesInOrderUpToMaxPoolSize() {
+        // test
+        pool.prepare(
+                Arrays.asList(
+                        createConsequence("item1", MessagingConstants.SchemaValues.SCHEMA_IAM),
+                        createConsequence("item2", MessagingConstants.SchemaValues.SCHEMA_IAM),
+                        createConsequence("item3", MessagingConstants.SchemaValues.SCHEMA_IAM)),
+                factory);
+
+        // verify
+        assertEquals(Arrays.asList("item1", "item2"), builtItemIds);
+        assertEquals(2, pool.size());
+    }
+
+    @Test
+    public void test_prepare_skipsNonInAppConsequences() {
+        // test
+        pool.prepare(
+                Arrays.asList(
+                        createConsequence(
+                                "feed1", MessagingConstants.SchemaValues.SCHEMA_FEED_ITEM),
+                        createConsequence("item1", MessagingConstants.SchemaValues.SCHEMA_IAM)),
+                factory);
+
+        // verify
+        assertEquals(Collections.singletonList("item1"), builtItemIds);
+        assertEquals(1, pool.size());
+    }
+
+    @Test
+    public void test_prepare_doesNotRebuildPooledMessages() {
+        // setup
+        final List<RuleConsequence> consequences =
+                Collections.singletonList(
+                        createConsequence("item1", MessagingConstants.SchemaValues.SCHEMA_IAM));
+        pool.prepare(consequences, factory);
+
+        // test
+        pool.prepare(consequences, factory);
+
+        // verify
+        assertEquals(Collections.singletonList("item1"), builtItemIds);
+    }
+
+    @Test
+    public void test_prepare_evictsMessagesWhoseRulesWereReplaced() {
+        // setup
+        pool.prepare(
+                Arrays.asList(
+                        createConsequence("item1", MessagingConstants.SchemaValues.SCHEMA_IAM),
+                        createConsequence("item2", MessagingConstants.SchemaValues.SCHEMA_IAM)),
+                factory);
+
+        // test
+        pool.prepare(
+                Arrays.asList(
+                        createConsequence("item2", MessagingConstants.SchemaValues.SCHEMA_IAM),
+                        createConsequence("item3", MessagingConstants.SchemaValues.SCHEMA_IAM)),
+                factory);
+
+        // verify
+        assertEquals(Arrays.asList("item1", "item2", "item3"), builtItemIds);
+        assertEquals(2, pool.size());
+        assertNull(pool.take("item1"));
+    }
+
+    @Test
+    public void test_prepare_factoryReturnsNullOrThrows_messageNotPooled() {
+        // setup
+        final PresentableMessagePool.MessageFactory failingFactory =
+                propositionItem -> {
+                    if ("item1".equals(propositionItem.getItemId())) {
+                        return null;
+                    }
+                    throw new IllegalStateException("The UIService is unavailable");
+                };
+
+        // test
+        pool.prepare(
+                Arrays.asList(
+                        createConsequence("item1", MessagingConstants.SchemaValues.SCHEMA_IAM),
+                        createConsequence("item2", MessagingConstants.SchemaValues.SCHEMA_IAM)),
+                failingFactory);
+
+        // verify
+        assertEquals(0, pool.size());
+    }
+
+    @Test
+    public void test_take_removesMessageFromPool() {
+        // setup
+        final PresentableMessageMapper.InternalMessage message =
+                mock(PresentableMessageMapper.InternalMessage.class);
+        pool.prepare(
+                Collections.singletonList(
+                        createConsequence("item1", MessagingConstants.SchemaValues.SCHEMA_IAM)),
+                propositionItem -> message);
+
+        // test
+        final PresentableMessageMapper.InternalMessage takenMessage = pool.take("item1");
+
+        // verify
+        assertSame(message, takenMessage);
+        assertNull(pool.take("item1"));
+        assertEquals(0, pool.size());
+    }
+
+    @Test
+    public void test_clear() {
+        // setup
+        pool.prepare(
+                Collections.singletonList(
+                        createConsequence("item1", MessagingConstants.SchemaValues.SCHEMA_IAM)),
+                factory);
+
+        // test
+        pool.clear();
+
+        // verify
+        assertEquals(0, pool.size());
+        assertNull(pool.take("item1"));
+    }
+
+    private static RuleConsequence createConsequence(final String itemId, final String schema) {
+        final Map<String, Object> data = new HashMap<>();
+        data.put("content", "<html>" + itemId + "</html>");
+        data.put("contentType", "text/html");
+        final Map<String, Object> detail = new HashMap<>();
+        detail.put(MessagingConstants.ConsequenceDetailKeys.ID, itemId);
+        detail.put(MessagingConstants.ConsequenceDetailKeys.SCHEMA, schema);
+        detail.put(MessagingConstants.ConsequenceDetailKeys.DATA, data);
+        return new RuleConsequence(itemId, "schema", detail);
+    }
+}
@@ -0,0 +1,158 @@
+/*
+  Copyright 2024 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+package com.adobe.marketing.mobile.messaging;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.Collections;
+import org.junit.Before;
+import org.junit.Test;
+
+public class PresentableMessageRegistryTests {
+    private PresentableMessageRegistry registry;
+
+    @Before
+    public void setup() {
+        registry = new PresentableMessageRegistry(2);
+    }
+
+    @Test
+    public void test_register_indexesByPresentableIdAndItemId() {
+        // setup
+        final PresentableMessageMapper.InternalMessage message = createMessage("item1");
+
+        // test
+        final PresentableMessageMapper.InternalMessage registeredMessage =
+                registry.register("presentable1", message);
+
+        // verify
+        assertSame(message, registeredMessage);
+        assertSame(message, registry.get("presentable1"));
+        assertSame(message, registry.getByItemId("item1"));
+        assertEquals(1, registry.size());
+        assertEquals(1, registry.getRegisteredCount());
+    }
+
+    @Test
+    public void test_register_sameItem_returnsExistingMessage() {
+        // setup
+        final PresentableMessageMapper.InternalMessage message = createMessage("item1");
+        registry.register("presentable1", message);
+
+        // test
+        final PresentableMessageMapper.InternalMessage registeredMessage =
+                registry.register("presentable2", createMessage("item1"));
+
+        // verify
+        assertSame(message, registeredMessage);
+        assertNull(registry.get("presentable2"));
+        assertEquals(1, registry.size());
+    }
+
+    @Test
+    public void test_register_overCapacity_evictsLeastRecentlyUsed() {
+        // setup
+        registry.register("presentable1", createMessage("item1"));
+        registry.register("presentable2", createMessage("item2"));
+        registry.get("presentable1");
+
+        // test
+        registry.register("presentable3", createMessage("item3"));
+
+        // verify
+        assertEquals(2, registry.size());
+        assertNull(registry.get("presentable2"));
+        assertNull(registry.getByItemId("item2"));
+        assertEquals(1, registry.getEvictedCount());
+    }
+
+    @Test
+    public void test_register_overCapacity_doesNotEvictDisplayedMessages() {
+        // setup
+        registry.register("presentable1", createMessage("item1"));
+        registry.register("presentable2", createMessage("item2"));
+        registry.onDisplayed("presentable1");
+
+        // test
+        registry.register("presentable3", createMessage("item3"));
+
+        // verify
+        assertEquals(2, registry.size());
+        assertEquals(1, registry.getDisplayedCount());
+        assertNull(registry.get("presentable2"));
+        assertEquals("item1", registry.get("presentable1").getId());
+    }
+
+    @Test
+    public void test_remove() {
+        // setup
+        registry.register("presentable1", createMessage("item1"));
+        registry.onDisplayed("presentable1");
+
+        // test
+        final boolean removed = registry.remove("presentable1");
+
+        // verify
+        assertTrue(removed);
+        assertFalse(registry.remove("presentable1"));
+        assertNull(registry.getByItemId("item1"));
+        assertEquals(0, registry.size());
+        assertEquals(0, registry.getDisplayedCount());
+    }
+
+    @Test
+    public void test_retainItemIds_keepsLoadedAndDisplayedMessages() {
+        // setup
+        registry = new PresentableMessageRegistry();
+        registry.register("presentable1", createMessage("item1"));
+        registry.register("presentable2", createMessage("item2"));
+        registry.register("presentable3", createMessage("item3"));
+        registry.onDisplayed("presentable3");
+
+        // test
+        final int removedCount = registry.retainItemIds(Collections.singletonList("item1"));
+
+        // verify
+        assertEquals(1, removedCount);
+        assertEquals(2, registry.size());
+        assertNull(registry.getByItemId("item2"));
+        assertEquals("item3", registry.getByItemId("item3").getId());
+    }
+
+    @Test
+    public void test_clear() {
+        // setup
+        registry.register("presentable1", createMessage("item1"));
+        registry.onDisplayed("presentable1");
+
+        // test
+        registry.clear();
+
+        // verify
+        assertEquals(0, registry.size());
+        assertEquals(0, registry.getDisplayedCount());
+        assertNull(registry.getByItemId("item1"));
+    }
+
+    private static PresentableMessageMapper.InternalMessage createMessage(final String itemId) {
+        final PresentableMessageMapper.InternalMessage message =
+                mock(PresentableMessageMapper.InternalMessage.class);
+        when(message.getId()).thenReturn(itemId);
+        return message;
+    }
+}
@@ -0,0 +1,209 @@
+/*
+  Copyright 2024 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+package com.adobe.marketing.mobile.messaging;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mockStatic;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import android.app.Notification;
+import android.content.Context;
+import android.graphics.Bitmap;
+import androidx.core.app.NotificationCompat;
+import androidx.core.app.NotificationManagerCompat;
+import com.adobe.marketing.mobile.MessagingPushPayload;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.MockedStatic;
+import org.mockito.junit.MockitoJUnitRunner;
+
+@RunWith(MockitoJUnitRunner.Silent.class)
+public class ProgressivePushRendererTests {
+    private static final String IMAGE_URL = "https://www.sampleimage.com";
+    private static final int NOTIFICATION_ID = 1234;
+
+    @Mock Context context;
+    @Mock MessagingPushPayload payload;
+    @Mock NotificationManagerCompat notificationManager;
+    @Mock NotificationCompat.Builder notificationBuilder;
+    @Mock Notification notification;
+    @Mock Bitmap bitmap;
+
+    private MockedStatic<NotificationManagerCompat> notificationManagerCompat;
+    private MockedStatic<MessagingPushBuilder> pushBuilder;
+    private ExecutorService executorService;
+
+    @Before
+    public void setup() {
+        notificationManagerCompat = mockStatic(NotificationManagerCompat.class);
+        notificationManagerCompat
+                .when(() -> NotificationManagerCompat.from(any(Context.class)))
+                .thenReturn(notificationManager);
+        pushBuilder = mockStatic(MessagingPushBuilder.class);
+        pushBuilder
+                .when(() -> MessagingPushBuilder.createNotificationBuilder(payload, context))
+                .thenReturn(notificationBuilder);
+        when(notificationBuilder.build()).thenReturn(notification);
+        when(payload.getImageUrl()).thenReturn(IMAGE_URL);
+        executorService = Executors.newSingleThreadExecutor();
+    }
+
+    @After
+    public void tearDown() {
+        notificationManagerCompat.close();
+        pushBuilder.close();
+        executorService.shutdownNow();
+    }
+
+    @Test
+    public void test_render_imageLoadedWithinGracePeriod_postsOnceWithImage() {
+        // setup
+        final ProgressivePushRenderer renderer =
+                new ProgressivePushRenderer(
+                        (loaderContext, url) -> IMAGE_URL.equals(url) ? bitmap : null,
+                        executorService,
+                        ProgressivePushRenderer.IMAGE_DEADLINE_MS,
+                        ProgressivePushRenderer.IMAGE_DEADLINE_MS);
+
+        // test
+        renderer.render(context, payload, NOTIFICATION_ID);
+
+        // verify
+        pushBuilder.verify(
+                () -> MessagingPushBuilder.setImage(notificationBuilder, payload, bitmap));
+        verify(notificationManager, times(1)).notify(anyInt(), any(Notification.class));
+        verify(notificationBuilder, never()).setOnlyAlertOnce(true);
+        assertEquals(1, renderer.getRenderedCount());
+        assertEquals(1, renderer.getPostedWithImageCount());
+        assertEquals(0, renderer.getUpdatedCount());
+    }
+
+    @Test
+    public void test_render_imageLoadedAfterGracePeriod_postsTextThenUpdatesWithImage() {
+        // setup
+        final CountDownLatch textPosted = new CountDownLatch(1);
+        doAnswer(
+                        invocation -> {
+                            textPosted.countDown();
+                            return null;
+                        })
+                .when(notificationManager)
+                .notify(NOTIFICATION_ID, notification);
+        final ProgressivePushRenderer renderer =
+                new ProgressivePushRenderer(
+                        (loaderContext, url) -> {
+                            try {
+                                textPosted.await();
+                            } catch (final InterruptedException exception) {
+                                Thread.currentThread().interrupt();
+                            }
+                            return bitmap;
+                        },
+                        executorService,
+                        10,
+                        ProgressivePushRenderer.IMAGE_DEADLINE_MS);
+
+        // test
+        renderer.render(context, payload, NOTIFICATION_ID);
+
+        // verify
+        final InOrder inOrder = inOrder(notificationBuilder, notificationManager);
+        inOrder.verify(notificationManager).notify(NOTIFICATION_ID, notification);
+        inOrder.verify(notificationBuilder).setOnlyAlertOnce(true);
+        inOrder.verify(notificationManager).notify(NOTIFICATION_ID, notification);
+        pushBuilder.verify(
+                () -> MessagingPushBuilder.setImage(notificationBuilder, payload, bitmap));
+        assertEquals(1, renderer.getRenderedCount());
+        assertEquals(1, renderer.getUpdatedCount());
+    }
+
+    @Test
+    public void test_render_imageNotLoaded_onlyPostsText() {
+        // setup
+        final ProgressivePushRenderer renderer =
+                new ProgressivePushRenderer(
+                        (loaderContext, url) -> null,
+                        executorService,
+                        ProgressivePushRenderer.IMAGE_GRACE_PERIOD_MS,
+                        ProgressivePushRenderer.IMAGE_DEADLINE_MS);
+
+        // test
+        renderer.render(context, payload, NOTIFICATION_ID);
+
+        // verify
+        verify(notificationManager, times(1)).notify(NOTIFICATION_ID, notification);
+        pushBuilder.verify(() -> MessagingPushBuilder.setImage(any(), any(), any()), never());
+        assertEquals(0, renderer.getUpdatedCount());
+    }
+
+    @Test
+    public void test_render_imageMissesDeadline_onlyPostsText() {
+        // setup
+        final CountDownLatch releaseLoader = new CountDownLatch(1);
+        final ProgressivePushRenderer renderer =
+                new ProgressivePushRenderer(
+                        (loaderContext, url) -> {
+                            try {
+                                releaseLoader.await();
+                            } catch (final InterruptedException exception) {
+                                Thread.currentThread().interrupt();
+                            }
+                            return bitmap;
+                        },
+                        executorService,
+                        10,
+                        50);
+
+        // test
+        renderer.render(context, payload, NOTIFICATION_ID);
+        releaseLoader.countDown();
+
+        // verify
+        verify(notificationManager, times(1)).notify(anyInt(), any(Notification.class));
+        verify(notificationBuilder, never()).setOnlyAlertOnce(true);
+        assertEquals(1, renderer.getMissedDeadlineCount());
+    }
+
+    @Test
+    public void test_render_executorShutDown_postsText() {
+        // setup
+        executorService.shutdown();
+        final ProgressivePushRenderer renderer =
+                new ProgressivePushRenderer(
+                        (loaderContext, url) -> bitmap,
+                        executorService,
+                        ProgressivePushRenderer.IMAGE_GRACE_PERIOD_MS,
+                        ProgressivePushRenderer.IMAGE_DEADLINE_MS);
+
+        // test
+        renderer.render(context, payload, NOTIFICATION_ID);
+
+        // verify
+        verify(notificationManager, times(1)).notify(eq(NOTIFICATION_ID), any(Notification.class));
+        assertEquals(1, renderer.getRenderedCount());
+    }
+}
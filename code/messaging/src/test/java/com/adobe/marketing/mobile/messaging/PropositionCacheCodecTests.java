@@ -0,0 +1,235 @@
+/*
+  Copyright 2024 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+package com.adobe.marketing.mobile.messaging;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.junit.MockitoJUnitRunner;
+
+@RunWith(MockitoJUnitRunner.Silent.class)
+public class PropositionCacheCodecTests {
+    private static final String SURFACE_URI = "mobileapp://mockPackageName";
+    private Map<Surface, List<Proposition>> propositions;
+    private Map<String, Object> itemData;
+
+    @Before
+    public void setup() throws Exception {
+        final Map<String, Object> scopeDetails = new HashMap<>();
+        scopeDetails.put("decisionProvider", "AJO");
+        scopeDetails.put("correlationID", "correlationID");
+
+        final StringBuilder largeContent = new StringBuilder();
+        for (int i = 0; i < 70000; i++) {
+            largeContent.append('a');
+        }
+        final Map<String, Object> nestedMap = new HashMap<>();
+        nestedMap.put("string", "value");
+        nestedMap.put("null", null);
+        itemData = new HashMap<>();
+        itemData.put("content", largeContent.toString());
+        itemData.put("boolean", true);
+        itemData.put("integer", 1);
+        itemData.put("long", 1712345678901L);
+        itemData.put("double", 1.5);
+        itemData.put("map", nestedMap);
+        itemData.put("list", Arrays.asList("one", 2, nestedMap));
+
+        final List<PropositionItem> items = new ArrayList<>();
+        items.add(new PropositionItem("itemId", SchemaType.HTML_CONTENT, itemData));
+        final List<Proposition> surfacePropositions = new ArrayList<>();
+        surfacePropositions.add(new Proposition("uniqueId", SURFACE_URI, scopeDetails, items));
+        propositions = new HashMap<>();
+        propositions.put(Surface.fromUriString(SURFACE_URI), surfacePropositions);
+    }
+
+    @Test
+    public void test_encodeDecode_roundTrip() throws IOException {
+        // test
+        final byte[] encoded = PropositionCacheCodec.encode(propositions);
+        final Map<Surface, List<Proposition>> decoded =
+                PropositionCacheCodec.decode(new ByteArrayInputStream(encoded));
+
+        // verify
+        assertEquals(1, decoded.size());
+        final Proposition proposition = decoded.get(Surface.fromUriString(SURFACE_URI)).get(0);
+        assertEquals("uniqueId", proposition.getUniqueId());
+        assertEquals(SURFACE_URI, proposition.getScope());
+        assertEquals("AJO", proposition.getScopeDetails().get("decisionProvider"));
+        final PropositionItem item = proposition.getItems().get(0);
+        assertEquals("itemId", item.getItemId());
+        assertEquals(SchemaType.HTML_CONTENT, item.getSchema());
+        assertEquals(itemData, item.getItemData());
+        assertEquals(proposition, item.getProposition());
+    }
+
+    @Test
+    public void test_encode_isSmallerThanJavaSerialization() throws IOException {
+        // setup
+        final ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
+        final ObjectOutputStream objectOutputStream =
+                new ObjectOutputStream(byteArrayOutputStream);
+        objectOutputStream.writeObject(propositions);
+        objectOutputStream.close();
+
+        // test
+        final byte[] encoded = PropositionCacheCodec.encode(propositions);
+
+        // verify
+        assertTrue(encoded.length < byteArrayOutputStream.size());
+    }
+
+    @Test
+    public void test_hasHeader_restoresStreamPosition() throws IOException {
+        // setup
+        final BufferedInputStream inputStream =
+                new BufferedInputStream(
+                        new ByteArrayInputStream(PropositionCacheCodec.encode(propositions)));
+
+        // test
+        assertTrue(PropositionCacheCodec.hasHeader(inputStream));
+
+        // verify
+        assertEquals(1, PropositionCacheCodec.decode(inputStream).size());
+    }
+
+    @Test
+    public void test_hasHeader_returnsFalse_whenJavaSerializedData() throws IOException {
+        // setup
+        final ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
+        final ObjectOutputStream objectOutputStream =
+                new ObjectOutputStream(byteArrayOutputStream);
+        objectOutputStream.writeObject(propositions);
+        objectOutputStream.close();
+
+        // test
+        final boolean result =
+                PropositionCacheCodec.hasHeader(
+                        new BufferedInputStream(
+                                new ByteArrayInputStream(byteArrayOutputStream.toByteArray())));
+
+        // verify
+        assertFalse(result);
+    }
+
+    @Test
+    public void test_hasHeader_returnsFalse_whenDataIsTooShort() throws IOException {
+        // test
+        final boolean result =
+                PropositionCacheCodec.hasHeader(
+                        new BufferedInputStream(new ByteArrayInputStream(new byte[] {0x41})));
+
+        // verify
+        assertFalse(result);
+    }
+
+    @Test(expected = IOException.class)
+    public void test_decode_throws_whenVersionIsUnsupported() throws IOException {
+        // setup
+        final byte[] encoded = PropositionCacheCodec.encode(propositions);
+        encoded[4] = (byte) (PropositionCacheCodec.VERSION + 1);
+
+        // test
+        PropositionCacheCodec.decode(new ByteArrayInputStream(encoded));
+    }
+
+    @Test(expected = IOException.class)
+    public void test_decode_throws_whenDataIsTruncated() throws IOException {
+        // setup
+        final byte[] encoded = PropositionCacheCodec.encode(propositions);
+        final byte[] truncated = Arrays.copyOf(encoded, encoded.length / 2);
+
+        // test
+        PropositionCacheCodec.decode(new ByteArrayInputStream(truncated));
+    }
+
+    @Test(expected = IOException.class)
+    public void test_decodeSurface_throws_whenChecksumDoesNotMatch() throws IOException {
+        // setup
+        final Surface surface = Surface.fromUriString(SURFACE_URI);
+        final byte[] encoded =
+                PropositionCacheCodec.encodeSurface(surface, propositions.get(surface));
+        encoded[encoded.length - 1] ^= 0x01;
+
+        // test
+        PropositionCacheCodec.decodeSurface(new ByteArrayInputStream(encoded), surface);
+    }
+
+    @Test(expected = IOException.class)
+    public void test_decodeIndex_throws_whenChecksumIsMissing() throws IOException {
+        // setup
+        final byte[] encoded =
+                PropositionCacheCodec.encodeIndex(Collections.singletonList(SURFACE_URI));
+        final byte[] truncated = Arrays.copyOf(encoded, encoded.length - 4);
+
+        // test
+        PropositionCacheCodec.decodeIndex(new ByteArrayInputStream(truncated));
+    }
+
+    @Test(expected = IOException.class)
+    public void test_decodeIndex_throws_whenCountIsCorrupt() throws IOException {
+        // setup
+        final ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
+        final DataOutputStream output = new DataOutputStream(byteArrayOutputStream);
+        PropositionCacheCodec.writeHeader(output);
+        output.writeInt(Integer.MAX_VALUE);
+
+        // test
+        PropositionCacheCodec.decodeIndex(
+                new ByteArrayInputStream(byteArrayOutputStream.toByteArray()));
+    }
+
+    @Test(expected = IOException.class)
+    public void test_decodeSurface_throws_whenStringLengthIsCorrupt() throws IOException {
+        // setup
+        final ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
+        final DataOutputStream output = new DataOutputStream(byteArrayOutputStream);
+        PropositionCacheCodec.writeHeader(output);
+        output.writeInt(PropositionCacheCodec.MAX_STRING_BYTES + 1);
+
+        // test
+        PropositionCacheCodec.decodeSurface(
+                new ByteArrayInputStream(byteArrayOutputStream.toByteArray()),
+                Surface.fromUriString(SURFACE_URI));
+    }
+
+    @Test(expected = IOException.class)
+    public void test_decodeSurface_throws_whenLongStringIsTruncated() throws IOException {
+        // setup
+        final ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
+        final DataOutputStream output = new DataOutputStream(byteArrayOutputStream);
+        PropositionCacheCodec.writeHeader(output);
+        output.writeInt(PropositionCacheCodec.MAX_STRING_BYTES);
+        output.write(new byte[1024]);
+
+        // test
+        PropositionCacheCodec.decodeSurface(
+                new ByteArrayInputStream(byteArrayOutputStream.toByteArray()),
+                Surface.fromUriString(SURFACE_URI));
+    }
+}
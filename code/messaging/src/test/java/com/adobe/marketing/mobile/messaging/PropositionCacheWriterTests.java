@@ -0,0 +1,214 @@
+/*
+  Copyright 2024 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+package com.adobe.marketing.mobile.messaging;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+@RunWith(MockitoJUnitRunner.Silent.class)
+public class PropositionCacheWriterTests {
+    @Mock MessagingCacheUtilities mockMessagingCacheUtilities;
+    @Mock ScheduledExecutorService mockScheduledExecutorService;
+    @Mock ScheduledFuture<?> mockScheduledFuture;
+
+    private final ArgumentCaptor<Runnable> runnableCaptor = ArgumentCaptor.forClass(Runnable.class);
+    private final ArgumentCaptor<Map<Surface, List<Proposition>>> propositionsCaptor =
+            ArgumentCaptor.forClass(Map.class);
+    private final ArgumentCaptor<List<Surface>> surfacesToRemoveCaptor =
+            ArgumentCaptor.forClass(List.class);
+    private final Surface surface = Surface.fromUriString("mobileapp://mockPackageName/one");
+    private final Surface otherSurface = Surface.fromUriString("mobileapp://mockPackageName/two");
+    private PropositionCacheWriter propositionCacheWriter;
+
+    @Before
+    public void setup() {
+        doReturn(mockScheduledFuture)
+                .when(mockScheduledExecutorService)
+                .schedule(any(Runnable.class), anyLong(), any(TimeUnit.class));
+        propositionCacheWriter =
+                new PropositionCacheWriter(
+                        mockMessagingCacheUtilities, mockScheduledExecutorService);
+    }
+
+    @Test
+    public void test_enqueue_schedulesWriteAfterCoalescingWindow()
+            throws MessageRequiredFieldMissingException {
+        // test
+        propositionCacheWriter.enqueue(createPropositions(surface, "first"), new ArrayList<>());
+
+        // verify
+        verify(mockScheduledExecutorService, times(1))
+                .schedule(
+                        any(Runnable.class),
+                        eq(PropositionCacheWriter.COALESCING_WINDOW_MS),
+                        eq(TimeUnit.MILLISECONDS));
+        verify(mockMessagingCacheUtilities, times(0)).cachePropositions(anyMap(), anyList());
+    }
+
+    @Test
+    public void test_enqueue_coalescesUpdatesForTheSameSurface()
+            throws MessageRequiredFieldMissingException {
+        // test
+        propositionCacheWriter.enqueue(createPropositions(surface, "first"), new ArrayList<>());
+        propositionCacheWriter.enqueue(createPropositions(surface, "second"), new ArrayList<>());
+        verify(mockScheduledExecutorService, times(1))
+                .schedule(runnableCaptor.capture(), anyLong(), any(TimeUnit.class));
+        runnableCaptor.getValue().run();
+
+        // verify
+        verify(mockMessagingCacheUtilities, times(1))
+                .cachePropositions(propositionsCaptor.capture(), surfacesToRemoveCaptor.capture());
+        assertEquals(1, propositionsCaptor.getValue().size());
+        assertEquals("second", propositionsCaptor.getValue().get(surface).get(0).getUniqueId());
+        assertTrue(surfacesToRemoveCaptor.getValue().isEmpty());
+    }
+
+    @Test
+    public void test_enqueue_removalReplacesPendingUpdate()
+            throws MessageRequiredFieldMissingException {
+        // test
+        propositionCacheWriter.enqueue(createPropositions(surface, "first"), new ArrayList<>());
+        propositionCacheWriter.enqueue(
+                createPropositions(otherSurface, "other"), Collections.singletonList(surface));
+        propositionCacheWriter.flush();
+
+        // verify
+        verify(mockMessagingCacheUtilities, times(1))
+                .cachePropositions(propositionsCaptor.capture(), surfacesToRemoveCaptor.capture());
+        assertEquals(1, propositionsCaptor.getValue().size());
+        assertTrue(propositionsCaptor.getValue().containsKey(otherSurface));
+        assertEquals(Collections.singletonList(surface), surfacesToRemoveCaptor.getValue());
+    }
+
+    @Test
+    public void test_enqueue_updateReplacesPendingRemoval()
+            throws MessageRequiredFieldMissingException {
+        // test
+        propositionCacheWriter.enqueue(null, Collections.singletonList(surface));
+        propositionCacheWriter.enqueue(createPropositions(surface, "first"), null);
+        propositionCacheWriter.flush();
+
+        // verify
+        verify(mockMessagingCacheUtilities, times(1))
+                .cachePropositions(propositionsCaptor.capture(), surfacesToRemoveCaptor.capture());
+        assertTrue(propositionsCaptor.getValue().containsKey(surface));
+        assertTrue(surfacesToRemoveCaptor.getValue().isEmpty());
+    }
+
+    @Test
+    public void test_enqueue_writesOnCallingThread_whenPendingLimitReached()
+            throws MessageRequiredFieldMissingException {
+        // setup
+        final Map<Surface, List<Proposition>> propositions = new HashMap<>();
+        for (int i = 0; i < PropositionCacheWriter.MAX_PENDING_SURFACES; i++) {
+            final Surface pendingSurface =
+                    Surface.fromUriString("mobileapp://mockPackageName/" + i);
+            propositions.putAll(createPropositions(pendingSurface, "id" + i));
+        }
+
+        // test
+        propositionCacheWriter.enqueue(propositions, new ArrayList<>());
+
+        // verify
+        verify(mockMessagingCacheUtilities, times(1))
+                .cachePropositions(propositionsCaptor.capture(), surfacesToRemoveCaptor.capture());
+        assertEquals(
+                PropositionCacheWriter.MAX_PENDING_SURFACES, propositionsCaptor.getValue().size());
+        verify(mockScheduledExecutorService, never())
+                .schedule(any(Runnable.class), anyLong(), any(TimeUnit.class));
+    }
+
+    @Test
+    public void test_enqueue_writesOnCallingThread_whenScheduleRejected()
+            throws MessageRequiredFieldMissingException {
+        // setup
+        doThrow(new RejectedExecutionException())
+                .when(mockScheduledExecutorService)
+                .schedule(any(Runnable.class), anyLong(), any(TimeUnit.class));
+
+        // test
+        propositionCacheWriter.enqueue(createPropositions(surface, "first"), new ArrayList<>());
+
+        // verify
+        verify(mockMessagingCacheUtilities, times(1))
+                .cachePropositions(propositionsCaptor.capture(), surfacesToRemoveCaptor.capture());
+        assertEquals(1, propositionsCaptor.getValue().size());
+    }
+
+    @Test
+    public void test_enqueue_doesNotScheduleWrite_whenNothingChanged()
+            throws MessageRequiredFieldMissingException {
+        // test
+        propositionCacheWriter.enqueue(new HashMap<>(), new ArrayList<>());
+
+        // verify
+        verify(mockScheduledExecutorService, times(0))
+                .schedule(any(Runnable.class), anyLong(), any(TimeUnit.class));
+    }
+
+    @Test
+    public void test_flush_writesPendingChangesAndCancelsScheduledWrite()
+            throws MessageRequiredFieldMissingException {
+        // setup
+        propositionCacheWriter.enqueue(createPropositions(surface, "first"), new ArrayList<>());
+
+        // test
+        propositionCacheWriter.flush();
+        propositionCacheWriter.flush();
+
+        // verify
+        verify(mockScheduledFuture, times(1)).cancel(false);
+        verify(mockMessagingCacheUtilities, times(1)).cachePropositions(anyMap(), anyList());
+    }
+
+    private Map<Surface, List<Proposition>> createPropositions(
+            final Surface surface, final String uniqueId)
+            throws MessageRequiredFieldMissingException {
+        final Map<String, Object> itemData = new HashMap<>();
+        itemData.put("content", "content");
+        final List<PropositionItem> items = new ArrayList<>();
+        items.add(new PropositionItem("itemId", SchemaType.JSON_CONTENT, itemData));
+        final Map<String, Object> scopeDetails = new HashMap<>();
+        scopeDetails.put("key", "value");
+        final List<Proposition> propositions = new ArrayList<>();
+        propositions.add(new Proposition(uniqueId, surface.getUri(), scopeDetails, items));
+        final Map<Surface, List<Proposition>> propositionsBySurface = new HashMap<>();
+        propositionsBySurface.put(surface, propositions);
+        return propositionsBySurface;
+    }
+}
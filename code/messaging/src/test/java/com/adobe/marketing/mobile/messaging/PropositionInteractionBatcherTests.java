@@ -0,0 +1,253 @@
+/*
+  Copyright 2024 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+package com.adobe.marketing.mobile.messaging;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import com.adobe.marketing.mobile.util.DataReader;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+@RunWith(MockitoJUnitRunner.Silent.class)
+public class PropositionInteractionBatcherTests {
+    private static final String DISPLAY =
+            MessagingConstants.EventDataKeys.Messaging.Inbound.EventType.DISPLAY;
+    private static final String INTERACT =
+            MessagingConstants.EventDataKeys.Messaging.Inbound.EventType.INTERACT;
+    private static final String TRIGGER =
+            MessagingConstants.EventDataKeys.Messaging.Inbound.EventType.TRIGGER;
+
+    @Mock ScheduledExecutorService mockScheduledExecutorService;
+    @Mock ScheduledFuture<?> mockScheduledFuture;
+
+    private final ArgumentCaptor<Runnable> runnableCaptor = ArgumentCaptor.forClass(Runnable.class);
+    private final List<Map<String, Object>> dispatchedXdms = new ArrayList<>();
+    private PropositionInteractionBatcher batcher;
+
+    @Before
+    public void setup() {
+        doReturn(mockScheduledFuture)
+                .when(mockScheduledExecutorService)
+                .schedule(any(Runnable.class), anyLong(), any(TimeUnit.class));
+        batcher =
+                new PropositionInteractionBatcher(
+                        dispatchedXdms::add, mockScheduledExecutorService);
+    }
+
+    @Test
+    public void test_add_displayInteractions_sentAsOneEventWhenWindowEnds() {
+        // setup
+        batcher.add(createXdm(DISPLAY, "proposition1", "item1"));
+        batcher.add(createXdm(DISPLAY, "proposition2", "item2"));
+        verify(mockScheduledExecutorService, times(1))
+                .schedule(
+                        runnableCaptor.capture(),
+                        eq(PropositionInteractionBatcher.BATCH_WINDOW_MS),
+                        eq(TimeUnit.MILLISECONDS));
+        assertEquals(0, dispatchedXdms.size());
+        assertEquals(2, batcher.getPendingCount());
+
+        // test
+        runnableCaptor.getValue().run();
+
+        // verify
+        assertEquals(1, dispatchedXdms.size());
+        assertEquals(DISPLAY, dispatchedXdms.get(0).get("eventType"));
+        final List<Map<String, Object>> propositions = getPropositions(dispatchedXdms.get(0));
+        assertEquals(2, propositions.size());
+        assertEquals("proposition1", propositions.get(0).get("id"));
+        assertEquals("proposition2", propositions.get(1).get("id"));
+        assertEquals(0, batcher.getPendingCount());
+    }
+
+    @Test
+    public void test_add_repeatedDisplayInteraction_deduped() {
+        // setup
+        batcher.add(createXdm(DISPLAY, "proposition1", "item1"));
+        batcher.add(createXdm(DISPLAY, "proposition1", "item1"));
+
+        // test
+        batcher.flush();
+
+        // verify
+        assertEquals(1, dispatchedXdms.size());
+        assertEquals(1, getPropositions(dispatchedXdms.get(0)).size());
+        assertEquals(1, batcher.getDedupedCount());
+        assertEquals(2, batcher.getReceivedCount());
+    }
+
+    @Test
+    public void test_add_batchReachesMaxSize_sentImmediately() {
+        // test
+        for (int i = 0; i < PropositionInteractionBatcher.MAX_BATCH_SIZE; i++) {
+            batcher.add(createXdm(DISPLAY, "proposition" + i, "item" + i));
+        }
+
+        // verify
+        assertEquals(1, dispatchedXdms.size());
+        assertEquals(
+                PropositionInteractionBatcher.MAX_BATCH_SIZE,
+                getPropositions(dispatchedXdms.get(0)).size());
+        assertEquals(0, batcher.getPendingCount());
+        verify(mockScheduledFuture, times(1)).cancel(false);
+    }
+
+    @Test
+    public void test_add_interactInteraction_sentImmediatelyAfterPendingBatch() {
+        // setup
+        batcher.add(createXdm(DISPLAY, "proposition1", "item1"));
+        final Map<String, Object> interactXdm = createXdm(INTERACT, "proposition1", "item1");
+
+        // test
+        batcher.add(interactXdm);
+
+        // verify
+        assertEquals(2, dispatchedXdms.size());
+        assertEquals(DISPLAY, dispatchedXdms.get(0).get("eventType"));
+        assertSame(interactXdm, dispatchedXdms.get(1));
+        assertEquals(2, batcher.getDispatchedCount());
+    }
+
+    @Test
+    public void test_add_interactionsOfAlternatingTypes_sentInOrder() {
+        // setup
+        batcher.add(createXdm(DISPLAY, "proposition1", "item1"));
+        batcher.add(createXdm(TRIGGER, "proposition2", "item2"));
+        batcher.add(createXdm(DISPLAY, "proposition3", "item3"));
+
+        // test
+        batcher.flush();
+
+        // verify the open batch is sent whenever the event type changes
+        assertEquals(3, dispatchedXdms.size());
+        assertEquals(DISPLAY, dispatchedXdms.get(0).get("eventType"));
+        assertEquals("proposition1", getPropositions(dispatchedXdms.get(0)).get(0).get("id"));
+        assertEquals(TRIGGER, dispatchedXdms.get(1).get("eventType"));
+        assertEquals("proposition2", getPropositions(dispatchedXdms.get(1)).get(0).get("id"));
+        assertEquals(DISPLAY, dispatchedXdms.get(2).get("eventType"));
+        assertEquals("proposition3", getPropositions(dispatchedXdms.get(2)).get(0).get("id"));
+    }
+
+    @Test
+    public void test_add_whileScheduledFlushDispatches_sentAfterBatch() throws Exception {
+        // setup
+        final CountDownLatch batchDispatchStarted = new CountDownLatch(1);
+        final CountDownLatch releaseBatchDispatch = new CountDownLatch(1);
+        final List<Map<String, Object>> orderedXdms =
+                Collections.synchronizedList(new ArrayList<>());
+        batcher =
+                new PropositionInteractionBatcher(
+                        xdm -> {
+                            if (DISPLAY.equals(xdm.get("eventType"))) {
+                                batchDispatchStarted.countDown();
+                                try {
+                                    releaseBatchDispatch.await(5, TimeUnit.SECONDS);
+                                } catch (final InterruptedException exception) {
+                                    Thread.currentThread().interrupt();
+                                }
+                            }
+                            orderedXdms.add(xdm);
+                        },
+                        mockScheduledExecutorService);
+        batcher.add(createXdm(DISPLAY, "proposition1", "item1"));
+        final Map<String, Object> interactXdm = createXdm(INTERACT, "proposition1", "item1");
+        final Thread flushThread = new Thread(batcher::flush);
+        flushThread.start();
+        assertTrue(batchDispatchStarted.await(5, TimeUnit.SECONDS));
+
+        // test
+        final Thread interactThread = new Thread(() -> batcher.add(interactXdm));
+        interactThread.start();
+        interactThread.join(100);
+        releaseBatchDispatch.countDown();
+        flushThread.join(5000);
+        interactThread.join(5000);
+
+        // verify
+        assertEquals(2, orderedXdms.size());
+        assertEquals(DISPLAY, orderedXdms.get(0).get("eventType"));
+        assertSame(interactXdm, orderedXdms.get(1));
+    }
+
+    @Test
+    public void test_add_unknownXdm_sentImmediately() {
+        // setup
+        final Map<String, Object> xdm = new HashMap<>();
+        xdm.put("someKey", "someValue");
+
+        // test
+        batcher.add(xdm);
+
+        // verify
+        assertEquals(1, dispatchedXdms.size());
+        assertSame(xdm, dispatchedXdms.get(0));
+    }
+
+    @Test
+    public void test_flush_noPendingInteractions_sendsNothing() {
+        // test
+        batcher.flush();
+
+        // verify
+        assertEquals(0, dispatchedXdms.size());
+    }
+
+    private static List<Map<String, Object>> getPropositions(final Map<String, Object> xdm) {
+        final Map<String, Object> experience =
+                DataReader.optTypedMap(Object.class, xdm, "_experience", null);
+        final Map<String, Object> decisioning =
+                DataReader.optTypedMap(Object.class, experience, "decisioning", null);
+        return DataReader.optTypedListOfMap(Object.class, decisioning, "propositions", null);
+    }
+
+    private static Map<String, Object> createXdm(
+            final String eventType, final String propositionId, final String itemId) {
+        final Map<String, Object> item = new HashMap<>();
+        item.put("id", itemId);
+        final Map<String, Object> proposition = new HashMap<>();
+        proposition.put("id", propositionId);
+        proposition.put("scope", "mobileapp://mockPackageName");
+        proposition.put("items", Collections.singletonList(item));
+        final Map<String, Object> propositionEventType = new HashMap<>();
+        propositionEventType.put(DISPLAY.equals(eventType) ? "display" : "interact", 1);
+        final Map<String, Object> decisioning = new HashMap<>();
+        decisioning.put("propositionEventType", propositionEventType);
+        decisioning.put("propositions", Collections.singletonList(proposition));
+        final Map<String, Object> experience = new HashMap<>();
+        experience.put("decisioning", decisioning);
+        final Map<String, Object> xdm = new HashMap<>();
+        xdm.put("eventType", eventType);
+        xdm.put("_experience", experience);
+        return xdm;
+    }
+}
@@ -14,7 +14,9 @@ package com.adobe.marketing.mobile.messaging;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 import static org.mockito.Mockito.reset;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -838,6 +840,60 @@ public class PropositionItemTests {
         assertEquals(jsonContentMap.get("content"), jsonContent);
     }
 
+    @Test
+    public void test_getFeedItemSchemaData_reusesDecodedContent() {
+        // setup
+        String rulesJson = MessagingTestUtils.loadStringFromFile("feedPropositionContent.json");
+        List<RuleConsequence> ruleConsequences = parseRuleConsequence(rulesJson);
+        PropositionItem propositionItem =
+                PropositionItem.fromRuleConsequence(ruleConsequences.get(0));
+
+        // test
+        FeedItemSchemaData schemaData = propositionItem.getFeedItemSchemaData();
+        FeedItemSchemaData repeatedSchemaData = propositionItem.getFeedItemSchemaData();
+
+        // verify
+        assertNotNull(schemaData);
+        assertSame(schemaData, repeatedSchemaData);
+    }
+
+    @Test
+    public void test_getFeedItemSchemaData_reusesDecodedContent_afterGetItemData() {
+        // setup
+        String rulesJson = MessagingTestUtils.loadStringFromFile("feedPropositionContent.json");
+        List<RuleConsequence> ruleConsequences = parseRuleConsequence(rulesJson);
+        PropositionItem propositionItem =
+                PropositionItem.fromRuleConsequence(ruleConsequences.get(0));
+        FeedItemSchemaData schemaData = propositionItem.getFeedItemSchemaData();
+
+        // test
+        propositionItem.getItemData();
+        FeedItemSchemaData repeatedSchemaData = propositionItem.getFeedItemSchemaData();
+
+        // verify
+        assertSame(schemaData, repeatedSchemaData);
+    }
+
+    @Test
+    public void test_getJsonContentMap_returnsUnmodifiableContent()
+            throws MessageRequiredFieldMissingException {
+        // setup
+        PropositionItem propositionItem =
+                new PropositionItem(testId, SchemaType.JSON_CONTENT, jsonContentMap);
+        Map<String, Object> jsonContent = propositionItem.getJsonContentMap();
+
+        // test
+        try {
+            jsonContent.clear();
+            fail("Expected the json content to be unmodifiable");
+        } catch (UnsupportedOperationException exception) {
+            // expected
+        }
+
+        // verify
+        assertEquals(jsonContentMap.get("content"), propositionItem.getJsonContentMap());
+    }
+
     @Test
     public void test_getJsonContentMap_emptyItemData() throws MessageRequiredFieldMissingException {
         // test
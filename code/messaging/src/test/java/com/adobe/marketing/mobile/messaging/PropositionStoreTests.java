@@ -0,0 +1,164 @@
+/*
+  Copyright 2024 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+package com.adobe.marketing.mobile.messaging;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.Before;
+import org.junit.Test;
+
+public class PropositionStoreTests {
+    private final Surface surface = Surface.fromUriString("mobileapp://mockPackageName/one");
+    private final Surface otherSurface = Surface.fromUriString("mobileapp://mockPackageName/two");
+    private PropositionStore propositionStore;
+
+    @Before
+    public void setup() {
+        propositionStore = new PropositionStore();
+    }
+
+    @Test
+    public void test_update_addsPropositionsBySurface() throws MessageRequiredFieldMissingException {
+        // setup
+        final Proposition first = createProposition(surface, "first", "content1");
+        final Proposition second = createProposition(surface, "second", "content2");
+        final Proposition other = createProposition(otherSurface, "other", "content3");
+        final Map<Surface, List<Proposition>> propositions = new HashMap<>();
+        propositions.put(surface, Arrays.asList(first, second));
+        propositions.put(otherSurface, Collections.singletonList(other));
+
+        // test
+        propositionStore.update(propositions, null);
+
+        // verify
+        assertEquals(Arrays.asList(first, second), propositionStore.get(surface));
+        assertEquals(Collections.singletonList(other), propositionStore.get(otherSurface));
+    }
+
+    @Test
+    public void test_update_replacesPropositionWithSameId()
+            throws MessageRequiredFieldMissingException {
+        // setup
+        final Proposition first = createProposition(surface, "first", "content1");
+        final Proposition updatedFirst = createProposition(surface, "first", "updatedContent");
+        propositionStore.update(propositionsFor(surface, first), null);
+
+        // test
+        propositionStore.update(propositionsFor(surface, updatedFirst), null);
+
+        // verify
+        assertEquals(1, propositionStore.get(surface).size());
+        assertSame(updatedFirst, propositionStore.get(surface).get(0));
+    }
+
+    @Test
+    public void test_update_ignoresPropositionWithSameContent()
+            throws MessageRequiredFieldMissingException {
+        // setup
+        final Proposition first = createProposition(surface, "first", "content");
+        final Proposition duplicate = createProposition(surface, "duplicate", "content");
+        propositionStore.update(propositionsFor(surface, first), null);
+
+        // test
+        propositionStore.update(propositionsFor(surface, duplicate), null);
+
+        // verify
+        assertEquals(1, propositionStore.get(surface).size());
+        assertSame(first, propositionStore.get(surface).get(0));
+    }
+
+    @Test
+    public void test_update_removesSurfaces() throws MessageRequiredFieldMissingException {
+        // setup
+        propositionStore.update(
+                propositionsFor(surface, createProposition(surface, "first", "content")), null);
+
+        // test
+        propositionStore.update(null, Collections.singletonList(surface));
+
+        // verify
+        assertNull(propositionStore.get(surface));
+        assertTrue(propositionStore.getSnapshot().isEmpty());
+    }
+
+    @Test
+    public void test_getSnapshot_isNotModifiedByLaterUpdates()
+            throws MessageRequiredFieldMissingException {
+        // setup
+        final Proposition first = createProposition(surface, "first", "content1");
+        propositionStore.update(propositionsFor(surface, first), null);
+        final Map<Surface, List<Proposition>> snapshot = propositionStore.getSnapshot();
+
+        // test
+        propositionStore.update(
+                propositionsFor(surface, createProposition(surface, "second", "content2")),
+                Collections.singletonList(otherSurface));
+
+        // verify
+        assertEquals(Collections.singletonList(first), snapshot.get(surface));
+        assertEquals(2, propositionStore.get(surface).size());
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void test_get_returnsUnmodifiableList() throws MessageRequiredFieldMissingException {
+        // setup
+        propositionStore.update(
+                propositionsFor(surface, createProposition(surface, "first", "content")), null);
+
+        // test
+        propositionStore.get(surface).clear();
+    }
+
+    @Test
+    public void test_replaceAll_replacesStoredPropositions()
+            throws MessageRequiredFieldMissingException {
+        // setup
+        propositionStore.update(
+                propositionsFor(surface, createProposition(surface, "first", "content1")), null);
+        final Proposition other = createProposition(otherSurface, "other", "content2");
+
+        // test
+        propositionStore.replaceAll(propositionsFor(otherSurface, other));
+
+        // verify
+        assertNull(propositionStore.get(surface));
+        assertEquals(Collections.singletonList(other), propositionStore.get(otherSurface));
+    }
+
+    private Map<Surface, List<Proposition>> propositionsFor(
+            final Surface surface, final Proposition proposition) {
+        final Map<Surface, List<Proposition>> propositions = new HashMap<>();
+        propositions.put(surface, new ArrayList<>(Collections.singletonList(proposition)));
+        return propositions;
+    }
+
+    private Proposition createProposition(
+            final Surface surface, final String uniqueId, final String content)
+            throws MessageRequiredFieldMissingException {
+        final Map<String, Object> itemData = new HashMap<>();
+        itemData.put("content", content);
+        final List<PropositionItem> items = new ArrayList<>();
+        items.add(new PropositionItem("itemId", SchemaType.JSON_CONTENT, itemData));
+        final Map<String, Object> scopeDetails = new HashMap<>();
+        scopeDetails.put("key", "value");
+        return new Proposition(uniqueId, surface.getUri(), scopeDetails, items);
+    }
+}
@@ -0,0 +1,256 @@
+/*
+  Copyright 2024 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+package com.adobe.marketing.mobile.messaging;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.MockedStatic;
+import org.mockito.Mockito;
+import org.mockito.junit.MockitoJUnitRunner;
+
+@RunWith(MockitoJUnitRunner.Silent.class)
+public class PushImageLoaderTests {
+    private static final String CACHE_LOCATION = "testCache/pushImages";
+    private static final String IMAGE_URL = "https://www.sampleimage.com/image.png";
+
+    @Mock HttpURLConnection mockConnection;
+    @Mock Bitmap mockBitmap;
+
+    private MockedStatic<BitmapFactory> bitmapFactoryMockedStatic;
+    private PushImageLoader pushImageLoader;
+
+    @Before
+    public void setup() {
+        pushImageLoader = spy(new PushImageLoader(new File(CACHE_LOCATION)));
+        bitmapFactoryMockedStatic = Mockito.mockStatic(BitmapFactory.class);
+        // report a 4096x2048 image when decoding bounds, and return the bitmap otherwise
+        bitmapFactoryMockedStatic
+                .when(() -> BitmapFactory.decodeFile(anyString(), any(BitmapFactory.Options.class)))
+                .thenAnswer(
+                        invocation -> {
+                            final BitmapFactory.Options options = invocation.getArgument(1);
+                            if (options.inJustDecodeBounds) {
+                                options.outWidth = 4096;
+                                options.outHeight = 2048;
+                                return null;
+                            }
+                            return mockBitmap;
+                        });
+    }
+
+    @After
+    public void tearDown() {
+        bitmapFactoryMockedStatic.close();
+        deleteRecursively(new File("testCache"));
+    }
+
+    @Test
+    public void test_calculateInSampleSize() {
+        assertEquals(1, PushImageLoader.calculateInSampleSize(800, 400, 1024, 512));
+        assertEquals(1, PushImageLoader.calculateInSampleSize(2047, 1023, 1024, 512));
+        assertEquals(2, PushImageLoader.calculateInSampleSize(2048, 1024, 1024, 512));
+        assertEquals(4, PushImageLoader.calculateInSampleSize(4096, 2048, 1024, 512));
+        // the sample size is bounded by the smaller dimension
+        assertEquals(1, PushImageLoader.calculateInSampleSize(8192, 600, 1024, 512));
+    }
+
+    @Test
+    public void test_getCacheKey() {
+        final String key = PushImageLoader.getCacheKey(IMAGE_URL);
+
+        assertEquals(64, key.length());
+        assertEquals(key, PushImageLoader.getCacheKey(IMAGE_URL));
+        assertNotEquals(key, PushImageLoader.getCacheKey(IMAGE_URL + "?v=2"));
+    }
+
+    @Test
+    public void test_load_notCached_downloadsWithTimeoutsAndDecodesDownsampled() throws Exception {
+        // setup
+        doReturn(mockConnection).when(pushImageLoader).openConnection(IMAGE_URL);
+        when(mockConnection.getResponseCode()).thenReturn(HttpURLConnection.HTTP_OK);
+        when(mockConnection.getContentLength()).thenReturn(5);
+        when(mockConnection.getInputStream())
+                .thenReturn(new ByteArrayInputStream("image".getBytes()));
+
+        // test
+        final Bitmap bitmap = pushImageLoader.load(IMAGE_URL);
+
+        // verify
+        assertSame(mockBitmap, bitmap);
+        verify(mockConnection).setConnectTimeout(PushImageLoader.CONNECT_TIMEOUT_MS);
+        verify(mockConnection).setReadTimeout(PushImageLoader.READ_TIMEOUT_MS);
+        bitmapFactoryMockedStatic.verify(
+                () ->
+                        BitmapFactory.decodeFile(
+                                anyString(),
+                                Mockito.argThat(
+                                        (BitmapFactory.Options options) ->
+                                                !options.inJustDecodeBounds
+                                                        && options.inSampleSize == 4)));
+        assertTrue(getCachedFile(IMAGE_URL).isFile());
+        assertEquals(1, pushImageLoader.getMissCount());
+        assertEquals(5, pushImageLoader.getBytesDownloaded());
+    }
+
+    @Test
+    public void test_load_cached_doesNotDownload() throws Exception {
+        // setup
+        writeCachedFile(IMAGE_URL);
+
+        // test
+        final Bitmap bitmap = pushImageLoader.load(IMAGE_URL);
+
+        // verify
+        assertSame(mockBitmap, bitmap);
+        verify(pushImageLoader, never()).openConnection(anyString());
+        assertEquals(1, pushImageLoader.getHitCount());
+        assertEquals(0, pushImageLoader.getBytesDownloaded());
+    }
+
+    @Test
+    public void test_load_downloadFails_returnsNull() throws Exception {
+        // setup
+        doReturn(mockConnection).when(pushImageLoader).openConnection(IMAGE_URL);
+        when(mockConnection.getResponseCode()).thenReturn(HttpURLConnection.HTTP_NOT_FOUND);
+
+        // test
+        final Bitmap bitmap = pushImageLoader.load(IMAGE_URL);
+
+        // verify
+        assertNull(bitmap);
+        assertFalse(getCachedFile(IMAGE_URL).exists());
+        verify(mockConnection).disconnect();
+    }
+
+    @Test
+    public void test_load_imageTooLarge_returnsNull() throws Exception {
+        // setup
+        doReturn(mockConnection).when(pushImageLoader).openConnection(IMAGE_URL);
+        when(mockConnection.getResponseCode()).thenReturn(HttpURLConnection.HTTP_OK);
+        when(mockConnection.getContentLength())
+                .thenReturn((int) PushImageLoader.MAX_IMAGE_BYTES + 1);
+
+        // test
+        final Bitmap bitmap = pushImageLoader.load(IMAGE_URL);
+
+        // verify
+        assertNull(bitmap);
+        verify(mockConnection, never()).getInputStream();
+    }
+
+    @Test
+    public void test_load_decodeFails_removesCachedFile() throws Exception {
+        // setup
+        writeCachedFile(IMAGE_URL);
+        bitmapFactoryMockedStatic
+                .when(() -> BitmapFactory.decodeFile(anyString(), any(BitmapFactory.Options.class)))
+                .thenReturn(null);
+
+        // test
+        final Bitmap bitmap = pushImageLoader.load(IMAGE_URL);
+
+        // verify
+        assertNull(bitmap);
+        assertFalse(getCachedFile(IMAGE_URL).exists());
+    }
+
+    @Test
+    public void test_load_noCacheDirectory_downloadsWithoutCaching() {
+        // setup
+        final PushImageLoader loaderWithoutCache = new PushImageLoader(null);
+        try (MockedStatic<MessagingPushUtils> pushUtilsMockedStatic =
+                Mockito.mockStatic(MessagingPushUtils.class)) {
+            pushUtilsMockedStatic
+                    .when(() -> MessagingPushUtils.download(IMAGE_URL))
+                    .thenReturn(mockBitmap);
+
+            // test
+            final Bitmap bitmap = loaderWithoutCache.load(IMAGE_URL);
+
+            // verify
+            assertSame(mockBitmap, bitmap);
+            assertEquals(0, loaderWithoutCache.getMissCount());
+        }
+    }
+
+    @Test
+    public void test_load_cacheFull_evictsLeastRecentlyUsedImages() throws Exception {
+        // setup
+        for (int i = 0; i < PushImageLoader.MAX_CACHED_IMAGES; i++) {
+            writeCachedFile(IMAGE_URL + i).setLastModified(1000L * (i + 1));
+        }
+        doReturn(mockConnection).when(pushImageLoader).openConnection(IMAGE_URL);
+        when(mockConnection.getResponseCode()).thenReturn(HttpURLConnection.HTTP_OK);
+        when(mockConnection.getContentLength()).thenReturn(5);
+        when(mockConnection.getInputStream())
+                .thenReturn(new ByteArrayInputStream("image".getBytes()));
+
+        // test
+        pushImageLoader.load(IMAGE_URL);
+
+        // verify
+        assertEquals(
+                PushImageLoader.MAX_CACHED_IMAGES, new File(CACHE_LOCATION).listFiles().length);
+        assertFalse(getCachedFile(IMAGE_URL + 0).exists());
+        assertTrue(getCachedFile(IMAGE_URL + 1).exists());
+        assertTrue(getCachedFile(IMAGE_URL).exists());
+    }
+
+    private static File getCachedFile(final String url) {
+        return new File(CACHE_LOCATION, PushImageLoader.getCacheKey(url));
+    }
+
+    private static File writeCachedFile(final String url) throws IOException {
+        final File cacheDir = new File(CACHE_LOCATION);
+        cacheDir.mkdirs();
+        final File file = getCachedFile(url);
+        try (OutputStream outputStream = new FileOutputStream(file)) {
+            outputStream.write("image".getBytes());
+        }
+        return file;
+    }
+
+    private static void deleteRecursively(final File file) {
+        final File[] children = file.listFiles();
+        if (children != null) {
+            for (final File child : children) {
+                deleteRecursively(child);
+            }
+        }
+        file.delete();
+    }
+}
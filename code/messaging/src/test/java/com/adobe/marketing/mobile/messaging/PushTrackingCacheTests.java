@@ -0,0 +1,139 @@
+/*
+  Copyright 2024 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+package com.adobe.marketing.mobile.messaging;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import java.util.Map;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.junit.MockitoJUnitRunner;
+
+@RunWith(MockitoJUnitRunner.Silent.class)
+public class PushTrackingCacheTests {
+    private static final String MESSAGE_ID = "messageId";
+    private static final String ADOBE_XDM =
+            "{\"cjm\":{\"_experience\":{\"customerJourneyManagement\":"
+                    + "{\"messageExecution\":{\"messageExecutionID\":\"16-Sept-postman\"}}}}}";
+
+    private PushTrackingCache pushTrackingCache;
+
+    @Before
+    public void setup() {
+        pushTrackingCache = new PushTrackingCache();
+    }
+
+    @Test
+    public void test_getXdmTemplate_sameMessage_parsedOnce() {
+        // test
+        final Map<String, Object> opened = pushTrackingCache.getXdmTemplate(MESSAGE_ID, ADOBE_XDM);
+        final Map<String, Object> action = pushTrackingCache.getXdmTemplate(MESSAGE_ID, ADOBE_XDM);
+
+        // verify
+        assertEquals(1, pushTrackingCache.getParseCount());
+        assertEquals(opened, action);
+        final Map<String, String> flattenedXdm = MessagingTestUtils.flattenMap(opened);
+        assertEquals(
+                "16-Sept-postman",
+                flattenedXdm.get(
+                        "_experience.customerJourneyManagement.messageExecution"
+                                + ".messageExecutionID"));
+        assertEquals(
+                "https://ns.adobe.com/xdm/channels/push",
+                flattenedXdm.get(
+                        "_experience.customerJourneyManagement.messageProfile.channel._id"));
+        assertEquals(
+                "fcm",
+                flattenedXdm.get(
+                        "_experience.customerJourneyManagement.pushChannelContext.platform"));
+    }
+
+    @Test
+    public void test_getXdmTemplate_returnsCopies() {
+        // setup
+        final Map<String, Object> first = pushTrackingCache.getXdmTemplate(MESSAGE_ID, ADOBE_XDM);
+
+        // test
+        ((Map<String, Object>) first.get("_experience")).clear();
+        final Map<String, Object> second = pushTrackingCache.getXdmTemplate(MESSAGE_ID, ADOBE_XDM);
+
+        // verify
+        assertFalse(((Map<String, Object>) second.get("_experience")).isEmpty());
+    }
+
+    @Test
+    public void test_getXdmTemplate_differentMessages_parsedSeparately() {
+        // test
+        pushTrackingCache.getXdmTemplate(MESSAGE_ID, ADOBE_XDM);
+        pushTrackingCache.getXdmTemplate("otherMessageId", ADOBE_XDM);
+
+        // verify
+        assertEquals(2, pushTrackingCache.getParseCount());
+    }
+
+    @Test
+    public void test_getXdmTemplate_mixinsKey() {
+        // test
+        final Map<String, Object> xdmTemplate =
+                pushTrackingCache.getXdmTemplate(
+                        MESSAGE_ID, "{\"mixins\":{\"_experience\":{\"key\":\"value\"}}}");
+
+        // verify
+        assertNotNull(xdmTemplate);
+        assertEquals("value", MessagingTestUtils.flattenMap(xdmTemplate).get("_experience.key"));
+    }
+
+    @Test
+    public void test_getXdmTemplate_malformedXdm_returnsNullAndIsNotParsedAgain() {
+        // test
+        final Map<String, Object> first =
+                pushTrackingCache.getXdmTemplate(MESSAGE_ID, "{malformed}");
+        final Map<String, Object> second =
+                pushTrackingCache.getXdmTemplate(MESSAGE_ID, "{malformed}");
+
+        // verify
+        assertNull(first);
+        assertNull(second);
+        assertEquals(1, pushTrackingCache.getParseCount());
+    }
+
+    @Test
+    public void test_getXdmTemplate_missingXdm_returnsNull() {
+        // test
+        final Map<String, Object> xdmTemplate =
+                pushTrackingCache.getXdmTemplate(MESSAGE_ID, "{\"cjm\":\"notAMap\"}");
+
+        // verify
+        assertNull(xdmTemplate);
+    }
+
+    @Test
+    public void test_getXdmTemplate_evictedMessage_parsedAgain() {
+        // setup
+        pushTrackingCache.getXdmTemplate(MESSAGE_ID, ADOBE_XDM);
+        for (int i = 0; i < PushTrackingCache.MAX_CACHED_MESSAGES; i++) {
+            pushTrackingCache.getXdmTemplate(MESSAGE_ID + i, ADOBE_XDM);
+        }
+
+        // test
+        final Map<String, Object> xdmTemplate =
+                pushTrackingCache.getXdmTemplate(MESSAGE_ID, ADOBE_XDM);
+
+        // verify
+        assertNotNull(xdmTemplate);
+        assertEquals(PushTrackingCache.MAX_CACHED_MESSAGES + 2, pushTrackingCache.getParseCount());
+    }
+}
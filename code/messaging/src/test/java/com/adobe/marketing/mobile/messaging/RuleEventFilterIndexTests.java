@@ -0,0 +1,132 @@
+/*
+  Copyright 2024 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+package com.adobe.marketing.mobile.messaging;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import com.adobe.marketing.mobile.Event;
+import com.adobe.marketing.mobile.EventSource;
+import com.adobe.marketing.mobile.EventType;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import org.junit.Before;
+import org.junit.Test;
+
+public class RuleEventFilterIndexTests {
+    private RuleEventFilterIndex ruleEventFilterIndex;
+
+    @Before
+    public void setup() {
+        ruleEventFilterIndex = new RuleEventFilterIndex();
+    }
+
+    @Test
+    public void test_mayMatch_allowsAllEvents_beforeRulesAreLoaded() {
+        // test
+        final boolean result =
+                ruleEventFilterIndex.mayMatch(
+                        createEvent(EventType.LIFECYCLE, EventSource.RESPONSE_CONTENT, null));
+
+        // verify
+        assertTrue(result);
+        assertEquals(0, ruleEventFilterIndex.getSkippedEventCount());
+    }
+
+    @Test
+    public void test_mayMatch_inAppRuleset() {
+        // setup
+        ruleEventFilterIndex.update(
+                Collections.singletonList(
+                        RuleEventFilter.fromRuleset(
+                                MessagingTestUtils.getMapFromFile(
+                                        "inappPropositionV2Content.json"))));
+        final Map<String, Object> data = new HashMap<>();
+        data.put("action", "fullscreen");
+
+        // verify
+        assertTrue(
+                ruleEventFilterIndex.mayMatch(
+                        createEvent(EventType.GENERIC_TRACK, EventSource.REQUEST_CONTENT, data)));
+        assertFalse(
+                ruleEventFilterIndex.mayMatch(
+                        createEvent(EventType.GENERIC_TRACK, EventSource.REQUEST_CONTENT, null)));
+        assertFalse(
+                ruleEventFilterIndex.mayMatch(
+                        createEvent(EventType.LIFECYCLE, EventSource.RESPONSE_CONTENT, data)));
+        assertFalse(
+                ruleEventFilterIndex.mayMatch(
+                        createEvent(EventType.GENERIC_TRACK, EventSource.RESPONSE_CONTENT, data)));
+        assertEquals(4, ruleEventFilterIndex.getEvaluatedEventCount());
+        assertEquals(3, ruleEventFilterIndex.getSkippedEventCount());
+    }
+
+    @Test
+    public void test_mayMatch_allowsAllEvents_whenAnyRuleMatchesAllEvents() {
+        // setup
+        ruleEventFilterIndex.update(
+                new ArrayList<RuleEventFilter>() {
+                    {
+                        add(
+                                RuleEventFilter.fromRuleset(
+                                        MessagingTestUtils.getMapFromFile(
+                                                "inappPropositionV2Content.json")));
+                        add(RuleEventFilter.MATCH_ALL);
+                    }
+                });
+
+        // test
+        final boolean result =
+                ruleEventFilterIndex.mayMatch(
+                        createEvent(EventType.LIFECYCLE, EventSource.RESPONSE_CONTENT, null));
+
+        // verify
+        assertTrue(result);
+    }
+
+    @Test
+    public void test_mayMatch_allowsRulesEngineResetEvent() {
+        // setup
+        ruleEventFilterIndex.update(new ArrayList<>());
+
+        // test
+        final boolean result =
+                ruleEventFilterIndex.mayMatch(
+                        createEvent(EventType.RULES_ENGINE, EventSource.REQUEST_RESET, null));
+
+        // verify
+        assertTrue(result);
+    }
+
+    @Test
+    public void test_mayMatch_skipsAllEvents_whenNoRulesAreLoaded() {
+        // setup
+        ruleEventFilterIndex.update(new ArrayList<>());
+
+        // test
+        final boolean result =
+                ruleEventFilterIndex.mayMatch(
+                        createEvent(EventType.GENERIC_TRACK, EventSource.REQUEST_CONTENT, null));
+
+        // verify
+        assertFalse(result);
+        assertEquals(1, ruleEventFilterIndex.getSkippedEventCount());
+    }
+
+    private static Event createEvent(
+            final String type, final String source, final Map<String, Object> data) {
+        return new Event.Builder("test event", type, source).setEventData(data).build();
+    }
+}
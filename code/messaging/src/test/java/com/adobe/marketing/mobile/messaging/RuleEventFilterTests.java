@@ -0,0 +1,220 @@
+/*
+  Copyright 2024 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+package com.adobe.marketing.mobile.messaging;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.Test;
+
+public class RuleEventFilterTests {
+    private static final String GENERIC_TRACK = "com.adobe.eventType.generic.track";
+    private static final String REQUEST_CONTENT = "com.adobe.eventSource.requestContent";
+
+    @Test
+    public void test_fromRuleset_inAppRuleset() {
+        // setup
+        final Map<String, Object> ruleset =
+                MessagingTestUtils.getMapFromFile("inappPropositionV2Content.json");
+
+        // test
+        final RuleEventFilter filter = RuleEventFilter.fromRuleset(ruleset);
+
+        // verify
+        assertFalse(filter.matchesAllEvents());
+        assertEquals(1, filter.clauses.size());
+        final RuleEventFilter.Clause clause = filter.clauses.get(0);
+        assertEquals(
+                Collections.singleton(RuleEventFilter.normalize(GENERIC_TRACK)), clause.types);
+        assertEquals(
+                Collections.singleton(RuleEventFilter.normalize(REQUEST_CONTENT)),
+                clause.sources);
+        assertEquals(Collections.singleton("action"), clause.requiredKeys);
+    }
+
+    @Test
+    public void test_fromRuleset_orGroup_createsClausePerCondition() {
+        // setup
+        final Map<String, Object> condition =
+                group(
+                        "or",
+                        matcher("~type", "eq", GENERIC_TRACK),
+                        matcher("~type", "eq", "com.adobe.eventType.lifecycle"));
+
+        // test
+        final RuleEventFilter filter = RuleEventFilter.fromRuleset(ruleset(condition));
+
+        // verify
+        assertEquals(2, filter.clauses.size());
+    }
+
+    @Test
+    public void test_fromRuleset_andGroupWithConflictingTypes_hasNoClauses() {
+        // setup
+        final Map<String, Object> condition =
+                group(
+                        "and",
+                        matcher("~type", "eq", GENERIC_TRACK),
+                        matcher("~type", "eq", "com.adobe.eventType.lifecycle"));
+
+        // test
+        final RuleEventFilter filter = RuleEventFilter.fromRuleset(ruleset(condition));
+
+        // verify
+        assertTrue(filter.clauses.isEmpty());
+    }
+
+    @Test
+    public void test_fromRuleset_negatedMatcher_matchesAllEvents() {
+        // setup
+        final Map<String, Object> condition = group("or", matcher("action", "ne", "value"));
+
+        // test
+        final RuleEventFilter filter = RuleEventFilter.fromRuleset(ruleset(condition));
+
+        // verify
+        assertSame(RuleEventFilter.MATCH_ALL, filter);
+    }
+
+    @Test
+    public void test_fromRuleset_historicalCondition_matchesAllEvents() {
+        // setup
+        final Map<String, Object> condition = new HashMap<>();
+        condition.put("type", "historical");
+        condition.put("definition", new HashMap<String, Object>());
+
+        // test
+        final RuleEventFilter filter = RuleEventFilter.fromRuleset(ruleset(condition));
+
+        // verify
+        assertSame(RuleEventFilter.MATCH_ALL, filter);
+    }
+
+    @Test
+    public void test_fromRuleset_missingRules_matchesAllEvents() {
+        assertSame(RuleEventFilter.MATCH_ALL, RuleEventFilter.fromRuleset(null));
+        assertSame(RuleEventFilter.MATCH_ALL, RuleEventFilter.fromRuleset(new HashMap<>()));
+    }
+
+    @Test
+    public void test_fromRuleset_flattenedKey_requiresTopLevelKey() {
+        // setup
+        final Map<String, Object> condition = matcher("xdm.eventType", "eq", "value");
+
+        // test
+        final RuleEventFilter filter = RuleEventFilter.fromRuleset(ruleset(condition));
+
+        // verify
+        assertEquals(Collections.singleton("xdm"), filter.clauses.get(0).requiredKeys);
+        assertNull(filter.clauses.get(0).types);
+    }
+
+    @Test
+    public void test_targetsEventType() {
+        // setup
+        final Map<String, Object> condition =
+                group(
+                        "or",
+                        matcher("~type", "eq", GENERIC_TRACK),
+                        matcher("~type", "eq", "com.adobe.eventType.lifecycle"));
+
+        // test
+        final RuleEventFilter filter = RuleEventFilter.fromRuleset(ruleset(condition));
+
+        // verify
+        assertTrue(filter.targetsEventType("com.adobe.eventType.lifecycle"));
+        assertTrue(filter.targetsEventType(GENERIC_TRACK));
+        assertFalse(filter.targetsEventType("com.adobe.eventType.edge"));
+        assertFalse(RuleEventFilter.MATCH_ALL.targetsEventType(GENERIC_TRACK));
+    }
+
+    @Test
+    public void test_clauseMatches() {
+        // setup
+        final RuleEventFilter.Clause clause =
+                new RuleEventFilter.Clause(
+                        Collections.singleton("type"),
+                        null,
+                        Collections.singleton("action"));
+        final Map<String, Object> data = new HashMap<>();
+        data.put("action", "value");
+
+        // verify
+        assertTrue(clause.matches("type", "source", data));
+        assertFalse(clause.matches("othertype", "source", data));
+        assertFalse(clause.matches("type", "source", new HashMap<>()));
+        assertFalse(clause.matches("type", "source", null));
+    }
+
+    @Test
+    public void test_clauseMatches_dataKeyWithDots() {
+        // setup
+        final RuleEventFilter filter =
+                RuleEventFilter.fromRuleset(ruleset(matcher("a.b.c", "eq", "value")));
+        final RuleEventFilter.Clause clause = filter.clauses.get(0);
+        final Map<String, Object> nestedKeyData = new HashMap<>();
+        nestedKeyData.put("a.b", Collections.singletonMap("c", "value"));
+        final Map<String, Object> dottedKeyData = new HashMap<>();
+        dottedKeyData.put("a.b.c", "value");
+        final Map<String, Object> otherKeyData = new HashMap<>();
+        otherKeyData.put("ab.c", "value");
+
+        // verify
+        assertTrue(clause.matches("type", "source", nestedKeyData));
+        assertTrue(clause.matches("type", "source", dottedKeyData));
+        assertFalse(clause.matches("type", "source", otherKeyData));
+    }
+
+    private static Map<String, Object> ruleset(final Map<String, Object> condition) {
+        final Map<String, Object> rule = new HashMap<>();
+        rule.put("condition", condition);
+        final List<Object> rules = new ArrayList<>();
+        rules.add(rule);
+        final Map<String, Object> ruleset = new HashMap<>();
+        ruleset.put("version", 1);
+        ruleset.put("rules", rules);
+        return ruleset;
+    }
+
+    @SafeVarargs
+    private static Map<String, Object> group(
+            final String logic, final Map<String, Object>... conditions) {
+        final Map<String, Object> definition = new HashMap<>();
+        definition.put("logic", logic);
+        definition.put("conditions", new ArrayList<>(Arrays.asList(conditions)));
+        final Map<String, Object> group = new HashMap<>();
+        group.put("type", "group");
+        group.put("definition", definition);
+        return group;
+    }
+
+    private static Map<String, Object> matcher(
+            final String key, final String matcher, final String value) {
+        final Map<String, Object> definition = new HashMap<>();
+        definition.put("key", key);
+        definition.put("matcher", matcher);
+        definition.put("values", Collections.singletonList(value));
+        final Map<String, Object> condition = new HashMap<>();
+        condition.put("type", "matcher");
+        condition.put("definition", definition);
+        return condition;
+    }
+}
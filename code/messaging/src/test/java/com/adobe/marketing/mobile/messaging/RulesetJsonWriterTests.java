@@ -0,0 +1,95 @@
+/*
+  Copyright 2024 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+package com.adobe.marketing.mobile.messaging;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.junit.Test;
+
+public class RulesetJsonWriterTests {
+
+    @Test
+    public void test_write_inAppRuleset_matchesJSONObject() throws JSONException {
+        // setup
+        final Map<String, Object> ruleset =
+                MessagingTestUtils.getMapFromFile("inappPropositionV2Content.json");
+
+        // test
+        final String json = RulesetJsonWriter.write(ruleset);
+
+        // verify
+        assertTrue(new JSONObject(json).similar(new JSONObject(ruleset)));
+    }
+
+    @Test
+    public void test_write_feedRuleset_matchesJSONObject() throws JSONException {
+        // setup
+        final Map<String, Object> ruleset =
+                MessagingTestUtils.getMapFromFile("feedPropositionContent.json");
+
+        // test
+        final String json = RulesetJsonWriter.write(ruleset);
+
+        // verify
+        assertTrue(new JSONObject(json).similar(new JSONObject(ruleset)));
+    }
+
+    @Test
+    public void test_write_escapesStrings() throws JSONException {
+        // setup
+        final String value = "<html>\"quoted\" \\ \n\t\r\b\f\u0001</html>";
+        final Map<String, Object> ruleset = new HashMap<>();
+        ruleset.put("html", value);
+
+        // test
+        final String json = RulesetJsonWriter.write(ruleset);
+
+        // verify
+        assertEquals(value, new JSONObject(json).getString("html"));
+    }
+
+    @Test
+    public void test_write_numbersBooleansNullsAndLists() {
+        // setup
+        final Map<String, Object> ruleset = new LinkedHashMap<>();
+        ruleset.put("int", 1);
+        ruleset.put("long", 1712345678901L);
+        ruleset.put("wholeDouble", 2.0);
+        ruleset.put("double", 2.5);
+        ruleset.put("nan", Double.NaN);
+        ruleset.put("boolean", true);
+        ruleset.put("null", null);
+        ruleset.put("list", Arrays.asList("a", 1, new String[] {"b"}));
+
+        // test
+        final String json = RulesetJsonWriter.write(ruleset);
+
+        // verify
+        assertEquals(
+                "{\"int\":1,\"long\":1712345678901,\"wholeDouble\":2,\"double\":2.5,\"nan\":null,"
+                        + "\"boolean\":true,\"null\":null,\"list\":[\"a\",1,[\"b\"]]}",
+                json);
+    }
+
+    @Test
+    public void test_write_nullRuleset() {
+        assertNull(RulesetJsonWriter.write(null));
+    }
+}
@@ -0,0 +1,199 @@
+/*
+  Copyright 2024 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+package com.adobe.marketing.mobile.messaging;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class StreamingAssetWriterTests {
+    private static final String STAGING_LOCATION = "testCache/messaging/downloads";
+    private static final String ASSET_URL = "https://www.adobe.com/logo.png";
+    // base64 encoded SHA-256 digest of "abc"
+    private static final String ABC_DIGEST = "ungWv48Bz+pBQUDeXa4iI7ADYaOWF3qctBD/YfIAFa0=";
+    private StreamingAssetWriter streamingAssetWriter;
+
+    @Before
+    public void setup() {
+        streamingAssetWriter = new StreamingAssetWriter(STAGING_LOCATION, 10);
+    }
+
+    @After
+    public void tearDown() {
+        deleteRecursively(new File("testCache"));
+    }
+
+    @Test
+    public void test_stage_stagesCompleteDownload() throws IOException {
+        // test
+        final StreamingAssetWriter.StagedAsset stagedAsset =
+                streamingAssetWriter.stage(ASSET_URL, streamOf("abc"), 3, null);
+
+        // verify
+        assertNotNull(stagedAsset);
+        assertEquals(3, stagedAsset.getLength());
+        assertEquals("abc", read(stagedAsset.openStream()));
+        assertEquals(1, streamingAssetWriter.getSucceededCount());
+        assertEquals(3, streamingAssetWriter.getBytesDownloaded());
+        stagedAsset.discard();
+        assertEquals(0, new File(STAGING_LOCATION).listFiles().length);
+    }
+
+    @Test
+    public void test_stage_unknownContentLength() {
+        // test
+        final StreamingAssetWriter.StagedAsset stagedAsset =
+                streamingAssetWriter.stage(ASSET_URL, streamOf("abc"), -1, null);
+
+        // verify
+        assertNotNull(stagedAsset);
+        assertEquals(3, stagedAsset.getLength());
+    }
+
+    @Test
+    public void test_stage_truncatedDownload_fails() {
+        // test
+        final StreamingAssetWriter.StagedAsset stagedAsset =
+                streamingAssetWriter.stage(ASSET_URL, streamOf("abc"), 5, null);
+
+        // verify
+        assertNull(stagedAsset);
+        assertEquals(
+                1,
+                streamingAssetWriter.getFailedCount(
+                        StreamingAssetWriter.FailureReason.LENGTH_MISMATCH));
+        assertEquals(0, new File(STAGING_LOCATION).listFiles().length);
+    }
+
+    @Test
+    public void test_stage_downloadExceedingMaximumSize_fails() {
+        // test
+        final StreamingAssetWriter.StagedAsset stagedAsset =
+                streamingAssetWriter.stage(ASSET_URL, streamOf("abcdefghijklmnop"), -1, null);
+
+        // verify
+        assertNull(stagedAsset);
+        assertEquals(
+                1,
+                streamingAssetWriter.getFailedCount(StreamingAssetWriter.FailureReason.TOO_LARGE));
+        assertEquals(0, new File(STAGING_LOCATION).listFiles().length);
+    }
+
+    @Test
+    public void test_stage_contentLengthExceedingMaximumSize_fails() {
+        // test
+        final StreamingAssetWriter.StagedAsset stagedAsset =
+                streamingAssetWriter.stage(ASSET_URL, streamOf("abc"), 100, null);
+
+        // verify
+        assertNull(stagedAsset);
+        assertEquals(
+                1,
+                streamingAssetWriter.getFailedCount(StreamingAssetWriter.FailureReason.TOO_LARGE));
+    }
+
+    @Test
+    public void test_stage_matchingDigest() {
+        // test
+        final StreamingAssetWriter.StagedAsset stagedAsset =
+                streamingAssetWriter.stage(
+                        ASSET_URL, streamOf("abc"), 3, "md5=invalid, SHA-256=" + ABC_DIGEST);
+
+        // verify
+        assertNotNull(stagedAsset);
+    }
+
+    @Test
+    public void test_stage_mismatchedDigest_fails() {
+        // test
+        final StreamingAssetWriter.StagedAsset stagedAsset =
+                streamingAssetWriter.stage(ASSET_URL, streamOf("abd"), 3, "sha-256=" + ABC_DIGEST);
+
+        // verify
+        assertNull(stagedAsset);
+        assertEquals(
+                1,
+                streamingAssetWriter.getFailedCount(
+                        StreamingAssetWriter.FailureReason.DIGEST_MISMATCH));
+    }
+
+    @Test
+    public void test_stage_missingStagingLocation_fails() {
+        // setup
+        streamingAssetWriter = new StreamingAssetWriter(null);
+
+        // test
+        final StreamingAssetWriter.StagedAsset stagedAsset =
+                streamingAssetWriter.stage(ASSET_URL, streamOf("abc"), 3, null);
+
+        // verify
+        assertNull(stagedAsset);
+        assertEquals(
+                1,
+                streamingAssetWriter.getFailedCount(StreamingAssetWriter.FailureReason.IO_ERROR));
+    }
+
+    @Test
+    public void test_encodeBase64() {
+        assertEquals("", StreamingAssetWriter.encodeBase64(new byte[0]));
+        assertEquals("YQ==", StreamingAssetWriter.encodeBase64(bytesOf("a")));
+        assertEquals("YWI=", StreamingAssetWriter.encodeBase64(bytesOf("ab")));
+        assertEquals("aGVsbG8=", StreamingAssetWriter.encodeBase64(bytesOf("hello")));
+    }
+
+    @Test
+    public void test_parseSha256Digest() {
+        assertEquals(ABC_DIGEST, StreamingAssetWriter.parseSha256Digest("sha-256=" + ABC_DIGEST));
+        assertNull(StreamingAssetWriter.parseSha256Digest("md5=HUXZLQLMuI/KZ5KDcJPcOA=="));
+        assertNull(StreamingAssetWriter.parseSha256Digest(null));
+    }
+
+    private static InputStream streamOf(final String content) {
+        return new ByteArrayInputStream(bytesOf(content));
+    }
+
+    private static byte[] bytesOf(final String content) {
+        return content.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String read(final InputStream inputStream) throws IOException {
+        try (InputStream stream = inputStream) {
+            final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+            final byte[] buffer = new byte[64];
+            int count;
+            while ((count = stream.read(buffer)) != -1) {
+                outputStream.write(buffer, 0, count);
+            }
+            return new String(outputStream.toByteArray(), StandardCharsets.UTF_8);
+        }
+    }
+
+    private static void deleteRecursively(final File file) {
+        final File[] children = file.listFiles();
+        if (children != null) {
+            for (final File child : children) {
+                deleteRecursively(child);
+            }
+        }
+        file.delete();
+    }
+}
@@ -19,7 +19,11 @@ public class MessagingTestConstants {
     static final String FRIENDLY_EXTENSION_NAME = "Messaging";
     static final String CACHE_NAME = "com.adobe.messaging.test.cache";
     static final String PROPOSITIONS_CACHE_SUBDIRECTORY = "propositions";
+    static final String PROPOSITIONS_INDEX_CACHE_KEY = "propositions.index";
+    static final String PROPOSITIONS_INDEX_BACKUP_CACHE_KEY = "propositions.index.backup";
+    static final String PROPOSITIONS_SURFACE_CACHE_KEY_PREFIX = "propositions.surface.";
     static final String IMAGES_CACHE_SUBDIRECTORY = "images";
+    static final String IMAGES_USAGE_CACHE_KEY = "images.usage";
     static final String CACHE_BASE_DIR = "messaging";
     static final String EXTENSION_NAME = "com.adobe.messaging";
     static final String METADATA_PATH = "pathToFile";
@@ -167,6 +171,14 @@ public class MessagingTestConstants {
             }
         }
 
+        public static final class Lifecycle {
+            public static final String LIFECYCLE_ACTION_KEY = "action";
+            public static final String LIFECYCLE_PAUSE = "pause";
+
+            private Lifecycle() {
+            }
+        }
+
         public static final class Messaging {
             public static final String TRACK_INFO_KEY_EVENT_TYPE = "eventType";
             public static final String TRACK_INFO_KEY_MESSAGE_ID = "messageId";